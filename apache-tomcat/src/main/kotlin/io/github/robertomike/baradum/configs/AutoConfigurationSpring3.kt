@@ -4,6 +4,11 @@ import io.github.robertomike.baradum.core.Baradum
 import io.github.robertomike.baradum.requests.ApacheTomcatRequest
 import jakarta.servlet.http.HttpServletRequest
 
+/**
+ * Set the global request of Baradum.
+ * @deprecated The global request is shared by all the threads, use [BaradumRequestFilter] to bind it per request
+ */
+@Deprecated("The global request is shared by all the threads, use BaradumRequestFilter instead")
 class AutoConfigurationSpring3(request: HttpServletRequest) {
     init {
         Baradum.request = ApacheTomcatRequest(request)
@@ -0,0 +1,36 @@
+package io.github.robertomike.baradum.configs
+
+import io.github.robertomike.baradum.core.requests.RequestContext
+import io.github.robertomike.baradum.requests.ApacheTomcatRequest
+import jakarta.servlet.Filter
+import jakarta.servlet.FilterChain
+import jakarta.servlet.ServletRequest
+import jakarta.servlet.ServletResponse
+import jakarta.servlet.http.HttpServletRequest
+
+/**
+ * Servlet filter binding the current request to Baradum for the duration of the request.
+ * Unlike the global request, it's safe with concurrent requests and virtual threads.
+ *
+ * With Spring Boot, register it as a bean:
+ * ```java
+ * @Bean
+ * public FilterRegistrationBean<BaradumRequestFilter> baradumRequestFilter() {
+ *     return new FilterRegistrationBean<>(new BaradumRequestFilter());
+ * }
+ * ```
+ *
+ * For async servlets, propagate the request to the async task with RequestContext.wrap().
+ */
+class BaradumRequestFilter : Filter {
+    override fun doFilter(request: ServletRequest, response: ServletResponse, chain: FilterChain) {
+        if (request !is HttpServletRequest) {
+            chain.doFilter(request, response)
+            return
+        }
+
+        RequestContext.runWith(ApacheTomcatRequest(request)) {
+            chain.doFilter(request, response)
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.github.robertomike.baradum.requests
 
 import io.github.robertomike.baradum.core.requests.BasicRequest
 import jakarta.servlet.http.HttpServletRequest
+import java.io.InputStream
 import java.util.stream.Collectors
 
 class ApacheTomcatRequest(request: HttpServletRequest) : BasicRequest<HttpServletRequest>(request) {
@@ -14,4 +15,11 @@ class ApacheTomcatRequest(request: HttpServletRequest) : BasicRequest<HttpServle
 
     override val json: String
         get() = request.reader.lines().collect(Collectors.joining(System.lineSeparator()))
+
+    /**
+     * The body is parsed straight from the servlet stream
+     */
+    override fun openBody(): InputStream? {
+        return request.inputStream
+    }
 }
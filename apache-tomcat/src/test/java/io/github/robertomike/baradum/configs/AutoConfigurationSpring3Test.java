@@ -9,6 +9,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 
+/**
+ * AutoConfigurationSpring3 is deprecated in favour of BaradumRequestFilter (see BaradumRequestFilterTest),
+ * but it is still the auto-configuration registered for Spring Boot, so applications keep loading it.
+ */
+@SuppressWarnings("deprecation")
 @ExtendWith(MockitoExtension.class)
 class AutoConfigurationSpring3Test {
 
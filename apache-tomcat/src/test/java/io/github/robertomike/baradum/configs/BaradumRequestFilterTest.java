@@ -0,0 +1,98 @@
+package io.github.robertomike.baradum.configs;
+
+import io.github.robertomike.baradum.core.Baradum;
+import io.github.robertomike.baradum.core.enums.BaradumOperator;
+import io.github.robertomike.baradum.core.enums.WhereOperator;
+import io.github.robertomike.baradum.core.filters.ExactFilter;
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder;
+import io.github.robertomike.baradum.core.requests.RequestContext;
+import io.github.robertomike.baradum.requests.ApacheTomcatRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BaradumRequestFilterTest {
+
+    private final BaradumRequestFilter filter = new BaradumRequestFilter();
+
+    private HttpServletRequest createRequest(String name) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getParameter("name")).thenReturn(name);
+        when(request.getMethod()).thenReturn("GET");
+        return request;
+    }
+
+    @Test
+    void bindsTheRequestDuringTheChain() throws Exception {
+        HttpServletRequest request = createRequest("John");
+        List<Object> bound = new ArrayList<>();
+
+        filter.doFilter(request, mock(HttpServletResponse.class), (req, res) -> bound.add(RequestContext.current()));
+
+        assertEquals(1, bound.size());
+        assertInstanceOf(ApacheTomcatRequest.class, bound.get(0));
+        assertSame(request, ((ApacheTomcatRequest) bound.get(0)).getRequest());
+        assertNull(RequestContext.current(), "The request should be unbound after the chain");
+    }
+
+    @Test
+    void passesNonHttpRequestsThrough() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        ServletRequest request = mock(ServletRequest.class);
+
+        filter.doFilter(request, mock(HttpServletResponse.class), chain);
+
+        verify(chain).doFilter(eq(request), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentRequestsDoNotLeakFilters() throws Exception {
+        int requests = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                String name = "user" + i;
+                tasks.add(() -> {
+                    HttpServletRequest request = createRequest(name);
+                    QueryBuilder<Object> queryBuilder = mock(QueryBuilder.class);
+
+                    filter.doFilter(request, mock(HttpServletResponse.class), (req, res) -> {
+                        // Give other requests the chance to interleave
+                        if (ThreadLocalRandom.current().nextBoolean()) {
+                            Thread.yield();
+                        }
+                        new Baradum<>(queryBuilder)
+                                .allowedFilters(new ExactFilter("name"))
+                                .get();
+                    });
+
+                    verify(queryBuilder).where("name", BaradumOperator.EQUAL, name, WhereOperator.AND);
+                    verify(queryBuilder, times(1)).where(any(), any(), any(), any());
+                    return RequestContext.current() == null;
+                });
+            }
+
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertTrue(result.get(), "The request should be unbound once it's done");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.robertomike.baradum.requests;
 
 import io.github.robertomike.baradum.core.exceptions.BaradumException;
+import io.github.robertomike.baradum.core.requests.BodyLimits;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,11 +12,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -99,4 +106,56 @@ class ApacheTomcatRequestTest {
         assertNotNull(result);
         assertEquals("value", result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadBodyFromStream() throws IOException {
+        var json = "{\"filters\":[{\"field\":\"id\",\"value\":\"1\"}],\"sorts\":[{\"field\":\"name\",\"sort\":\"DESC\"}]}";
+        when(request.getInputStream()).thenReturn(new TestServletInputStream(json));
+
+        var body = apacheTomcatRequest.getBody();
+
+        assertEquals(1, body.getFilters().size());
+        assertEquals("id", body.getFilters().get(0).getField());
+        assertEquals(1, body.getSorts().size());
+        verify(request, never()).getReader();
+    }
+
+    @Test
+    void rejectOversizedBody() throws IOException {
+        var json = "{\"filters\":[{\"field\":\"id\",\"value\":\"" + "x".repeat(2000) + "\"}]}";
+        when(request.getInputStream()).thenReturn(new TestServletInputStream(json));
+
+        var exception = assertThrows(
+                BaradumException.class,
+                () -> apacheTomcatRequest.getBody(new BodyLimits(1000))
+        );
+        assertEquals("The body request exceeds the limit of 1000 bytes", exception.getMessage());
+    }
+
+    static class TestServletInputStream extends ServletInputStream {
+        private final ByteArrayInputStream input;
+
+        TestServletInputStream(String body) {
+            input = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean isFinished() {
+            return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+
+        @Override
+        public int read() {
+            return input.read();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+plugins {
+    kotlin("jvm") version "2.0.21"
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "io.github.robertomike"
+version = "3.0.0"
+
+repositories {
+    mavenLocal()
+    mavenCentral()
+}
+
+var jdkCompileVersion = 17
+var jmhLibraryVersion = "1.37"
+
+dependencies {
+    jmh(project(":baradum-core"))
+    jmh(project(":baradum-querydsl"))
+    jmh(project(":baradum-hefesto"))
+    jmh(project(":baradum-columnar"))
+    jmh(project(":baradum-jdbc"))
+
+    // In-memory database for the query construction suites
+    jmh("com.h2database:h2:2.2.224")
+    jmh("org.hibernate.orm:hibernate-core:6.2.7.Final")
+    jmh("jakarta.persistence:jakarta.persistence-api:3.1.0")
+
+    jmh("org.openjdk.jmh:jmh-core:$jmhLibraryVersion")
+}
+
+kotlin {
+    jvmToolchain(jdkCompileVersion)
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(jdkCompileVersion))
+    }
+}
+
+jmh {
+    jmhVersion.set(jmhLibraryVersion)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Allocation rate per operation is reported next to the timings, regressions show in both
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+
+    // Run a single suite with: ./gradlew :baradum-benchmarks:jmh -Pjmh.includes=Sortable
+    if (project.hasProperty("jmh.includes")) {
+        includes.set(listOf(project.property("jmh.includes").toString()))
+    }
+}
+
+/**
+ * Store the last results as the baseline that later runs are compared against.
+ */
+tasks.register<Copy>("jmhBaseline") {
+    description = "Copy the last JMH results to baselines/baseline.json"
+    from(layout.buildDirectory.file("results/jmh/results.json"))
+    into(layout.projectDirectory.dir("baselines"))
+    rename { "baseline.json" }
+}
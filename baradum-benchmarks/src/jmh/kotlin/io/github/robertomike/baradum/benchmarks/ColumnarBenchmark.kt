@@ -0,0 +1,108 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.columnar.ColumnarStore
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.memory.InMemoryQueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * ColumnarStore queries on low-cardinality and range filters, next to the in-memory QueryBuilder scanning
+ * the same entities (`inMemory*`).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = ["-Xmx12g"])
+open class ColumnarBenchmark {
+
+    enum class Status { ACTIVE, TRIAL, SUSPENDED, CLOSED }
+
+    data class Account(val id: Long, val status: Status, val region: String, val age: Int, val balance: Double)
+
+    @Param("1000000", "10000000")
+    @JvmField
+    var rows: Int = 0
+
+    private lateinit var accounts: List<Account>
+    private lateinit var store: ColumnarStore<Account>
+    private var upserts = 0L
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val random = Random(42)
+        val regions = (0 until 50).map { "region-$it" }
+
+        accounts = (0 until rows).map {
+            Account(
+                it.toLong(),
+                Status.entries[random.nextInt(Status.entries.size)],
+                regions[random.nextInt(regions.size)],
+                random.nextInt(18, 90),
+                random.nextDouble(0.0, 100_000.0)
+            )
+        }
+        store = ColumnarStore.builder(Account::class.java, "id")
+            .index("status", "region")
+            .sorted("age", "balance")
+            .build(accounts)
+    }
+
+    @Benchmark
+    fun countEqualAndIn(): Long {
+        return store.query()
+            .where("status", BaradumOperator.EQUAL, "ACTIVE")
+            .where("region", BaradumOperator.IN, listOf("region-1", "region-2", "region-3"))
+            .count()
+    }
+
+    @Benchmark
+    fun pageNotInAndRange(): Page<Account> {
+        return store.query()
+            .where("status", BaradumOperator.NOT_IN, listOf("CLOSED", "SUSPENDED"))
+            .where("age", BaradumOperator.BETWEEN, listOf(30, 40))
+            .page(20, 0)
+    }
+
+    @Benchmark
+    fun pageSortedByRange(): Page<Account> {
+        return store.query()
+            .where("region", BaradumOperator.EQUAL, "region-7")
+            .orderBy("balance", SortDirection.DESC)
+            .page(20, 0)
+    }
+
+    /**
+     * A write followed by a range query, the sorted columns test the pending rows one by one.
+     * The writes rotate over a fixed set of ids after the loaded ones, so the store doesn't grow during the run.
+     */
+    @Benchmark
+    fun upsertThenCount(): Long {
+        val id = rows + (upserts++ % UPSERTED_IDS)
+        store.upsert(Account(id, Status.TRIAL, "region-0", 25, 10.0))
+        return store.query().where("age", BaradumOperator.LESS, 25).count()
+    }
+
+    @Benchmark
+    fun inMemoryCountEqualAndIn(): Long {
+        return InMemoryQueryBuilder(accounts, Account::class.java)
+            .where("status", BaradumOperator.EQUAL, "ACTIVE")
+            .where("region", BaradumOperator.IN, listOf("region-1", "region-2", "region-3"))
+            .count()
+    }
+
+    @Benchmark
+    fun inMemoryPageNotInAndRange(): Page<Account> {
+        return InMemoryQueryBuilder(accounts, Account::class.java)
+            .where("status", BaradumOperator.NOT_IN, listOf("CLOSED", "SUSPENDED"))
+            .where("age", BaradumOperator.BETWEEN, listOf(30, 40))
+            .page(20, 0)
+    }
+
+    companion object {
+        private const val UPSERTED_IDS = 1024
+    }
+}
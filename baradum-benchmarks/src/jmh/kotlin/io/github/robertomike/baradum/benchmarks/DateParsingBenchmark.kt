@@ -0,0 +1,52 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.LegacyDateParsing
+import io.github.robertomike.baradum.core.filters.DateFilter
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * DateFilter parsing compared with the previous implementation (`legacy*`),
+ * which compiled the pattern or built a SimpleDateFormat on every value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class DateParsingBenchmark {
+
+    private val isoDate = DateFilter("createdAt")
+    private val isoDateTime = DateFilter.forLocalDateTime("createdAt")
+    private val patternDate = DateFilter.forLocalDate("createdAt", "dd/MM/yyyy")
+    private val utilDate = DateFilter.forUtilDate("createdAt")
+    private val patternUtilDate = DateFilter.forUtilDate("createdAt", "dd/MM/yyyy")
+
+    @Benchmark
+    fun isoDate(): Any = isoDate.transform("2024-01-15")
+
+    @Benchmark
+    fun legacyIsoDate(): Any = LegacyDateParsing.parseLocalDate("2024-01-15", null)
+
+    @Benchmark
+    fun isoDateTime(): Any = isoDateTime.transform("2024-01-15T10:30:45")
+
+    @Benchmark
+    fun legacyIsoDateTime(): Any = LegacyDateParsing.parseLocalDateTime("2024-01-15T10:30:45", null)
+
+    @Benchmark
+    fun patternDate(): Any = patternDate.transform("15/01/2024")
+
+    @Benchmark
+    fun legacyPatternDate(): Any = LegacyDateParsing.parseLocalDate("15/01/2024", "dd/MM/yyyy")
+
+    @Benchmark
+    fun utilDate(): Any = utilDate.transform("2024-01-15")
+
+    @Benchmark
+    fun legacyUtilDate(): Any = LegacyDateParsing.parseUtilDate("2024-01-15", null)
+
+    @Benchmark
+    fun patternUtilDate(): Any = patternUtilDate.transform("15/01/2024")
+
+    @Benchmark
+    fun legacyPatternUtilDate(): Any = LegacyDateParsing.parseUtilDate("15/01/2024", "dd/MM/yyyy")
+}
@@ -0,0 +1,77 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.NoopQueryBuilder
+import io.github.robertomike.baradum.core.filters.ComparisonFilter
+import io.github.robertomike.baradum.core.filters.DateFilter
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.InFilter
+import io.github.robertomike.baradum.core.filters.SearchFilter
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * filterByParam of each core filter with a representative value, parsing included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class FilterBenchmark {
+
+    private val builder = NoopQueryBuilder()
+
+    private val exactFilter = ExactFilter("name")
+    private val exactNumberFilter = ExactFilter("age")
+    private val dateFilter = DateFilter("createdAt")
+    private val datePatternFilter = DateFilter("createdAt", pattern = "dd/MM/yyyy")
+    private val searchFilter = SearchFilter("search", "name", "email", "country")
+    private val inFilter = InFilter("country")
+    private val comparisonFilter = ComparisonFilter("age")
+
+    @Benchmark
+    fun exactFilter(): Any? {
+        exactFilter.filterByParam(builder, "John")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun exactFilterNumber(): Any? {
+        exactNumberFilter.filterByParam(builder, "42")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun dateFilter(): Any? {
+        dateFilter.filterByParam(builder, ">=2024-01-15")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun dateFilterRange(): Any? {
+        dateFilter.filterByParam(builder, "2024-01-01|2024-12-31")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun dateFilterPattern(): Any? {
+        datePatternFilter.filterByParam(builder, "15/01/2024")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun searchFilter(): Any? {
+        searchFilter.filterByParam(builder, "john")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun inFilter(): Any? {
+        inFilter.filterByParam(builder, "USA,UK,Canada,Spain,Italy")
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun comparisonFilter(): Any? {
+        comparisonFilter.filterByParam(builder, ">=25")
+        return builder.lastValue
+    }
+}
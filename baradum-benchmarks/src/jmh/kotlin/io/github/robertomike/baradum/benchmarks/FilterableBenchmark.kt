@@ -0,0 +1,57 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.MapRequest
+import io.github.robertomike.baradum.benchmarks.support.NoopQueryBuilder
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.Filterable
+import io.github.robertomike.baradum.core.requests.FilterRequest
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Filterable.apply over the three request shapes: params map, BasicRequest and body filters.
+ * Half of the allowed filters receive a value, like a typical listing request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class FilterableBenchmark {
+
+    @Param("5", "20", "50")
+    @JvmField
+    var filters: Int = 0
+
+    private val builder = NoopQueryBuilder()
+    private lateinit var filterable: Filterable<NoopQueryBuilder>
+    private lateinit var params: Map<String, String>
+    private lateinit var request: MapRequest
+    private lateinit var bodyFilters: List<FilterRequest>
+
+    @Setup
+    fun setup() {
+        filterable = Filterable()
+        filterable.addFilters((0 until filters).map { ExactFilter("field$it") })
+
+        params = (0 until filters step 2).associate { "field$it" to "value$it" }
+        request = MapRequest(params)
+        bodyFilters = params.map { (field, value) -> FilterRequest(field, value) }
+    }
+
+    @Benchmark
+    fun applyParamsMap(): Int {
+        filterable.apply(builder.reset(), params)
+        return builder.wheres
+    }
+
+    @Benchmark
+    fun applyRequest(): Int {
+        filterable.apply(builder.reset(), request)
+        return builder.wheres
+    }
+
+    @Benchmark
+    fun applyBodyRequest(): Int {
+        filterable.apply(builder.reset(), bodyFilters)
+        return builder.wheres
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.BenchmarkDatabase
+import io.github.robertomike.baradum.benchmarks.support.BenchmarkUser
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.filters.DateFilter
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.core.filters.SearchFilter
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.hefesto.HefestoQueryBuilder
+import io.github.robertomike.hefesto.configs.HefestoAutoconfiguration
+import jakarta.persistence.EntityManager
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+import io.github.robertomike.baradum.hefesto.Baradum as HefestoBaradum
+
+/**
+ * Query construction and execution with HefestoQueryBuilder against the in-memory H2 database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class HefestoQueryBenchmark {
+
+    private val params = mapOf(
+        "country" to "USA",
+        "age" to "30",
+        "search" to "user1",
+        "createdAt" to "2020-06-01|2022-06-01",
+        "sort" to "-age,name"
+    )
+
+    private lateinit var entityManager: EntityManager
+
+    @Setup(Level.Trial)
+    fun setup() {
+        entityManager = BenchmarkDatabase.entityManagerFactory.createEntityManager()
+        HefestoAutoconfiguration(entityManager)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        entityManager.close()
+    }
+
+    @Setup(Level.Iteration)
+    fun clear() {
+        // Do not let the persistence context grow across iterations
+        entityManager.clear()
+    }
+
+    private fun createBaradum(): Baradum<BenchmarkUser, HefestoQueryBuilder<BenchmarkUser>> {
+        return HefestoBaradum.make(BenchmarkUser::class.java)
+            .allowedFilters(
+                ExactFilter("country"),
+                GreaterFilter("age", orEqual = true),
+                SearchFilter("search", "name", "email"),
+                DateFilter("createdAt")
+            )
+            .allowedSort("age", "name")
+            .withParams(params)
+    }
+
+    @Benchmark
+    fun buildQuery(): Any? {
+        return HefestoQueryBuilder(BenchmarkUser::class.java)
+            .where("country", BaradumOperator.EQUAL, "USA")
+            .where("age", BaradumOperator.GREATER_OR_EQUAL, 30)
+            .where("name", BaradumOperator.LIKE, "%user1%")
+            .orderBy("age", SortDirection.DESC)
+            .orderBy("name", SortDirection.ASC)
+            .getWhereConditions()
+    }
+
+    @Benchmark
+    fun get(): List<BenchmarkUser> {
+        return createBaradum().get()
+    }
+
+    @Benchmark
+    fun page(): Page<BenchmarkUser> {
+        return createBaradum().page(20, 0)
+    }
+}
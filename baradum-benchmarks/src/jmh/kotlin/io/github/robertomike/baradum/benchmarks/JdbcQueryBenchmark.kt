@@ -0,0 +1,85 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.BenchmarkDatabase
+import io.github.robertomike.baradum.benchmarks.support.BenchmarkUser
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.filters.DateFilter
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.core.filters.SearchFilter
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.jdbc.JdbcBaradum
+import io.github.robertomike.baradum.jdbc.JdbcQueryBuilder
+import io.github.robertomike.baradum.jdbc.JdbcTable
+import org.h2.jdbcx.JdbcDataSource
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+import javax.sql.DataSource
+
+/**
+ * Query construction and execution with JdbcQueryBuilder against the in-memory H2 database,
+ * with the same params and filters as [QueryDslQueryBenchmark].
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class JdbcQueryBenchmark {
+
+    private val params = mapOf(
+        "country" to "USA",
+        "age" to "30",
+        "search" to "user1",
+        "createdAt" to "2020-06-01|2022-06-01",
+        "sort" to "-age,name"
+    )
+
+    private val users = JdbcTable("users", BenchmarkUser::class.java)
+
+    private lateinit var dataSource: DataSource
+
+    @Setup(Level.Trial)
+    fun setup() {
+        // Creates and seeds the users table
+        BenchmarkDatabase.entityManagerFactory
+
+        dataSource = JdbcDataSource().apply {
+            setURL("jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1")
+            user = "sa"
+        }
+    }
+
+    private fun createBaradum(): Baradum<BenchmarkUser, JdbcQueryBuilder<BenchmarkUser>> {
+        return JdbcBaradum.make(dataSource, users)
+            .allowedFilters(
+                ExactFilter("country"),
+                GreaterFilter("age", orEqual = true),
+                SearchFilter("search", "name", "email"),
+                DateFilter("createdAt")
+            )
+            .allowedSort("age", "name")
+            .withParams(params)
+    }
+
+    @Benchmark
+    fun buildQuery(): Any? {
+        return JdbcQueryBuilder(dataSource, users)
+            .where("country", BaradumOperator.EQUAL, "USA")
+            .where("age", BaradumOperator.GREATER_OR_EQUAL, 30)
+            .where("name", BaradumOperator.LIKE, "%user1%")
+            .orderBy("age", SortDirection.DESC)
+            .orderBy("name", SortDirection.ASC)
+            .getWhereConditions()
+    }
+
+    @Benchmark
+    fun get(): List<BenchmarkUser> {
+        return createBaradum().get()
+    }
+
+    @Benchmark
+    fun page(): Page<BenchmarkUser> {
+        return createBaradum().page(20, 0)
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.MapRequest
+import io.github.robertomike.baradum.core.requests.BodyRequest
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * BasicRequest.getBody() parsing a POST body, a new request is created per operation like in a server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+open class RequestBodyBenchmark {
+
+    @Param("1", "10", "100")
+    @JvmField
+    var filters: Int = 0
+
+    private lateinit var json: String
+
+    @Setup
+    fun setup() {
+        val filterJson = (0 until filters).joinToString(",") {
+            """{"field":"field$it","value":"value$it","operator":"EQUAL","type":"AND"}"""
+        }
+        json = """{"filters":[$filterJson],"sorts":[{"field":"name","sort":"DESC"}]}"""
+    }
+
+    @Benchmark
+    fun getBody(): BodyRequest {
+        return MapRequest(emptyMap(), json, "POST").getBody()
+    }
+}
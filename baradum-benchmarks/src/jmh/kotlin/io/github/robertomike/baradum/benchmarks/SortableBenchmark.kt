@@ -0,0 +1,46 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.MapRequest
+import io.github.robertomike.baradum.benchmarks.support.NoopQueryBuilder
+import io.github.robertomike.baradum.core.sorting.AppliedSort
+import io.github.robertomike.baradum.core.sorting.Sortable
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sortable.apply resolving three requested sorts against the allowed ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class SortableBenchmark {
+
+    @Param("5", "20", "50")
+    @JvmField
+    var sorts: Int = 0
+
+    private val builder = NoopQueryBuilder()
+    private lateinit var sortable: Sortable<NoopQueryBuilder>
+    private lateinit var params: Map<String, String>
+    private lateinit var request: MapRequest
+
+    @Setup
+    fun setup() {
+        sortable = Sortable()
+        sortable.addSorts(*(0 until sorts).map { "field$it" }.toTypedArray())
+
+        // The requested sorts are the last allowed ones, the worst case for the lookup
+        params = mapOf("sort" to "field${sorts - 1},-field${sorts - 2},field${sorts - 3}")
+        request = MapRequest(params)
+    }
+
+    @Benchmark
+    fun applyParamsMap(): List<AppliedSort> {
+        return sortable.applySorts(builder.reset(), params)
+    }
+
+    @Benchmark
+    fun applyRequest(): List<AppliedSort> {
+        return sortable.applySorts(builder.reset(), request)
+    }
+}
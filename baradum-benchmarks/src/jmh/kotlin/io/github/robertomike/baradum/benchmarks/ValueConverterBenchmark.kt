@@ -0,0 +1,44 @@
+package io.github.robertomike.baradum.benchmarks
+
+import io.github.robertomike.baradum.benchmarks.support.NoopQueryBuilder
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.core.utils.ValueConverter
+import org.openjdk.jmh.annotations.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Value classification of ExactFilter and GreaterFilter.
+ *
+ * For `true`, `42` and `USA` the expected `gc.alloc.rate.norm` is ~0 B/op:
+ * booleans and small integers are cached boxes and text is returned as is.
+ * Bigger numbers only allocate their box, decimals also pay for `toDouble`.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class ValueConverterBenchmark {
+
+    @Param("true", "42", "USA", "12345678901", "29.99")
+    @JvmField
+    var value: String = ""
+
+    private val builder = NoopQueryBuilder()
+    private val exactFilter = ExactFilter("field")
+    private val greaterFilter = GreaterFilter("field")
+
+    @Benchmark
+    fun convert(): Any = ValueConverter.convert(value)
+
+    @Benchmark
+    fun exactFilter(): Any? {
+        exactFilter.filterByParam(builder, value)
+        return builder.lastValue
+    }
+
+    @Benchmark
+    fun greaterFilter(): Any? {
+        greaterFilter.filterByParam(builder, value)
+        return builder.lastValue
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.robertomike.baradum.benchmarks.support
+
+import jakarta.persistence.EntityManagerFactory
+import jakarta.persistence.Persistence
+import java.time.LocalDate
+
+/**
+ * In-memory H2 database shared by the query construction suites, seeded once per fork.
+ */
+object BenchmarkDatabase {
+    const val USERS = 1_000
+
+    private val countries = listOf("USA", "Canada", "UK", "Spain", "Italy")
+
+    val entityManagerFactory: EntityManagerFactory by lazy {
+        Persistence.createEntityManagerFactory("benchmark-pu").also { seed(it) }
+    }
+
+    private fun seed(factory: EntityManagerFactory) {
+        val entityManager = factory.createEntityManager()
+        entityManager.transaction.begin()
+
+        (1..USERS).forEach {
+            entityManager.persist(BenchmarkUser().apply {
+                name = "User $it"
+                email = "user$it@example.com"
+                age = 18 + it % 60
+                country = countries[it % countries.size]
+                status = BenchmarkStatus.entries[it % BenchmarkStatus.entries.size]
+                createdAt = LocalDate.of(2020, 1, 1).plusDays(it.toLong())
+                salary = 30_000.0 + it * 10
+            })
+        }
+
+        entityManager.transaction.commit()
+        entityManager.close()
+    }
+}
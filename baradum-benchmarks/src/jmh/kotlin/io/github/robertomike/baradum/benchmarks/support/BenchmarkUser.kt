@@ -0,0 +1,39 @@
+package io.github.robertomike.baradum.benchmarks.support
+
+import io.github.robertomike.hefesto.models.BaseModel
+import jakarta.persistence.*
+import java.time.LocalDate
+
+@Entity
+@Table(name = "users")
+class BenchmarkUser : BaseModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    var id: Long? = null
+
+    @Column(name = "name", nullable = false)
+    var name: String = ""
+
+    @Column(name = "email", nullable = false)
+    var email: String = ""
+
+    @Column(name = "age")
+    var age: Int = 0
+
+    @Column(name = "country")
+    var country: String? = null
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    var status: BenchmarkStatus = BenchmarkStatus.ACTIVE
+
+    @Column(name = "created_at")
+    var createdAt: LocalDate = LocalDate.now()
+
+    @Column(name = "salary")
+    var salary: Double? = null
+}
+
+enum class BenchmarkStatus {
+    ACTIVE, INACTIVE, PENDING
+}
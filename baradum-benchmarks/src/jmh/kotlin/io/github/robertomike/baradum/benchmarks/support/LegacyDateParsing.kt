@@ -0,0 +1,30 @@
+package io.github.robertomike.baradum.benchmarks.support
+
+import java.text.SimpleDateFormat
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.format.DateTimeFormatter
+import java.util.Date
+
+/**
+ * DateFilter parsing as it was before the formatters were cached, kept as the reference to compare with.
+ */
+object LegacyDateParsing {
+
+    fun parseLocalDate(value: String, pattern: String?): LocalDate {
+        val formatter = pattern?.let { DateTimeFormatter.ofPattern(it) }
+            ?: DateTimeFormatter.ISO_LOCAL_DATE
+        return LocalDate.parse(value, formatter)
+    }
+
+    fun parseLocalDateTime(value: String, pattern: String?): LocalDateTime {
+        val formatter = pattern?.let { DateTimeFormatter.ofPattern(it) }
+            ?: DateTimeFormatter.ISO_LOCAL_DATE_TIME
+        return LocalDateTime.parse(value, formatter)
+    }
+
+    fun parseUtilDate(value: String, pattern: String?): Date {
+        val format = SimpleDateFormat(pattern ?: "yyyy-MM-dd")
+        return format.parse(value)
+    }
+}
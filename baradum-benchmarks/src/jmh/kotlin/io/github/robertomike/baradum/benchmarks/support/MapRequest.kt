@@ -0,0 +1,14 @@
+package io.github.robertomike.baradum.benchmarks.support
+
+import io.github.robertomike.baradum.core.requests.BasicRequest
+
+/**
+ * Request backed by a map of query params and a fixed JSON body
+ */
+class MapRequest(
+    private val params: Map<String, String>,
+    override val json: String = "{}",
+    override val method: String = "GET"
+) : BasicRequest<Map<String, String>>(params) {
+    override fun findParamByName(name: String): String? = params[name]
+}
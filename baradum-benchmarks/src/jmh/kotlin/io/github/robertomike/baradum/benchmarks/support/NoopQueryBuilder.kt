@@ -0,0 +1,45 @@
+package io.github.robertomike.baradum.benchmarks.support
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import java.util.*
+
+/**
+ * QueryBuilder that only counts the calls it receives, so the suites measure Baradum and not a backend.
+ * The counters are read by the benchmarks to keep the calls from being eliminated.
+ */
+class NoopQueryBuilder : QueryBuilder<Any> {
+    var wheres = 0
+    var orders = 0
+    var lastValue: Any? = null
+
+    fun reset(): NoopQueryBuilder {
+        wheres = 0
+        orders = 0
+        lastValue = null
+        return this
+    }
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<Any> {
+        wheres++
+        lastValue = value
+        return this
+    }
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<Any> {
+        orders++
+        return this
+    }
+
+    override fun select(vararg fields: String): QueryBuilder<Any> = this
+    override fun addSelect(vararg fields: String): QueryBuilder<Any> = this
+    override fun limit(limit: Int): QueryBuilder<Any> = this
+    override fun offset(offset: Long): QueryBuilder<Any> = this
+    override fun get(): List<Any> = emptyList()
+    override fun page(limit: Int, offset: Long): Page<Any> = Page(emptyList(), 0, limit, offset)
+    override fun findFirst(): Optional<Any> = Optional.empty()
+    override fun getWhereConditions(): Any? = null
+}
@@ -0,0 +1,47 @@
+package io.github.robertomike.baradum.benchmarks.support
+
+import com.querydsl.core.types.PathMetadataFactory
+import com.querydsl.core.types.dsl.DatePath
+import com.querydsl.core.types.dsl.EntityPathBase
+import com.querydsl.core.types.dsl.EnumPath
+import com.querydsl.core.types.dsl.NumberPath
+import com.querydsl.core.types.dsl.StringPath
+import java.time.LocalDate
+
+/**
+ * Q-class for [BenchmarkUser], written by hand to keep annotation processing out of the JMH source set.
+ * Fields are public so QueryDslQueryBuilder can resolve them by name, like the generated ones.
+ */
+class QBenchmarkUser(variable: String) : EntityPathBase<BenchmarkUser>(
+    BenchmarkUser::class.java,
+    PathMetadataFactory.forVariable(variable)
+) {
+    @JvmField
+    val id: NumberPath<Long> = createNumber("id", Long::class.javaObjectType)
+
+    @JvmField
+    val name: StringPath = createString("name")
+
+    @JvmField
+    val email: StringPath = createString("email")
+
+    @JvmField
+    val age: NumberPath<Int> = createNumber("age", Int::class.javaObjectType)
+
+    @JvmField
+    val country: StringPath = createString("country")
+
+    @JvmField
+    val status: EnumPath<BenchmarkStatus> = createEnum("status", BenchmarkStatus::class.java)
+
+    @JvmField
+    val createdAt: DatePath<LocalDate> = createDate("createdAt", LocalDate::class.java)
+
+    @JvmField
+    val salary: NumberPath<Double> = createNumber("salary", Double::class.javaObjectType)
+
+    companion object {
+        @JvmField
+        val benchmarkUser = QBenchmarkUser("benchmarkUser")
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import org.roaringbitmap.RoaringBitmap
+
+/**
+ * The values of a property for all the rows of a [ColumnarStore], by row id.
+ *
+ * Columns are only written under the write lock of the store and read under its read lock.
+ * The bitmaps returned by [select] may be the indexes themselves, they must not be modified.
+ */
+internal interface Column {
+    val field: String
+
+    /**
+     * Set the value of the row, replacing the previous one
+     */
+    fun set(row: Int, value: Any?)
+
+    /**
+     * Forget the value of a removed row
+     */
+    fun clear(row: Int)
+
+    /**
+     * Called after each write to the store, to keep the indexes compact
+     */
+    fun maintain() {}
+
+    /**
+     * The rows matching the condition, a superset of the live rows may be returned for the positive operators
+     * as the store intersects the result with them
+     */
+    fun select(operator: BaradumOperator, value: Any?, live: RoaringBitmap): RoaringBitmap
+
+    /**
+     * Compares the values of two rows, nulls first
+     */
+    fun compareRows(first: Int, second: Int): Int
+
+    /**
+     * Visits the given rows ordered by value, nulls first ascending and last descending, ties by row id.
+     * The visit stops when [visitor] returns false.
+     */
+    fun forEachInOrder(rows: RoaringBitmap, direction: SortDirection, visitor: (Int) -> Boolean)
+}
+
+/**
+ * The values of IN and NOT IN, any other value is a single value
+ */
+internal fun valuesOf(value: Any?): List<Any> {
+    return when (value) {
+        is Collection<*> -> value.filterNotNull()
+        is Array<*> -> value.filterNotNull()
+        null -> emptyList()
+        else -> listOf(value)
+    }
+}
+
+/**
+ * The two values of BETWEEN
+ */
+internal fun boundsOf(value: Any?): Pair<Any, Any> {
+    val values = valuesOf(value)
+    if (value !is Collection<*> && value !is Array<*> || values.size != 2) {
+        throw FilterException("BETWEEN requires a pair of values")
+    }
+    return values[0] to values[1]
+}
+
+internal fun required(operator: BaradumOperator, value: Any?): Any {
+    return value ?: throw FilterException("$operator requires a value")
+}
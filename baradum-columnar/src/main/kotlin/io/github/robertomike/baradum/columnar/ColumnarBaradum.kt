@@ -0,0 +1,32 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.BaradumSpec
+
+/**
+ * Factory for creating Baradum instances over a [ColumnarStore]
+ *
+ * Usage example:
+ * ```kotlin
+ * val baradum = ColumnarBaradum.make(store)
+ * baradum.allowedFilters(ExactFilter("status"), InFilter("country"))
+ * val page = baradum.page(20)
+ * ```
+ */
+object ColumnarBaradum {
+    /**
+     * Creates a new Baradum instance over the store
+     */
+    @JvmStatic
+    fun <T> make(store: ColumnarStore<T>): Baradum<T, ColumnarQueryBuilder<T>> {
+        return Baradum(store.query())
+    }
+
+    /**
+     * Creates a new Baradum instance over the store, bound to a precompiled spec
+     */
+    @JvmStatic
+    fun <T> make(spec: BaradumSpec<T, ColumnarQueryBuilder<T>>, store: ColumnarStore<T>): Baradum<T, ColumnarQueryBuilder<T>> {
+        return spec.on(store.query())
+    }
+}
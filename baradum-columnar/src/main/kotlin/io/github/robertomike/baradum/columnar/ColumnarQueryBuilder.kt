@@ -0,0 +1,203 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import org.roaringbitmap.RoaringBitmap
+import java.util.Optional
+
+/**
+ * QueryBuilder over a [ColumnarStore].
+ *
+ * Conditions are combined left as they are added, like the other backends, and evaluated on execution to a bitmap
+ * of rows, see [ColumnarStore]. Counts are the size of the bitmap. Sorting by one column walks the column
+ * in order and stops at the end of the page, sorting by more columns only sorts the ties of the first one.
+ * Like the in-memory builder, a null property only matches IS_NULL and nulls sort first ascending.
+ *
+ * Only the columns of the store can be filtered and sorted, other fields throw a BaradumException.
+ *
+ * Usage example:
+ * ```kotlin
+ * store.query()
+ *     .where("status", BaradumOperator.IN, listOf("ACTIVE", "TRIAL"))
+ *     .where("age", BaradumOperator.BETWEEN, listOf(18, 65))
+ *     .orderBy("age", SortDirection.DESC)
+ *     .page(20, 0)
+ * ```
+ */
+class ColumnarQueryBuilder<T> internal constructor(private val store: ColumnarStore<T>) : QueryBuilder<T> {
+    private var expression: FilterExpression? = null
+    private val sorts = ArrayList<Pair<Column, SortDirection>>()
+    private var limit: Int? = null
+    private var offset: Long? = null
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
+        store.column(field)
+        add(FilterExpression.condition(field, operator, value), whereOperator)
+        return this
+    }
+
+    /**
+     * Add the expression as a single condition, NOT is pushed down to the conditions on execution
+     */
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        add(expression, whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = true
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        if (keys.isNotEmpty()) {
+            add(FilterExpression.after(keys), WhereOperator.AND)
+        }
+        return this
+    }
+
+    private fun add(condition: FilterExpression, whereOperator: WhereOperator) {
+        val current = expression
+        expression = when {
+            current == null -> condition
+            whereOperator == WhereOperator.AND -> current and condition
+            else -> current or condition
+        }
+    }
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
+        sorts.add(store.column(field) to direction)
+        return this
+    }
+
+    /**
+     * The entities are returned whole, there is nothing to select
+     */
+    override fun select(vararg fields: String): QueryBuilder<T> = this
+
+    /**
+     * The entities are returned whole, there is nothing to select
+     */
+    override fun addSelect(vararg fields: String): QueryBuilder<T> = this
+
+    override fun limit(limit: Int): QueryBuilder<T> {
+        this.limit = limit
+        return this
+    }
+
+    override fun offset(offset: Long): QueryBuilder<T> {
+        this.offset = offset
+        return this
+    }
+
+    override fun get(): List<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            store.read { window(matches(), limit ?: Int.MAX_VALUE, offset ?: 0L) }
+        }
+    }
+
+    override fun page(limit: Int, offset: Long): Page<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            store.read {
+                val matches = matches()
+                Page(window(matches, limit, offset), matches.longCardinality, limit, offset)
+            }
+        }
+    }
+
+    override fun count(): Long {
+        return BaradumInstrumentation.time(ExecutionPhase.COUNT) {
+            store.read { matches().longCardinality }
+        }
+    }
+
+    override fun findFirst(): Optional<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            store.read { Optional.ofNullable(window(matches(), 1, 0).firstOrNull()) }
+        }
+    }
+
+    override fun getEntityClass(): Class<*> = store.entityClass
+
+    override fun getWhereConditions(): Any? = expression
+
+    /**
+     * The rows matching the conditions, to be used under the read lock and not modified
+     */
+    private fun matches(): RoaringBitmap {
+        val expression = this.expression ?: return store.live()
+        return RoaringBitmap.and(store.select(expression.canonical()), store.live())
+    }
+
+    /**
+     * The entities of the rows from offset to offset + limit in order
+     */
+    private fun window(matches: RoaringBitmap, limit: Int, offset: Long): List<T> {
+        if (limit <= 0 || offset >= matches.longCardinality) return emptyList()
+
+        val result = ArrayList<T>(minOf(limit.toLong(), matches.longCardinality - offset).toInt())
+        var skipped = 0L
+        val visitor = { row: Int ->
+            if (skipped < offset) {
+                skipped++
+            } else {
+                result.add(store.entity(row))
+            }
+            result.size < limit
+        }
+
+        when (sorts.size) {
+            0 -> {
+                // Row order, jumping straight to the first row of the window
+                val iterator = matches.intIterator
+                iterator.advanceIfNeeded(matches.select(offset.toInt()))
+                skipped = offset
+                while (iterator.hasNext() && visitor(iterator.next())) continue
+            }
+            1 -> sorts[0].let { (column, direction) -> column.forEachInOrder(matches, direction, visitor) }
+            else -> visitSorted(matches, visitor)
+        }
+        return result
+    }
+
+    /**
+     * Walks the first sort column in order, sorting each run of equal values by the other sorts
+     */
+    private fun visitSorted(matches: RoaringBitmap, visitor: (Int) -> Boolean) {
+        val (first, direction) = sorts[0]
+        val ties = sorts.drop(1)
+            .map { (column, order) -> comparator(column, order) }
+            .reduce { a, b -> a.thenComparing(b) }
+            .thenComparing(Comparator.naturalOrder<Int>())
+        val run = ArrayList<Int>()
+
+        fun flush(): Boolean {
+            run.sortWith(ties)
+            val complete = run.all(visitor)
+            run.clear()
+            return complete
+        }
+
+        var complete = true
+        first.forEachInOrder(matches, direction) { row ->
+            if (run.isNotEmpty() && first.compareRows(run[0], row) != 0) {
+                complete = flush()
+            }
+            run.add(row)
+            complete
+        }
+        if (complete) flush()
+    }
+
+    private fun comparator(column: Column, direction: SortDirection): Comparator<Int> {
+        return if (direction == SortDirection.ASC) {
+            Comparator { a, b -> column.compareRows(a, b) }
+        } else {
+            Comparator { a, b -> column.compareRows(b, a) }
+        }
+    }
+}
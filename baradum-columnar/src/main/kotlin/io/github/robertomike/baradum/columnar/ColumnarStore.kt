@@ -0,0 +1,226 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.utils.PropertyUtils
+import org.roaringbitmap.FastAggregation
+import org.roaringbitmap.RoaringBitmap
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import kotlin.concurrent.read
+import kotlin.concurrent.write
+
+/**
+ * Entities held in memory with their filtered properties stored by column, for data sets of millions of rows
+ * filtered on a few fields.
+ *
+ * Each entity takes a row, and each column keeps the values of a property for all the rows:
+ * - [Builder.index] columns, for low-cardinality properties (status, country, type...), keep a compressed bitmap
+ *   of rows per distinct value: EQUAL, IN, NOT_IN and IS_NULL are bitmap operations and never touch the rows
+ * - [Builder.sorted] columns, for numbers and dates, keep the values in a primitive array and sorted,
+ *   GREATER, LESS and BETWEEN are found by binary search
+ *
+ * The conditions of a query are evaluated to a bitmap of rows combining the ones of each condition,
+ * only the entities of the requested page are read. Entities are added, replaced and removed one by one by their
+ * key, while the queries run: writes take a write lock and queries a read lock.
+ * Only the columns can be filtered and sorted, the other properties of the entities are not read.
+ *
+ * Usage example:
+ * ```kotlin
+ * val store = ColumnarStore.builder(User::class.java, "id")
+ *     .index("status", "country")
+ *     .sorted("age", "createdAt")
+ *     .build(userRepository.findAll())
+ *
+ * store.upsert(updatedUser)
+ * store.remove(deletedUserId)
+ *
+ * ColumnarBaradum.make(store)
+ *     .allowedFilters(ExactFilter("status"), InFilter("country"), GreaterFilter("age", orEqual = true))
+ *     .page(20)
+ * ```
+ */
+class ColumnarStore<T> private constructor(
+    val entityClass: Class<T>,
+    private val keyField: String,
+    columns: List<Column>
+) {
+    private val columns = columns.associateBy { it.field }
+    private val lock = ReentrantReadWriteLock()
+    private val entities = ArrayList<T?>()
+    private val rowsByKey = HashMap<Any, Int>()
+    private val freeRows = ArrayDeque<Int>()
+    private val live = RoaringBitmap()
+
+    companion object {
+        /**
+         * Start a store of the entity class, identified by [keyField]
+         */
+        @JvmStatic
+        fun <T> builder(entityClass: Class<T>, keyField: String): Builder<T> = Builder(entityClass, keyField)
+
+        /**
+         * Integer keys are equal whatever their type, `remove(5)` finds the entity with the Long key 5
+         */
+        private fun normalize(key: Any): Any {
+            return if (key is Int || key is Short || key is Byte) (key as Number).toLong() else key
+        }
+    }
+
+    /**
+     * Number of entities
+     */
+    val size: Int
+        get() = lock.read { live.cardinality }
+
+    /**
+     * The fields of the columns, the only ones that can be filtered and sorted
+     */
+    val fields: Set<String>
+        get() = columns.keys
+
+    /**
+     * Add the entity, or replace the one with the same key
+     */
+    fun upsert(entity: T) {
+        lock.write {
+            put(entity)
+            columns.values.forEach { it.maintain() }
+        }
+    }
+
+    /**
+     * Add or replace the entities, the sorted columns are sorted again once at the end
+     */
+    fun upsertAll(entities: Collection<T>) {
+        lock.write {
+            entities.forEach { put(it) }
+            columns.values.forEach { it.maintain() }
+        }
+    }
+
+    /**
+     * Remove the entity with the key, returns false if there is none
+     */
+    fun remove(key: Any): Boolean {
+        return lock.write {
+            val row = rowsByKey.remove(normalize(key)) ?: return@write false
+
+            entities[row] = null
+            live.remove(row)
+            columns.values.forEach { it.clear(row) }
+            freeRows.addLast(row)
+            columns.values.forEach { it.maintain() }
+            true
+        }
+    }
+
+    /**
+     * The entity with the key, or null
+     */
+    operator fun get(key: Any): T? {
+        return lock.read { rowsByKey[normalize(key)]?.let { entities[it] } }
+    }
+
+    /**
+     * A new query over the store, see [ColumnarQueryBuilder]
+     */
+    fun query(): ColumnarQueryBuilder<T> = ColumnarQueryBuilder(this)
+
+    private fun put(entity: T) {
+        val value = entity ?: throw BaradumException("Null entities can't be stored")
+        val key = PropertyUtils.read(value, keyField)
+            ?: throw BaradumException("The key '$keyField' of the ${entityClass.simpleName} is null")
+
+        val row = rowsByKey.getOrPut(normalize(key)) {
+            freeRows.removeFirstOrNull() ?: entities.size.also { entities.add(null) }
+        }
+
+        entities[row] = entity
+        live.add(row)
+        columns.values.forEach { it.set(row, PropertyUtils.read(value, it.field)) }
+    }
+
+    internal fun <R> read(block: () -> R): R = lock.read(block)
+
+    internal fun column(field: String): Column {
+        return columns[field] ?: throw BaradumException(
+            "The field '$field' is not a column of the store of ${entityClass.simpleName}, the columns are ${columns.keys}"
+        )
+    }
+
+    /**
+     * The rows of the live entities, to be used under the read lock
+     */
+    internal fun live(): RoaringBitmap = live
+
+    /**
+     * The rows matching the expression, to be used under the read lock
+     */
+    internal fun select(expression: FilterExpression): RoaringBitmap {
+        return when (expression) {
+            is FilterExpression.Condition -> column(expression.field).select(expression.operator, expression.value, live)
+            is FilterExpression.And -> expression.children.map { select(it) }.let {
+                if (it.size == 1) it[0] else FastAggregation.and(*it.toTypedArray())
+            }
+            is FilterExpression.Or -> expression.children.map { select(it) }.let {
+                if (it.size == 1) it[0] else FastAggregation.or(*it.toTypedArray())
+            }
+            is FilterExpression.Not -> RoaringBitmap.andNot(live, select(expression.child))
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    internal fun entity(row: Int): T = entities[row] as T
+
+    /**
+     * Declares the columns of a [ColumnarStore]
+     */
+    class Builder<T> internal constructor(
+        private val entityClass: Class<T>,
+        private val keyField: String
+    ) {
+        private val indexed = LinkedHashSet<String>()
+        private val sorted = LinkedHashSet<String>()
+
+        /**
+         * Bitmap indexed columns, for properties with few distinct values
+         */
+        fun index(vararg fields: String): Builder<T> {
+            indexed.addAll(fields)
+            return this
+        }
+
+        /**
+         * Sorted columns, for integer, decimal and LocalDate properties filtered by range
+         */
+        fun sorted(vararg fields: String): Builder<T> {
+            sorted.addAll(fields)
+            return this
+        }
+
+        /**
+         * Create the store with the entities
+         *
+         * @throws BaradumException if a field does not exist, is declared twice or can't be a sorted column
+         */
+        @JvmOverloads
+        fun build(entities: Collection<T> = emptyList()): ColumnarStore<T> {
+            PropertyUtils.type(entityClass, keyField)
+
+            val columns = indexed.map { field ->
+                if (field in sorted) {
+                    throw BaradumException("The field '$field' can't be both an indexed and a sorted column")
+                }
+                DictionaryColumn(field, PropertyUtils.type(entityClass, field))
+            } + sorted.map { field ->
+                val type = PropertyUtils.type(entityClass, field)
+                val encoding = NumericEncoding.of(type) ?: throw BaradumException(
+                    "The field '$field' of type ${type.simpleName} can't be a sorted column, only integers, decimals and LocalDate can"
+                )
+                NumericColumn(field, encoding)
+            }
+
+            return ColumnarStore(entityClass, keyField, columns).apply { upsertAll(entities) }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.utils.LikePattern
+import io.github.robertomike.baradum.core.utils.ValueComparison.compare
+import io.github.robertomike.baradum.core.utils.ValueComparison.key
+import io.github.robertomike.baradum.core.utils.ValueConverter
+import org.roaringbitmap.FastAggregation
+import org.roaringbitmap.RoaringBitmap
+
+/**
+ * Column of a low-cardinality property (status, country, type...): each distinct value gets a code
+ * and a compressed bitmap of the rows holding it.
+ *
+ * EQUAL and IN are the bitmaps of their values, DIFF, NOT_IN and IS_NOT_NULL are the live rows without them.
+ * LIKE and comparisons test each distinct value once and OR the bitmaps of the matching ones,
+ * so their cost depends on the number of distinct values, not on the number of rows.
+ */
+internal class DictionaryColumn(override val field: String, private val type: Class<*>) : Column {
+    private var codes = IntArray(INITIAL_CAPACITY) { ABSENT }
+    private val dictionary = HashMap<Any, Int>()
+    private val values = ArrayList<Any>()
+    private val bitmaps = ArrayList<RoaringBitmap>()
+    private val nulls = RoaringBitmap()
+
+    @Volatile
+    private var ranking: Ranking? = null
+
+    /**
+     * The codes by value and the position of each code in that order
+     */
+    private class Ranking(val order: IntArray, val ranks: IntArray)
+
+    companion object {
+        private const val ABSENT = -2
+        private const val NULL = -1
+        private const val INITIAL_CAPACITY = 1024
+
+        /**
+         * Bitmaps up to this size are visited checking each row, instead of intersecting them
+         */
+        private const val SMALL_BITMAP = 64
+    }
+
+    override fun set(row: Int, value: Any?) {
+        clear(row)
+
+        if (value == null) {
+            nulls.add(row)
+            codes[row] = NULL
+            return
+        }
+
+        val code = dictionary.getOrPut(key(value)) {
+            values.add(value)
+            bitmaps.add(RoaringBitmap())
+            ranking = null
+            values.size - 1
+        }
+        bitmaps[code].add(row)
+        codes[row] = code
+    }
+
+    override fun clear(row: Int) {
+        ensureCapacity(row)
+
+        when (val code = codes[row]) {
+            ABSENT -> return
+            NULL -> nulls.remove(row)
+            else -> bitmaps[code].remove(row)
+        }
+        codes[row] = ABSENT
+    }
+
+    override fun select(operator: BaradumOperator, value: Any?, live: RoaringBitmap): RoaringBitmap {
+        return when (operator) {
+            BaradumOperator.EQUAL -> if (value == null) nulls else equalTo(value)
+            BaradumOperator.DIFF -> RoaringBitmap.andNot(live, if (value == null) nulls else RoaringBitmap.or(equalTo(value), nulls))
+            BaradumOperator.IN -> within(value)
+            BaradumOperator.NOT_IN -> RoaringBitmap.andNot(live, RoaringBitmap.or(within(value), nulls))
+            BaradumOperator.IS_NULL -> nulls
+            BaradumOperator.IS_NOT_NULL -> RoaringBitmap.andNot(live, nulls)
+            BaradumOperator.LIKE -> LikePattern.compile(value).let { pattern -> matching { pattern.test(it.toString()) } }
+            BaradumOperator.NOT_LIKE -> LikePattern.compile(value).let { pattern -> matching { !pattern.test(it.toString()) } }
+            BaradumOperator.GREATER -> bound(operator, value) { it > 0 }
+            BaradumOperator.GREATER_OR_EQUAL -> bound(operator, value) { it >= 0 }
+            BaradumOperator.LESS -> bound(operator, value) { it < 0 }
+            BaradumOperator.LESS_OR_EQUAL -> bound(operator, value) { it <= 0 }
+            BaradumOperator.BETWEEN -> {
+                val (from, to) = boundsOf(value)
+                val lower = coerce(from)
+                val upper = coerce(to)
+                matching { compare(it, lower) >= 0 && compare(it, upper) <= 0 }
+            }
+        }
+    }
+
+    override fun compareRows(first: Int, second: Int): Int {
+        val a = codes[first]
+        val b = codes[second]
+        return when {
+            a < 0 -> if (b < 0) 0 else -1
+            b < 0 -> 1
+            else -> ranking().ranks.let { it[a].compareTo(it[b]) }
+        }
+    }
+
+    override fun forEachInOrder(rows: RoaringBitmap, direction: SortDirection, visitor: (Int) -> Boolean) {
+        val order = ranking().order
+
+        if (direction == SortDirection.ASC) {
+            if (!visit(nulls, rows, visitor)) return
+            for (code in order) {
+                if (!visit(bitmaps[code], rows, visitor)) return
+            }
+        } else {
+            for (index in order.indices.reversed()) {
+                if (!visit(bitmaps[order[index]], rows, visitor)) return
+            }
+            visit(nulls, rows, visitor)
+        }
+    }
+
+    /**
+     * Visits the rows of the bitmap that are in [rows], in row order
+     */
+    private fun visit(bitmap: RoaringBitmap, rows: RoaringBitmap, visitor: (Int) -> Boolean): Boolean {
+        val small = bitmap.cardinality <= SMALL_BITMAP
+        val iterator = if (small) bitmap.intIterator else RoaringBitmap.and(bitmap, rows).intIterator
+        while (iterator.hasNext()) {
+            val row = iterator.next()
+            if ((!small || rows.contains(row)) && !visitor(row)) return false
+        }
+        return true
+    }
+
+    private fun equalTo(value: Any): RoaringBitmap {
+        val code = dictionary[key(coerce(value))] ?: return RoaringBitmap()
+        return bitmaps[code]
+    }
+
+    private fun within(value: Any?): RoaringBitmap {
+        val matches = valuesOf(value).mapNotNull { dictionary[key(coerce(it))] }.distinct()
+        return when (matches.size) {
+            0 -> RoaringBitmap()
+            1 -> bitmaps[matches[0]]
+            else -> FastAggregation.or(*matches.map { bitmaps[it] }.toTypedArray())
+        }
+    }
+
+    private inline fun bound(operator: BaradumOperator, value: Any?, crossinline accept: (Int) -> Boolean): RoaringBitmap {
+        val expected = coerce(required(operator, value))
+        return matching { accept(compare(it, expected)) }
+    }
+
+    /**
+     * OR of the bitmaps of the distinct values passing the test
+     */
+    private inline fun matching(test: (Any) -> Boolean): RoaringBitmap {
+        val matches = values.indices.filter { test(values[it]) }.map { bitmaps[it] }
+        return when (matches.size) {
+            0 -> RoaringBitmap()
+            1 -> matches[0]
+            else -> FastAggregation.or(*matches.toTypedArray())
+        }
+    }
+
+    /**
+     * Sorted on the first read after a new value, under the read lock several readers may do it at once
+     */
+    private fun ranking(): Ranking {
+        ranking?.let { return it }
+
+        val order = values.indices.sortedWith { a, b -> compare(values[a], values[b]) }.toIntArray()
+        val ranks = IntArray(order.size)
+        order.forEachIndexed { rank, code -> ranks[code] = rank }
+
+        return Ranking(order, ranks).also { ranking = it }
+    }
+
+    private fun coerce(value: Any): Any = ValueConverter.coerce(value, type)!!
+
+    private fun ensureCapacity(row: Int) {
+        if (row < codes.size) return
+        val previous = codes.size
+        codes = codes.copyOf(maxOf(row + 1, previous * 2))
+        codes.fill(ABSENT, previous)
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import org.roaringbitmap.RoaringBitmap
+import java.util.function.IntConsumer
+
+/**
+ * Column of a numeric or date property, its values encoded as longs (see [NumericEncoding]) in a primitive array
+ * and in a copy sorted by value, where ranges are found by binary search.
+ *
+ * Rows written after the last sort are pending: they are skipped in the sorted copy and tested one by one,
+ * until there are enough of them to sort again (1024 or 1/16 of the rows).
+ */
+internal class NumericColumn(
+    override val field: String,
+    private val encoding: NumericEncoding
+) : Column {
+    private var values = LongArray(INITIAL_CAPACITY)
+    private val present = RoaringBitmap()
+    private val nulls = RoaringBitmap()
+    private val pending = RoaringBitmap()
+    private var sortedValues = LongArray(0)
+    private var sortedRows = IntArray(0)
+
+    companion object {
+        private const val INITIAL_CAPACITY = 1024
+        private const val MIN_PENDING = 1024
+
+        /**
+         * Results up to 1/32 of the rows are sorted on their own instead of walking the sorted copy
+         */
+        private const val SMALL_RESULT_RATIO = 32
+    }
+
+    override fun set(row: Int, value: Any?) {
+        ensureCapacity(row)
+
+        if (value == null) {
+            present.remove(row)
+            nulls.add(row)
+        } else {
+            values[row] = encoding.encode(value)
+            present.add(row)
+            nulls.remove(row)
+        }
+        pending.add(row)
+    }
+
+    override fun clear(row: Int) {
+        present.remove(row)
+        nulls.remove(row)
+        pending.add(row)
+    }
+
+    override fun maintain() {
+        if (pending.cardinality > maxOf(MIN_PENDING, sortedRows.size / 16)) {
+            sort()
+        }
+    }
+
+    private fun sort() {
+        val rows = present.toArray()
+        val keys = LongArray(rows.size) { values[rows[it]] }
+        RowSort.sort(keys, rows)
+
+        sortedValues = keys
+        sortedRows = rows
+        pending.clear()
+    }
+
+    override fun select(operator: BaradumOperator, value: Any?, live: RoaringBitmap): RoaringBitmap {
+        return when (operator) {
+            BaradumOperator.EQUAL -> if (value == null) nulls else equalTo(value)
+            BaradumOperator.DIFF -> RoaringBitmap.andNot(live, if (value == null) nulls else RoaringBitmap.or(equalTo(value), nulls))
+            BaradumOperator.IN -> within(value)
+            BaradumOperator.NOT_IN -> RoaringBitmap.andNot(live, RoaringBitmap.or(within(value), nulls))
+            BaradumOperator.IS_NULL -> nulls
+            BaradumOperator.IS_NOT_NULL -> present
+            BaradumOperator.GREATER -> range(encoding.lower(required(operator, value), false), Long.MAX_VALUE)
+            BaradumOperator.GREATER_OR_EQUAL -> range(encoding.lower(required(operator, value), true), Long.MAX_VALUE)
+            BaradumOperator.LESS -> range(Long.MIN_VALUE, encoding.upper(required(operator, value), false))
+            BaradumOperator.LESS_OR_EQUAL -> range(Long.MIN_VALUE, encoding.upper(required(operator, value), true))
+            BaradumOperator.BETWEEN -> boundsOf(value).let { (from, to) -> range(encoding.lower(from, true), encoding.upper(to, true)) }
+            BaradumOperator.LIKE, BaradumOperator.NOT_LIKE -> throw FilterException("$operator is not supported on the sorted column '$field'")
+        }
+    }
+
+    private fun equalTo(value: Any): RoaringBitmap = range(encoding.lower(value, true), encoding.upper(value, true))
+
+    private fun within(value: Any?): RoaringBitmap {
+        val matches = valuesOf(value).map { equalTo(it) }
+        return if (matches.isEmpty()) RoaringBitmap() else RoaringBitmap.or(matches.iterator())
+    }
+
+    /**
+     * The rows with a value from [lower] to [upper] included, none when a bound is null
+     */
+    private fun range(lower: Long?, upper: Long?): RoaringBitmap {
+        if (lower == null || upper == null || lower > upper) return RoaringBitmap()
+
+        val from = firstAtLeast(lower)
+        val to = firstAbove(upper)
+        val rows = sortedRows.copyOfRange(from, maxOf(from, to))
+        rows.sort()
+
+        val result = RoaringBitmap()
+        result.addN(rows, 0, rows.size)
+
+        if (!pending.isEmpty) {
+            result.andNot(pending)
+            pending.forEach(IntConsumer { row ->
+                if (present.contains(row) && values[row] in lower..upper) result.add(row)
+            })
+        }
+        return result
+    }
+
+    /**
+     * Position of the first sorted value greater than or equal to [value]
+     */
+    private fun firstAtLeast(value: Long): Int {
+        var low = 0
+        var high = sortedValues.size
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (sortedValues[middle] < value) low = middle + 1 else high = middle
+        }
+        return low
+    }
+
+    /**
+     * Position of the first sorted value greater than [value]
+     */
+    private fun firstAbove(value: Long): Int {
+        var low = 0
+        var high = sortedValues.size
+        while (low < high) {
+            val middle = (low + high) ushr 1
+            if (sortedValues[middle] <= value) low = middle + 1 else high = middle
+        }
+        return low
+    }
+
+    override fun compareRows(first: Int, second: Int): Int {
+        val firstNull = nulls.contains(first)
+        val secondNull = nulls.contains(second)
+        return when {
+            firstNull -> if (secondNull) 0 else -1
+            secondNull -> 1
+            else -> values[first].compareTo(values[second])
+        }
+    }
+
+    override fun forEachInOrder(rows: RoaringBitmap, direction: SortDirection, visitor: (Int) -> Boolean) {
+        val ascending = direction == SortDirection.ASC
+        val withValue = RoaringBitmap.and(rows, present)
+
+        if (ascending && !visitNulls(rows, visitor)) return
+
+        val complete = if (withValue.cardinality <= sortedRows.size / SMALL_RESULT_RATIO) {
+            // Few rows, sorting them is cheaper than walking the sorted copy
+            visit(sortedCursor(withValue, ascending), null, visitor)
+        } else {
+            val main = Cursor(sortedValues, sortedRows, ascending) { withValue.contains(it) && !pending.contains(it) }
+            visit(main, sortedCursor(RoaringBitmap.and(withValue, pending), ascending), visitor)
+        }
+
+        if (complete && !ascending) visitNulls(rows, visitor)
+    }
+
+    private fun visitNulls(rows: RoaringBitmap, visitor: (Int) -> Boolean): Boolean {
+        val iterator = RoaringBitmap.and(rows, nulls).intIterator
+        while (iterator.hasNext()) {
+            if (!visitor(iterator.next())) return false
+        }
+        return true
+    }
+
+    private fun sortedCursor(rows: RoaringBitmap, ascending: Boolean): Cursor {
+        val ids = rows.toArray()
+        val keys = LongArray(ids.size) { values[ids[it]] }
+        RowSort.sort(keys, ids)
+        return Cursor(keys, ids, ascending) { true }
+    }
+
+    /**
+     * Merges the two cursors, ordered by value and then by row id
+     */
+    private fun visit(first: Cursor, second: Cursor?, visitor: (Int) -> Boolean): Boolean {
+        first.advance()
+        second?.advance()
+
+        while (first.valid || second?.valid == true) {
+            val takeFirst = second == null || !second.valid || first.valid && first.before(second)
+            val cursor = if (takeFirst) first else second!!
+
+            if (!visitor(cursor.row)) return false
+            cursor.advance()
+        }
+        return true
+    }
+
+    /**
+     * Walks rows sorted by key ascending, forward when ascending and backwards by runs of equal keys when
+     * descending, so the rows of equal keys are always in ascending order
+     */
+    private class Cursor(
+        private val keys: LongArray,
+        private val rows: IntArray,
+        private val ascending: Boolean,
+        private val accept: (Int) -> Boolean
+    ) {
+        private var position = if (ascending) -1 else keys.size - 1
+        private var runStart = keys.size
+        private var runEnd = keys.size
+
+        var valid = false
+            private set
+
+        val key: Long get() = keys[position]
+        val row: Int get() = rows[position]
+
+        fun advance() {
+            while (true) {
+                position++
+                if (ascending) {
+                    if (position >= keys.size) return done()
+                } else if (position >= runEnd) {
+                    if (runStart == 0) return done()
+                    runEnd = runStart
+                    runStart = runEnd - 1
+                    while (runStart > 0 && keys[runStart - 1] == keys[runEnd - 1]) runStart--
+                    position = runStart
+                }
+
+                if (accept(rows[position])) {
+                    valid = true
+                    return
+                }
+            }
+        }
+
+        fun before(other: Cursor): Boolean {
+            if (key != other.key) return if (ascending) key < other.key else key > other.key
+            return row < other.row
+        }
+
+        private fun done() {
+            valid = false
+        }
+    }
+
+    private fun ensureCapacity(row: Int) {
+        if (row < values.size) return
+        values = values.copyOf(maxOf(row + 1, values.size * 2))
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.utils.ValueConverter
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.math.RoundingMode
+import java.time.LocalDate
+
+/**
+ * Maps the values of a sorted column to longs that keep their order, so a range of values is a range of longs.
+ *
+ * The bounds of the conditions are mapped to the smallest and largest long they accept, null when none:
+ * `age > 17.5` is `age >= 18` on an integer column.
+ */
+internal enum class NumericEncoding {
+    INTEGRAL {
+        override fun encode(value: Any): Long = (value as Number).toLong()
+
+        override fun lower(bound: Any, inclusive: Boolean): Long? {
+            val decimal = decimal(bound)
+            val lowest = if (inclusive) decimal.setScale(0, RoundingMode.CEILING) else decimal.setScale(0, RoundingMode.FLOOR) + BigDecimal.ONE
+            return when {
+                lowest > MAX -> null
+                lowest < MIN -> Long.MIN_VALUE
+                else -> lowest.longValueExact()
+            }
+        }
+
+        override fun upper(bound: Any, inclusive: Boolean): Long? {
+            val decimal = decimal(bound)
+            val highest = if (inclusive) decimal.setScale(0, RoundingMode.FLOOR) else decimal.setScale(0, RoundingMode.CEILING) - BigDecimal.ONE
+            return when {
+                highest < MIN -> null
+                highest > MAX -> Long.MAX_VALUE
+                else -> highest.longValueExact()
+            }
+        }
+
+        private fun decimal(bound: Any): BigDecimal {
+            return when (val value = ValueConverter.coerce(bound, Long::class.java)) {
+                is Long, is Int, is Short, is Byte -> BigDecimal.valueOf((value as Number).toLong())
+                is BigDecimal -> value
+                is BigInteger -> BigDecimal(value)
+                is Double, is Float -> if ((value as Number).toDouble().isFinite()) BigDecimal(value.toString()) else invalid(bound)
+                else -> invalid(bound)
+            }
+        }
+    },
+
+    FLOATING {
+        override fun encode(value: Any): Long = sortable((value as Number).toDouble())
+
+        override fun lower(bound: Any, inclusive: Boolean): Long? {
+            val encoded = sortable(double(bound))
+            return if (inclusive) encoded else if (encoded == Long.MAX_VALUE) null else encoded + 1
+        }
+
+        override fun upper(bound: Any, inclusive: Boolean): Long? {
+            val encoded = sortable(double(bound))
+            return if (inclusive) encoded else if (encoded == Long.MIN_VALUE) null else encoded - 1
+        }
+
+        private fun double(bound: Any): Double {
+            val value = ValueConverter.coerce(bound, Double::class.java) as? Number ?: invalid(bound)
+            return value.toDouble().takeUnless { it.isNaN() } ?: invalid(bound)
+        }
+
+        /**
+         * The bits of the double with the negatives flipped, -0.0 is taken as 0.0
+         */
+        private fun sortable(value: Double): Long {
+            val bits = java.lang.Double.doubleToLongBits(value + 0.0)
+            return bits xor ((bits shr 63) and Long.MAX_VALUE)
+        }
+    },
+
+    DATE {
+        override fun encode(value: Any): Long = (value as LocalDate).toEpochDay()
+
+        override fun lower(bound: Any, inclusive: Boolean): Long? {
+            val day = day(bound)
+            return if (inclusive) day else day + 1
+        }
+
+        override fun upper(bound: Any, inclusive: Boolean): Long? {
+            val day = day(bound)
+            return if (inclusive) day else day - 1
+        }
+
+        private fun day(bound: Any): Long {
+            return (ValueConverter.coerce(bound, LocalDate::class.java) as? LocalDate ?: invalid(bound)).toEpochDay()
+        }
+    };
+
+    abstract fun encode(value: Any): Long
+
+    /**
+     * The smallest encoded value greater than the bound, or equal when inclusive
+     */
+    abstract fun lower(bound: Any, inclusive: Boolean): Long?
+
+    /**
+     * The largest encoded value less than the bound, or equal when inclusive
+     */
+    abstract fun upper(bound: Any, inclusive: Boolean): Long?
+
+    protected fun invalid(bound: Any): Nothing {
+        throw FilterException("The value '$bound' is not valid for a ${name.lowercase()} column")
+    }
+
+    companion object {
+        private val MIN = BigDecimal.valueOf(Long.MIN_VALUE)
+        private val MAX = BigDecimal.valueOf(Long.MAX_VALUE)
+
+        /**
+         * The encoding for the type of a property, null when it can't be a sorted column
+         */
+        fun of(type: Class<*>): NumericEncoding? {
+            return when (type.kotlin.javaObjectType) {
+                Long::class.javaObjectType, Int::class.javaObjectType,
+                Short::class.javaObjectType, Byte::class.javaObjectType -> INTEGRAL
+                Double::class.javaObjectType, Float::class.javaObjectType -> FLOATING
+                LocalDate::class.java -> DATE
+                else -> null
+            }
+        }
+    }
+}
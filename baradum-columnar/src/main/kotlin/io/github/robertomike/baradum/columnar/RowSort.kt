@@ -0,0 +1,97 @@
+package io.github.robertomike.baradum.columnar
+
+/**
+ * Stable sort of rows by a long key, on primitive arrays to avoid boxing millions of rows.
+ *
+ * Rows with equal keys keep their order, so rows given in ascending order stay sorted by row id on ties.
+ */
+internal object RowSort {
+    private const val RUN = 32
+
+    /**
+     * Sorts [keys] and moves [rows] along with them
+     */
+    fun sort(keys: LongArray, rows: IntArray) {
+        val size = keys.size
+        if (size < 2) return
+
+        var start = 0
+        while (start < size) {
+            insertion(keys, rows, start, minOf(start + RUN, size))
+            start += RUN
+        }
+
+        var sourceKeys = keys
+        var sourceRows = rows
+        var targetKeys = LongArray(size)
+        var targetRows = IntArray(size)
+        var width = RUN
+
+        while (width < size) {
+            var left = 0
+            while (left < size) {
+                val middle = minOf(left + width, size)
+                val right = minOf(left + 2 * width, size)
+                merge(sourceKeys, sourceRows, targetKeys, targetRows, left, middle, right)
+                left += 2 * width
+            }
+
+            sourceKeys = targetKeys.also { targetKeys = sourceKeys }
+            sourceRows = targetRows.also { targetRows = sourceRows }
+            width *= 2
+        }
+
+        if (sourceKeys !== keys) {
+            sourceKeys.copyInto(keys)
+            sourceRows.copyInto(rows)
+        }
+    }
+
+    private fun insertion(keys: LongArray, rows: IntArray, from: Int, to: Int) {
+        for (index in from + 1 until to) {
+            val key = keys[index]
+            val row = rows[index]
+            var position = index
+
+            while (position > from && keys[position - 1] > key) {
+                keys[position] = keys[position - 1]
+                rows[position] = rows[position - 1]
+                position--
+            }
+            keys[position] = key
+            rows[position] = row
+        }
+    }
+
+    private fun merge(
+        keys: LongArray, rows: IntArray,
+        targetKeys: LongArray, targetRows: IntArray,
+        from: Int, middle: Int, to: Int
+    ) {
+        if (middle >= to || keys[middle - 1] <= keys[middle]) {
+            // Already in order
+            keys.copyInto(targetKeys, from, from, to)
+            rows.copyInto(targetRows, from, from, to)
+            return
+        }
+
+        var left = from
+        var right = middle
+        var index = from
+
+        while (left < middle && right < to) {
+            if (keys[left] <= keys[right]) {
+                targetKeys[index] = keys[left]
+                targetRows[index++] = rows[left++]
+            } else {
+                targetKeys[index] = keys[right]
+                targetRows[index++] = rows[right++]
+            }
+        }
+        keys.copyInto(targetKeys, index, left, middle)
+        rows.copyInto(targetRows, index, left, middle)
+        index += middle - left
+        keys.copyInto(targetKeys, index, right, to)
+        rows.copyInto(targetRows, index, right, to)
+    }
+}
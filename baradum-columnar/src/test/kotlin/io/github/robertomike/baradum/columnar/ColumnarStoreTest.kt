@@ -0,0 +1,207 @@
+package io.github.robertomike.baradum.columnar
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.InFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.memory.InMemoryQueryBuilder
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.LocalDate
+import kotlin.random.Random
+
+/**
+ * Tests for the columnar store, the in-memory QueryBuilder gives the expected results
+ */
+class ColumnarStoreTest {
+
+    enum class Status { ACTIVE, TRIAL, BLOCKED }
+
+    data class User(
+        val id: Long,
+        val status: Status?,
+        val country: String?,
+        val age: Int?,
+        val score: Double?,
+        val joined: LocalDate?
+    )
+
+    private val countries = listOf("AR", "ES", "IT", "JP", "US", null)
+
+    private fun user(id: Long, random: Random) = User(
+        id,
+        Status.entries.getOrNull(random.nextInt(4)),
+        countries[random.nextInt(countries.size)],
+        if (random.nextInt(10) == 0) null else random.nextInt(16, 90),
+        if (random.nextInt(10) == 0) null else random.nextInt(-500, 500) / 10.0,
+        if (random.nextInt(10) == 0) null else LocalDate.of(2020, 1, 1).plusDays(random.nextLong(1500))
+    )
+
+    private fun store(users: Collection<User> = emptyList()) = ColumnarStore.builder(User::class.java, "id")
+        .index("status", "country")
+        .sorted("id", "age", "score", "joined")
+        .build(users)
+
+    private fun QueryBuilder<User>.ids() = get().map { it.id }
+
+    /**
+     * Runs the same conditions and sorts on the store and on the users in memory
+     */
+    private fun assertSameResults(store: ColumnarStore<User>, users: Collection<User>, query: QueryBuilder<User>.() -> Unit) {
+        val expected = InMemoryQueryBuilder(users.sortedBy { it.id }, User::class.java).apply(query)
+        val actual = store.query().apply(query)
+
+        assertEquals(expected.ids(), actual.ids())
+        assertEquals(expected.count(), actual.count())
+        assertEquals(expected.page(7, 3).content, actual.page(7, 3).content)
+    }
+
+    private val queries: List<QueryBuilder<User>.() -> Unit> = listOf(
+        { where("status", BaradumOperator.EQUAL, "ACTIVE").orderBy("id") },
+        { where("status", BaradumOperator.DIFF, "ACTIVE").orderBy("id") },
+        { where("country", BaradumOperator.IN, listOf("AR", "ES")).orderBy("id") },
+        { where("country", BaradumOperator.NOT_IN, listOf("AR", "ES")).orderBy("id") },
+        { where("country", BaradumOperator.IS_NULL, null).orderBy("id") },
+        { where("country", BaradumOperator.LIKE, "%S").orderBy("id") },
+        { where("age", BaradumOperator.GREATER, "40").orderBy("id") },
+        { where("age", BaradumOperator.LESS_OR_EQUAL, 30.5).orderBy("id") },
+        { where("age", BaradumOperator.BETWEEN, listOf(18, 65)).orderBy("id") },
+        { where("age", BaradumOperator.IN, listOf(20, 30, 40)).orderBy("id") },
+        { where("age", BaradumOperator.DIFF, 20).orderBy("id") },
+        { where("score", BaradumOperator.GREATER_OR_EQUAL, 0).orderBy("id") },
+        { where("score", BaradumOperator.LESS, "-10.5").orderBy("id") },
+        { where("score", BaradumOperator.EQUAL, 0).orderBy("id") },
+        { where("joined", BaradumOperator.LESS, "2021-06-01").orderBy("id") },
+        { where("joined", BaradumOperator.IS_NOT_NULL, null).orderBy("id") },
+        {
+            where("status", BaradumOperator.EQUAL, "TRIAL")
+                .where("age", BaradumOperator.GREATER, 50)
+                .where("country", BaradumOperator.EQUAL, "JP", WhereOperator.OR)
+                .orderBy("id")
+        },
+        {
+            whereGroup(!FilterExpression.anyOf(
+                FilterExpression.condition("status", BaradumOperator.EQUAL, "BLOCKED"),
+                FilterExpression.condition("age", BaradumOperator.LESS, 25)
+            )).orderBy("id")
+        },
+        { orderBy("age", SortDirection.DESC).orderBy("id") },
+        { orderBy("score", SortDirection.ASC).orderBy("id") },
+        { orderBy("status", SortDirection.DESC).orderBy("joined", SortDirection.DESC).orderBy("id") },
+        { where("country", BaradumOperator.EQUAL, "IT").orderBy("country").orderBy("age").orderBy("id", SortDirection.DESC) }
+    )
+
+    @Test
+    fun `same results as in memory`() {
+        val random = Random(42)
+        val users = (1L..2_000L).map { user(it, random) }
+        val store = store(users)
+
+        queries.forEach { assertSameResults(store, users, it) }
+    }
+
+    @Test
+    fun `same results after updates and removals`() {
+        val random = Random(7)
+        val users = (1L..3_000L).associateWith { user(it, random) }.toMutableMap()
+        val store = store(users.values)
+
+        // Below and above the number of pending rows that sorts the columns again
+        listOf(300, 1_500).forEach { writes ->
+            repeat(writes) {
+                val id = random.nextLong(1, 4_000)
+                if (random.nextInt(4) == 0) {
+                    assertEquals(users.remove(id) != null, store.remove(id))
+                } else {
+                    users[id] = user(id, random).also { store.upsert(it) }
+                }
+            }
+
+            assertEquals(users.size, store.size)
+            queries.forEach { assertSameResults(store, users.values, it) }
+        }
+    }
+
+    @Test
+    fun `pages without sorts are in row order`() {
+        val users = (1L..100L).map { user(it, Random(it)) }
+        val store = store(users)
+
+        assertEquals((41L..50L).toList(), store.query().limit(10).offset(40).ids())
+        assertEquals(100L, store.query().count())
+        assertEquals(emptyList<Long>(), store.query().offset(100).ids())
+    }
+
+    @Test
+    fun `sorted by a single column, ties by row`() {
+        val users = listOf(
+            User(1, Status.ACTIVE, "AR", 30, null, null),
+            User(2, Status.ACTIVE, "ES", null, null, null),
+            User(3, Status.TRIAL, "AR", 30, null, null),
+            User(4, Status.TRIAL, null, 20, null, null)
+        )
+        val store = store(users)
+
+        assertEquals(listOf(2L, 4L, 1L, 3L), store.query().orderBy("age").ids())
+        assertEquals(listOf(1L, 3L, 4L, 2L), store.query().orderBy("age", SortDirection.DESC).ids())
+        assertEquals(listOf(4L, 1L, 3L, 2L), store.query().orderBy("country").ids())
+        assertEquals(1L, store.query().orderBy("age", SortDirection.DESC).findFirst().get().id)
+    }
+
+    @Test
+    fun `entities are replaced and removed by key`() {
+        val store = store(listOf(User(1, Status.ACTIVE, "AR", 30, null, null)))
+
+        store.upsert(User(1, Status.BLOCKED, "AR", 31, null, null))
+        assertEquals(Status.BLOCKED, store[1]?.status)
+        assertEquals(0L, store.query().where("status", BaradumOperator.EQUAL, "ACTIVE").count())
+        assertEquals(listOf(1L), store.query().where("age", BaradumOperator.EQUAL, 31).ids())
+
+        assertTrue(store.remove(1))
+        assertFalse(store.remove(1))
+        assertNull(store[1L])
+        assertEquals(0, store.size)
+    }
+
+    @Test
+    fun `used through Baradum`() {
+        val users = (1L..500L).map { user(it, Random(it)) }
+        val store = store(users)
+
+        val page = ColumnarBaradum.make(store)
+            .allowedFilters(ExactFilter("status"), InFilter("country"))
+            .allowedSort("age", "id")
+            .withParams(mapOf("status" to "ACTIVE", "country" to "AR,JP", "sort" to "-age,id"))
+            .page(10)
+
+        val expected = users
+            .filter { it.status == Status.ACTIVE && it.country in listOf("AR", "JP") }
+            .sortedWith(compareByDescending<User> { it.age }.thenBy { it.id })
+
+        assertEquals(expected.size.toLong(), page.totalElements)
+        assertEquals(expected.take(10), page.content)
+    }
+
+    @Test
+    fun `only columns are filtered and sorted`() {
+        val store = store()
+
+        assertThrows<BaradumException> { store.query().where("unknown", BaradumOperator.EQUAL, 1) }
+        assertThrows<BaradumException> { store.query().orderBy("unknown") }
+        assertThrows<FilterException> { store.query().where("age", BaradumOperator.LIKE, "1%").get() }
+        assertThrows<FilterException> { store.query().where("age", BaradumOperator.GREATER, "many").get() }
+    }
+
+    @Test
+    fun `invalid columns`() {
+        assertThrows<BaradumException> { ColumnarStore.builder(User::class.java, "id").sorted("country").build() }
+        assertThrows<BaradumException> { ColumnarStore.builder(User::class.java, "id").index("age").sorted("age").build() }
+        assertThrows<BaradumException> { ColumnarStore.builder(User::class.java, "code").build() }
+    }
+}
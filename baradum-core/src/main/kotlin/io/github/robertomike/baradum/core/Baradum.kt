@@ -1,17 +1,42 @@
 package io.github.robertomike.baradum.core
 
+import io.github.robertomike.baradum.core.cache.CachingQueryBuilder
+import io.github.robertomike.baradum.core.cache.CountCache
+import io.github.robertomike.baradum.core.cache.CountCachingQueryBuilder
+import io.github.robertomike.baradum.core.cache.QueryCache
+import io.github.robertomike.baradum.core.concurrent.BaradumBatch
+import io.github.robertomike.baradum.core.concurrent.BaradumExecutors
 import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.ExpressionWriter
 import io.github.robertomike.baradum.core.filters.Filter
 import io.github.robertomike.baradum.core.filters.Filterable
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.instrumentation.PendingExecution
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
 import io.github.robertomike.baradum.core.interfaces.QueryBuilderProvider
+import io.github.robertomike.baradum.core.models.CursorPage
+import io.github.robertomike.baradum.core.models.LazyPage
 import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.core.enums.SortDirection
 import io.github.robertomike.baradum.core.requests.BasicRequest
+import io.github.robertomike.baradum.core.requests.FilterRequest
+import io.github.robertomike.baradum.core.requests.RequestContext
+import io.github.robertomike.baradum.core.sorting.AppliedSort
+import io.github.robertomike.baradum.core.sorting.KeysetCursor
 import io.github.robertomike.baradum.core.sorting.OrderBy
+import io.github.robertomike.baradum.core.sorting.SeekKey
 import io.github.robertomike.baradum.core.sorting.Sortable
+import io.github.robertomike.baradum.core.utils.PropertyUtils
 import java.util.Optional
 import java.util.ServiceLoader
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.function.BiFunction
 import java.util.function.Consumer
+import java.util.function.Function
+import java.util.stream.Stream
 
 /**
  * Core Baradum class - provider agnostic
@@ -27,6 +52,33 @@ class Baradum<T, Q : QueryBuilder<T>>(
     private var useBody = false
     private var onlyBody = false
     private var instanceParams: Map<String, String>? = null
+    private var keysetTiebreaker = OrderBy("id")
+    private var defaultParams: Map<String, String> = emptyMap()
+    private var executor: Executor? = null
+
+    /**
+     * Whether filterable and sortable belong to a spec, they are copied before being modified
+     */
+    private var sharedFilterable = false
+    private var sharedSortable = false
+
+    /**
+     * Create a Baradum bound to a precompiled spec, see [BaradumSpec.on]
+     */
+    internal constructor(queryBuilder: Q, spec: BaradumSpec<T, Q>) : this(queryBuilder) {
+        sortable = spec.sortable
+        filterable = spec.filterable
+        sharedFilterable = true
+        sharedSortable = true
+        useBody = spec.useBody
+        onlyBody = spec.onlyBody
+        keysetTiebreaker = spec.keysetTiebreaker
+        defaultParams = spec.defaultParams
+
+        if (spec.selects.isNotEmpty()) {
+            queryBuilder.select(*spec.selects)
+        }
+    }
 
     companion object {
         private val providers: List<QueryBuilderProvider> by lazy {
@@ -43,14 +95,8 @@ class Baradum<T, Q : QueryBuilder<T>>(
          */
         @JvmStatic
         fun <T, Q : QueryBuilder<T>> make(modelClass: Class<T>): Baradum<T, Q> {
-            val provider = providers.firstOrNull { it.supports(modelClass) }
-                ?: throw BaradumException(
-                    "No QueryBuilderProvider found. Make sure you have a query builder module " +
-                    "(e.g., baradum-hefesto) in your classpath and it's properly registered via ServiceLoader."
-                )
-            
             @Suppress("UNCHECKED_CAST")
-            return Baradum(provider.create(modelClass) as Q)
+            return Baradum(findProvider(modelClass).create(modelClass) as Q)
         }
         
         /**
@@ -72,20 +118,72 @@ class Baradum<T, Q : QueryBuilder<T>>(
             @Suppress("UNCHECKED_CAST")
             return Baradum(provider.create(modelClass) as Q) as Baradum<T, Q>
         }
+
+        /**
+         * Create a Baradum instance whose results are cached, using the first available QueryBuilderProvider
+         *
+         * @param modelClass The model class to query, also the region invalidated with [QueryCache.invalidate]
+         * @param cache The cache shared by the instances
+         * @return Baradum instance with the discovered QueryBuilder wrapped in a [CachingQueryBuilder]
+         * @throws BaradumException if no QueryBuilderProvider is found
+         */
+        @JvmStatic
+        fun <T> make(modelClass: Class<T>, cache: QueryCache): Baradum<T, CachingQueryBuilder<T>> {
+            return Baradum(cache.wrap(findProvider(modelClass).create(modelClass), modelClass))
+        }
+
+        /**
+         * Create a Baradum instance whose page totals are cached, using the first available QueryBuilderProvider
+         *
+         * @param modelClass The model class to query, also the region invalidated with [CountCache.invalidate]
+         * @param counts The count cache shared by the instances
+         * @return Baradum instance with the discovered QueryBuilder wrapped in a [CountCachingQueryBuilder]
+         * @throws BaradumException if no QueryBuilderProvider is found
+         */
+        @JvmStatic
+        fun <T> make(modelClass: Class<T>, counts: CountCache): Baradum<T, CountCachingQueryBuilder<T>> {
+            return Baradum(counts.wrap(findProvider(modelClass).create(modelClass), modelClass))
+        }
+
+        /**
+         * Create a batch to run several queries concurrently, see [BaradumBatch]
+         *
+         * @param maxConcurrency The maximum number of queries running at the same time
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun batch(maxConcurrency: Int = BaradumBatch.DEFAULT_MAX_CONCURRENCY): BaradumBatch {
+            return BaradumBatch(maxConcurrency)
+        }
+
+        private fun findProvider(modelClass: Class<*>): QueryBuilderProvider {
+            return providers.firstOrNull { it.supports(modelClass) }
+                ?: throw BaradumException(
+                    "No QueryBuilderProvider found. Make sure you have a query builder module " +
+                    "(e.g., baradum-hefesto) in your classpath and it's properly registered via ServiceLoader."
+                )
+        }
         
         /**
-         * Global request for Baradum to resolve params and body
-         * @deprecated Consider using withParams() for instance-level parameters
+         * Global request for Baradum to resolve params and body, shared by all the threads.
+         * The request bound with [RequestContext] takes precedence over it.
+         * @deprecated Consider using withParams() or RequestContext.runWith() for request-scoped parameters
          */
         @JvmStatic 
         var request: BasicRequest<out Any>? = null
+
+        /**
+         * Executor of the async executions of all the instances, null uses [BaradumExecutors.shared]
+         */
+        @JvmStatic
+        var asyncExecutor: Executor? = null
     }
 
     /**
      * Set parameters for this instance, eliminating need for global request
      */
     fun withParams(params: Map<String, String>): Baradum<T, Q> {
-        this.instanceParams = params
+        this.instanceParams = if (defaultParams.isEmpty()) params else defaultParams + params
         return this
     }
 
@@ -93,7 +191,7 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Convenience method for individual parameters
      */
     fun withParam(key: String, value: String): Baradum<T, Q> {
-        val mutableParams = instanceParams?.toMutableMap() ?: mutableMapOf()
+        val mutableParams = instanceParams?.toMutableMap() ?: defaultParams.toMutableMap()
         mutableParams[key] = value
         this.instanceParams = mutableParams
         return this
@@ -103,7 +201,7 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Adds the specified filters to the list of allowed filters.
      */
      fun allowedFilters(vararg filters: Filter<*, *>): Baradum<T, Q> {
-        filterable.addFilters(*filters)
+        ownFilterable().addFilters(*filters)
         return this
     }
 
@@ -111,7 +209,7 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Adds the specified filters to the list of allowed filters.
      */
     fun allowedFilters(filters: List<Filter<*, *>>): Baradum<T, Q> {
-        filterable.addFilters(filters)
+        ownFilterable().addFilters(filters)
         return this
     }
 
@@ -119,7 +217,7 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Add allowed sort criteria to the Baradum object.
      */
     fun allowedSort(vararg sorts: String): Baradum<T, Q> {
-        sortable.addSorts(*sorts)
+        ownSortable().addSorts(*sorts)
         return this
     }
 
@@ -127,7 +225,7 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Add allowed sorts to the Baradum object.
      */
     fun allowedSort(vararg sorts: OrderBy): Baradum<T, Q> {
-        sortable.addSorts(*sorts)
+        ownSortable().addSorts(*sorts)
         return this
     }
 
@@ -135,10 +233,32 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Add allowed sorts to the Baradum object.
      */
     fun allowedSort(sorts: List<OrderBy>): Baradum<T, Q> {
-        sortable.addSorts(sorts)
+        ownSortable().addSorts(sorts)
         return this
     }
 
+    /**
+     * Get a filterable this instance can modify, the one of a spec is copied first
+     */
+    private fun ownFilterable(): Filterable<Q> {
+        if (sharedFilterable) {
+            filterable = filterable.copy()
+            sharedFilterable = false
+        }
+        return filterable
+    }
+
+    /**
+     * Get a sortable this instance can modify, the one of a spec is copied first
+     */
+    private fun ownSortable(): Sortable<Q> {
+        if (sharedSortable) {
+            sortable = sortable.copy()
+            sharedSortable = false
+        }
+        return sortable
+    }
+
     /**
      * Reset the list of select and set the passed selects
      */
@@ -175,29 +295,125 @@ class Baradum<T, Q : QueryBuilder<T>>(
     }
 
     /**
-     * Apply the filters and sorts based on priority: instance params > body > global request
+     * Set the unique field used to break ties in keyset pagination, "id" by default
+     */
+    fun keysetTiebreaker(field: String): Baradum<T, Q> {
+        keysetTiebreaker = OrderBy(field)
+        return this
+    }
+
+    /**
+     * Set the executor of the async executions of this instance, see [asyncExecutor]
+     */
+    fun executor(executor: Executor): Baradum<T, Q> {
+        this.executor = executor
+        return this
+    }
+
+    /**
+     * Apply the filters and sorts based on priority: instance params > body > request (bound with RequestContext, or the global one)
+     *
+     * @return the applied sorts
      */
-    private fun apply() {
-        when {
-            instanceParams != null -> {
-                filterable.apply(queryBuilder, instanceParams!!)
-                sortable.apply(queryBuilder, instanceParams!!)
+    private fun apply(): List<AppliedSort> {
+        val params = instanceParams
+        val request = RequestContext.current() ?: Baradum.request
+        val timer = BaradumInstrumentation.current()
+
+        return when {
+            params != null -> {
+                timer?.params = activeParams { params[it] }
+                BaradumInstrumentation.time(ExecutionPhase.APPLY_FILTERS) {
+                    applyFilters { filterable.apply(it, params) }
+                    sortable.applySorts(queryBuilder, params)
+                }
             }
-            useBody && request != null && request!!.isPost() -> {
-                if (onlyBody && !request!!.isPost()) {
-                    throw BaradumException("Body can only be used with POST requests")
+            useBody && request != null && request.isPost() -> {
+                val body = BaradumInstrumentation.time(ExecutionPhase.RESOLVE_PARAMS) { request.getBody() }
+                timer?.params = activeParams(body.filters)
+                BaradumInstrumentation.time(ExecutionPhase.APPLY_FILTERS) {
+                    applyFilters { filterable.apply(it, body.filters) }
+                    sortable.applySorts(queryBuilder, body.sorts)
                 }
-                val body = request!!.getBody()
-                filterable.apply(queryBuilder, body.filters)
-                sortable.apply(queryBuilder, body.sorts)
             }
             request != null -> {
                 if (onlyBody) {
                     throw BaradumException("Body can only be used with POST requests")
                 }
-                filterable.apply(queryBuilder, request!!)
-                sortable.apply(queryBuilder, request!!)
+                timer?.params = activeParams { request.findByName(it) }
+                BaradumInstrumentation.time(ExecutionPhase.APPLY_FILTERS) {
+                    applyFilters { filterable.apply(it, request) }
+                    sortable.applySorts(queryBuilder, request)
+                }
             }
+            else -> emptyList()
+        }
+    }
+
+    /**
+     * Record the conditions of the filters as an expression and add it to the query builder, in canonical form
+     * when the query builder supports it. When a filter doesn't support recording, the filters are applied to it directly.
+     */
+    private fun applyFilters(apply: (Q) -> Unit) {
+        val recorder = filterable.record(apply)
+        if (recorder == null) {
+            apply(queryBuilder)
+            return
+        }
+        recorder.expression?.let {
+            ExpressionWriter.write(queryBuilder, if (queryBuilder.supportsCanonicalExpressions()) it.canonical() else it)
+        }
+    }
+
+    /**
+     * Params of the allowed filters present in the request, reported to the instrumentation
+     */
+    private inline fun activeParams(value: (String) -> String?): Map<String, String> {
+        val active = LinkedHashMap<String, String>()
+        filterable.allowedFilters.forEach { filter ->
+            value(filter.param)?.let { active[filter.param] = it }
+        }
+        return active
+    }
+
+    private fun activeParams(filters: Collection<FilterRequest>): Map<String, String> {
+        val active = LinkedHashMap<String, String>()
+        filters.forEach { filter ->
+            filter.field?.let { active[it] = filter.value ?: filter.operator.name }
+            active.putAll(activeParams(filter.subFilters))
+        }
+        return active
+    }
+
+    /**
+     * Run the execution, reporting it to the listeners of [BaradumInstrumentation] when there are any
+     */
+    private inline fun <R> instrumented(operation: String, rows: (R) -> Int, total: (R) -> Long?, execution: () -> R): R {
+        if (!BaradumInstrumentation.enabled) {
+            return execution()
+        }
+        return BaradumInstrumentation.record(queryBuilder.getEntityClass(), operation, rows, total, execution)
+    }
+
+    /**
+     * Run an async execution, reporting it to the listeners of [BaradumInstrumentation] when it completes.
+     * The filters are applied on the calling thread, where the request is bound, failures are returned in the future.
+     */
+    private fun <R> async(
+        operation: String,
+        rows: (R) -> Int,
+        total: (R) -> Long?,
+        execution: (Executor) -> CompletableFuture<R>
+    ): CompletableFuture<R> {
+        val executor = this.executor ?: asyncExecutor ?: BaradumExecutors.shared
+
+        if (BaradumInstrumentation.enabled) {
+            return BaradumInstrumentation.recordAsync(queryBuilder.getEntityClass(), operation, rows, total, executor, execution)
+        }
+        return try {
+            execution(executor)
+        } catch (e: Throwable) {
+            CompletableFuture.failedFuture(e)
         }
     }
 
@@ -205,21 +421,59 @@ class Baradum<T, Q : QueryBuilder<T>>(
      * Get the list of type T.
      */
     fun get(): List<T> {
+        return instrumented("get", { it.size }, { null }) {
+            apply()
+            queryBuilder.get()
+        }
+    }
+
+    /**
+     * Get the list of type T without blocking, the query runs on the executor (see [executor]).
+     * The instance must not be used until the future completes.
+     */
+    fun getAsync(): CompletableFuture<List<T>> {
+        return async("getAsync", { it.size }, { null }) { executor ->
+            apply()
+            queryBuilder.getAsync(executor)
+        }
+    }
+
+    /**
+     * Get the results as a stream, without loading them all in memory.
+     * The stream holds database resources, close it after use (e.g. try-with-resources).
+     */
+    fun stream(options: StreamOptions): Stream<T> {
+        apply()
+        return queryBuilder.stream(options)
+    }
+
+    /**
+     * Get the results as a stream with the default options.
+     */
+    fun stream(): Stream<T> {
+        return stream(StreamOptions())
+    }
+
+    /**
+     * Pass the results to the consumer in chunks of the given size, useful for exports.
+     */
+    fun forEachChunk(size: Int, consumer: Consumer<List<T>>) {
+        if (size <= 0) {
+            throw BaradumException("The chunk size must be greater than zero")
+        }
+
         apply()
-        return queryBuilder.get()
+        queryBuilder.forEachChunk(size, consumer)
     }
 
     /**
      * Retrieve a page of elements.
      */
     fun page(limit: Int, offset: Long): Page<T> {
-        apply()
-        
-        // Extract limit and offset from params if provided
-        val actualLimit = instanceParams?.get("limit")?.toIntOrNull() ?: limit
-        val actualOffset = instanceParams?.get("offset")?.toLongOrNull() ?: offset
-        
-        return queryBuilder.page(actualLimit, actualOffset)
+        return instrumented("page", { it.content.size }, { it.totalElements }) {
+            apply()
+            queryBuilder.page(resolveLimit(limit), resolveOffset(offset))
+        }
     }
 
     /**
@@ -229,12 +483,149 @@ class Baradum<T, Q : QueryBuilder<T>>(
         return page(limit, 0)
     }
 
+    /**
+     * Retrieve a page of elements without blocking. Query builders with a session per execution
+     * run the content and the count concurrently, see [QueryBuilder.pageAsync].
+     */
+    fun pageAsync(limit: Int, offset: Long): CompletableFuture<Page<T>> {
+        return async("pageAsync", { it.content.size }, { it.totalElements }) { executor ->
+            apply()
+            queryBuilder.pageAsync(resolveLimit(limit), resolveOffset(offset), executor)
+        }
+    }
+
+    /**
+     * Returns a future page of items with the specified limit.
+     */
+    fun pageAsync(limit: Int): CompletableFuture<Page<T>> {
+        return pageAsync(limit, 0)
+    }
+
+    /**
+     * Retrieve a page of elements without counting the total upfront.
+     * The count query only runs if totalElements or totalPages is read.
+     */
+    fun lazyPage(limit: Int, offset: Long): LazyPage<T> {
+        return instrumented("lazyPage", { it.content.size }, { if (it.isTotalComputed()) it.totalElements else null }) {
+            apply()
+            queryBuilder.lazyPage(resolveLimit(limit), resolveOffset(offset))
+        }
+    }
+
+    /**
+     * Returns a lazy page of items with the specified limit.
+     */
+    fun lazyPage(limit: Int): LazyPage<T> {
+        return lazyPage(limit, 0)
+    }
+
+    /**
+     * Retrieve a page of elements with keyset (seek) pagination.
+     *
+     * Instead of skipping rows with an offset, the query resumes after the sort values of the
+     * previous page, which keeps deep pages as fast as the first one. The requested sorts are
+     * completed with the tiebreaker (see [keysetTiebreaker]) so the order is total.
+     *
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the maximum number of elements of the page
+     * @throws io.github.robertomike.baradum.core.exceptions.FilterException if the cursor is not valid for the requested sorts
+     * @throws io.github.robertomike.baradum.core.exceptions.SortableException if a sort value of the last element is null
+     */
+    fun pageAfter(cursor: String?, limit: Int): CursorPage<T> {
+        return instrumented("pageAfter", { it.content.size }, { null }) { seekPage(cursor, limit) }
+    }
+
+    private fun seekPage(cursor: String?, limit: Int): CursorPage<T> {
+        val sorts = apply().toMutableList()
+
+        if (sorts.none { it.orderBy.internalName == keysetTiebreaker.internalName }) {
+            queryBuilder.orderBy(keysetTiebreaker.internalName, SortDirection.ASC)
+            sorts.add(AppliedSort(keysetTiebreaker, SortDirection.ASC))
+        }
+
+        if (cursor != null) {
+            val values = KeysetCursor.decode(cursor, sorts, queryBuilder.getEntityClass())
+            queryBuilder.seek(sorts.mapIndexed { index, sort ->
+                SeekKey(sort.orderBy.internalName, sort.direction, values[index])
+            })
+        }
+
+        val actualLimit = resolveLimit(limit)
+        if (actualLimit <= 0) {
+            throw BaradumException("The limit of a keyset page must be greater than zero")
+        }
+
+        queryBuilder.limit(actualLimit + 1)
+        val rows = queryBuilder.get()
+
+        if (rows.size <= actualLimit) {
+            return CursorPage(rows, actualLimit, null)
+        }
+
+        val content = rows.subList(0, actualLimit)
+        val last = content.last() as Any
+        val nextCursor = KeysetCursor.encode(sorts, sorts.map { PropertyUtils.read(last, it.orderBy.internalName) })
+
+        return CursorPage(content, actualLimit, nextCursor)
+    }
+
+    /**
+     * Extract limit from params if provided, used by the page executions of the providers (e.g. reactive) like [page]
+     */
+    fun resolveLimit(limit: Int): Int {
+        return instanceParams?.get("limit")?.toIntOrNull() ?: limit
+    }
+
+    /**
+     * Extract offset from params if provided, used by the page executions of the providers like [page]
+     */
+    fun resolveOffset(offset: Long): Long {
+        return instanceParams?.get("offset")?.toLongOrNull() ?: offset
+    }
+
     /**
      * Returns an optional with a single element.
      */
     fun findFirst(): Optional<T> {
+        return instrumented("findFirst", { if (it.isPresent) 1 else 0 }, { null }) {
+            apply()
+            queryBuilder.findFirst()
+        }
+    }
+
+    /**
+     * Returns a future optional with a single element, see [getAsync].
+     */
+    fun findFirstAsync(): CompletableFuture<Optional<T>> {
+        return async("findFirstAsync", { if (it.isPresent) 1 else 0 }, { null }) { executor ->
+            apply()
+            queryBuilder.findFirstAsync(executor)
+        }
+    }
+
+    /**
+     * Apply the filters and sorts, then run an execution of the query builder that Baradum doesn't expose,
+     * e.g. the projections of a provider.
+     */
+    fun <R> execute(execution: Function<Q, R>): R {
         apply()
-        return queryBuilder.findFirst()
+        return execution.apply(queryBuilder)
+    }
+
+    /**
+     * Like [execute], for an execution whose result is known after it returns, e.g. a reactive one.
+     * When listeners are registered, the execution gets a [PendingExecution] that must be completed
+     * with its result to be reported to them, otherwise it gets null.
+     *
+     * @param operation the name of the execution reported to the listeners
+     */
+    fun <R> executeDeferred(operation: String, execution: BiFunction<Q, PendingExecution?, R>): R {
+        if (!BaradumInstrumentation.enabled) {
+            return execute { execution.apply(it, null) }
+        }
+        return BaradumInstrumentation.recordPending(queryBuilder.getEntityClass(), operation) { pending ->
+            execute { execution.apply(it, pending) }
+        }
     }
 
     /**
@@ -0,0 +1,183 @@
+package io.github.robertomike.baradum.core
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.filters.Filter
+import io.github.robertomike.baradum.core.filters.Filterable
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.sorting.OrderBy
+import io.github.robertomike.baradum.core.sorting.Sortable
+
+/**
+ * Immutable and thread-safe configuration of a Baradum query: allowed filters, sorts, selects and defaults.
+ *
+ * Build it once at startup and bind it to a fresh QueryBuilder on each request with [on].
+ * The filters and sorts are indexed once and shared by all the requests, so a request doesn't
+ * register them again. The filters must not be modified after the spec is built.
+ *
+ * ```kotlin
+ * val spec = BaradumSpec.builder<User, QueryDslQueryBuilder<User>>()
+ *     .allowedFilters(ExactFilter("name"), GreaterFilter("age", orEqual = true))
+ *     .allowedSort("name", "age")
+ *     .build()
+ *
+ * // On each request
+ * val users = spec.on(QueryDslQueryBuilder(QUser.user, entityManager))
+ *     .withParams(params)
+ *     .get()
+ * ```
+ */
+class BaradumSpec<T, Q : QueryBuilder<T>> private constructor(builder: Builder<T, Q>) {
+    internal val filterable: Filterable<Q> = Filterable<Q>().apply {
+        addFilters(builder.filters)
+        freeze()
+    }
+    internal val sortable: Sortable<Q> = Sortable<Q>().apply {
+        addSorts(builder.sorts)
+        freeze()
+    }
+    internal val selects: Array<String> = builder.selects.toTypedArray()
+    internal val defaultParams: Map<String, String> = LinkedHashMap(builder.defaultParams)
+    internal val useBody: Boolean = builder.useBody
+    internal val onlyBody: Boolean = builder.onlyBody
+    internal val keysetTiebreaker: OrderBy = builder.keysetTiebreaker
+
+    /**
+     * Fields the spec may query, used to resolve them ahead of time
+     */
+    val fields: Set<String> = LinkedHashSet<String>().apply {
+        builder.filters.map { it.internalName }.filterTo(this) { it.isNotBlank() }
+        builder.sorts.mapTo(this) { it.internalName }
+        addAll(builder.selects)
+        add(builder.keysetTiebreaker.internalName)
+    }
+
+    companion object {
+        /**
+         * Create a builder of specs
+         */
+        @JvmStatic
+        fun <T, Q : QueryBuilder<T>> builder(): Builder<T, Q> {
+            return Builder()
+        }
+    }
+
+    /**
+     * Create a Baradum bound to the given query builder, it's meant to be used for a single request.
+     * Filters and sorts can still be added to it, without changing the spec.
+     */
+    fun on(queryBuilder: Q): Baradum<T, Q> {
+        return Baradum(queryBuilder, this)
+    }
+
+    /**
+     * Resolve the fields of the spec in the backend of the given query builder (e.g. QueryDSL paths),
+     * so the first requests don't pay for it. The query builder is not executed.
+     */
+    fun preResolve(queryBuilder: QueryBuilder<*>): BaradumSpec<T, Q> {
+        queryBuilder.resolveFields(fields)
+        return this
+    }
+
+    class Builder<T, Q : QueryBuilder<T>> internal constructor() {
+        internal val filters = mutableListOf<Filter<*, *>>()
+        internal val sorts = mutableListOf<OrderBy>()
+        internal val selects = mutableListOf<String>()
+        internal val defaultParams = LinkedHashMap<String, String>()
+        internal var useBody = false
+        internal var onlyBody = false
+        internal var keysetTiebreaker = OrderBy("id")
+
+        /**
+         * Add allowed filters, each param can be registered only once
+         */
+        fun allowedFilters(vararg filters: Filter<*, *>): Builder<T, Q> {
+            return allowedFilters(filters.toList())
+        }
+
+        /**
+         * Add allowed filters, each param can be registered only once
+         */
+        fun allowedFilters(filters: List<Filter<*, *>>): Builder<T, Q> {
+            filters.forEach { filter ->
+                if (this.filters.any { it.param == filter.param }) {
+                    throw BaradumException("The filter param '${filter.param}' is already registered")
+                }
+                this.filters.add(filter)
+            }
+            return this
+        }
+
+        /**
+         * Add allowed sorts
+         */
+        fun allowedSort(vararg sorts: String): Builder<T, Q> {
+            return allowedSort(sorts.map { OrderBy(it) })
+        }
+
+        /**
+         * Add allowed sorts
+         */
+        fun allowedSort(vararg sorts: OrderBy): Builder<T, Q> {
+            return allowedSort(sorts.toList())
+        }
+
+        /**
+         * Add allowed sorts, each name can be registered only once
+         */
+        fun allowedSort(sorts: List<OrderBy>): Builder<T, Q> {
+            sorts.forEach { sort ->
+                if (this.sorts.any { it.name == sort.name }) {
+                    throw BaradumException("The sort '${sort.name}' is already registered")
+                }
+                this.sorts.add(sort)
+            }
+            return this
+        }
+
+        /**
+         * Selects applied to every query builder bound to the spec
+         */
+        fun selects(vararg selects: String): Builder<T, Q> {
+            this.selects.clear()
+            this.selects.addAll(selects)
+            return this
+        }
+
+        /**
+         * Params used when they are missing from the ones passed with withParams(), e.g. a default sort
+         */
+        fun defaultParam(key: String, value: String): Builder<T, Q> {
+            defaultParams[key] = value
+            return this
+        }
+
+        /**
+         * Same as [Baradum.useBody]
+         */
+        fun useBody(): Builder<T, Q> {
+            useBody = true
+            return this
+        }
+
+        /**
+         * Same as [Baradum.useOnlyBody]
+         */
+        fun useOnlyBody(): Builder<T, Q> {
+            useBody = true
+            onlyBody = true
+            return this
+        }
+
+        /**
+         * Same as [Baradum.keysetTiebreaker]
+         */
+        fun keysetTiebreaker(field: String): Builder<T, Q> {
+            keysetTiebreaker = OrderBy(field)
+            return this
+        }
+
+        fun build(): BaradumSpec<T, Q> {
+            return BaradumSpec(this)
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.LazyPage
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import java.util.Collections
+import java.util.Optional
+import java.util.function.Consumer
+import java.util.stream.Stream
+
+/**
+ * QueryBuilder decorator that serves [get], [page], [count] and [findFirst] from a [QueryCache].
+ *
+ * Every call is recorded and forwarded to the delegate, the recorded state is the cache key.
+ * [lazyPage], [stream] and [forEachChunk] always reach the delegate, they are meant for results
+ * that shouldn't be kept in memory.
+ *
+ * Only the calls made through the decorator are part of the key, so the delegate is not exposed.
+ * Anything that restricts the delegate before it's wrapped (conditions, joins, a tenant) must be described
+ * by the scope, otherwise two builders with different restrictions would share their results.
+ * A delegate with conditions and no scope is rejected, when its conditions can be inspected.
+ *
+ * @param delegate the query builder of the backend
+ * @param cache the cache shared by the builders
+ * @param region the entity queried, used to invalidate its results
+ * @param scope what the delegate was restricted to before being wrapped, e.g. the tenant id, part of the key
+ */
+class CachingQueryBuilder<T> @JvmOverloads constructor(
+    private val delegate: QueryBuilder<T>,
+    private val cache: QueryCache,
+    private val region: String,
+    scope: Any? = null
+) : QueryBuilder<T> {
+
+    @JvmOverloads
+    constructor(delegate: QueryBuilder<T>, cache: QueryCache, entity: Class<*>, scope: Any? = null) :
+        this(delegate, cache, entity.name, scope)
+
+    private val state = QueryState(scope)
+
+    init {
+        if (scope == null && hasConditions(delegate.getWhereConditions())) {
+            throw BaradumException(
+                "The query builder already has conditions, add them through the CachingQueryBuilder or pass a scope"
+            )
+        }
+    }
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
+        delegate.where(field, operator, value, whereOperator)
+        state.where(field, operator, value, whereOperator)
+        return this
+    }
+
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        delegate.whereGroup(expression, whereOperator)
+        state.whereGroup(expression, whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = delegate.supportsCanonicalExpressions()
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
+        delegate.orderBy(field, direction)
+        state.orderBy(field, direction)
+        return this
+    }
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        delegate.seek(keys)
+        state.seek(keys)
+        return this
+    }
+
+    override fun select(vararg fields: String): QueryBuilder<T> {
+        delegate.select(*fields)
+        state.select(fields)
+        return this
+    }
+
+    override fun addSelect(vararg fields: String): QueryBuilder<T> {
+        delegate.addSelect(*fields)
+        state.addSelect(fields)
+        return this
+    }
+
+    override fun limit(limit: Int): QueryBuilder<T> {
+        delegate.limit(limit)
+        state.limit = limit
+        return this
+    }
+
+    override fun offset(offset: Long): QueryBuilder<T> {
+        delegate.offset(offset)
+        state.offset = offset
+        return this
+    }
+
+    override fun get(): List<T> {
+        return cache.get(key("get", state.limit, state.offset)) { Collections.unmodifiableList(delegate.get()) }
+    }
+
+    override fun page(limit: Int, offset: Long): Page<T> {
+        return cache.get(key("page", limit, offset)) {
+            val page = delegate.page(limit, offset)
+            page.copy(content = Collections.unmodifiableList(page.content))
+        }
+    }
+
+    override fun count(): Long {
+        return cache.get(state.filterKey(region, cache.generation(region), "count")) { delegate.count() }
+    }
+
+    override fun findFirst(): Optional<T> {
+        return cache.get(key("first", null, state.offset)) { delegate.findFirst() }
+    }
+
+    override fun lazyPage(limit: Int, offset: Long): LazyPage<T> = delegate.lazyPage(limit, offset)
+
+    override fun stream(options: StreamOptions): Stream<T> = delegate.stream(options)
+
+    override fun forEachChunk(size: Int, consumer: Consumer<List<T>>) = delegate.forEachChunk(size, consumer)
+
+    override fun resolveFields(fields: Collection<String>) = delegate.resolveFields(fields)
+
+    override fun getEntityClass(): Class<*>? = delegate.getEntityClass()
+
+    override fun getWhereConditions(): Any? = delegate.getWhereConditions()
+
+    private fun key(operation: String, limit: Int?, offset: Long?): QueryCacheKey {
+        return state.key(region, cache.generation(region), operation, limit, offset)
+    }
+
+    /**
+     * Whether the conditions of a query builder are known to be non-empty,
+     * the backends that keep them in their own types can't be inspected
+     */
+    private fun hasConditions(conditions: Any?): Boolean {
+        return when (conditions) {
+            is Collection<*> -> conditions.isNotEmpty()
+            is FilterExpression -> true
+            else -> false
+        }
+    }
+}
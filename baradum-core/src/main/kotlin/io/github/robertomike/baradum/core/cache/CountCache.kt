@@ -0,0 +1,127 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+import java.util.function.LongSupplier
+
+/**
+ * Cache of the totals behind [QueryBuilder.page], shared by the [CountCachingQueryBuilder]s created with it.
+ *
+ * Totals are keyed by the filters only, sorts, selects, limit and offset are ignored,
+ * so navigating from page 1 to page N of the same filters runs a single count query.
+ * Pages always fetch their content, only the count is reused.
+ *
+ * In approximate mode writes don't drop the totals, [invalidate] is ignored and a total lives for
+ * its whole [ttl]. Suited for write-heavy tables where an exact total isn't worth a count per write.
+ * In both modes a page that shows a different end than the cached total corrects it.
+ *
+ * Usage example:
+ * ```kotlin
+ * val counts = CountCache(Duration.ofMinutes(1))
+ *
+ * Baradum(counts.wrap(QueryDslQueryBuilder(QUser.user, entityManager), User::class.java))
+ *     .allowedFilters(ExactFilter("country"))
+ *     .page(20)
+ * ```
+ *
+ * @param ttl how long a total is reused after it's counted
+ * @param approximate keep the totals through invalidations, until they expire
+ * @param store where the totals are kept, it bounds the size of the cache
+ */
+class CountCache internal constructor(
+    private val ttl: Duration,
+    val approximate: Boolean,
+    private val store: QueryCacheStore,
+    private val ticker: LongSupplier
+) {
+    @JvmOverloads
+    constructor(
+        ttl: Duration = DEFAULT_TTL,
+        approximate: Boolean = false,
+        store: QueryCacheStore = LruQueryCacheStore(DEFAULT_MAXIMUM_SIZE)
+    ) : this(ttl, approximate, store, LongSupplier { System.nanoTime() })
+
+    companion object {
+        @JvmField
+        val DEFAULT_TTL: Duration = Duration.ofSeconds(30)
+
+        const val DEFAULT_MAXIMUM_SIZE = 1000
+    }
+
+    private class Entry(val total: Long, val expiresAt: Long)
+
+    private val ttlNanos: Long
+    private val generations = ConcurrentHashMap<String, AtomicLong>()
+    private val hits = LongAdder()
+    private val misses = LongAdder()
+
+    init {
+        if (ttl.isNegative || ttl.isZero) {
+            throw BaradumException("The ttl of the count cache must be greater than 0")
+        }
+        ttlNanos = ttl.toNanos()
+    }
+
+    /**
+     * Wrap the query builder so its page totals are cached under the region of the entity
+     */
+    fun <T> wrap(queryBuilder: QueryBuilder<T>, entity: Class<*>): CountCachingQueryBuilder<T> {
+        return CountCachingQueryBuilder(queryBuilder, this, entity)
+    }
+
+    /**
+     * Drop the totals of an entity, e.g. after it's written. Ignored in approximate mode.
+     */
+    fun invalidate(entity: Class<*>) {
+        invalidate(entity.name)
+    }
+
+    /**
+     * Drop the totals of a region. Ignored in approximate mode.
+     */
+    fun invalidate(region: String) {
+        if (approximate) return
+        generations.computeIfAbsent(region) { AtomicLong() }.incrementAndGet()
+    }
+
+    /**
+     * Drop all the totals, in both modes
+     */
+    fun invalidateAll() {
+        generations.values.forEach { it.incrementAndGet() }
+        store.clear()
+    }
+
+    fun stats(): QueryCacheStats {
+        return QueryCacheStats(hits.sum(), misses.sum(), store.size())
+    }
+
+    internal fun generation(region: String): Long {
+        return generations[region]?.get() ?: 0L
+    }
+
+    /**
+     * Return the total of the key if it's still fresh, otherwise count it and keep it
+     */
+    internal fun total(key: QueryCacheKey, counter: () -> Long): Long {
+        val entry = store.get(key) as Entry?
+        if (entry != null && entry.expiresAt - ticker.asLong > 0) {
+            hits.increment()
+            return entry.total
+        }
+
+        misses.increment()
+        return counter().also { put(key, it) }
+    }
+
+    /**
+     * Replace the total of the key, with a fresh ttl
+     */
+    internal fun put(key: QueryCacheKey, total: Long) {
+        store.put(key, Entry(total, ticker.asLong + ttlNanos))
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.LazyPage
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import java.util.Optional
+import java.util.function.Consumer
+import java.util.stream.Stream
+
+/**
+ * QueryBuilder decorator that reuses the totals of [page], [lazyPage] and [count] from a [CountCache].
+ *
+ * Pages are fetched with [limit], [offset] and [get] on the delegate, the count query only runs
+ * when the total of the filters isn't cached. The rows fetched check the cached total:
+ * a short page gives the exact total, and a page past the cached total triggers a new count.
+ *
+ * @param delegate the query builder of the backend
+ * @param cache the cache shared by the builders
+ * @param region the entity queried, used to invalidate its totals
+ */
+class CountCachingQueryBuilder<T>(
+    private val delegate: QueryBuilder<T>,
+    private val cache: CountCache,
+    private val region: String
+) : QueryBuilder<T> {
+
+    constructor(delegate: QueryBuilder<T>, cache: CountCache, entity: Class<*>) : this(delegate, cache, entity.name)
+
+    private val state = QueryState()
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
+        delegate.where(field, operator, value, whereOperator)
+        state.where(field, operator, value, whereOperator)
+        return this
+    }
+
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        delegate.whereGroup(expression, whereOperator)
+        state.whereGroup(expression, whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = delegate.supportsCanonicalExpressions()
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
+        delegate.orderBy(field, direction)
+        return this
+    }
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        delegate.seek(keys)
+        state.seek(keys)
+        return this
+    }
+
+    override fun select(vararg fields: String): QueryBuilder<T> {
+        delegate.select(*fields)
+        return this
+    }
+
+    override fun addSelect(vararg fields: String): QueryBuilder<T> {
+        delegate.addSelect(*fields)
+        return this
+    }
+
+    override fun limit(limit: Int): QueryBuilder<T> {
+        delegate.limit(limit)
+        return this
+    }
+
+    override fun offset(offset: Long): QueryBuilder<T> {
+        delegate.offset(offset)
+        return this
+    }
+
+    override fun get(): List<T> = delegate.get()
+
+    override fun page(limit: Int, offset: Long): Page<T> {
+        val key = countKey()
+        var counted = false
+        val total = cache.total(key) {
+            counted = true
+            delegate.count()
+        }
+
+        delegate.limit(limit)
+        delegate.offset(offset)
+        val content = delegate.get()
+
+        val checked = if (counted) total else check(key, total, content.size, limit, offset)
+        return Page(content, checked, limit, offset)
+    }
+
+    override fun lazyPage(limit: Int, offset: Long): LazyPage<T> {
+        val key = countKey()
+
+        // One extra row tells whether there is a next page, the count is deferred
+        delegate.limit(limit + 1)
+        delegate.offset(offset)
+        val rows = delegate.get()
+        return LazyPage.fromRows(rows, limit, offset) { cache.total(key) { delegate.count() } }
+    }
+
+    override fun count(): Long {
+        return cache.total(countKey()) { delegate.count() }
+    }
+
+    override fun findFirst(): Optional<T> = delegate.findFirst()
+
+    override fun stream(options: StreamOptions): Stream<T> = delegate.stream(options)
+
+    override fun forEachChunk(size: Int, consumer: Consumer<List<T>>) = delegate.forEachChunk(size, consumer)
+
+    override fun resolveFields(fields: Collection<String>) = delegate.resolveFields(fields)
+
+    override fun getEntityClass(): Class<*>? = delegate.getEntityClass()
+
+    override fun getWhereConditions(): Any? = delegate.getWhereConditions()
+
+    /**
+     * Get the decorated query builder
+     */
+    fun getDelegate(): QueryBuilder<T> = delegate
+
+    private fun countKey(): QueryCacheKey {
+        return state.filterKey(region, cache.generation(region), "count")
+    }
+
+    /**
+     * Compare the cached total with the rows of the page, fixing it when they disagree
+     */
+    private fun check(key: QueryCacheKey, total: Long, rows: Int, limit: Int, offset: Long): Long {
+        if (limit <= 0) return total
+
+        // A short page is the end of the results, its end is the total
+        if (rows in 1 until limit || (rows == 0 && offset == 0L)) {
+            val exact = offset + rows
+            if (exact != total) cache.put(key, exact)
+            return exact
+        }
+
+        // A full page past the total, or an empty one before it, only tells the total is wrong
+        val stale = (rows > 0 && offset + rows > total) || (rows == 0 && total > offset)
+        if (!stale) return total
+
+        return delegate.count().also { cache.put(key, it) }
+    }
+}
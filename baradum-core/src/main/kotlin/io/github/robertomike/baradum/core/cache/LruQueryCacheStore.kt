@@ -0,0 +1,35 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+
+/**
+ * Bounded store that evicts the least recently used entry when it's full
+ *
+ * @param maximumSize number of entries kept
+ */
+class LruQueryCacheStore(private val maximumSize: Int) : QueryCacheStore {
+
+    init {
+        if (maximumSize <= 0) {
+            throw BaradumException("The maximum size of the cache must be greater than 0")
+        }
+    }
+
+    private val entries = object : LinkedHashMap<QueryCacheKey, Any>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<QueryCacheKey, Any>?): Boolean {
+            return size > maximumSize
+        }
+    }
+
+    override fun get(key: QueryCacheKey): Any? = synchronized(entries) { entries[key] }
+
+    override fun put(key: QueryCacheKey, value: Any) {
+        synchronized(entries) { entries[key] = value }
+    }
+
+    override fun clear() {
+        synchronized(entries) { entries.clear() }
+    }
+
+    override fun size(): Long = synchronized(entries) { entries.size.toLong() }
+}
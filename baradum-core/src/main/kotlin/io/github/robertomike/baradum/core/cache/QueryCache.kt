@@ -0,0 +1,126 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+import java.util.function.LongSupplier
+
+/**
+ * In-process cache of query results, shared by the [CachingQueryBuilder]s created with it.
+ *
+ * Results are kept for [ttl] and are shared between callers, they must be treated as read-only.
+ * Entities from a cache hit were loaded by another persistence context, so they are detached.
+ *
+ * Usage example:
+ * ```kotlin
+ * val cache = QueryCache(Duration.ofSeconds(5), LruQueryCacheStore(10_000))
+ *
+ * Baradum(cache.wrap(HefestoQueryBuilder(User::class.java), User::class.java))
+ *     .allowedFilters(ExactFilter("country"))
+ *     .get()
+ *
+ * // After writing users
+ * cache.invalidate(User::class.java)
+ * ```
+ *
+ * @param ttl how long a result is served from the cache after it's loaded
+ * @param store where the results are kept, it bounds the size of the cache
+ */
+class QueryCache internal constructor(
+    private val ttl: Duration,
+    private val store: QueryCacheStore,
+    private val ticker: LongSupplier
+) {
+    @JvmOverloads
+    constructor(
+        ttl: Duration = DEFAULT_TTL,
+        store: QueryCacheStore = LruQueryCacheStore(DEFAULT_MAXIMUM_SIZE)
+    ) : this(ttl, store, LongSupplier { System.nanoTime() })
+
+    companion object {
+        @JvmField
+        val DEFAULT_TTL: Duration = Duration.ofSeconds(30)
+
+        const val DEFAULT_MAXIMUM_SIZE = 1000
+    }
+
+    private class Entry(val value: Any, val expiresAt: Long)
+
+    private val ttlNanos: Long
+    private val generations = ConcurrentHashMap<String, AtomicLong>()
+    private val hits = LongAdder()
+    private val misses = LongAdder()
+
+    init {
+        if (ttl.isNegative || ttl.isZero) {
+            throw BaradumException("The ttl of the cache must be greater than 0")
+        }
+        ttlNanos = ttl.toNanos()
+    }
+
+    /**
+     * Wrap the query builder so its executions are cached under the region of the entity
+     */
+    fun <T> wrap(queryBuilder: QueryBuilder<T>, entity: Class<*>): CachingQueryBuilder<T> {
+        return CachingQueryBuilder(queryBuilder, this, entity)
+    }
+
+    /**
+     * Wrap a query builder restricted before being wrapped, e.g. to a tenant,
+     * the scope describes the restriction and is part of the keys
+     */
+    fun <T> wrap(queryBuilder: QueryBuilder<T>, entity: Class<*>, scope: Any): CachingQueryBuilder<T> {
+        return CachingQueryBuilder(queryBuilder, this, entity, scope)
+    }
+
+    /**
+     * Drop the results of an entity, e.g. after it's written
+     */
+    fun invalidate(entity: Class<*>) {
+        invalidate(entity.name)
+    }
+
+    /**
+     * Drop the results of a region. Keys embed the generation of their region,
+     * so the old entries are never read again and are evicted as the cache fills.
+     */
+    fun invalidate(region: String) {
+        generations.computeIfAbsent(region) { AtomicLong() }.incrementAndGet()
+    }
+
+    /**
+     * Drop all the results
+     */
+    fun invalidateAll() {
+        generations.values.forEach { it.incrementAndGet() }
+        store.clear()
+    }
+
+    fun stats(): QueryCacheStats {
+        return QueryCacheStats(hits.sum(), misses.sum(), store.size())
+    }
+
+    internal fun generation(region: String): Long {
+        return generations[region]?.get() ?: 0L
+    }
+
+    /**
+     * Return the result of the key if it's still fresh, otherwise load it and keep it
+     */
+    @Suppress("UNCHECKED_CAST")
+    internal fun <V : Any> get(key: QueryCacheKey, loader: () -> V): V {
+        val entry = store.get(key) as Entry?
+        if (entry != null && entry.expiresAt - ticker.asLong > 0) {
+            hits.increment()
+            return entry.value as V
+        }
+
+        misses.increment()
+        val value = loader()
+        store.put(key, Entry(value, ticker.asLong + ttlNanos))
+        return value
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.sorting.SeekKey
+
+/**
+ * Canonical state of a query execution, two executions with equal keys return the same results.
+ *
+ * @param region the entity queried, used for invalidation
+ * @param generation the generation of the region when the key was created, invalidating a region starts a new one
+ * @param operation the execution: get, page, count or first
+ * @param scope what the query was restricted to before being wrapped, e.g. the tenant id
+ * @param filter the canonical form of the conditions, see [FilterExpression.canonical]
+ */
+data class QueryCacheKey internal constructor(
+    val region: String,
+    val generation: Long,
+    val operation: String,
+    val scope: Any?,
+    val filter: FilterExpression?,
+    val sorts: List<Sort>,
+    val seeks: List<SeekKey>,
+    val selects: List<String>,
+    val limit: Int?,
+    val offset: Long?
+) {
+    data class Sort(val field: String, val direction: SortDirection)
+}
@@ -0,0 +1,21 @@
+package io.github.robertomike.baradum.core.cache
+
+/**
+ * Snapshot of the metrics of a [QueryCache]
+ *
+ * @param hits executions served from the cache
+ * @param misses executions that reached the database
+ * @param size entries currently stored, expired ones included until they are evicted
+ */
+@JvmRecord
+data class QueryCacheStats(
+    val hits: Long,
+    val misses: Long,
+    val size: Long
+) {
+    val requests: Long
+        get() = hits + misses
+
+    val hitRate: Double
+        get() = if (requests == 0L) 0.0 else hits.toDouble() / requests
+}
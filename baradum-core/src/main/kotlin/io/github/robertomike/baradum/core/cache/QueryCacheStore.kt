@@ -0,0 +1,28 @@
+package io.github.robertomike.baradum.core.cache
+
+/**
+ * Storage of a [QueryCache], it decides which entries are evicted when it's full.
+ * Expiration is handled by the cache, so a store only has to bound its size.
+ *
+ * The default is [LruQueryCacheStore]. Any other cache library can be plugged in, e.g. Caffeine for W-TinyLFU:
+ * ```kotlin
+ * class CaffeineStore(maximumSize: Long) : QueryCacheStore {
+ *     private val cache = Caffeine.newBuilder().maximumSize(maximumSize).build<QueryCacheKey, Any>()
+ *
+ *     override fun get(key: QueryCacheKey): Any? = cache.getIfPresent(key)
+ *     override fun put(key: QueryCacheKey, value: Any) = cache.put(key, value)
+ *     override fun clear() = cache.invalidateAll()
+ *     override fun size(): Long = cache.estimatedSize()
+ * }
+ * ```
+ * Implementations must be thread-safe.
+ */
+interface QueryCacheStore {
+    fun get(key: QueryCacheKey): Any?
+
+    fun put(key: QueryCacheKey, value: Any)
+
+    fun clear()
+
+    fun size(): Long
+}
@@ -0,0 +1,89 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.sorting.SeekKey
+
+/**
+ * Calls recorded by the caching decorators, turned into a canonical [QueryCacheKey] on execution.
+ * The conditions are folded left like the backends do, the key holds their canonical form,
+ * so it doesn't depend on the form the query builder received them in.
+ *
+ * @param scope what the query was restricted to outside of the recorded calls, part of every key
+ */
+internal class QueryState(private val scope: Any? = null) {
+    private var filter: FilterExpression? = null
+    private val sorts = ArrayList<QueryCacheKey.Sort>()
+    private val seeks = ArrayList<SeekKey>()
+    private val selects = ArrayList<String>()
+    var limit: Int? = null
+    var offset: Long? = null
+
+    fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator) {
+        whereGroup(FilterExpression.Condition(field, operator, value), whereOperator)
+    }
+
+    fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator) {
+        val current = filter
+        filter = when {
+            current == null -> expression
+            whereOperator == WhereOperator.AND -> current and expression
+            else -> current or expression
+        }
+    }
+
+    fun orderBy(field: String, direction: SortDirection) {
+        sorts.add(QueryCacheKey.Sort(field, direction))
+    }
+
+    fun seek(keys: List<SeekKey>) {
+        seeks.addAll(keys)
+    }
+
+    fun select(fields: Array<out String>) {
+        selects.clear()
+        selects.addAll(fields)
+    }
+
+    fun addSelect(fields: Array<out String>) {
+        selects.addAll(fields)
+    }
+
+    /**
+     * Key of the full execution: conditions, sorts, selects and the given pagination
+     */
+    fun key(region: String, generation: Long, operation: String, limit: Int?, offset: Long?): QueryCacheKey {
+        return QueryCacheKey(
+            region = region,
+            generation = generation,
+            operation = operation,
+            scope = scope,
+            filter = filter?.canonical(),
+            sorts = ArrayList(sorts),
+            seeks = ArrayList(seeks),
+            selects = ArrayList(selects),
+            limit = limit,
+            offset = offset
+        )
+    }
+
+    /**
+     * Key of the filter set alone, shared by every sort, selection and page of the same filters
+     */
+    fun filterKey(region: String, generation: Long, operation: String): QueryCacheKey {
+        return QueryCacheKey(
+            region = region,
+            generation = generation,
+            operation = operation,
+            scope = scope,
+            filter = filter?.canonical(),
+            sorts = emptyList(),
+            seeks = ArrayList(seeks),
+            selects = emptyList(),
+            limit = null,
+            offset = null
+        )
+    }
+}
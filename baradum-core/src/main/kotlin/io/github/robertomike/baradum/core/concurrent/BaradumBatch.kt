@@ -0,0 +1,161 @@
+package io.github.robertomike.baradum.core.concurrent
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.CancellationException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.FutureTask
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicReference
+import java.util.function.Function
+import java.util.function.Supplier
+
+/**
+ * Runs several queries concurrently and returns their results in the order they were added.
+ *
+ * At most [maxConcurrency] queries run at the same time, so a batch never takes more connections than that.
+ * Queries must not share a persistence context: add them with a resource factory (e.g. `emf::createEntityManager`)
+ * so each one gets its own EntityManager, closed when it ends.
+ *
+ * When a query fails, or the [timeout] expires, the queries still running are cancelled (interrupted)
+ * and [execute] throws.
+ *
+ * Usage example:
+ * ```kotlin
+ * val batch = Baradum.batch().timeout(Duration.ofSeconds(2))
+ * val active = batch.add(emf::createEntityManager) { em ->
+ *     QueryDslBaradum.make(QUser.user, em).withParams(mapOf("status" to "ACTIVE")).allowedFilters(ExactFilter("status")).get()
+ * }
+ * val latest = batch.add(emf::createEntityManager) { em ->
+ *     QueryDslBaradum.make(QUser.user, em).withParams(mapOf("sort" to "-createdAt")).allowedSort("createdAt").page(5)
+ * }
+ *
+ * val results = batch.execute()
+ * results[active]  // List<User>
+ * results[latest]  // Page<User>
+ * ```
+ *
+ * @param maxConcurrency the maximum number of queries running at the same time
+ * @param executor where the queries run, by default a new executor of [BaradumExecutors] per execution
+ */
+class BaradumBatch @JvmOverloads constructor(
+    private val maxConcurrency: Int = DEFAULT_MAX_CONCURRENCY,
+    private val executor: Executor? = null
+) {
+    companion object {
+        const val DEFAULT_MAX_CONCURRENCY = 4
+    }
+
+    /**
+     * A query of the batch, used to read its result
+     */
+    class Query<R> internal constructor(internal val index: Int)
+
+    private val queries = ArrayList<Callable<*>>()
+    private var timeout: Duration? = null
+
+    init {
+        if (maxConcurrency <= 0) {
+            throw BaradumException("The max concurrency of a batch must be greater than zero")
+        }
+    }
+
+    /**
+     * Add a query that doesn't need its own resource, e.g. one of a backend that manages its sessions
+     */
+    fun <R> add(query: Callable<R>): Query<R> {
+        queries.add(query)
+        return Query(queries.size - 1)
+    }
+
+    /**
+     * Add a query that runs with its own resource, created on the thread of the query and closed after it
+     */
+    fun <C : AutoCloseable, R> add(resource: Supplier<C>, query: Function<C, R>): Query<R> {
+        return add(Callable { resource.get().use { query.apply(it) } })
+    }
+
+    /**
+     * Set the time the whole batch can take, shared by all the queries
+     */
+    fun timeout(timeout: Duration): BaradumBatch {
+        if (timeout.isNegative || timeout.isZero) {
+            throw BaradumException("The timeout of a batch must be greater than zero")
+        }
+        this.timeout = timeout
+        return this
+    }
+
+    /**
+     * Run the queries and wait for all of them
+     *
+     * @throws BaradumException if the timeout expires or the thread is interrupted
+     * @throws RuntimeException the exception of the first query that failed, as it was thrown
+     */
+    fun execute(): BatchResults {
+        if (queries.isEmpty()) return BatchResults(emptyList())
+
+        val ownExecutor: ExecutorService? = if (executor == null) {
+            BaradumExecutors.newExecutor(minOf(maxConcurrency, queries.size))
+        } else null
+        val permits = Semaphore(maxConcurrency)
+        val failure = AtomicReference<Throwable>()
+        val tasks = ArrayList<FutureTask<Any?>>(queries.size)
+
+        queries.forEach { query ->
+            tasks.add(FutureTask {
+                permits.acquire()
+                try {
+                    query.call()
+                } catch (e: Throwable) {
+                    // The first failure cancels the others, they would be discarded anyway
+                    if (failure.compareAndSet(null, e)) tasks.forEach { it.cancel(true) }
+                    throw e
+                } finally {
+                    permits.release()
+                }
+            })
+        }
+
+        try {
+            tasks.forEach { (ownExecutor ?: executor!!).execute(it) }
+            return BatchResults(await(tasks, failure))
+        } catch (e: Throwable) {
+            tasks.forEach { it.cancel(true) }
+            throw e
+        } finally {
+            ownExecutor?.shutdownNow()
+        }
+    }
+
+    private fun await(tasks: List<FutureTask<Any?>>, failure: AtomicReference<Throwable>): List<Any?> {
+        val deadline = timeout?.let { System.nanoTime() + it.toNanos() }
+
+        return tasks.map { task ->
+            try {
+                if (deadline == null) task.get() else task.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+            } catch (e: ExecutionException) {
+                throw unwrap(e.cause ?: e)
+            } catch (e: CancellationException) {
+                throw unwrap(failure.get() ?: e)
+            } catch (e: TimeoutException) {
+                throw BaradumException("The batch didn't finish in $timeout")
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                throw BaradumException("The batch was interrupted", e)
+            }
+        }
+    }
+
+    private fun unwrap(cause: Throwable): Throwable {
+        return when (cause) {
+            is RuntimeException, is Error -> cause
+            else -> BaradumException("A query of the batch failed", cause)
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.robertomike.baradum.core.concurrent
+
+import java.lang.reflect.Method
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Executors for the concurrent executions of Baradum.
+ *
+ * Queries block on the database, so virtual threads are used when the JDK has them (21+),
+ * otherwise platform daemon threads. The library is compiled for JDK 17, virtual threads are looked up at runtime.
+ */
+object BaradumExecutors {
+    private val virtualThreadPerTask: Method? = try {
+        Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor")
+    } catch (e: NoSuchMethodException) {
+        null
+    }
+
+    private val threads = AtomicInteger()
+
+    private val daemonThreads = ThreadFactory { runnable ->
+        Thread(runnable, "baradum-${threads.incrementAndGet()}").apply { isDaemon = true }
+    }
+
+    private val sharedExecutor: Executor by lazy {
+        virtualThreadPerTask?.invoke(null) as ExecutorService? ?: Executors.newCachedThreadPool(daemonThreads)
+    }
+
+    /**
+     * Whether the JDK running the application has virtual threads
+     */
+    @JvmStatic
+    val virtualThreadsAvailable: Boolean
+        get() = virtualThreadPerTask != null
+
+    /**
+     * Executor of the async executions when none is configured, it's never shut down.
+     * A virtual thread per task when available, a cached pool of daemon threads otherwise.
+     */
+    @JvmStatic
+    val shared: Executor
+        get() = sharedExecutor
+
+    /**
+     * Create an executor for up to [parallelism] concurrent queries, to be shut down by the caller.
+     * A virtual thread per task when available, a fixed pool of daemon threads otherwise.
+     */
+    @JvmStatic
+    fun newExecutor(parallelism: Int): ExecutorService {
+        virtualThreadPerTask?.let { return it.invoke(null) as ExecutorService }
+        return Executors.newFixedThreadPool(parallelism.coerceAtLeast(1), daemonThreads)
+    }
+}
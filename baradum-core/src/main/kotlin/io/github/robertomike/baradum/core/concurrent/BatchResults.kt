@@ -0,0 +1,23 @@
+package io.github.robertomike.baradum.core.concurrent
+
+/**
+ * Results of a [BaradumBatch], in the order the queries were added
+ */
+class BatchResults internal constructor(private val results: List<Any?>) {
+
+    val size: Int
+        get() = results.size
+
+    /**
+     * Get the result of a query of the batch
+     */
+    @Suppress("UNCHECKED_CAST")
+    operator fun <R> get(query: BaradumBatch.Query<R>): R {
+        return results[query.index] as R
+    }
+
+    /**
+     * Get all the results in the order the queries were added
+     */
+    fun asList(): List<Any?> = results
+}
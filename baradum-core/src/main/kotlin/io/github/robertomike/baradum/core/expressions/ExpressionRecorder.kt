@@ -0,0 +1,61 @@
+package io.github.robertomike.baradum.core.expressions
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import java.util.Optional
+
+/**
+ * Query builder passed to the filters to record their conditions as an expression.
+ *
+ * Conditions are folded left as they are added, like the backends do: `((a AND b) OR c) AND d`.
+ * Only the filters that support recording are passed to it, anything but a condition throws a [BaradumException].
+ */
+internal class ExpressionRecorder : QueryBuilder<Any?> {
+    var expression: FilterExpression? = null
+        private set
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<Any?> {
+        add(FilterExpression.Condition(field, operator, value), whereOperator)
+        return this
+    }
+
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<Any?> {
+        add(expression, whereOperator)
+        return this
+    }
+
+    private fun add(condition: FilterExpression, whereOperator: WhereOperator) {
+        val current = expression
+        expression = when {
+            current == null -> condition
+            whereOperator == WhereOperator.AND -> current and condition
+            else -> current or condition
+        }
+    }
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<Any?> = unsupported()
+
+    override fun select(vararg fields: String): QueryBuilder<Any?> = unsupported()
+
+    override fun addSelect(vararg fields: String): QueryBuilder<Any?> = unsupported()
+
+    override fun limit(limit: Int): QueryBuilder<Any?> = unsupported()
+
+    override fun offset(offset: Long): QueryBuilder<Any?> = unsupported()
+
+    override fun get(): List<Any?> = unsupported()
+
+    override fun page(limit: Int, offset: Long): Page<Any?> = unsupported()
+
+    override fun findFirst(): Optional<Any?> = unsupported()
+
+    override fun getWhereConditions(): Any? = expression
+
+    private fun unsupported(): Nothing {
+        throw BaradumException("Only conditions can be recorded as an expression, the filter must not support recording")
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.robertomike.baradum.core.expressions
+
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.expressions.FilterExpression.And
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Condition
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Not
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Or
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+
+/**
+ * Adds an expression to a query builder.
+ *
+ * The backends fold the conditions left as they are added, so an expression is added one condition at a time
+ * while that keeps its meaning: the first group of each AND or OR goes first and the conditions follow it.
+ * Any other group is added with [QueryBuilder.whereGroup].
+ */
+internal object ExpressionWriter {
+
+    fun write(builder: QueryBuilder<*>, expression: FilterExpression) {
+        write(builder, expression, WhereOperator.AND)
+    }
+
+    private fun write(builder: QueryBuilder<*>, expression: FilterExpression, whereOperator: WhereOperator) {
+        when (expression) {
+            is Condition -> builder.where(expression.field, expression.operator, expression.value, whereOperator)
+            is And -> writeAll(builder, expression.children, whereOperator, WhereOperator.AND)
+            is Or -> writeAll(builder, expression.children, whereOperator, WhereOperator.OR)
+            is Not -> builder.whereGroup(expression, whereOperator)
+        }
+    }
+
+    private fun writeAll(
+        builder: QueryBuilder<*>,
+        children: List<FilterExpression>,
+        whereOperator: WhereOperator,
+        join: WhereOperator
+    ) {
+        val first = children.indexOfFirst { it !is Condition }.coerceAtLeast(0)
+        write(builder, children[first], whereOperator)
+
+        children.forEachIndexed { index, child ->
+            when {
+                index == first -> return@forEachIndexed
+                child is Condition -> write(builder, child, join)
+                else -> builder.whereGroup(child, join)
+            }
+        }
+    }
+}
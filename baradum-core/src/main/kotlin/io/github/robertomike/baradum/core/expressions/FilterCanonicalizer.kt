@@ -0,0 +1,210 @@
+package io.github.robertomike.baradum.core.expressions
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.FilterExpression.And
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Condition
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Not
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Or
+
+/**
+ * Rewrites filter expressions into their canonical form, see [FilterExpression.canonical].
+ * Every step keeps the meaning of the expression, NULL comparisons included.
+ */
+internal object FilterCanonicalizer {
+
+    private val negations = mapOf(
+        BaradumOperator.EQUAL to BaradumOperator.DIFF,
+        BaradumOperator.DIFF to BaradumOperator.EQUAL,
+        BaradumOperator.GREATER to BaradumOperator.LESS_OR_EQUAL,
+        BaradumOperator.GREATER_OR_EQUAL to BaradumOperator.LESS,
+        BaradumOperator.LESS to BaradumOperator.GREATER_OR_EQUAL,
+        BaradumOperator.LESS_OR_EQUAL to BaradumOperator.GREATER,
+        BaradumOperator.LIKE to BaradumOperator.NOT_LIKE,
+        BaradumOperator.NOT_LIKE to BaradumOperator.LIKE,
+        BaradumOperator.IN to BaradumOperator.NOT_IN,
+        BaradumOperator.NOT_IN to BaradumOperator.IN,
+        BaradumOperator.IS_NULL to BaradumOperator.IS_NOT_NULL,
+        BaradumOperator.IS_NOT_NULL to BaradumOperator.IS_NULL
+    )
+
+    /**
+     * Conditions first, by field, operator and value, then the groups
+     */
+    private val order = compareBy<FilterExpression>(
+        { if (it is Condition) 0 else 1 },
+        { (it as? Condition)?.field },
+        { (it as? Condition)?.operator },
+        { it.toString() }
+    )
+
+    fun canonicalize(expression: FilterExpression): FilterExpression {
+        return simplify(pushNot(expression, false))
+    }
+
+    /**
+     * Remove the NOT nodes, negating the conditions below them (De Morgan)
+     */
+    private fun pushNot(expression: FilterExpression, negate: Boolean): FilterExpression {
+        return when (expression) {
+            is Condition -> if (negate) negate(expression) else expression
+            is Not -> pushNot(expression.child, !negate)
+            is And -> expression.children.map { pushNot(it, negate) }.let { if (negate) Or(it) else And(it) }
+            is Or -> expression.children.map { pushNot(it, negate) }.let { if (negate) And(it) else Or(it) }
+        }
+    }
+
+    private fun negate(condition: Condition): FilterExpression {
+        if (condition.operator == BaradumOperator.BETWEEN) {
+            val (from, to) = bounds(condition)
+            return Or(listOf(
+                Condition(condition.field, BaradumOperator.LESS, from),
+                Condition(condition.field, BaradumOperator.GREATER, to)
+            ))
+        }
+        return Condition(condition.field, negations.getValue(condition.operator), condition.value)
+    }
+
+    private fun simplify(expression: FilterExpression): FilterExpression {
+        return when (expression) {
+            is Condition -> simplify(expression)
+            is And -> group(mergeBounds(flatten<And>(expression.children.map { simplify(it) }))) { And(it) }
+            is Or -> group(mergeEquals(flatten<Or>(expression.children.map { simplify(it) }))) { Or(it) }
+            is Not -> Not(simplify(expression.child))
+        }
+    }
+
+    /**
+     * Values of IN and NOT IN without duplicates, an IN of a single value is an EQUAL
+     */
+    private fun simplify(condition: Condition): FilterExpression {
+        val values = condition.value as? List<*> ?: return condition
+
+        return when (condition.operator) {
+            BaradumOperator.IN, BaradumOperator.NOT_IN -> {
+                val distinct = values.distinct().sortedBy { it.toString() }
+                when {
+                    distinct.size != 1 -> Condition(condition.field, condition.operator, distinct)
+                    condition.operator == BaradumOperator.IN -> Condition(condition.field, BaradumOperator.EQUAL, distinct[0])
+                    else -> Condition(condition.field, BaradumOperator.DIFF, distinct[0])
+                }
+            }
+            else -> condition
+        }
+    }
+
+    private inline fun <reified G : FilterExpression> flatten(children: List<FilterExpression>): List<FilterExpression> {
+        return children.flatMap { child ->
+            when (child) {
+                is G -> (child as? And)?.children ?: (child as Or).children
+                else -> listOf(child)
+            }
+        }
+    }
+
+    private fun group(children: List<FilterExpression>, create: (List<FilterExpression>) -> FilterExpression): FilterExpression {
+        val distinct = children.distinct().sortedWith(order)
+        return distinct.singleOrNull() ?: create(distinct)
+    }
+
+    /**
+     * In an OR, the EQUALs and INs of the same field are a single IN
+     */
+    private fun mergeEquals(children: List<FilterExpression>): List<FilterExpression> {
+        val values = LinkedHashMap<String, MutableList<Any?>>()
+        val rest = ArrayList<FilterExpression>()
+
+        children.forEach { child ->
+            when {
+                child is Condition && child.operator == BaradumOperator.EQUAL && child.value != null ->
+                    values.getOrPut(child.field) { ArrayList() }.add(child.value)
+                child is Condition && child.operator == BaradumOperator.IN ->
+                    values.getOrPut(child.field) { ArrayList() }.addAll(child.value as List<*>)
+                else -> rest.add(child)
+            }
+        }
+
+        return values.map { (field, fieldValues) -> simplify(Condition(field, BaradumOperator.IN, fieldValues)) } + rest
+    }
+
+    /**
+     * In an AND, the tightest bound of each kind is kept, and an inclusive lower and upper bound
+     * of the same field are a BETWEEN
+     */
+    private fun mergeBounds(children: List<FilterExpression>): List<FilterExpression> {
+        val bounds = LinkedHashMap<Pair<String, BaradumOperator>, Condition>()
+        val rest = ArrayList<FilterExpression>()
+
+        children.forEach { child ->
+            if (child !is Condition || !isBound(child)) {
+                rest.add(child)
+                return@forEach
+            }
+            val key = child.field to child.operator
+            val current = bounds[key]
+            val tightest = if (current == null || current == child) child else tightest(current, child)
+            if (tightest != null) {
+                bounds[key] = tightest
+            } else {
+                rest.add(child)
+            }
+        }
+
+        val merged = ArrayList<FilterExpression>()
+        bounds.values.forEach { bound ->
+            when (bound.operator) {
+                BaradumOperator.GREATER_OR_EQUAL -> {
+                    val upper = bounds[bound.field to BaradumOperator.LESS_OR_EQUAL]
+                    if (upper != null) {
+                        merged.add(Condition(bound.field, BaradumOperator.BETWEEN, listOf(bound.value, upper.value)))
+                    } else {
+                        merged.add(bound)
+                    }
+                }
+                BaradumOperator.LESS_OR_EQUAL -> {
+                    val lower = bounds[bound.field to BaradumOperator.GREATER_OR_EQUAL]
+                    if (lower == null) {
+                        merged.add(bound)
+                    }
+                }
+                else -> merged.add(bound)
+            }
+        }
+
+        return merged + rest
+    }
+
+    private fun isBound(condition: Condition): Boolean {
+        return condition.value != null && when (condition.operator) {
+            BaradumOperator.GREATER, BaradumOperator.GREATER_OR_EQUAL,
+            BaradumOperator.LESS, BaradumOperator.LESS_OR_EQUAL -> true
+            else -> false
+        }
+    }
+
+    /**
+     * The bound that implies the other one, null if the values can't be compared.
+     * Strings are never compared, the backend may convert them (e.g. "9" and "10" to numbers).
+     */
+    @Suppress("UNCHECKED_CAST")
+    private fun tightest(first: Condition, second: Condition): Condition? {
+        if (!comparable(first.value, second.value)) return null
+
+        val comparison = (first.value as Comparable<Any>).compareTo(second.value as Any)
+        val lower = first.operator == BaradumOperator.GREATER || first.operator == BaradumOperator.GREATER_OR_EQUAL
+
+        return if ((comparison >= 0) == lower) first else second
+    }
+
+    private fun comparable(first: Any?, second: Any?): Boolean {
+        return first is Comparable<*> && first !is String && second != null && first.javaClass == second.javaClass
+    }
+
+    private fun bounds(condition: Condition): Pair<Any?, Any?> {
+        val values = condition.value as? List<*>
+        if (values == null || values.size != 2) {
+            throw FilterException("BETWEEN on '${condition.field}' requires a pair of values")
+        }
+        return values[0] to values[1]
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.robertomike.baradum.core.expressions
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.sorting.SeekKey
+
+/**
+ * Immutable tree of the conditions of a query, between the filters and the query builders.
+ *
+ * Baradum records the conditions added by the filters as an expression, turns it into its [canonical] form
+ * and then adds it to the query builder. Two requests with the same conditions get equal canonical expressions,
+ * whatever the order of their params, so they can be compared, inspected or used as cache keys.
+ *
+ * Usage example:
+ * ```kotlin
+ * val expression = FilterExpression.allOf(
+ *     FilterExpression.condition("country", BaradumOperator.EQUAL, "USA"),
+ *     FilterExpression.condition("age", BaradumOperator.GREATER_OR_EQUAL, 18),
+ *     FilterExpression.condition("age", BaradumOperator.LESS_OR_EQUAL, 65)
+ * )
+ * expression.canonical() // (age BETWEEN [18, 65] AND country EQUAL USA)
+ * ```
+ */
+sealed class FilterExpression {
+
+    /**
+     * A single condition, the values of IN and NOT IN are kept as a list, BETWEEN as a list of two values
+     */
+    class Condition(val field: String, val operator: BaradumOperator, value: Any?) : FilterExpression() {
+        val value: Any? = when (value) {
+            is Collection<*> -> value.toList()
+            is Array<*> -> value.toList()
+            is Pair<*, *> -> listOf(value.first, value.second)
+            else -> value
+        }
+
+        override fun equals(other: Any?): Boolean {
+            return other is Condition && field == other.field && operator == other.operator && value == other.value
+        }
+
+        override fun hashCode(): Int = (field.hashCode() * 31 + operator.hashCode()) * 31 + (value?.hashCode() ?: 0)
+
+        override fun toString(): String = "$field $operator $value"
+    }
+
+    /**
+     * All the children must match
+     */
+    class And(children: List<FilterExpression>) : FilterExpression() {
+        val children: List<FilterExpression> = children.toList()
+
+        init {
+            if (this.children.isEmpty()) {
+                throw BaradumException("An AND expression needs at least one condition")
+            }
+        }
+
+        override fun equals(other: Any?): Boolean = other is And && children == other.children
+
+        override fun hashCode(): Int = children.hashCode() * 31 + 1
+
+        override fun toString(): String = children.joinToString(" AND ", "(", ")")
+    }
+
+    /**
+     * Any of the children must match
+     */
+    class Or(children: List<FilterExpression>) : FilterExpression() {
+        val children: List<FilterExpression> = children.toList()
+
+        init {
+            if (this.children.isEmpty()) {
+                throw BaradumException("An OR expression needs at least one condition")
+            }
+        }
+
+        override fun equals(other: Any?): Boolean = other is Or && children == other.children
+
+        override fun hashCode(): Int = children.hashCode() * 31 + 2
+
+        override fun toString(): String = children.joinToString(" OR ", "(", ")")
+    }
+
+    /**
+     * The child must not match
+     */
+    class Not(val child: FilterExpression) : FilterExpression() {
+        override fun equals(other: Any?): Boolean = other is Not && child == other.child
+
+        override fun hashCode(): Int = child.hashCode() * 31 + 3
+
+        override fun toString(): String = "NOT $child"
+    }
+
+    infix fun and(other: FilterExpression): FilterExpression = And(listOf(this, other))
+
+    infix fun or(other: FilterExpression): FilterExpression = Or(listOf(this, other))
+
+    operator fun not(): FilterExpression = Not(this)
+
+    /**
+     * Equivalent expression in canonical form: NOT pushed down to the conditions, nested ANDs and ORs flattened,
+     * EQUALs of a field joined with OR merged into an IN, inclusive bounds of a field merged into a BETWEEN,
+     * duplicates dropped and children in a stable order.
+     */
+    fun canonical(): FilterExpression = FilterCanonicalizer.canonicalize(this)
+
+    /**
+     * Conditions of the expression when they are only joined with AND, in order, null otherwise
+     */
+    fun conjunction(): List<Condition>? {
+        return when (this) {
+            is Condition -> listOf(this)
+            is And -> children.flatMap { it.conjunction() ?: return null }
+            is Or, is Not -> null
+        }
+    }
+
+    companion object {
+        @JvmStatic
+        fun condition(field: String, operator: BaradumOperator, value: Any?): FilterExpression {
+            return Condition(field, operator, value)
+        }
+
+        @JvmStatic
+        fun allOf(vararg expressions: FilterExpression): FilterExpression = And(expressions.toList())
+
+        @JvmStatic
+        fun anyOf(vararg expressions: FilterExpression): FilterExpression = Or(expressions.toList())
+
+        @JvmStatic
+        fun not(expression: FilterExpression): FilterExpression = Not(expression)
+
+        /**
+         * Keyset condition, the rows after the keys in their sort order: `a > ?1 OR (a = ?1 AND b > ?2)`,
+         * see [io.github.robertomike.baradum.core.interfaces.QueryBuilder.seek]
+         */
+        @JvmStatic
+        fun after(keys: List<SeekKey>): FilterExpression {
+            if (keys.isEmpty()) {
+                throw BaradumException("A keyset condition needs at least one key")
+            }
+
+            return Or(keys.indices.map { index ->
+                val key = keys[index]
+                val operator = if (key.direction == SortDirection.ASC) BaradumOperator.GREATER else BaradumOperator.LESS
+                val previous = keys.subList(0, index).map { Condition(it.field, BaradumOperator.EQUAL, it.value) }
+
+                And(previous + Condition(key.field, operator, key.value))
+            })
+        }
+    }
+}
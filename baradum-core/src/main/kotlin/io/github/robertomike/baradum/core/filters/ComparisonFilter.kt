@@ -53,4 +53,8 @@ open class ComparisonFilter @JvmOverloads constructor(
     }
 
     override fun transform(value: String): String = value
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
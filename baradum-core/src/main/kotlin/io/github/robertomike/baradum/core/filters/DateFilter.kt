@@ -3,10 +3,11 @@ package io.github.robertomike.baradum.core.filters
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.exceptions.FilterException
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
-import java.text.SimpleDateFormat
 import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.ZoneId
 import java.time.format.DateTimeFormatter
+import java.time.temporal.TemporalQuery
 import java.util.Date
 
 /**
@@ -24,6 +25,11 @@ import java.util.Date
  * - java.sql.Date
  * - java.sql.Timestamp
  * 
+ * The pattern is compiled once per filter, and the default ISO formats
+ * (`yyyy-MM-dd`, `yyyy-MM-dd'T'HH:mm[:ss[.SSSSSSSSS]]`) are parsed by hand
+ * without going through a formatter. java.util.Date values are at the
+ * system time zone, like before.
+ * 
  * Usage examples:
  * ```kotlin
  * // Simple usage with LocalDate
@@ -49,6 +55,15 @@ open class DateFilter @JvmOverloads constructor(
     private val pattern: String? = null
 ) : Filter<Any, QueryBuilder<*>>(param, internalName) {
 
+    private val formatter: DateTimeFormatter = try {
+        pattern?.let { DateTimeFormatter.ofPattern(it) } ?: when (dateType) {
+            DateType.LOCAL_DATE_TIME -> DateTimeFormatter.ISO_LOCAL_DATE_TIME
+            else -> DateTimeFormatter.ISO_LOCAL_DATE
+        }
+    } catch (e: IllegalArgumentException) {
+        throw FilterException("Invalid date pattern '$pattern' in filter '$param'")
+    }
+
     /**
      * Supported date types for parsing and filtering
      */
@@ -142,6 +157,74 @@ open class DateFilter @JvmOverloads constructor(
             pattern: String? = null,
             internalName: String = param
         ): DateFilter = DateFilter(param, internalName, DateType.SQL_TIMESTAMP, pattern)
+
+        private val LOCAL_DATE_TIME_QUERY = TemporalQuery { LocalDateTime.from(it) }
+        private val LOCAL_DATE_QUERY = TemporalQuery { LocalDate.from(it) }
+
+        /**
+         * Parses `yyyy-MM-dd`, returns null if the value has another shape.
+         */
+        private fun parseIsoDate(value: String): LocalDate? {
+            return if (value.length == 10) parseIsoDatePrefix(value) else null
+        }
+
+        /**
+         * Parses the `yyyy-MM-dd` in the first 10 characters of a value that is at least that long.
+         */
+        private fun parseIsoDatePrefix(value: String): LocalDate? {
+            if (value[4] != '-' || value[7] != '-') return null
+
+            val year = digits(value, 0, 4)
+            val month = digits(value, 5, 2)
+            val day = digits(value, 8, 2)
+            if (year < 0 || month < 0 || day < 0) return null
+
+            return LocalDate.of(year, month, day)
+        }
+
+        /**
+         * Parses `yyyy-MM-dd'T'HH:mm`, with optional seconds and fraction,
+         * returns null if the value has another shape.
+         */
+        private fun parseIsoDateTime(value: String): LocalDateTime? {
+            val length = value.length
+            if (length < 16 || value[10] != 'T' || value[13] != ':') return null
+
+            val date = parseIsoDatePrefix(value) ?: return null
+            val hour = digits(value, 11, 2)
+            val minute = digits(value, 14, 2)
+            var second = 0
+            var nano = 0
+
+            if (length > 16) {
+                if (length < 19 || value[16] != ':') return null
+                second = digits(value, 17, 2)
+
+                if (length > 19) {
+                    val fractionDigits = length - 20
+                    if (value[19] != '.' || fractionDigits < 1 || fractionDigits > 9) return null
+                    nano = digits(value, 20, fractionDigits)
+                    if (nano < 0) return null
+                    repeat(9 - fractionDigits) { nano *= 10 }
+                }
+            }
+            if (hour < 0 || minute < 0 || second < 0) return null
+
+            return date.atTime(hour, minute, second, nano)
+        }
+
+        /**
+         * @return the number in value[start, start + count), or -1 if there is a non digit
+         */
+        private fun digits(value: String, start: Int, count: Int): Int {
+            var result = 0
+            for (index in start until start + count) {
+                val char = value[index]
+                if (char !in '0'..'9') return -1
+                result = result * 10 + (char - '0')
+            }
+            return result
+        }
     }
 
     override fun filterByParam(query: QueryBuilder<*>, value: String) {
@@ -182,7 +265,7 @@ open class DateFilter @JvmOverloads constructor(
                 DateType.LOCAL_DATE_TIME -> parseLocalDateTime(value)
                 DateType.UTIL_DATE -> parseUtilDate(value)
                 DateType.SQL_DATE -> java.sql.Date(parseUtilDate(value).time)
-                DateType.SQL_TIMESTAMP -> java.sql.Timestamp(parseUtilDate(value).time)
+                DateType.SQL_TIMESTAMP -> java.sql.Timestamp.valueOf(parseDateAndTime(value))
             }
         } catch (e: Exception) {
             val expectedPattern = pattern ?: getDefaultPattern()
@@ -194,20 +277,35 @@ open class DateFilter @JvmOverloads constructor(
     }
 
     private fun parseLocalDate(value: String): LocalDate {
-        val formatter = pattern?.let { DateTimeFormatter.ofPattern(it) } 
-            ?: DateTimeFormatter.ISO_LOCAL_DATE
+        if (pattern == null) {
+            parseIsoDate(value)?.let { return it }
+        }
         return LocalDate.parse(value, formatter)
     }
 
     private fun parseLocalDateTime(value: String): LocalDateTime {
-        val formatter = pattern?.let { DateTimeFormatter.ofPattern(it) } 
-            ?: DateTimeFormatter.ISO_LOCAL_DATE_TIME
+        if (pattern == null) {
+            parseIsoDateTime(value)?.let { return it }
+        }
         return LocalDateTime.parse(value, formatter)
     }
 
     private fun parseUtilDate(value: String): Date {
-        val format = SimpleDateFormat(pattern ?: "yyyy-MM-dd")
-        return format.parse(value)
+        return Date.from(parseDateAndTime(value).atZone(ZoneId.systemDefault()).toInstant())
+    }
+
+    /**
+     * Date types from java.util and java.sql accept patterns with or without time,
+     * dates without time are at the start of the day.
+     */
+    private fun parseDateAndTime(value: String): LocalDateTime {
+        if (pattern == null) {
+            return parseLocalDate(value).atStartOfDay()
+        }
+        return when (val parsed = formatter.parseBest(value, LOCAL_DATE_TIME_QUERY, LOCAL_DATE_QUERY)) {
+            is LocalDateTime -> parsed
+            else -> (parsed as LocalDate).atStartOfDay()
+        }
     }
 
     private fun getDefaultPattern(): String {
@@ -222,4 +320,8 @@ open class DateFilter @JvmOverloads constructor(
     override fun transform(value: String): Any {
         return parseDate(value)
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
@@ -51,4 +51,8 @@ open class EnumFilter<E : Enum<E>, Q : QueryBuilder<*>> @JvmOverloads constructo
     override fun supportBodyOperation(): Boolean {
         return true
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
@@ -2,11 +2,13 @@ package io.github.robertomike.baradum.core.filters
 
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.utils.ValueConverter
 import kotlin.reflect.KProperty1
 
 /**
  * Generic ExactFilter for filtering by exact value match.
- * Automatically converts String values to appropriate types (Boolean, Int, Long, Double).
+ * Automatically converts String values to appropriate types (Boolean, Int, Long, Double),
+ * or to a fixed type configured with [asType] (e.g. BigDecimal, UUID).
  * 
  * Usage examples:
  * ```kotlin
@@ -20,10 +22,16 @@ import kotlin.reflect.KProperty1
  * ExactFilter(User::country)
  * ExactFilter(User::status)
  * ExactFilter(User::isActive, "active")  // Custom param name
+ *
+ * // Fixed target type
+ * ExactFilter("price").asType(BigDecimal::class.java)
+ * ExactFilter("externalId").asType(UUID::class.java)
  * ```
  */
 open class ExactFilter : Filter<Any, QueryBuilder<*>> {
 
+    private var targetType: Class<*>? = null
+
     @JvmOverloads
     constructor(param: String, internalName: String = param) : super(param, internalName)
 
@@ -44,21 +52,25 @@ open class ExactFilter : Filter<Any, QueryBuilder<*>> {
         fun of(property: KProperty1<*, *>, param: String): ExactFilter = ExactFilter(property, param)
     }
     
+    /**
+     * Always converts the value to the given type instead of guessing it from the value.
+     */
+    fun asType(type: Class<*>): ExactFilter {
+        targetType = type
+        return this
+    }
+
     override fun filterByParam(query: QueryBuilder<*>, value: String) {
-        // Convert string value to appropriate type for simple cases
-        val convertedValue: Any = when {
-            value.equals("true", ignoreCase = true) -> true
-            value.equals("false", ignoreCase = true) -> false
-            // Only convert if it's clearly a number (no letters)
-            value.matches(Regex("^-?\\d+$")) && value.length < 10 -> value.toInt()
-            value.matches(Regex("^-?\\d+$")) -> value.toLong()
-            value.matches(Regex("^-?\\d+\\.\\d+$")) -> value.toDouble()
-            else -> value // Keep as string - ORM will handle enum conversion
-        }
+        // Strings that are not clearly a boolean or number stay as they are - ORM will handle enum conversion
+        val convertedValue = targetType?.let { ValueConverter.convert(value, it) } ?: ValueConverter.convert(value)
         query.where(internalName, BaradumOperator.EQUAL, convertedValue)
     }
 
     override fun supportBodyOperation(): Boolean {
         return true
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
@@ -132,4 +132,13 @@ abstract class Filter<T : Any, Q : QueryBuilder<*>>(val param: String, val inter
     open fun supportBodyOperation(): Boolean {
         return true
     }
+
+    /**
+     * Whether this filter only adds conditions with [QueryBuilder.where] and [QueryBuilder.whereGroup],
+     * so Baradum can record them and add their canonical form to the query builder.
+     * Filters that need the query builder of their provider, or do more than adding conditions, must return false.
+     */
+    open fun supportRecording(): Boolean {
+        return false
+    }
 }
@@ -1,28 +1,170 @@
 package io.github.robertomike.baradum.core.filters
 
 import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
 import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.ExpressionRecorder
+import io.github.robertomike.baradum.core.expressions.FilterExpression
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
 import io.github.robertomike.baradum.core.requests.BasicRequest
 import io.github.robertomike.baradum.core.requests.FilterRequest
 
 class Filterable<Q : QueryBuilder<*>> {
-    val allowedFilters: MutableList<Filter<*, Q>> = ArrayList()
+    private val filters = ArrayList<Filter<*, Q>>()
+
+    /**
+     * Filters indexed by param, so body filters are resolved without scanning the list
+     */
+    private val index = HashMap<String, Filter<*, Q>>()
+    private var frozen = false
+
+    /**
+     * Registered filters in insertion order. Changes made through it go through the same checks as [addFilters],
+     * so the filters resolved by param stay in sync.
+     */
+    val allowedFilters: MutableList<Filter<*, Q>> = AllowedFilters()
 
     fun addFilters(vararg filters: Filter<*, *>) {
-        allowedFilters.addAll(listOf(*filters) as Collection<Filter<*, Q>>)
+        addFilters(listOf(*filters))
     }
 
+    /**
+     * Add filters, each param can be registered only once.
+     * The whole collection is checked first, so when a param is repeated none of the filters are added.
+     */
     fun addFilters(filters: Collection<Filter<*, *>>) {
-        allowedFilters.addAll(filters as Collection<Filter<*, Q>>)
+        checkNotFrozen()
+        val params = HashSet<String>()
+        filters.forEach { filter ->
+            if (index.containsKey(filter.param) || !params.add(filter.param)) {
+                throw BaradumException("The filter param '${filter.param}' is already registered")
+            }
+        }
+        filters.forEach { filter ->
+            index[filter.param] = filter as Filter<*, Q>
+            this.filters.add(filter)
+        }
+    }
+
+    private fun checkNotFrozen() {
+        if (frozen) {
+            throw BaradumException("The filters cannot be changed once they are frozen")
+        }
+    }
+
+    /**
+     * Mutable view of the filters keeping the index of params up to date
+     */
+    private inner class AllowedFilters : AbstractMutableList<Filter<*, Q>>() {
+        override val size: Int
+            get() = filters.size
+
+        override fun get(index: Int): Filter<*, Q> = filters[index]
+
+        override fun add(index: Int, element: Filter<*, Q>) {
+            checkNotFrozen()
+            if (this@Filterable.index.containsKey(element.param)) {
+                throw BaradumException("The filter param '${element.param}' is already registered")
+            }
+            filters.add(index, element)
+            this@Filterable.index[element.param] = element
+        }
+
+        override fun removeAt(index: Int): Filter<*, Q> {
+            checkNotFrozen()
+            val removed = filters.removeAt(index)
+            this@Filterable.index.remove(removed.param)
+            return removed
+        }
+
+        override fun set(index: Int, element: Filter<*, Q>): Filter<*, Q> {
+            checkNotFrozen()
+            val replaced = filters[index]
+            if (element.param != replaced.param && this@Filterable.index.containsKey(element.param)) {
+                throw BaradumException("The filter param '${element.param}' is already registered")
+            }
+            filters[index] = element
+            this@Filterable.index.remove(replaced.param)
+            this@Filterable.index[element.param] = element
+            return replaced
+        }
+    }
+
+    /**
+     * Reject new filters, so it can be shared between threads
+     */
+    internal fun freeze() {
+        frozen = true
+    }
+
+    /**
+     * Create a filterable with the same filters that can be modified
+     */
+    internal fun copy(): Filterable<Q> {
+        val copy = Filterable<Q>()
+        copy.filters.addAll(filters)
+        copy.index.putAll(index)
+        return copy
+    }
+
+    /**
+     * Conditions the filters add for the request, as they add them, null when none applies.
+     * See [FilterExpression.canonical] for the form Baradum adds to the query builder.
+     *
+     * @throws FilterException if a filter doesn't support recording
+     */
+    fun expression(request: BasicRequest<*>): FilterExpression? {
+        return expressionOf { apply(it, request) }
+    }
+
+    /**
+     * Conditions the filters add for the params, see [expression]
+     */
+    fun expression(params: Map<String, String>): FilterExpression? {
+        return expressionOf { apply(it, params) }
+    }
+
+    /**
+     * Conditions the filters add for the body filters, see [expression]
+     */
+    fun expression(filters: Collection<FilterRequest>): FilterExpression? {
+        return expressionOf { apply(it, filters) }
+    }
+
+    private fun expressionOf(apply: (Q) -> Unit): FilterExpression? {
+        val recorder = record(apply)
+            ?: throw FilterException("The filters don't support recording, they must be applied to the query builder")
+        return recorder.expression
+    }
+
+    /**
+     * Whether every filter supports recording, see [Filter.supportRecording]
+     */
+    fun isRecordable(): Boolean {
+        return filters.all { it.supportRecording() }
+    }
+
+    /**
+     * Apply the filters to a recorder instead of a query builder.
+     * Null when a filter doesn't support recording, the filters must then be applied to the query builder.
+     */
+    internal fun record(apply: (Q) -> Unit): ExpressionRecorder? {
+        if (!isRecordable()) {
+            return null
+        }
+
+        val recorder = ExpressionRecorder()
+        @Suppress("UNCHECKED_CAST")
+        apply(recorder as Q)
+        return recorder
     }
 
     fun apply(builder: Q, request: BasicRequest<*>) {
-        allowedFilters.forEach { it.filterByParam(builder, request) }
+        filters.forEach { it.filterByParam(builder, request) }
     }
 
     fun apply(builder: Q, params: Map<String, String>) {
-        allowedFilters.forEach { filter ->
+        filters.forEach { filter ->
             val value = params[filter.param]
             if (value != null) {
                 filter.filterByParam(builder, value)
@@ -53,8 +195,7 @@ class Filterable<Q : QueryBuilder<*>> {
     }
 
     private fun applySimpleFilter(builder: Q, filterRequest: FilterRequest) {
-        val filterDef = allowedFilters
-            .firstOrNull { it.param == filterRequest.field }
+        val filterDef = filterRequest.field?.let { index[it] }
             ?: throw FilterException("The field '${filterRequest.field}' is not allowed")
 
         if (!filterDef.supportBodyOperation()) {
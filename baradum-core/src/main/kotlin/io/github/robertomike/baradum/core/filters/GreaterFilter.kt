@@ -3,6 +3,7 @@ package io.github.robertomike.baradum.core.filters
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.exceptions.FilterException
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.utils.ValueConverter
 import kotlin.reflect.KProperty1
 
 /**
@@ -37,6 +38,7 @@ import kotlin.reflect.KProperty1
 open class GreaterFilter : Filter<String, QueryBuilder<*>> {
 
     private val orEqual: Boolean
+    private var targetType: Class<*>? = null
 
     @JvmOverloads
     constructor(
@@ -75,6 +77,14 @@ open class GreaterFilter : Filter<String, QueryBuilder<*>> {
             GreaterFilter(property, param, orEqual)
     }
 
+    /**
+     * Always converts the value to the given type (e.g. BigDecimal) instead of guessing it.
+     */
+    fun asType(type: Class<*>): GreaterFilter {
+        targetType = type
+        return this
+    }
+
     /**
      * Apply the greater than filter to the query
      */
@@ -90,26 +100,16 @@ open class GreaterFilter : Filter<String, QueryBuilder<*>> {
         }
 
         // Try to parse as number for better type safety
-        val parsedValue = tryParseNumber(value) ?: value
+        val parsedValue = targetType?.let { ValueConverter.convert(value, it) }
+            ?: ValueConverter.parseComparable(value)
+            ?: value
         
         query.where(internalName, operator, parsedValue)
     }
 
-    /**
-     * Try to parse the value as a number (Int, Long, Double) for type safety.
-     * Returns null if parsing fails, falling back to string comparison.
-     */
-    private fun tryParseNumber(value: String): Any? {
-        return try {
-            when {
-                value.contains(".") -> value.toDouble()
-                value.toLongOrNull()?.let { it > Int.MAX_VALUE || it < Int.MIN_VALUE } == true -> value.toLong()
-                else -> value.toInt()
-            }
-        } catch (e: NumberFormatException) {
-            null
-        }
-    }
-
     override fun transform(value: String): String = value
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
@@ -39,4 +39,8 @@ open class InFilter @JvmOverloads constructor(
             .map { it.trim() }
             .filter { it.isNotEmpty() }
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
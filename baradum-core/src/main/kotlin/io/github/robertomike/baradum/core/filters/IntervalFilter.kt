@@ -44,4 +44,8 @@ open class IntervalFilter @JvmOverloads constructor(
             }
         }
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
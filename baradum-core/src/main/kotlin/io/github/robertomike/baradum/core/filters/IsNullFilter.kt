@@ -43,4 +43,8 @@ open class IsNullFilter @JvmOverloads constructor(
             else -> throw FilterException("Invalid value for IsNullFilter '$param'. Use 'null' or 'not_null'")
         }
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
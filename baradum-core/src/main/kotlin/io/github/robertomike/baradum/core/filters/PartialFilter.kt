@@ -56,4 +56,8 @@ open class PartialFilter : Filter<Any, QueryBuilder<*>> {
         val likeValue = if (value.contains("%")) value else strategy.apply(value)
         query.where(internalName, BaradumOperator.LIKE, likeValue)
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
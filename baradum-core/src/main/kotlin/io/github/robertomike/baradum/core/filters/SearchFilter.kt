@@ -58,4 +58,8 @@ open class SearchFilter @JvmOverloads constructor(
             query.where(field, BaradumOperator.LIKE, likeValue, whereOp)
         }
     }
+
+    override fun supportRecording(): Boolean {
+        return true
+    }
 }
@@ -0,0 +1,196 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+import java.util.ServiceLoader
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+
+/**
+ * Registry of the [BaradumListener]s.
+ *
+ * Without listeners the executions aren't timed at all, the only cost is checking [enabled].
+ * Listeners found with ServiceLoader are registered the first time this object is used.
+ *
+ * Usage example:
+ * ```kotlin
+ * BaradumInstrumentation.register { event ->
+ *     println("${event.operation} ${event.entity?.simpleName} took ${event.duration}")
+ * }
+ * ```
+ */
+object BaradumInstrumentation {
+    private val logger = System.getLogger(BaradumInstrumentation::class.java.name)
+
+    @Volatile
+    private var listeners: Array<BaradumListener> =
+        ServiceLoader.load(BaradumListener::class.java).toList().toTypedArray()
+
+    private val timers = ThreadLocal<ExecutionTimer>()
+
+    /**
+     * Whether any listener is registered
+     */
+    @JvmStatic
+    val enabled: Boolean
+        get() = listeners.isNotEmpty()
+
+    @JvmStatic
+    @Synchronized
+    fun register(listener: BaradumListener) {
+        listeners += listener
+    }
+
+    @JvmStatic
+    @Synchronized
+    fun unregister(listener: BaradumListener) {
+        listeners = listeners.filter { it !== listener }.toTypedArray()
+    }
+
+    /**
+     * Remove all the listeners, the ones found with ServiceLoader included
+     */
+    @JvmStatic
+    @Synchronized
+    fun clear() {
+        listeners = emptyArray()
+    }
+
+    /**
+     * Get the timer of the execution running on this thread, null when there is none or instrumentation is disabled
+     */
+    @JvmStatic
+    fun current(): ExecutionTimer? {
+        return if (enabled) timers.get() else null
+    }
+
+    /**
+     * Time a phase of the current execution, used by the query builders.
+     * Without an execution being recorded the block runs as is.
+     */
+    inline fun <R> time(phase: ExecutionPhase, block: () -> R): R {
+        val timer = current() ?: return block()
+        val start = System.nanoTime()
+        try {
+            return block()
+        } finally {
+            timer.add(phase, System.nanoTime() - start)
+        }
+    }
+
+    /**
+     * Record an execution of Baradum and report it to the listeners when it ends
+     */
+    internal inline fun <R> record(
+        entity: Class<*>?,
+        operation: String,
+        rows: (R) -> Int,
+        total: (R) -> Long?,
+        execution: () -> R
+    ): R {
+        val timer = ExecutionTimer()
+        val previous = enter(timer)
+        val start = System.nanoTime()
+        val result = try {
+            execution()
+        } catch (e: Throwable) {
+            exit(previous)
+            publish(ExecutionEvent(entity, operation, timer.params, 0, null, System.nanoTime() - start, e, timer.phases))
+            throw e
+        }
+        val duration = System.nanoTime() - start
+        exit(previous)
+        publish(ExecutionEvent(entity, operation, timer.params, rows(result), total(result), duration, null, timer.phases))
+        return result
+    }
+
+    /**
+     * Record an execution that completes asynchronously, reported when the future completes.
+     * The tasks run on the executor passed to the execution are timed with it, whatever their thread.
+     */
+    internal fun <R> recordAsync(
+        entity: Class<*>?,
+        operation: String,
+        rows: (R) -> Int,
+        total: (R) -> Long?,
+        executor: Executor,
+        execution: (Executor) -> CompletableFuture<R>
+    ): CompletableFuture<R> {
+        val timer = ExecutionTimer()
+        val timed = Executor { task ->
+            executor.execute {
+                val previous = enter(timer)
+                try {
+                    task.run()
+                } finally {
+                    exit(previous)
+                }
+            }
+        }
+
+        val previous = enter(timer)
+        val start = System.nanoTime()
+        val future = try {
+            execution(timed)
+        } catch (e: Throwable) {
+            CompletableFuture.failedFuture(e)
+        } finally {
+            exit(previous)
+        }
+
+        return future.whenComplete { result, error ->
+            val duration = System.nanoTime() - start
+            if (error == null) {
+                publish(ExecutionEvent(entity, operation, timer.params, rows(result), total(result), duration, null, timer.phases))
+            } else {
+                val cause = if (error is CompletionException) error.cause ?: error else error
+                publish(ExecutionEvent(entity, operation, timer.params, 0, null, duration, cause, timer.phases))
+            }
+        }
+    }
+
+    /**
+     * Record an execution completed after it returns, e.g. a reactive one. Only the work of [execution]
+     * on the calling thread is timed, the returned [PendingExecution] reports it once its result is known.
+     */
+    internal inline fun <R> recordPending(
+        entity: Class<*>?,
+        operation: String,
+        execution: (PendingExecution) -> R
+    ): R {
+        val timer = ExecutionTimer()
+        val pending = PendingExecution(entity, operation, timer, System.nanoTime())
+        val previous = enter(timer)
+        try {
+            return execution(pending)
+        } catch (e: Throwable) {
+            pending.fail(e)
+            throw e
+        } finally {
+            exit(previous)
+        }
+    }
+
+    internal fun enter(timer: ExecutionTimer): ExecutionTimer? {
+        val previous = timers.get()
+        timers.set(timer)
+        return previous
+    }
+
+    internal fun exit(previous: ExecutionTimer?) {
+        if (previous == null) timers.remove() else timers.set(previous)
+    }
+
+    /**
+     * Report the event to every listener. A failing listener is logged and skipped, it never changes the result
+     * of the execution nor stops the other listeners.
+     */
+    internal fun publish(event: ExecutionEvent) {
+        listeners.forEach {
+            try {
+                it.onExecution(event)
+            } catch (e: Exception) {
+                logger.log(System.Logger.Level.WARNING, "Listener ${it.javaClass.name} failed on ${event.operation}", e)
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+/**
+ * Service Provider Interface to observe Baradum executions, e.g. to export metrics.
+ *
+ * Listeners are registered with [BaradumInstrumentation.register], or discovered with Java's ServiceLoader:
+ * 1. Implement this interface in your module
+ * 2. Create file: META-INF/services/io.github.robertomike.baradum.core.instrumentation.BaradumListener
+ * 3. Add the fully qualified class name of your implementation
+ *
+ * Example implementation:
+ * ```kotlin
+ * class SlowQueryListener : BaradumListener {
+ *     override fun onExecution(event: ExecutionEvent) {
+ *         if (event.duration > Duration.ofMillis(500)) {
+ *             log.warn("Slow {} on {} with {}", event.operation, event.entity, event.params)
+ *         }
+ *     }
+ * }
+ * ```
+ *
+ * Listeners run on the thread of the execution once it ends, they should be fast. An exception of a listener
+ * is logged and ignored, it doesn't reach the caller of the execution.
+ */
+fun interface BaradumListener {
+    fun onExecution(event: ExecutionEvent)
+}
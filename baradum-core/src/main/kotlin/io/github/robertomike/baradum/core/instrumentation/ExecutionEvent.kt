@@ -0,0 +1,43 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+import java.time.Duration
+
+/**
+ * Report of a finished Baradum execution, passed to the [BaradumListener]s
+ *
+ * @param entity the entity queried, null if the query builder doesn't expose it
+ * @param operation the execution: get, page, lazyPage, pageAfter, findFirst, getAsync, pageAsync, findFirstAsync,
+ * or the name given to [io.github.robertomike.baradum.core.Baradum.executeDeferred], e.g. getFlux or pageMono
+ * @param params the params of the filters that were applied, by param name
+ * @param rows the rows returned
+ * @param total the total of a page, null if it wasn't counted
+ * @param durationNanos the duration of the whole execution
+ * @param error the exception thrown by the execution, null if it succeeded
+ */
+class ExecutionEvent internal constructor(
+    val entity: Class<*>?,
+    val operation: String,
+    val params: Map<String, String>,
+    val rows: Int,
+    val total: Long?,
+    val durationNanos: Long,
+    val error: Throwable?,
+    private val phases: LongArray
+) {
+    val duration: Duration
+        get() = Duration.ofNanos(durationNanos)
+
+    val succeeded: Boolean
+        get() = error == null
+
+    /**
+     * Nanoseconds spent in the phase, 0 if the execution didn't go through it
+     */
+    fun nanos(phase: ExecutionPhase): Long = phases[phase.ordinal]
+
+    override fun toString(): String {
+        val timings = ExecutionPhase.entries.joinToString { "$it=${phases[it.ordinal]}" }
+        return "ExecutionEvent(entity=${entity?.simpleName}, operation=$operation, params=$params, rows=$rows, " +
+            "total=$total, durationNanos=$durationNanos, $timings, error=$error)"
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+/**
+ * Phases of a Baradum execution, timed separately.
+ * Sync executions run the phases one after another, so their sum is at most the duration. Async executions
+ * (pageAsync, parallelPage) run COUNT and FETCH at the same time, there the phases overlap and their sum can be
+ * greater than the duration.
+ */
+enum class ExecutionPhase {
+    /**
+     * Reading the params, e.g. parsing the body of a POST request
+     */
+    RESOLVE_PARAMS,
+
+    /**
+     * Turning the params into conditions and sorts of the query builder
+     */
+    APPLY_FILTERS,
+
+    /**
+     * Assembling the query of the backend
+     */
+    BUILD_QUERY,
+
+    /**
+     * Running the count query of a page
+     */
+    COUNT,
+
+    /**
+     * Running the query and reading the rows
+     */
+    FETCH
+}
@@ -0,0 +1,19 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+/**
+ * Accumulates the phases of the execution running on the current thread.
+ * Query builders reach it through [BaradumInstrumentation.time], it's only created when a listener is registered.
+ */
+class ExecutionTimer internal constructor() {
+    internal val phases = LongArray(ExecutionPhase.entries.size)
+    internal var params: Map<String, String> = emptyMap()
+
+    /**
+     * Add the nanoseconds spent in a phase, a phase may be reported more than once per execution.
+     * Async executions report from several threads at once.
+     */
+    @Synchronized
+    fun add(phase: ExecutionPhase, nanos: Long) {
+        phases[phase.ordinal] += nanos
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Execution whose result is known after Baradum returns, e.g. a reactive one, see [io.github.robertomike.baradum.core.Baradum.executeDeferred].
+ * It's reported to the listeners the first time it completes or fails, later calls are ignored.
+ */
+class PendingExecution internal constructor(
+    private val entity: Class<*>?,
+    private val operation: String,
+    private val timer: ExecutionTimer,
+    private val start: Long
+) {
+    private val reported = AtomicBoolean()
+
+    fun complete(rows: Int, total: Long?) {
+        if (reported.compareAndSet(false, true)) {
+            val duration = System.nanoTime() - start
+            BaradumInstrumentation.publish(ExecutionEvent(entity, operation, timer.params, rows, total, duration, null, timer.phases))
+        }
+    }
+
+    fun fail(error: Throwable) {
+        if (reported.compareAndSet(false, true)) {
+            val duration = System.nanoTime() - start
+            BaradumInstrumentation.publish(ExecutionEvent(entity, operation, timer.params, 0, null, duration, error, timer.phases))
+        }
+    }
+}
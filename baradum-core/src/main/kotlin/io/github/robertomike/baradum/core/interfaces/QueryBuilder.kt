@@ -3,8 +3,17 @@ package io.github.robertomike.baradum.core.interfaces
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.enums.SortDirection
 import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.models.LazyPage
 import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.core.sorting.SeekKey
 import java.util.Optional
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.function.Consumer
+import java.util.stream.Stream
 
 /**
  * Core interface for building queries in a provider-agnostic way
@@ -22,11 +31,49 @@ interface QueryBuilder<T> {
         return where(field, BaradumOperator.EQUAL, value)
     }
     
+    /**
+     * Add a group of conditions, combined as a whole with the conditions added so far: `... AND (a OR b)`.
+     * Used for the filter expressions that can't be added one condition at a time.
+     *
+     * By default only groups of conditions joined with AND are supported, added one by one with [where],
+     * the query builders that support any group override it.
+     */
+    fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator = WhereOperator.AND): QueryBuilder<T> {
+        val conditions = expression.conjunction()
+        if (conditions == null || (conditions.size > 1 && whereOperator == WhereOperator.OR)) {
+            throw BaradumException("Grouped conditions are not supported by ${javaClass.simpleName}")
+        }
+
+        conditions.forEachIndexed { index, condition ->
+            where(condition.field, condition.operator, condition.value, if (index == 0) whereOperator else WhereOperator.AND)
+        }
+        return this
+    }
+
+    /**
+     * Whether the conditions of the filters can be added in their canonical form, see [FilterExpression.canonical]:
+     * bounds of a field merged into a BETWEEN, EQUALs of a field joined with OR merged into an IN, and groups.
+     *
+     * By default they are added as the filters added them, one condition at a time.
+     * The query builders that support BETWEEN, IN and [whereGroup] override it.
+     */
+    fun supportsCanonicalExpressions(): Boolean {
+        return false
+    }
+    
     /**
      * Add an order by clause
      */
     fun orderBy(field: String, direction: SortDirection = SortDirection.ASC): QueryBuilder<T>
     
+    /**
+     * Add the keyset pagination condition, resuming strictly after the given sort values.
+     * For keys (a ASC, b DESC) it's equivalent to: a > :a OR (a = :a AND b < :b)
+     */
+    fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        throw BaradumException("Keyset pagination is not supported by ${javaClass.simpleName}")
+    }
+    
     /**
      * Set select fields (if supported)
      */
@@ -52,16 +99,94 @@ interface QueryBuilder<T> {
      */
     fun get(): List<T>
     
+    /**
+     * Execute the query and return the results as a stream, which must be closed after use.
+     * Implementations should override it, the default loads all the results in memory.
+     */
+    fun stream(options: StreamOptions = StreamOptions()): Stream<T> {
+        return get().stream()
+    }
+    
+    /**
+     * Execute the query and pass the results to the consumer in chunks of the given size
+     */
+    fun forEachChunk(size: Int, consumer: Consumer<List<T>>) {
+        stream(StreamOptions(fetchSize = size)).use { stream ->
+            var chunk = ArrayList<T>(size)
+            stream.forEach {
+                chunk.add(it)
+                if (chunk.size == size) {
+                    consumer.accept(chunk)
+                    chunk = ArrayList(size)
+                }
+            }
+            if (chunk.isNotEmpty()) {
+                consumer.accept(chunk)
+            }
+        }
+    }
+    
     /**
      * Execute the query and return paginated results
      */
     fun page(limit: Int, offset: Long): Page<T>
     
+    /**
+     * Execute the query fetching `limit + 1` rows, the total is only counted when it's read.
+     * Implementations should override it, the default falls back to an eager page.
+     */
+    fun lazyPage(limit: Int, offset: Long): LazyPage<T> {
+        val page = page(limit, offset)
+        return LazyPage(page.content, limit, offset, page.hasNext) { page.totalElements }
+    }
+    
+    /**
+     * Count the elements matching the current conditions
+     */
+    fun count(): Long {
+        return page(1, 0).totalElements
+    }
+    
     /**
      * Execute the query and return the first result if any
      */
     fun findFirst(): Optional<T>
     
+    /**
+     * Execute the query on the executor and return all results.
+     * The default runs [get] with the session of the builder, override it to use a session per execution.
+     */
+    fun getAsync(executor: Executor): CompletableFuture<List<T>> {
+        return CompletableFuture.supplyAsync({ get() }, executor)
+    }
+    
+    /**
+     * Execute the query on the executor and return paginated results.
+     * The default runs [page] as one task, implementations with a session per execution can
+     * run the content and the count concurrently.
+     */
+    fun pageAsync(limit: Int, offset: Long, executor: Executor): CompletableFuture<Page<T>> {
+        return CompletableFuture.supplyAsync({ page(limit, offset) }, executor)
+    }
+    
+    /**
+     * Execute the query on the executor and return the first result if any, see [getAsync]
+     */
+    fun findFirstAsync(executor: Executor): CompletableFuture<Optional<T>> {
+        return CompletableFuture.supplyAsync({ findFirst() }, executor)
+    }
+    
+    /**
+     * Resolve the given fields in the backend ahead of time, so the first queries don't pay for it.
+     * Used by [io.github.robertomike.baradum.core.BaradumSpec.preResolve], the default does nothing.
+     */
+    fun resolveFields(fields: Collection<String>) {}
+    
+    /**
+     * Get the entity queried, reported to the instrumentation listeners. The default returns null.
+     */
+    fun getEntityClass(): Class<*>? = null
+    
     /**
      * Get access to provider-specific where conditions (if needed)
      */
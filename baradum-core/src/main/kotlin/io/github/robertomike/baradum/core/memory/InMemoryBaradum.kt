@@ -0,0 +1,45 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.BaradumSpec
+import java.util.function.Supplier
+
+/**
+ * Factory for creating Baradum instances over collections in memory, see [InMemoryQueryBuilder]
+ *
+ * Usage example:
+ * ```kotlin
+ * val baradum = InMemoryBaradum.make(countries, Country::class.java)
+ * baradum.allowedFilters(ExactFilter("continent"), PartialFilter("name"))
+ * val page = baradum.page(20)
+ * ```
+ */
+object InMemoryBaradum {
+    /**
+     * Creates a new Baradum instance over the collection
+     */
+    @JvmStatic
+    fun <T> make(items: Collection<T>, modelClass: Class<T>): Baradum<T, InMemoryQueryBuilder<T>> {
+        return Baradum(InMemoryQueryBuilder(items, modelClass))
+    }
+
+    /**
+     * Creates a new Baradum instance over the collection of the supplier, read on each execution
+     */
+    @JvmStatic
+    fun <T> make(source: Supplier<out Collection<T>>, modelClass: Class<T>): Baradum<T, InMemoryQueryBuilder<T>> {
+        return Baradum(InMemoryQueryBuilder(source, modelClass))
+    }
+
+    /**
+     * Creates a new Baradum instance over the collection, bound to a precompiled spec
+     */
+    @JvmStatic
+    fun <T> make(
+        spec: BaradumSpec<T, InMemoryQueryBuilder<T>>,
+        items: Collection<T>,
+        modelClass: Class<T>
+    ): Baradum<T, InMemoryQueryBuilder<T>> {
+        return spec.on(InMemoryQueryBuilder(items, modelClass))
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import io.github.robertomike.baradum.core.utils.LikePattern
+import io.github.robertomike.baradum.core.utils.ValueComparison.compare
+import io.github.robertomike.baradum.core.utils.ValueComparison.equal
+import io.github.robertomike.baradum.core.utils.ValueComparison.key
+import io.github.robertomike.baradum.core.utils.ValueConverter
+import java.util.function.Predicate
+
+/**
+ * Compiles conditions into predicates over the elements of a collection.
+ *
+ * The work that doesn't depend on the element is done once: the accessor is resolved, the values are converted
+ * to the type of the property (e.g. "18" to an Int), IN values are hashed and LIKE patterns are turned
+ * into a plain string check when they can. Like in SQL, a null property only matches IS_NULL, while
+ * EQUAL and DIFF to null are IS_NULL and IS_NOT_NULL and any other comparison with null matches nothing.
+ */
+internal object InMemoryConditions {
+    fun compile(type: Class<*>, expression: FilterExpression): Predicate<Any?> {
+        return when (expression) {
+            is FilterExpression.Condition -> compile(
+                PropertyAccessors.of(type, expression.field),
+                expression.operator,
+                expression.value
+            )
+            is FilterExpression.And -> expression.children.map { compile(type, it) }.reduce { a, b -> a.and(b) }
+            is FilterExpression.Or -> expression.children.map { compile(type, it) }.reduce { a, b -> a.or(b) }
+            is FilterExpression.Not -> compile(type, expression.child).negate()
+        }
+    }
+
+    fun compile(accessor: PropertyAccessor, operator: BaradumOperator, value: Any?): Predicate<Any?> {
+        if (value == null && operator == BaradumOperator.EQUAL) return compile(accessor, BaradumOperator.IS_NULL, null)
+        if (value == null && operator == BaradumOperator.DIFF) return compile(accessor, BaradumOperator.IS_NOT_NULL, null)
+
+        return when (operator) {
+            BaradumOperator.IS_NULL -> Predicate { accessor.read(it) == null }
+            BaradumOperator.IS_NOT_NULL -> Predicate { accessor.read(it) != null }
+            BaradumOperator.EQUAL -> equalTo(accessor, value, true)
+            BaradumOperator.DIFF -> equalTo(accessor, value, false)
+            BaradumOperator.GREATER -> bound(accessor, value) { it > 0 }
+            BaradumOperator.GREATER_OR_EQUAL -> bound(accessor, value) { it >= 0 }
+            BaradumOperator.LESS -> bound(accessor, value) { it < 0 }
+            BaradumOperator.LESS_OR_EQUAL -> bound(accessor, value) { it <= 0 }
+            BaradumOperator.LIKE -> like(accessor, value, true)
+            BaradumOperator.NOT_LIKE -> like(accessor, value, false)
+            BaradumOperator.IN -> within(accessor, value, true)
+            BaradumOperator.NOT_IN -> within(accessor, value, false)
+            BaradumOperator.BETWEEN -> between(accessor, value)
+        }
+    }
+
+    /**
+     * Keyset condition, see [io.github.robertomike.baradum.core.interfaces.QueryBuilder.seek]
+     */
+    fun seek(type: Class<*>, keys: List<SeekKey>): Predicate<Any?> {
+        return keys.indices.map { index ->
+            val key = keys[index]
+            val operator = if (key.direction == SortDirection.ASC) BaradumOperator.GREATER else BaradumOperator.LESS
+
+            keys.subList(0, index)
+                .map { compile(PropertyAccessors.of(type, it.field), BaradumOperator.EQUAL, it.value) }
+                .fold(compile(PropertyAccessors.of(type, key.field), operator, key.value)) { a, b -> b.and(a) }
+        }.reduce { a, b -> a.or(b) }
+    }
+
+    /**
+     * Compares the values of a property, nulls first when ascending and last when descending
+     */
+    fun comparator(accessor: PropertyAccessor, direction: SortDirection): Comparator<Any?> {
+        val ascending = Comparator<Any?> { first, second ->
+            val a = accessor.read(first)
+            val b = accessor.read(second)
+            when {
+                a == null -> if (b == null) 0 else -1
+                b == null -> 1
+                else -> compare(a, b)
+            }
+        }
+        return if (direction == SortDirection.ASC) ascending else ascending.reversed()
+    }
+
+    private inline fun matching(accessor: PropertyAccessor, crossinline test: (Any) -> Boolean): Predicate<Any?> {
+        return Predicate { element ->
+            val actual = accessor.read(element)
+            actual != null && test(actual)
+        }
+    }
+
+    private fun equalTo(accessor: PropertyAccessor, value: Any?, expect: Boolean): Predicate<Any?> {
+        val expected = ValueConverter.coerce(value, accessor.type) ?: return Predicate { false }
+        return matching(accessor) { equal(it, expected) == expect }
+    }
+
+    private inline fun bound(accessor: PropertyAccessor, value: Any?, crossinline accept: (Int) -> Boolean): Predicate<Any?> {
+        val expected = ValueConverter.coerce(value, accessor.type) ?: return Predicate { false }
+        return matching(accessor) { accept(compare(it, expected)) }
+    }
+
+    private fun between(accessor: PropertyAccessor, value: Any?): Predicate<Any?> {
+        val values = value as? List<*>
+        if (values == null || values.size != 2 || values[0] == null || values[1] == null) {
+            throw FilterException("BETWEEN requires a pair of values")
+        }
+        val from = ValueConverter.coerce(values[0], accessor.type)!!
+        val to = ValueConverter.coerce(values[1], accessor.type)!!
+
+        return matching(accessor) { compare(it, from) >= 0 && compare(it, to) <= 0 }
+    }
+
+    private fun within(accessor: PropertyAccessor, value: Any?, expect: Boolean): Predicate<Any?> {
+        val values = when (value) {
+            is Collection<*> -> value
+            is Array<*> -> value.toList()
+            else -> listOf(value)
+        }.filterNotNull().map { ValueConverter.coerce(it, accessor.type)!! }
+
+        if (accessor.type == Any::class.java) {
+            return matching(accessor) { actual -> values.any { equal(actual, it) } == expect }
+        }
+
+        val keys = values.mapTo(HashSet()) { key(it) }
+        return matching(accessor) { (key(it) in keys) == expect }
+    }
+
+    /**
+     * SQL LIKE, see [LikePattern]
+     */
+    private fun like(accessor: PropertyAccessor, value: Any?, expect: Boolean): Predicate<Any?> {
+        val matches = LikePattern.compile(value)
+        return matching(accessor) { matches.test(it.toString()) == expect }
+    }
+}
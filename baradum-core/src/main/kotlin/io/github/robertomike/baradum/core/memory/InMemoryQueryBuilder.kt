@@ -0,0 +1,205 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.LazyPage
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import java.util.Optional
+import java.util.function.Predicate
+import java.util.function.Supplier
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+/**
+ * QueryBuilder over a Java collection, for data already in memory (reference data, catalogs, feature flags...).
+ *
+ * Each condition is compiled once into a predicate over accessors bound to the getters, see [PropertyAccessors],
+ * and the values are converted to the type of the property up front. Like the other backends, conditions are
+ * combined left as they are added, a null property only matches IS_NULL, and nulls sort first ascending.
+ *
+ * Pages only sort the elements they need (top-K), and collections from [parallelThreshold] elements up
+ * are filtered with a parallel stream. The collection is read again on each execution through the supplier;
+ * it must not be modified while it's read, use a concurrent or immutable collection when it changes.
+ *
+ * Usage example:
+ * ```kotlin
+ * InMemoryBaradum.make(countries, Country::class.java)
+ *     .allowedFilters(ExactFilter("continent"), PartialFilter("name"))
+ *     .allowedSort("name")
+ *     .page(20)
+ * ```
+ */
+class InMemoryQueryBuilder<T>(
+    private val source: Supplier<out Collection<T>>,
+    private val entityClass: Class<T>
+) : QueryBuilder<T> {
+
+    private var condition: Predicate<Any?>? = null
+    private var comparator: Comparator<Any?>? = null
+    private var limit: Int? = null
+    private var offset: Long? = null
+    private var parallelThreshold = DEFAULT_PARALLEL_THRESHOLD
+
+    constructor(items: Collection<T>, entityClass: Class<T>) : this(Supplier { items }, entityClass)
+
+    companion object {
+        /**
+         * Collections from this size up are filtered in parallel
+         */
+        const val DEFAULT_PARALLEL_THRESHOLD = 10_000
+    }
+
+    /**
+     * Filter the collections from the given size up with a parallel stream, on the common ForkJoinPool.
+     * Use [Int.MAX_VALUE] to always filter sequentially.
+     */
+    fun parallelThreshold(threshold: Int): InMemoryQueryBuilder<T> {
+        if (threshold < 1) {
+            throw BaradumException("The parallel threshold must be positive, got $threshold")
+        }
+        parallelThreshold = threshold
+        return this
+    }
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
+        add(InMemoryConditions.compile(PropertyAccessors.of(entityClass, field), operator, value), whereOperator)
+        return this
+    }
+
+    /**
+     * Add the expression as a single predicate, NOT is pushed down to the conditions first
+     */
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        add(InMemoryConditions.compile(entityClass, expression.canonical()), whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = true
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        if (keys.isNotEmpty()) {
+            add(InMemoryConditions.seek(entityClass, keys), WhereOperator.AND)
+        }
+        return this
+    }
+
+    private fun add(predicate: Predicate<Any?>, whereOperator: WhereOperator) {
+        val current = condition
+        condition = when {
+            current == null -> predicate
+            whereOperator == WhereOperator.AND -> current.and(predicate)
+            else -> current.or(predicate)
+        }
+    }
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
+        val order = InMemoryConditions.comparator(PropertyAccessors.of(entityClass, field), direction)
+        comparator = comparator?.thenComparing(order) ?: order
+        return this
+    }
+
+    /**
+     * The elements are returned whole, there is nothing to select
+     */
+    override fun select(vararg fields: String): QueryBuilder<T> = this
+
+    /**
+     * The elements are returned whole, there is nothing to select
+     */
+    override fun addSelect(vararg fields: String): QueryBuilder<T> = this
+
+    override fun limit(limit: Int): QueryBuilder<T> {
+        this.limit = limit
+        return this
+    }
+
+    override fun offset(offset: Long): QueryBuilder<T> {
+        this.offset = offset
+        return this
+    }
+
+    override fun get(): List<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            val limit = this.limit
+            val offset = this.offset ?: 0L
+
+            if (limit == null) {
+                window(matches(), Int.MAX_VALUE, offset)
+            } else if (comparator == null) {
+                // Nothing to sort, the scan stops at the last element of the window
+                filtered(false).skip(offset).limit(limit.toLong()).collect(Collectors.toList())
+            } else {
+                window(matches(), limit, offset)
+            }
+        }
+    }
+
+    override fun page(limit: Int, offset: Long): Page<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            val matches = matches()
+            Page(window(matches, limit, offset), matches.size.toLong(), limit, offset)
+        }
+    }
+
+    override fun lazyPage(limit: Int, offset: Long): LazyPage<T> {
+        val rows = limit(limit + 1).offset(offset).get()
+        return LazyPage.fromRows(rows, limit, offset) { count() }
+    }
+
+    override fun count(): Long {
+        return BaradumInstrumentation.time(ExecutionPhase.COUNT) { filtered(true).count() }
+    }
+
+    override fun findFirst(): Optional<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            if (comparator == null) {
+                filtered(false).findFirst()
+            } else {
+                Optional.ofNullable(window(matches(), 1, 0).firstOrNull())
+            }
+        }
+    }
+
+    /**
+     * Compile the accessors of the fields ahead of time
+     */
+    override fun resolveFields(fields: Collection<String>) {
+        fields.forEach { PropertyAccessors.of(entityClass, it) }
+    }
+
+    override fun getEntityClass(): Class<*> = entityClass
+
+    override fun getWhereConditions(): Any? = condition
+
+    private fun matches(): List<T> = filtered(true).collect(Collectors.toList())
+
+    /**
+     * The elements matching the conditions, in the order of the collection
+     */
+    private fun filtered(allowParallel: Boolean): Stream<T> {
+        val items = source.get()
+        val stream = if (allowParallel && items.size >= parallelThreshold) items.parallelStream() else items.stream()
+        val test = condition ?: return stream
+        return stream.filter { test.test(it) }
+    }
+
+    /**
+     * The elements from offset to offset + limit in order, only sorting the first offset + limit
+     */
+    private fun window(matches: List<T>, limit: Int, offset: Long): List<T> {
+        if (limit <= 0 || offset >= matches.size) return emptyList()
+
+        val end = minOf(matches.size.toLong(), offset + limit).toInt()
+        val comparator = this.comparator
+        val sorted = if (comparator == null) matches else TopK.smallest(matches, comparator, end)
+
+        return ArrayList(sorted.subList(offset.toInt(), end))
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.interfaces.QueryBuilderProvider
+
+/**
+ * ServiceLoader provider for the in-memory QueryBuilder.
+ * It only supports the model classes with a collection registered in the [InMemoryStore],
+ * the others are left to the database providers.
+ */
+class InMemoryQueryBuilderProvider : QueryBuilderProvider {
+
+    override fun <T> create(modelClass: Class<T>): QueryBuilder<T> {
+        return InMemoryQueryBuilder(InMemoryStore.source(modelClass), modelClass)
+    }
+
+    override fun getName(): String = "memory"
+
+    override fun supports(modelClass: Class<*>): Boolean = InMemoryStore.contains(modelClass)
+}
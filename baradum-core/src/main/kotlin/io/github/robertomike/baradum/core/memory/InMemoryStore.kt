@@ -0,0 +1,65 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.Supplier
+
+/**
+ * Collections queried by [InMemoryQueryBuilderProvider], by model class.
+ *
+ * Once a collection is registered, `Baradum.make(modelClass)` queries it in memory.
+ *
+ * Usage example:
+ * ```kotlin
+ * InMemoryStore.register(Country::class.java, countryRepository.findAll())
+ * InMemoryStore.register(Product::class.java) { catalog.products() } // Read on each execution
+ *
+ * Baradum.make<Country, QueryBuilder<Country>>(Country::class.java)
+ *     .allowedFilters(ExactFilter("continent"))
+ *     .get()
+ * ```
+ */
+object InMemoryStore {
+    private val sources = ConcurrentHashMap<Class<*>, Supplier<out Collection<*>>>()
+
+    /**
+     * Register the collection of the model class, replacing the previous one
+     */
+    @JvmStatic
+    fun <T> register(modelClass: Class<T>, items: Collection<T>) {
+        register(modelClass, Supplier { items })
+    }
+
+    /**
+     * Register the supplier of the collection of the model class, called on each execution
+     */
+    @JvmStatic
+    fun <T> register(modelClass: Class<T>, source: Supplier<out Collection<T>>) {
+        sources[modelClass] = source
+    }
+
+    @JvmStatic
+    fun unregister(modelClass: Class<*>) {
+        sources.remove(modelClass)
+    }
+
+    @JvmStatic
+    fun clear() {
+        sources.clear()
+    }
+
+    @JvmStatic
+    fun contains(modelClass: Class<*>): Boolean = sources.containsKey(modelClass)
+
+    /**
+     * Get the supplier of the collection of the model class
+     *
+     * @throws BaradumException if no collection is registered for it
+     */
+    @JvmStatic
+    fun <T> source(modelClass: Class<T>): Supplier<out Collection<T>> {
+        @Suppress("UNCHECKED_CAST")
+        return sources[modelClass] as Supplier<out Collection<T>>?
+            ?: throw BaradumException("No collection is registered for ${modelClass.name} in the InMemoryStore")
+    }
+}
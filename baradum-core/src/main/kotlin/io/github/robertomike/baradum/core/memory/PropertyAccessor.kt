@@ -0,0 +1,155 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.utils.PropertyUtils
+import java.lang.invoke.LambdaMetafactory
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Field
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.Function
+
+/**
+ * Reads a property, dotted paths included (e.g. "address.city"), of the declared [type]
+ */
+internal class PropertyAccessor(val type: Class<*>, private val reader: Function<Any, Any?>) {
+
+    /**
+     * Read the value of the property, null if the target or any element of the path is null
+     */
+    fun read(target: Any?): Any? {
+        return if (target == null) null else reader.apply(target)
+    }
+}
+
+/**
+ * Compiles property paths into accessors, once per class and path.
+ *
+ * Public getters of public classes are bound with [LambdaMetafactory], so reading a property costs the same as
+ * calling the getter. Any other getter or field goes through a [MethodHandle]. The lookup order of the getters
+ * is the one of [PropertyUtils]: `getX()`, `isX()`, `x()` and finally the field.
+ */
+internal object PropertyAccessors {
+    private val lookup = MethodHandles.lookup()
+    private val accessors = ConcurrentHashMap<Pair<Class<*>, String>, PropertyAccessor>()
+    private val erased = MethodType.methodType(Any::class.java, Any::class.java)
+
+    fun of(type: Class<*>, path: String): PropertyAccessor {
+        return accessors.computeIfAbsent(type to path) { compile(type, path) }
+    }
+
+    private fun compile(type: Class<*>, path: String): PropertyAccessor {
+        val steps = ArrayList<PropertyAccessor>()
+        var current = type
+
+        for (name in path.split(".")) {
+            val step = property(current, name)
+            steps.add(step)
+            current = step.type
+        }
+
+        if (steps.size == 1) {
+            return steps[0]
+        }
+
+        val chain = steps.toTypedArray()
+        return PropertyAccessor(current, Function { target ->
+            chain.fold<PropertyAccessor, Any?>(target) { value, step -> step.read(value) }
+        })
+    }
+
+    private fun property(type: Class<*>, name: String): PropertyAccessor {
+        val method = findMethod(type, name)
+        if (method != null) {
+            return PropertyAccessor(method.returnType.kotlin.javaObjectType, getter(method))
+        }
+
+        val field = findField(type, name)
+        if (field != null) {
+            field.trySetAccessible()
+            return PropertyAccessor(field.type.kotlin.javaObjectType, invoker(lookup.unreflectGetter(field)))
+        }
+
+        // Generic declarations are only known at runtime
+        if (type == Any::class.java) {
+            return PropertyAccessor(Any::class.java, Function { target -> PropertyUtils.read(target, name) })
+        }
+
+        throw BaradumException("The property '$name' does not exist in ${type.name}")
+    }
+
+    private fun getter(method: Method): Function<Any, Any?> {
+        if (bindable(method)) {
+            try {
+                val site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    MethodType.methodType(Function::class.java),
+                    erased,
+                    lookup.unreflect(method),
+                    MethodType.methodType(method.returnType.kotlin.javaObjectType, method.declaringClass)
+                )
+                @Suppress("UNCHECKED_CAST")
+                return site.target.invokeWithArguments() as Function<Any, Any?>
+            } catch (e: Throwable) {
+                // Falls back to the method handle below
+            }
+        }
+
+        method.trySetAccessible()
+        return invoker(lookup.unreflect(method))
+    }
+
+    /**
+     * The generated class is defined next to this one, it must be able to see and call the getter
+     */
+    private fun bindable(method: Method): Boolean {
+        return Modifier.isPublic(method.modifiers) &&
+            Modifier.isPublic(method.declaringClass.modifiers) &&
+            visible(method.declaringClass) &&
+            (method.returnType.isPrimitive || visible(method.returnType))
+    }
+
+    private fun visible(type: Class<*>): Boolean {
+        return try {
+            Class.forName(type.name, false, PropertyAccessors::class.java.classLoader) == type
+        } catch (e: ClassNotFoundException) {
+            false
+        }
+    }
+
+    private fun invoker(handle: MethodHandle): Function<Any, Any?> {
+        val adapted = handle.asType(erased)
+        return Function { target -> adapted.invoke(target) }
+    }
+
+    private fun findMethod(type: Class<*>, name: String): Method? {
+        val capitalized = name.replaceFirstChar { it.uppercaseChar() }
+
+        return listOf("get$capitalized", "is$capitalized", name)
+            .firstNotNullOfOrNull { candidate ->
+                try {
+                    type.getMethod(candidate).takeIf { it.returnType != Void.TYPE }
+                } catch (e: NoSuchMethodException) {
+                    null
+                }
+            }
+    }
+
+    private fun findField(type: Class<*>, name: String): Field? {
+        var current: Class<*>? = type
+
+        while (current != null) {
+            try {
+                return current.getDeclaredField(name)
+            } catch (e: NoSuchFieldException) {
+                current = current.superclass
+            }
+        }
+
+        return null
+    }
+}
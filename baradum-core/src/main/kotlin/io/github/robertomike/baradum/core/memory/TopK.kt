@@ -0,0 +1,40 @@
+package io.github.robertomike.baradum.core.memory
+
+import java.util.PriorityQueue
+
+/**
+ * Partial sorting for pages: the first elements of a sorted list without sorting all of it
+ */
+internal object TopK {
+    /**
+     * Below this share of the elements a bounded heap is faster than sorting them all
+     */
+    private const val HEAP_RATIO = 4
+
+    /**
+     * The [k] smallest elements in order, equal elements keep their order like a stable sort.
+     * O(n log k) with a bounded max-heap, a plain sort when most of the elements are requested.
+     */
+    fun <T> smallest(items: List<T>, comparator: Comparator<in T>, k: Int): List<T> {
+        if (k <= 0 || items.isEmpty()) return emptyList()
+        if (k.toLong() * HEAP_RATIO >= items.size) return items.sortedWith(comparator).take(k)
+
+        // Equal elements are ordered by position, so the heap gives the same result as the stable sort
+        val order = Comparator<IndexedValue<T>> { a, b ->
+            val result = comparator.compare(a.value, b.value)
+            if (result != 0) result else a.index.compareTo(b.index)
+        }
+        val heap = PriorityQueue(k, order.reversed())
+
+        items.forEachIndexed { index, item ->
+            if (heap.size < k) {
+                heap.add(IndexedValue(index, item))
+            } else if (comparator.compare(item, heap.peek().value) < 0) {
+                heap.poll()
+                heap.add(IndexedValue(index, item))
+            }
+        }
+
+        return heap.sortedWith(order).map { it.value }
+    }
+}
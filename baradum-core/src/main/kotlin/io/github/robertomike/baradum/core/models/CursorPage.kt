@@ -0,0 +1,15 @@
+package io.github.robertomike.baradum.core.models
+
+/**
+ * Keyset pagination result container.
+ *
+ * [nextCursor] is an opaque token to pass back to get the following page, it's null on the last page.
+ */
+data class CursorPage<T>(
+    val content: List<T>,
+    val limit: Int,
+    val nextCursor: String?
+) {
+    val hasNext: Boolean
+        get() = nextCursor != null
+}
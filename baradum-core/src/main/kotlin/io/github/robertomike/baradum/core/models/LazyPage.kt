@@ -0,0 +1,71 @@
+package io.github.robertomike.baradum.core.models
+
+import com.fasterxml.jackson.annotation.JsonIgnore
+import java.util.function.LongSupplier
+
+/**
+ * Pagination result whose total is only counted when it is read.
+ *
+ * The content is fetched with `limit + 1` rows, so [hasNext] is known without any count query.
+ * [totalElements] and [totalPages] run the count on first access and reuse it afterwards,
+ * which saves a round-trip for clients that never display totals (e.g. infinite scroll).
+ *
+ * The totals are not serialized by Jackson: reading them from a response serializer would run the count
+ * after the handler returned, when the EntityManager or the transaction may already be closed.
+ * Call [toPage] in the handler when the response must include them.
+ */
+class LazyPage<T>(
+    val content: List<T>,
+    val limit: Int,
+    val offset: Long,
+    val hasNext: Boolean,
+    counter: LongSupplier
+) {
+    private val total = lazy { counter.asLong }
+
+    companion object {
+        /**
+         * Build a lazy page from the rows of a `limit + 1` query, the extra row only tells if there is a next page
+         */
+        @JvmStatic
+        fun <T> fromRows(rows: List<T>, limit: Int, offset: Long, counter: LongSupplier): LazyPage<T> {
+            val hasNext = rows.size > limit
+            val content = if (hasNext) rows.subList(0, limit) else rows
+            return LazyPage(content, limit, offset, hasNext, counter)
+        }
+    }
+
+    @get:JsonIgnore
+    val totalElements: Long
+        get() = total.value
+
+    @get:JsonIgnore
+    val totalPages: Long
+        get() = if (limit > 0) (totalElements + limit - 1) / limit else 0
+
+    val currentPage: Long
+        get() = if (limit > 0) offset / limit else 0
+
+    val hasPrevious: Boolean
+        get() = currentPage > 0
+
+    /**
+     * Whether the count query has already been executed
+     */
+    @JsonIgnore
+    fun isTotalComputed(): Boolean {
+        return total.isInitialized()
+    }
+
+    /**
+     * Convert to an eager [Page], running the count if it was not done yet
+     */
+    fun toPage(): Page<T> {
+        return Page(content, totalElements, limit, offset)
+    }
+
+    override fun toString(): String {
+        val totalElements = if (isTotalComputed()) total.value.toString() else "<not computed>"
+        return "LazyPage(content=$content, totalElements=$totalElements, limit=$limit, offset=$offset, hasNext=$hasNext)"
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.robertomike.baradum.core.models
+
+/**
+ * Options of streamed executions
+ *
+ * @param fetchSize number of rows fetched per round-trip
+ * @param clearEvery detach the loaded entities every N rows, so the persistence context doesn't grow
+ * with the result set. Detached entities cannot load lazy associations. 0 disables it
+ */
+@JvmRecord
+data class StreamOptions @JvmOverloads constructor(
+    val fetchSize: Int = 500,
+    val clearEvery: Int = 0
+)
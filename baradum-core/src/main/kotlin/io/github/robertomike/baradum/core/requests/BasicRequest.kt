@@ -1,10 +1,9 @@
 package io.github.robertomike.baradum.core.requests
 
-import com.fasterxml.jackson.databind.ObjectMapper
 import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.io.InputStream
 
 abstract class BasicRequest<T>(val request: T) {
-    private val mapper = ObjectMapper()
 
     /**
      * Finds a parameter by name.
@@ -44,9 +43,37 @@ abstract class BasicRequest<T>(val request: T) {
 
     abstract val json: String
 
+    /**
+     * Open the raw body, so it's parsed without building the [json] string.
+     * Implementations backed by a stream should override it, by default the [json] string is used.
+     *
+     * @return the body stream, or null to use [json]
+     */
+    open fun openBody(): InputStream? {
+        return null
+    }
+
+    /**
+     * Parse the body with the default limits of [BodyParser]
+     */
     fun getBody(): BodyRequest {
+        return getBody(BodyParser.defaultLimits)
+    }
+
+    /**
+     * Parse the body, rejecting it if it exceeds the limits
+     *
+     * @throws io.github.robertomike.baradum.core.exceptions.BaradumException if the body is not valid or exceeds the limits
+     */
+    fun getBody(limits: BodyLimits): BodyRequest {
+        val body = readBody { openBody() } ?: return BodyParser.parse(readBody { json }, limits)
+
+        return body.use { BodyParser.parse(it, limits) }
+    }
+
+    private fun <R> readBody(reader: () -> R): R {
         try {
-            return mapper.readValue(json, BodyRequest::class.java)
+            return reader()
         } catch (e: Exception) {
             throw BaradumException("Error reading body request", e)
         }
@@ -0,0 +1,20 @@
+package io.github.robertomike.baradum.core.requests
+
+/**
+ * Limits applied when parsing a body request, a body exceeding them is rejected.
+ *
+ * @param maxBytes maximum size of the body in bytes
+ * @param maxFilters maximum number of filters, sub filters included
+ * @param maxDepth maximum nesting of sub filters, 1 means no sub filters
+ */
+@JvmRecord
+data class BodyLimits @JvmOverloads constructor(
+    val maxBytes: Long = 1024 * 1024,
+    val maxFilters: Int = 200,
+    val maxDepth: Int = 5
+) {
+    companion object {
+        @JvmField
+        val DEFAULT = BodyLimits()
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.robertomike.baradum.core.requests
+
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
+import com.fasterxml.jackson.core.util.JsonParserDelegate
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectReader
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.io.FilterInputStream
+import java.io.InputStream
+
+/**
+ * Parse body requests with a shared ObjectReader, straight from the stream when possible.
+ * The limits are checked while reading, so an oversized body is rejected before it's fully read.
+ */
+object BodyParser {
+    private val reader: ObjectReader = ObjectMapper().readerFor(BodyRequest::class.java)
+
+    /**
+     * Limits used by [BasicRequest.getBody], configure them at startup
+     */
+    @JvmStatic
+    var defaultLimits: BodyLimits = BodyLimits.DEFAULT
+
+    init {
+        // Build the deserializers now instead of on the first request
+        parse("""{"filters":[{"field":"f","value":"v","subFilters":[]}],"sorts":[{"field":"f"}]}""", BodyLimits.DEFAULT)
+    }
+
+    /**
+     * Parse the body from a stream, the stream is not closed
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun parse(input: InputStream, limits: BodyLimits = defaultLimits): BodyRequest {
+        return read(reader.createParser(LimitedInputStream(input, limits.maxBytes)), limits)
+    }
+
+    /**
+     * Parse the body from a string
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun parse(json: String, limits: BodyLimits = defaultLimits): BodyRequest {
+        // A char takes at least one byte, this is only exceeded by bodies over the limit
+        if (json.length > limits.maxBytes) {
+            throw BaradumException("The body request exceeds the limit of ${limits.maxBytes} bytes")
+        }
+        return read(reader.createParser(json), limits)
+    }
+
+    private fun read(parser: JsonParser, limits: BodyLimits): BodyRequest {
+        try {
+            LimitedParser(parser, limits).use {
+                return reader.readValue<BodyRequest?>(it) ?: BodyRequest()
+            }
+        } catch (e: BaradumException) {
+            throw e
+        } catch (e: Exception) {
+            // The limit exceptions are wrapped by Jackson when thrown while reading
+            val cause = generateSequence(e.cause) { it.cause }.filterIsInstance<BaradumException>().firstOrNull()
+            throw cause ?: BaradumException("Error reading body request", e)
+        }
+    }
+
+    /**
+     * Parser counting the filters and their nesting as the tokens are read
+     */
+    private class LimitedParser(parser: JsonParser, private val limits: BodyLimits) : JsonParserDelegate(parser) {
+        private var filters = 0
+        private var depth = 0
+
+        // body -> filters -> filter -> subFilters -> filter ..., a filter at the maximum depth may still
+        // have its subFilters array as long as it's empty: a filter inside it would be one level deeper
+        private val maxJsonDepth = 2 * limits.maxDepth + 2
+
+        override fun nextToken(): JsonToken? {
+            val token = super.nextToken()
+
+            if (token != null && token.isStructEnd) {
+                depth--
+            } else if (token != null && token.isStructStart) {
+                if (++depth > maxJsonDepth) {
+                    throw BaradumException("The body request exceeds the maximum depth of ${limits.maxDepth}")
+                }
+
+                val context = parsingContext
+                val parentName = context.parent?.parent?.currentName
+                if (token == JsonToken.START_OBJECT && context.parent?.inArray() == true &&
+                    (parentName == "filters" || parentName == "subFilters") && ++filters > limits.maxFilters
+                ) {
+                    throw BaradumException("The body request exceeds the limit of ${limits.maxFilters} filters")
+                }
+            }
+
+            return token
+        }
+
+        /**
+         * Skip through [nextToken] so the skipped tokens are checked too
+         */
+        override fun skipChildren(): JsonParser {
+            if (currentToken()?.isStructStart != true) {
+                return this
+            }
+
+            var open = 1
+            while (open > 0) {
+                val token = nextToken() ?: break
+                if (token.isStructStart) open++ else if (token.isStructEnd) open--
+            }
+            return this
+        }
+    }
+
+    /**
+     * Stream failing as soon as more than maxBytes are read
+     */
+    private class LimitedInputStream(input: InputStream, private val maxBytes: Long) : FilterInputStream(input) {
+        private var count = 0L
+
+        override fun read(): Int {
+            val value = super.read()
+            if (value != -1) count(1)
+            return value
+        }
+
+        override fun read(b: ByteArray, off: Int, len: Int): Int {
+            val read = super.read(b, off, len)
+            if (read > 0) count(read.toLong())
+            return read
+        }
+
+        override fun close() {
+            // The owner of the stream closes it
+        }
+
+        private fun count(read: Long) {
+            count += read
+            if (count > maxBytes) {
+                throw BaradumException("The body request exceeds the limit of $maxBytes bytes")
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.robertomike.baradum.core.requests
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.io.ByteArrayInputStream
+import java.io.InputStream
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CompletionStage
+
+/**
+ * Request of a non-blocking server, whose body is read asynchronously.
+ *
+ * Baradum reads the body of POST requests when it applies the filters ([getBody]), which would block an event loop.
+ * The body is buffered first without blocking with [loadBody], then [getBody] parses it from memory:
+ *
+ * ```kotlin
+ * request.loadBody().thenApply { loaded ->
+ *     RequestContext.callWith(loaded) { baradum.useBody().get() }
+ * }
+ * ```
+ */
+abstract class ReactiveRequest<T>(request: T) : BasicRequest<T>(request) {
+    @Volatile
+    private var body: ByteArray? = null
+
+    /**
+     * Read the raw body without blocking
+     *
+     * @param maxBytes the maximum size of the body, the stage fails with a [BaradumException] when it's exceeded
+     */
+    protected abstract fun readBytes(maxBytes: Long): CompletionStage<ByteArray>
+
+    /**
+     * Buffer the body, completing with this request when it can be parsed. Only POST requests have their body read.
+     */
+    @JvmOverloads
+    fun loadBody(limits: BodyLimits = BodyParser.defaultLimits): CompletableFuture<ReactiveRequest<T>> {
+        if (body != null || !isPost()) {
+            return CompletableFuture.completedFuture(this)
+        }
+
+        val loaded = CompletableFuture<ReactiveRequest<T>>()
+        try {
+            readBytes(limits.maxBytes).whenComplete { bytes, error ->
+                val cause = if (error is CompletionException) error.cause ?: error else error
+                when (cause) {
+                    null -> {
+                        body = bytes
+                        loaded.complete(this)
+                    }
+                    is BaradumException -> loaded.completeExceptionally(cause)
+                    else -> loaded.completeExceptionally(BaradumException("Error reading body request", cause))
+                }
+            }
+        } catch (e: Exception) {
+            loaded.completeExceptionally(BaradumException("Error reading body request", e))
+        }
+        return loaded
+    }
+
+    /**
+     * Buffer and parse the body, see [getBody]
+     */
+    @JvmOverloads
+    fun getBodyAsync(limits: BodyLimits = BodyParser.defaultLimits): CompletableFuture<BodyRequest> {
+        return loadBody(limits).thenApply { getBody(limits) }
+    }
+
+    fun isBodyLoaded(): Boolean = body != null
+
+    override val json: String
+        get() = String(loaded(), Charsets.UTF_8)
+
+    override fun openBody(): InputStream {
+        return ByteArrayInputStream(loaded())
+    }
+
+    private fun loaded(): ByteArray {
+        return body ?: throw BaradumException("The body of a reactive request must be loaded with loadBody() before it's read")
+    }
+}
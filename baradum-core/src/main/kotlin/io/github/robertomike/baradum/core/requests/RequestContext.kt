@@ -0,0 +1,144 @@
+package io.github.robertomike.baradum.core.requests
+
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.util.function.Supplier
+
+/**
+ * Request bound to the current execution, used by Baradum instead of the global request.
+ *
+ * The request is only visible inside [runWith], so concurrent requests never see each other.
+ * On Java 25+ it's stored in a ScopedValue, which is cheap with virtual threads,
+ * on older versions it falls back to a ThreadLocal cleared when [runWith] ends.
+ *
+ * ```kotlin
+ * RequestContext.runWith(ApacheTomcatRequest(servletRequest)) {
+ *     chain.doFilter(servletRequest, servletResponse)
+ * }
+ * ```
+ */
+object RequestContext {
+    private val storage: Storage = ScopedValueStorage.createOrNull() ?: ThreadLocalStorage()
+
+    /**
+     * Get the request bound to the current execution, null outside of [runWith]
+     */
+    @JvmStatic
+    fun current(): BasicRequest<*>? {
+        return storage.get()
+    }
+
+    /**
+     * Run the task with the request bound, the previous binding is restored after it
+     */
+    @JvmStatic
+    fun runWith(request: BasicRequest<*>, task: Runnable) {
+        storage.run(request, task)
+    }
+
+    /**
+     * Call the supplier with the request bound and return its result
+     */
+    @JvmStatic
+    fun <R> callWith(request: BasicRequest<*>, supplier: Supplier<R>): R {
+        var result: R? = null
+        storage.run(request) { result = supplier.get() }
+        @Suppress("UNCHECKED_CAST")
+        return result as R
+    }
+
+    /**
+     * Capture the current request so the task can run with it on another thread (e.g. async servlets).
+     * If there is no request bound, the task is returned as is.
+     */
+    @JvmStatic
+    fun wrap(task: Runnable): Runnable {
+        val request = current() ?: return task
+        return Runnable { runWith(request, task) }
+    }
+
+    /**
+     * Name of the storage in use, "ScopedValue" or "ThreadLocal"
+     */
+    @JvmStatic
+    fun storageName(): String {
+        return storage.name
+    }
+
+    private interface Storage {
+        val name: String
+        fun get(): BasicRequest<*>?
+        fun run(request: BasicRequest<*>, task: Runnable)
+    }
+
+    private class ThreadLocalStorage : Storage {
+        private val holder = ThreadLocal<BasicRequest<*>?>()
+
+        override val name = "ThreadLocal"
+
+        override fun get(): BasicRequest<*>? = holder.get()
+
+        override fun run(request: BasicRequest<*>, task: Runnable) {
+            val previous = holder.get()
+            holder.set(request)
+            try {
+                task.run()
+            } finally {
+                if (previous == null) holder.remove() else holder.set(previous)
+            }
+        }
+    }
+
+    /**
+     * ScopedValue accessed through method handles, the library is compiled for Java 17
+     */
+    private class ScopedValueStorage(
+        private val scopedValue: Any,
+        private val isBound: MethodHandle,
+        private val getValue: MethodHandle,
+        private val where: MethodHandle,
+        private val runCarrier: MethodHandle
+    ) : Storage {
+        override val name = "ScopedValue"
+
+        override fun get(): BasicRequest<*>? {
+            if (!(isBound.invoke(scopedValue) as Boolean)) {
+                return null
+            }
+            return getValue.invoke(scopedValue) as BasicRequest<*>
+        }
+
+        override fun run(request: BasicRequest<*>, task: Runnable) {
+            val carrier = where.invoke(scopedValue, request)
+            runCarrier.invoke(carrier, task)
+        }
+
+        companion object {
+            /**
+             * ScopedValue is final since Java 25, before it's a preview API that can't be relied on
+             */
+            fun createOrNull(): ScopedValueStorage? {
+                if (Runtime.version().feature() < 25) {
+                    return null
+                }
+
+                return try {
+                    val type = Class.forName("java.lang.ScopedValue")
+                    val carrierType = Class.forName("java.lang.ScopedValue\$Carrier")
+                    val lookup = MethodHandles.publicLookup()
+
+                    ScopedValueStorage(
+                        lookup.findStatic(type, "newInstance", MethodType.methodType(type)).invoke(),
+                        lookup.findVirtual(type, "isBound", MethodType.methodType(Boolean::class.javaPrimitiveType)),
+                        lookup.findVirtual(type, "get", MethodType.methodType(Any::class.java)),
+                        lookup.findStatic(type, "where", MethodType.methodType(carrierType, type, Any::class.java)),
+                        lookup.findVirtual(carrierType, "run", MethodType.methodType(Void.TYPE, Runnable::class.java))
+                    )
+                } catch (e: ReflectiveOperationException) {
+                    null
+                }
+            }
+        }
+    }
+}
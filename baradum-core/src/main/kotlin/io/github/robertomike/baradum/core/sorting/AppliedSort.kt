@@ -0,0 +1,16 @@
+package io.github.robertomike.baradum.core.sorting
+
+import io.github.robertomike.baradum.core.enums.SortDirection
+
+/**
+ * An allowed sort resolved from a request, with the direction it was requested in
+ */
+@JvmRecord
+data class AppliedSort(val orderBy: OrderBy, val direction: SortDirection) {
+    /**
+     * Public representation of the sort, as it's written in the sort param (e.g. "-createdAt")
+     */
+    fun signature(): String {
+        return if (direction == SortDirection.DESC) "-${orderBy.name}" else orderBy.name
+    }
+}
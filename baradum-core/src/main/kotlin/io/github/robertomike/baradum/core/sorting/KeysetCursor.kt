@@ -0,0 +1,165 @@
+package io.github.robertomike.baradum.core.sorting
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ArrayNode
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.exceptions.SortableException
+import io.github.robertomike.baradum.core.utils.PropertyUtils
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.ZonedDateTime
+import java.util.Base64
+import java.util.Date
+import java.util.UUID
+
+/**
+ * Opaque cursor of keyset pagination.
+ *
+ * The cursor holds the sort signature it was created with (e.g. `["-createdAt", "id"]`) and the
+ * typed sort values of the last element of the page, encoded as base64url JSON. On decode the
+ * signature must match the sorts of the current request, which are already validated against
+ * the allowed sorts, so a client can only resume the same ordering and never choose the fields
+ * or types the seek predicate is built with: when the entity class is known, each value must be
+ * of the type of its sort property, and enums are resolved from that type, never from the cursor.
+ *
+ * Sort values can't be null, the position of the nulls differs between databases, so keyset
+ * pagination must sort by fields that are never null.
+ */
+object KeysetCursor {
+    private val mapper = ObjectMapper()
+    private val encoder = Base64.getUrlEncoder().withoutPadding()
+    private val decoder = Base64.getUrlDecoder()
+
+    /**
+     * Encode the sort values of the last element of a page
+     */
+    @JvmStatic
+    fun encode(sorts: List<AppliedSort>, values: List<Any?>): String {
+        val root = mapper.createObjectNode()
+        val signature = root.putArray("s")
+        val typedValues = root.putArray("v")
+
+        sorts.forEachIndexed { index, sort ->
+            val value = values[index]
+                ?: throw SortableException(
+                    "Keyset pagination can't resume after a null value of the sort '${sort.orderBy.name}', " +
+                        "sort by fields that are never null"
+                )
+            val (type, raw) = typeOf(value)
+
+            signature.add(sort.signature())
+            typedValues.addArray().add(type).add(raw)
+        }
+
+        return encoder.encodeToString(mapper.writeValueAsBytes(root))
+    }
+
+    /**
+     * Decode a cursor and return its values, in the order of the given sorts.
+     * With the entity class, each value is checked against the type of its sort property.
+     *
+     * @throws FilterException if the cursor is malformed, was created for other sorts or has values of other types
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun decode(cursor: String, sorts: List<AppliedSort>, entityClass: Class<*>? = null): List<Any> {
+        val root = try {
+            mapper.readTree(decoder.decode(cursor))
+        } catch (e: Exception) {
+            throw FilterException("The cursor is not valid")
+        }
+
+        val signature = root?.get("s")
+        val typedValues = root?.get("v")
+
+        if (signature !is ArrayNode || typedValues !is ArrayNode || typedValues.size() != sorts.size) {
+            throw FilterException("The cursor is not valid")
+        }
+
+        if (signature.map { it.asText() } != sorts.map { it.signature() }) {
+            throw FilterException("The cursor does not match the requested sorts")
+        }
+
+        return typedValues.mapIndexed { index, typedValue ->
+            if (typedValue !is ArrayNode || typedValue.size() != 2) {
+                throw FilterException("The cursor is not valid")
+            }
+
+            val expected = entityClass?.let { PropertyUtils.type(it, sorts[index].orderBy.internalName).kotlin.javaObjectType }
+            val value = try {
+                valueOf(typedValue[0].asText(), typedValue[1].asText(), expected)
+            } catch (e: Exception) {
+                null
+            }
+
+            if (value == null || (expected != null && !expected.isInstance(value))) {
+                throw FilterException("The cursor is not valid")
+            }
+            value
+        }
+    }
+
+    private fun typeOf(value: Any): Pair<String, String> {
+        return when (value) {
+            is String -> "s" to value
+            is Int -> "i" to value.toString()
+            is Long -> "l" to value.toString()
+            is Short -> "sh" to value.toString()
+            is Double -> "d" to value.toString()
+            is Float -> "f" to value.toString()
+            is BigDecimal -> "bd" to value.toPlainString()
+            is BigInteger -> "bi" to value.toString()
+            is Boolean -> "b" to value.toString()
+            is UUID -> "u" to value.toString()
+            is LocalDate -> "ld" to value.toString()
+            is LocalDateTime -> "ldt" to value.toString()
+            is LocalTime -> "lt" to value.toString()
+            is Instant -> "in" to value.toString()
+            is OffsetDateTime -> "odt" to value.toString()
+            is ZonedDateTime -> "zdt" to value.toString()
+            is java.sql.Timestamp -> "ts" to value.toInstant().toString()
+            is java.sql.Date -> "sd" to value.toLocalDate().toString()
+            is Date -> "dt" to value.time.toString()
+            is Enum<*> -> "e" to value.name
+            else -> throw SortableException("The type ${value.javaClass.name} is not supported by keyset pagination")
+        }
+    }
+
+    /**
+     * Value of the cursor, enums are only resolved with the type of the sort property, and kept as their name without it
+     */
+    private fun valueOf(type: String, raw: String, expected: Class<*>?): Any? {
+        return when (type) {
+            "s" -> raw
+            "i" -> raw.toInt()
+            "l" -> raw.toLong()
+            "sh" -> raw.toShort()
+            "d" -> raw.toDouble()
+            "f" -> raw.toFloat()
+            "bd" -> BigDecimal(raw)
+            "bi" -> BigInteger(raw)
+            "b" -> raw.toBooleanStrict()
+            "u" -> UUID.fromString(raw)
+            "ld" -> LocalDate.parse(raw)
+            "ldt" -> LocalDateTime.parse(raw)
+            "lt" -> LocalTime.parse(raw)
+            "in" -> Instant.parse(raw)
+            "odt" -> OffsetDateTime.parse(raw)
+            "zdt" -> ZonedDateTime.parse(raw)
+            "ts" -> java.sql.Timestamp.from(Instant.parse(raw))
+            "sd" -> java.sql.Date.valueOf(LocalDate.parse(raw))
+            "dt" -> Date(raw.toLong())
+            "e" -> when {
+                expected == null -> raw
+                expected.isEnum -> expected.enumConstants.firstOrNull { (it as Enum<*>).name == raw }
+                else -> null
+            }
+            else -> null
+        }
+    }
+}
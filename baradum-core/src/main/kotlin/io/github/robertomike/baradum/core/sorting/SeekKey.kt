@@ -0,0 +1,9 @@
+package io.github.robertomike.baradum.core.sorting
+
+import io.github.robertomike.baradum.core.enums.SortDirection
+
+/**
+ * A sort key of keyset pagination: the query must resume strictly after [value] in [direction]
+ */
+@JvmRecord
+data class SeekKey(val field: String, val direction: SortDirection, val value: Any)
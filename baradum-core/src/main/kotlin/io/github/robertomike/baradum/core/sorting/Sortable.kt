@@ -8,23 +8,71 @@ import io.github.robertomike.baradum.core.requests.OrderRequest
 import java.util.*
 
 class Sortable<Q : QueryBuilder<*>> {
-    private var allowedSorts: MutableList<OrderBy> = ArrayList()
+    /**
+     * Sorts indexed by name in insertion order
+     */
+    private val allowedSorts = LinkedHashMap<String, OrderBy>()
+    private var frozen = false
 
     fun addSorts(vararg sorts: String) {
-        listOf(*sorts).forEach { allowedSorts.add(OrderBy(it)) }
+        addSorts(sorts.map { OrderBy(it) })
     }
 
     fun addSorts(vararg sorts: OrderBy) {
-        allowedSorts.addAll(listOf(*sorts))
+        addSorts(listOf(*sorts))
     }
 
+    /**
+     * Add sorts, each name can be registered only once.
+     * The whole list is checked first, so when a name is repeated none of the sorts are added.
+     */
     fun addSorts(sorts: List<OrderBy>) {
-        allowedSorts.addAll(sorts)
+        if (frozen) {
+            throw SortableException("The sorts cannot be changed once they are frozen")
+        }
+        val names = HashSet<String>()
+        sorts.forEach { sort ->
+            if (allowedSorts.containsKey(sort.name) || !names.add(sort.name)) {
+                throw SortableException("The sort '${sort.name}' is already registered")
+            }
+        }
+        sorts.forEach { allowedSorts[it.name] = it }
+    }
+
+    /**
+     * Reject new sorts, so it can be shared between threads
+     */
+    internal fun freeze() {
+        frozen = true
+    }
+
+    /**
+     * Create a sortable with the same sorts that can be modified
+     */
+    internal fun copy(): Sortable<Q> {
+        val copy = Sortable<Q>()
+        copy.allowedSorts.putAll(allowedSorts)
+        return copy
     }
 
     fun apply(builder: Q, request: BasicRequest<*>) {
+        applySorts(builder, request)
+    }
+
+    fun apply(builder: Q, params: Map<String, String>) {
+        applySorts(builder, params)
+    }
+
+    fun apply(builder: Q, sorts: List<OrderRequest>) {
+        applySorts(builder, sorts)
+    }
+
+    /**
+     * Apply the sorts of the request like [apply] and return them resolved against the allowed sorts
+     */
+    fun applySorts(builder: Q, request: BasicRequest<*>): List<AppliedSort> {
         if (request.notExistsByName("sort")) {
-            return
+            return emptyList()
         }
 
         val sorts = request.findByName("sort")!!
@@ -38,11 +86,14 @@ class Sortable<Q : QueryBuilder<*>> {
             )
         }
 
-        apply(builder, sortList)
+        return applySorts(builder, sortList)
     }
 
-    fun apply(builder: Q, params: Map<String, String>) {
-        val sortParam = params["sort"] ?: return
+    /**
+     * Apply the sorts of the params like [apply] and return them resolved against the allowed sorts
+     */
+    fun applySorts(builder: Q, params: Map<String, String>): List<AppliedSort> {
+        val sortParam = params["sort"] ?: return emptyList()
 
         val sorts = sortParam
             .trim()
@@ -55,22 +106,23 @@ class Sortable<Q : QueryBuilder<*>> {
             )
         }
 
-        apply(builder, sortList)
+        return applySorts(builder, sortList)
     }
 
-    fun apply(builder: Q, sorts: List<OrderRequest>) {
-        sorts.forEach { sort ->
+    /**
+     * Apply the sorts to the builder and return them resolved against the allowed sorts
+     */
+    fun applySorts(builder: Q, sorts: List<OrderRequest>): List<AppliedSort> {
+        return sorts.map { sort ->
             if (sort.field == null) {
                 throw SortableException("The sort list is not valid, one element must have a field null")
             }
 
-            val result = allowedSorts.firstOrNull { allowedSort -> allowedSort.name == sort.field }
-
-            if (result == null) {
-                throw SortableException("The field '${sort.field}' is not valid")
-            }
+            val result = allowedSorts[sort.field]
+                ?: throw SortableException("The field '${sort.field}' is not valid")
 
             builder.orderBy(result.internalName, sort.sort)
+            AppliedSort(result, sort.sort)
         }
     }
 }
@@ -0,0 +1,146 @@
+package io.github.robertomike.baradum.core.sql
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.lang.reflect.Constructor
+import java.lang.reflect.Field
+import java.lang.reflect.Modifier
+
+/**
+ * Reads a column of the current row of a result, see [ColumnBinding]
+ */
+fun interface ColumnReader<R> {
+    /**
+     * @param index the index of the column, from 0
+     * @param type the type to read, boxed; `Any` for the value as returned by the driver
+     */
+    fun read(row: R, index: Int, type: Class<*>): Any?
+}
+
+/**
+ * How the columns of a result are assigned to the entities of a class, by column name ignoring case and
+ * underscores (`created_at` is `createdAt`), to:
+ * - the canonical constructor of a record
+ * - the fields of a class with a no-args constructor
+ * - the constructor with the most parameters, when the names of its parameters are compiled
+ *   (`-parameters` for Java, `javaParameters` for Kotlin)
+ *
+ * Columns without a property are skipped, and properties without a column get their default value.
+ * The columns are matched once per list of labels, each row is then read by index with the [ColumnReader] of the driver.
+ */
+class ColumnBinding<T> private constructor(
+    private val columns: List<Column?>,
+    private val create: (Array<Any?>) -> T
+) {
+    /**
+     * A column of the result read as the type of a property
+     */
+    private class Column(val index: Int, val type: Class<*>) {
+        private val boxed = type.kotlin.javaObjectType
+
+        fun <R> read(row: R, reader: ColumnReader<R>): Any? {
+            if (type.isEnum) {
+                val name = reader.read(row, index, String::class.java) as String? ?: return null
+                return type.enumConstants.firstOrNull { (it as Enum<*>).name == name }
+                    ?: throw BaradumException("'$name' is not a constant of ${type.simpleName}")
+            }
+            return reader.read(row, index, boxed)
+        }
+    }
+
+    /**
+     * Map the current row to an entity
+     */
+    fun <R> map(row: R, reader: ColumnReader<R>): T {
+        val values = arrayOfNulls<Any?>(columns.size)
+        columns.forEachIndexed { position, column -> values[position] = column?.read(row, reader) }
+        return create(values)
+    }
+
+    companion object {
+        /**
+         * The binding of the columns with the given labels, in order, to the type
+         *
+         * @throws BaradumException if the type is not a record, has no no-args constructor and the names
+         * of its constructor parameters are not compiled
+         */
+        @JvmStatic
+        fun <T> of(type: Class<T>, labels: List<String>): ColumnBinding<T> {
+            val indexes = labels.withIndex().associate { (index, label) -> normalize(label) to index }
+
+            if (type.isRecord) {
+                val components = type.recordComponents
+                val constructor = type.getDeclaredConstructor(*components.map { it.type }.toTypedArray())
+                return byConstructor(constructor, components.map { it.name }, indexes)
+            }
+
+            val noArgs = type.declaredConstructors.firstOrNull { it.parameterCount == 0 }
+            if (noArgs != null) {
+                return byFields(type, noArgs, indexes)
+            }
+
+            val named = type.declaredConstructors
+                .filter { constructor -> !constructor.isSynthetic && constructor.parameters.all { it.isNamePresent } }
+                .maxByOrNull { it.parameterCount }
+                ?: throw BaradumException(
+                    "Rows can't be mapped to ${type.name}: it's not a record, has no no-args constructor and the names " +
+                        "of the constructor parameters are not compiled. Pass a mapper for its rows"
+                )
+            return byConstructor(named, named.parameters.map { it.name }, indexes)
+        }
+
+        private fun <T> byConstructor(constructor: Constructor<*>, names: List<String>, indexes: Map<String, Int>): ColumnBinding<T> {
+            constructor.trySetAccessible()
+            val columns = names.indices.map { position ->
+                indexes[normalize(names[position])]?.let { Column(it, constructor.parameterTypes[position]) }
+            }
+            val defaults = constructor.parameterTypes.map { defaultValue(it) }
+
+            return ColumnBinding(columns) { values ->
+                defaults.forEachIndexed { position, default -> if (values[position] == null) values[position] = default }
+                @Suppress("UNCHECKED_CAST")
+                constructor.newInstance(*values) as T
+            }
+        }
+
+        private fun <T> byFields(type: Class<T>, constructor: Constructor<*>, indexes: Map<String, Int>): ColumnBinding<T> {
+            constructor.trySetAccessible()
+            val fields = instanceFields(type).mapNotNull { field ->
+                indexes[normalize(field.name)]?.let { field to Column(it, field.type) }
+            }
+
+            return ColumnBinding(fields.map { it.second }) { values ->
+                @Suppress("UNCHECKED_CAST")
+                val entity = constructor.newInstance() as T
+                fields.forEachIndexed { position, (field, _) ->
+                    val value = values[position]
+                    if (value != null || !field.type.isPrimitive) field.set(entity, value)
+                }
+                entity
+            }
+        }
+
+        /**
+         * The instance fields of the class and its superclasses, the closest first when names repeat
+         */
+        private fun instanceFields(type: Class<*>): List<Field> {
+            val fields = LinkedHashMap<String, Field>()
+            var current: Class<*>? = type
+
+            while (current != null && current != Any::class.java) {
+                current.declaredFields
+                    .filter { !Modifier.isStatic(it.modifiers) && !it.isSynthetic }
+                    .forEach { field -> fields.putIfAbsent(normalize(field.name), field) }
+                current = current.superclass
+            }
+
+            return fields.values.filter { it.trySetAccessible() }
+        }
+
+        private fun normalize(name: String): String = name.replace("_", "").lowercase()
+
+        private fun defaultValue(type: Class<*>): Any? {
+            if (!type.isPrimitive) return null
+            return java.lang.reflect.Array.get(java.lang.reflect.Array.newInstance(type, 1), 0)
+        }
+    }
+}
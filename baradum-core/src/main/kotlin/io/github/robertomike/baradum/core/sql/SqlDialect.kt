@@ -0,0 +1,97 @@
+package io.github.robertomike.baradum.core.sql
+
+/**
+ * The SQL that changes between databases: pagination, and the ORDER BY it may need.
+ *
+ * The limit and offset are bound as parameters, so the SQL of a query doesn't change with the page.
+ */
+enum class SqlDialect {
+    /**
+     * `LIMIT ? OFFSET ?`: H2, PostgreSQL, SQLite, HSQLDB
+     */
+    LIMIT_OFFSET {
+        override fun paginate(sql: StringBuilder, limit: Boolean, offset: Boolean, ordered: Boolean) {
+            if (limit) sql.append(" LIMIT ?")
+            if (offset) sql.append(" OFFSET ?")
+        }
+
+        override fun paginationValues(limit: Int?, offset: Long?): List<Any> = listOfNotNull(limit, offset)
+    },
+
+    /**
+     * `LIMIT ?, ?`, MySQL and MariaDB don't accept an OFFSET without a LIMIT
+     */
+    MYSQL {
+        override fun paginate(sql: StringBuilder, limit: Boolean, offset: Boolean, ordered: Boolean) {
+            if (limit || offset) sql.append(" LIMIT ?, ?")
+        }
+
+        override fun paginationValues(limit: Int?, offset: Long?): List<Any> {
+            if (limit == null && offset == null) return emptyList()
+            return listOf(offset ?: 0L, limit?.toLong() ?: Long.MAX_VALUE)
+        }
+    },
+
+    /**
+     * SQL:2008 `OFFSET ? ROWS FETCH NEXT ? ROWS ONLY`: Oracle 12c+, DB2, Derby
+     */
+    STANDARD {
+        override fun paginate(sql: StringBuilder, limit: Boolean, offset: Boolean, ordered: Boolean) {
+            if (!limit && !offset) return
+
+            sql.append(" OFFSET ? ROWS")
+            if (limit) sql.append(" FETCH NEXT ? ROWS ONLY")
+        }
+
+        override fun paginationValues(limit: Int?, offset: Long?): List<Any> = standardValues(limit, offset)
+    },
+
+    /**
+     * SQL:2008 pagination of SQL Server 2012+, which requires an ORDER BY:
+     * `ORDER BY (SELECT NULL)` is added when the query has none
+     */
+    SQL_SERVER {
+        override fun paginate(sql: StringBuilder, limit: Boolean, offset: Boolean, ordered: Boolean) {
+            if (!limit && !offset) return
+
+            if (!ordered) sql.append(" ORDER BY (SELECT NULL)")
+            STANDARD.paginate(sql, limit, offset, ordered)
+        }
+
+        override fun paginationValues(limit: Int?, offset: Long?): List<Any> = standardValues(limit, offset)
+    };
+
+    /**
+     * Append the placeholders of the pagination to the query
+     *
+     * @param ordered whether the query already has an ORDER BY
+     */
+    abstract fun paginate(sql: StringBuilder, limit: Boolean, offset: Boolean, ordered: Boolean)
+
+    /**
+     * The values of the placeholders added by [paginate], in order
+     */
+    abstract fun paginationValues(limit: Int?, offset: Long?): List<Any>
+
+    protected fun standardValues(limit: Int?, offset: Long?): List<Any> {
+        if (limit == null && offset == null) return emptyList()
+        return listOfNotNull(offset ?: 0L, limit)
+    }
+
+    companion object {
+        /**
+         * The dialect of the database product (e.g. `DatabaseMetaData.getDatabaseProductName()`),
+         * [STANDARD] for the unknown ones
+         */
+        @JvmStatic
+        fun of(productName: String): SqlDialect {
+            val product = productName.lowercase()
+            return when {
+                "mysql" in product || "mariadb" in product -> MYSQL
+                "h2" in product || "postgres" in product || "sqlite" in product || "hsql" in product -> LIMIT_OFFSET
+                "sql server" in product -> SQL_SERVER
+                else -> STANDARD
+            }
+        }
+    }
+}
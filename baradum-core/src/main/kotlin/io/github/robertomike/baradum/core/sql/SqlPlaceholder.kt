@@ -0,0 +1,30 @@
+package io.github.robertomike.baradum.core.sql
+
+/**
+ * How the parameters are written in the SQL, which depends on the driver
+ */
+enum class SqlPlaceholder {
+    /**
+     * `?`: JDBC, and the R2DBC drivers of MySQL and MariaDB
+     */
+    QUESTION_MARK {
+        override fun rewrite(sql: String): String = sql
+    },
+
+    /**
+     * `$1`, `$2`...: the R2DBC drivers of PostgreSQL and H2
+     */
+    NUMBERED {
+        override fun rewrite(sql: String): String {
+            val numbered = StringBuilder(sql.length + 16)
+            var index = 0
+            sql.forEach { if (it == '?') numbered.append('$').append(++index) else numbered.append(it) }
+            return numbered.toString()
+        }
+    };
+
+    /**
+     * Rewrite the `?` of the SQL. The SQL rendered by [SqlQuery] has no literals, so every `?` is a parameter.
+     */
+    internal abstract fun rewrite(sql: String): String
+}
@@ -0,0 +1,196 @@
+package io.github.robertomike.baradum.core.sql
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import io.github.robertomike.baradum.core.utils.ValueConverter
+
+/**
+ * The SQL of a query and the values of its parameters, in order
+ */
+data class SqlStatement(val sql: String, val values: List<Any>)
+
+/**
+ * The conditions, sorts and selected columns of a query on a table, for the query builders that send SQL
+ * to the database themselves (JDBC, R2DBC...).
+ *
+ * The values are converted to the type of the property (e.g. "18" to 18 for an Int), enums to their name, and are
+ * always parameters, never written in the SQL. The SQL is rendered once per query shape: the same filters with other
+ * values, or another page, get the same text. IN lists are padded to the next power of two repeating their last value,
+ * so lists of 3 to 4 values share a statement, 5 to 8 another one...
+ *
+ * Like the other backends, conditions are combined left as they are added, EQUAL and DIFF to null are
+ * IS NULL and IS NOT NULL, and a null column doesn't match NOT IN.
+ */
+class SqlQuery(private val table: SqlTable<*>) {
+    private val orders = ArrayList<Pair<String, SortDirection>>()
+    private val columns = ArrayList<String>()
+
+    /**
+     * The conditions added so far, null when there are none
+     */
+    var expression: FilterExpression? = null
+        private set
+
+    fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator) {
+        table.column(field)
+        add(FilterExpression.condition(field, operator, value), whereOperator)
+    }
+
+    /**
+     * Add the expression as a single condition, in parentheses, NOT is pushed down to the conditions first
+     */
+    fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator) {
+        add(expression.canonical(), whereOperator)
+    }
+
+    fun seek(keys: List<SeekKey>) {
+        if (keys.isNotEmpty()) {
+            add(FilterExpression.after(keys), WhereOperator.AND)
+        }
+    }
+
+    private fun add(condition: FilterExpression, whereOperator: WhereOperator) {
+        val current = expression
+        expression = when {
+            current == null -> condition
+            whereOperator == WhereOperator.AND -> current and condition
+            else -> current or condition
+        }
+    }
+
+    fun orderBy(field: String, direction: SortDirection) {
+        orders.add(table.column(field) to direction)
+    }
+
+    /**
+     * Select only the columns of the fields, all of them when there are none
+     */
+    fun select(fields: Array<out String>) {
+        columns.clear()
+        addSelect(fields)
+    }
+
+    fun addSelect(fields: Array<out String>) {
+        fields.mapTo(columns) { table.column(it) }
+    }
+
+    /**
+     * The statement of the query
+     *
+     * @param count whether to count the rows instead of selecting them, without sorts
+     * @param limit the maximum number of rows, null for all of them
+     * @param offset the rows to skip, null for none
+     */
+    fun statement(dialect: SqlDialect, placeholder: SqlPlaceholder, count: Boolean, limit: Int?, offset: Long?): SqlStatement {
+        val values = ArrayList<Any>()
+        val shape = SqlShape(
+            dialect,
+            placeholder,
+            table.name,
+            count,
+            if (count) emptyList() else columns.toList(),
+            expression?.let { shape(it, values) },
+            if (count) emptyList() else orders.toList(),
+            limit != null,
+            offset != null
+        )
+        values.addAll(dialect.paginationValues(limit, offset))
+
+        return SqlStatement(SqlTemplates.sql(shape), values)
+    }
+
+    /**
+     * The shape of the expression, adding the values of its placeholders in order
+     */
+    private fun shape(expression: FilterExpression, values: MutableList<Any>): WhereShape {
+        return when (expression) {
+            is FilterExpression.Condition -> condition(expression, values)
+            is FilterExpression.And -> WhereShape.Group(false, flatten(expression.children, false).map { shape(it, values) })
+            is FilterExpression.Or -> WhereShape.Group(true, flatten(expression.children, true).map { shape(it, values) })
+            is FilterExpression.Not -> WhereShape.Not(shape(expression.child, values))
+        }
+    }
+
+    /**
+     * Children of nested groups of the same kind are children of the group, `(a AND b) AND c` is `a AND b AND c`
+     */
+    private fun flatten(children: List<FilterExpression>, or: Boolean): List<FilterExpression> {
+        return children.flatMap { child ->
+            when {
+                !or && child is FilterExpression.And -> flatten(child.children, false)
+                or && child is FilterExpression.Or -> flatten(child.children, true)
+                else -> listOf(child)
+            }
+        }
+    }
+
+    /**
+     * The shape of the condition, adding its values
+     */
+    private fun condition(condition: FilterExpression.Condition, values: MutableList<Any>): WhereShape {
+        val type = table.type(condition.field)
+        val value = condition.value
+
+        val arity = when (condition.operator) {
+            BaradumOperator.IS_NULL, BaradumOperator.IS_NOT_NULL -> 0
+            BaradumOperator.EQUAL, BaradumOperator.DIFF -> if (value == null) 0 else {
+                values.add(bindable(value, type))
+                1
+            }
+            BaradumOperator.LIKE, BaradumOperator.NOT_LIKE -> {
+                values.add(required(condition).toString())
+                1
+            }
+            BaradumOperator.IN, BaradumOperator.NOT_IN -> within(value, type, values)
+            BaradumOperator.BETWEEN -> {
+                val bounds = value as? List<*>
+                if (bounds == null || bounds.size != 2 || bounds[0] == null || bounds[1] == null) {
+                    throw FilterException("BETWEEN requires a pair of values")
+                }
+                values.add(bindable(bounds[0]!!, type))
+                values.add(bindable(bounds[1]!!, type))
+                2
+            }
+            BaradumOperator.GREATER, BaradumOperator.GREATER_OR_EQUAL,
+            BaradumOperator.LESS, BaradumOperator.LESS_OR_EQUAL -> {
+                values.add(bindable(required(condition), type))
+                1
+            }
+        }
+        return WhereShape.Condition(table.column(condition.field), condition.operator, arity)
+    }
+
+    /**
+     * Adds the values of IN, padded to the next power of two with the last one
+     */
+    private fun within(value: Any?, type: Class<*>?, values: MutableList<Any>): Int {
+        val items = when (value) {
+            is Collection<*> -> value.filterNotNull()
+            null -> emptyList()
+            else -> listOf(value)
+        }.map { bindable(it, type) }
+
+        if (items.isEmpty()) return 0
+
+        val padded = if (items.size <= 2) items.size else Integer.highestOneBit(items.size - 1) shl 1
+        values.addAll(items)
+        repeat(padded - items.size) { values.add(items.last()) }
+        return padded
+    }
+
+    private fun required(condition: FilterExpression.Condition): Any {
+        return condition.value ?: throw FilterException("${condition.operator} requires a value")
+    }
+
+    /**
+     * The value converted to the type of the property, enums by name
+     */
+    private fun bindable(value: Any, type: Class<*>?): Any {
+        val converted = (if (type == null) value else ValueConverter.coerce(value, type)) ?: value
+        return if (converted is Enum<*>) converted.name else converted
+    }
+}
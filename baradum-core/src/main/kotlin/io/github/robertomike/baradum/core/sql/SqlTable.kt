@@ -0,0 +1,70 @@
+package io.github.robertomike.baradum.core.sql
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.utils.PropertyUtils
+import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * The table of an entity class: its name and the column of each field, see [SqlQuery].
+ *
+ * Fields are mapped to snake_case columns (`createdAt` to `created_at`) unless they are mapped with [column].
+ * Table and column names are checked to be plain identifiers, since they are written in the SQL.
+ */
+open class SqlTable<T>(
+    val name: String,
+    val entityClass: Class<T>
+) {
+    private val columns = ConcurrentHashMap<String, String>()
+    private val types = ConcurrentHashMap<String, Optional<Class<*>>>()
+
+    companion object {
+        private val TABLE = Regex("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?")
+        private val COLUMN = Regex("[A-Za-z_][A-Za-z0-9_]*")
+        private val WORD_START = Regex("([a-z0-9])([A-Z])")
+    }
+
+    init {
+        if (!TABLE.matches(name)) {
+            throw BaradumException("'$name' is not a valid table name")
+        }
+    }
+
+    /**
+     * Map the field to the column
+     */
+    open fun column(field: String, column: String): SqlTable<T> {
+        if (!COLUMN.matches(column)) {
+            throw BaradumException("'$column' is not a valid column name")
+        }
+        columns[field] = column
+        return this
+    }
+
+    /**
+     * The column of the field
+     *
+     * @throws BaradumException if the field is not mapped and is not a valid identifier
+     */
+    fun column(field: String): String {
+        return columns.getOrPut(field) {
+            if (!COLUMN.matches(field)) {
+                throw BaradumException("The field '$field' can't be used as a column of $name, map it with column()")
+            }
+            field.replace(WORD_START, "$1_$2").lowercase()
+        }
+    }
+
+    /**
+     * The declared type of the property of the field, null when the entity has no such property
+     */
+    internal fun type(field: String): Class<*>? {
+        return types.computeIfAbsent(field) {
+            try {
+                Optional.of(PropertyUtils.type(entityClass, it))
+            } catch (e: BaradumException) {
+                Optional.empty()
+            }
+        }.orElse(null)
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.robertomike.baradum.core.sql
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * The structure of a WHERE clause without its values: queries with the same filters and different values
+ * have equal shapes and share their SQL.
+ */
+internal sealed class WhereShape {
+    /**
+     * @param arity number of placeholders, 0 for the conditions on null (IS NULL, EQUAL null...)
+     */
+    data class Condition(val column: String, val operator: BaradumOperator, val arity: Int) : WhereShape()
+
+    data class Group(val or: Boolean, val children: List<WhereShape>) : WhereShape()
+
+    data class Not(val child: WhereShape) : WhereShape()
+}
+
+/**
+ * The structure of a query, the key of its SQL in [SqlTemplates]
+ */
+internal data class SqlShape(
+    val dialect: SqlDialect,
+    val placeholder: SqlPlaceholder,
+    val table: String,
+    val count: Boolean,
+    val columns: List<String>,
+    val where: WhereShape?,
+    val orders: List<Pair<String, SortDirection>>,
+    val limit: Boolean,
+    val offset: Boolean
+)
+
+/**
+ * SQL text by query shape.
+ *
+ * Rendering is done once per shape, and the same text is sent for all the queries of a shape so the prepared
+ * statement caches of the driver and the database keep hitting. Past [MAXIMUM_SIZE] shapes the cache is cleared.
+ */
+internal object SqlTemplates {
+    private const val MAXIMUM_SIZE = 2048
+    private val templates = ConcurrentHashMap<SqlShape, String>()
+
+    fun sql(shape: SqlShape): String {
+        templates[shape]?.let { return it }
+
+        val sql = render(shape)
+        if (templates.size >= MAXIMUM_SIZE) templates.clear()
+        templates[shape] = sql
+        return sql
+    }
+
+    fun size(): Int = templates.size
+
+    private fun render(shape: SqlShape): String {
+        val sql = StringBuilder(128)
+
+        sql.append("SELECT ")
+        when {
+            shape.count -> sql.append("COUNT(*)")
+            shape.columns.isEmpty() -> sql.append('*')
+            else -> shape.columns.joinTo(sql, ", ")
+        }
+        sql.append(" FROM ").append(shape.table)
+
+        shape.where?.let {
+            sql.append(" WHERE ")
+            render(it, sql, false)
+        }
+
+        if (shape.orders.isNotEmpty()) {
+            sql.append(" ORDER BY ")
+            shape.orders.joinTo(sql, ", ") { (column, direction) -> "$column ${direction.name}" }
+        }
+
+        shape.dialect.paginate(sql, shape.limit, shape.offset, shape.orders.isNotEmpty())
+        return shape.placeholder.rewrite(sql.toString())
+    }
+
+    private fun render(shape: WhereShape, sql: StringBuilder, nested: Boolean) {
+        when (shape) {
+            is WhereShape.Condition -> render(shape, sql)
+            is WhereShape.Not -> {
+                sql.append("NOT (")
+                render(shape.child, sql, false)
+                sql.append(')')
+            }
+            is WhereShape.Group -> {
+                if (nested) sql.append('(')
+                shape.children.forEachIndexed { index, child ->
+                    if (index > 0) sql.append(if (shape.or) " OR " else " AND ")
+                    render(child, sql, true)
+                }
+                if (nested) sql.append(')')
+            }
+        }
+    }
+
+    private fun render(condition: WhereShape.Condition, sql: StringBuilder) {
+        val column = condition.column
+        val arity = condition.arity
+
+        when (condition.operator) {
+            BaradumOperator.EQUAL -> sql.append(column).append(if (arity == 0) " IS NULL" else " = ?")
+            BaradumOperator.DIFF -> sql.append(column).append(if (arity == 0) " IS NOT NULL" else " <> ?")
+            BaradumOperator.GREATER -> sql.append(column).append(" > ?")
+            BaradumOperator.GREATER_OR_EQUAL -> sql.append(column).append(" >= ?")
+            BaradumOperator.LESS -> sql.append(column).append(" < ?")
+            BaradumOperator.LESS_OR_EQUAL -> sql.append(column).append(" <= ?")
+            BaradumOperator.LIKE -> sql.append(column).append(" LIKE ?")
+            BaradumOperator.NOT_LIKE -> sql.append(column).append(" NOT LIKE ?")
+            BaradumOperator.IS_NULL -> sql.append(column).append(" IS NULL")
+            BaradumOperator.IS_NOT_NULL -> sql.append(column).append(" IS NOT NULL")
+            BaradumOperator.BETWEEN -> sql.append(column).append(" BETWEEN ? AND ?")
+            // Like in the other backends, a null property doesn't match NOT IN
+            BaradumOperator.IN -> if (arity == 0) sql.append("1 = 0") else placeholders(sql.append(column).append(" IN ("), arity)
+            BaradumOperator.NOT_IN -> if (arity == 0) sql.append(column).append(" IS NOT NULL") else placeholders(sql.append(column).append(" NOT IN ("), arity)
+        }
+    }
+
+    private fun placeholders(sql: StringBuilder, count: Int) {
+        repeat(count) { sql.append(if (it == 0) "?" else ", ?") }
+        sql.append(')')
+    }
+}
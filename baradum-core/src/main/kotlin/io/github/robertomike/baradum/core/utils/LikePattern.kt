@@ -0,0 +1,56 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import java.util.function.Predicate
+import java.util.regex.Pattern
+
+/**
+ * SQL LIKE patterns evaluated in memory: `%` matches any sequence and `_` any character.
+ *
+ * Patterns with a single `%` at the ends are turned into a plain string check, the others into a regex.
+ *
+ * Usage example:
+ * ```kotlin
+ * val matches = LikePattern.compile("%an%")
+ * matches.test("Japan") // true
+ * ```
+ */
+object LikePattern {
+    /**
+     * @throws FilterException if the pattern is null
+     */
+    @JvmStatic
+    fun compile(value: Any?): Predicate<String> {
+        val pattern = value?.toString() ?: throw FilterException("LIKE requires a value")
+        val inner = pattern.removePrefix("%").removeSuffix("%")
+
+        if ('%' !in inner && '_' !in inner) {
+            val starts = pattern.startsWith("%")
+            val ends = pattern.length > 1 && pattern.endsWith("%")
+            return when {
+                starts && ends -> Predicate { it.contains(inner) }
+                starts -> Predicate { it.endsWith(inner) }
+                ends -> Predicate { it.startsWith(inner) }
+                else -> Predicate { it == inner }
+            }
+        }
+
+        val regex = buildString {
+            val literal = StringBuilder()
+            fun flush() {
+                if (literal.isNotEmpty()) append(Pattern.quote(literal.toString()))
+                literal.setLength(0)
+            }
+            pattern.forEach { char ->
+                when (char) {
+                    '%' -> { flush(); append(".*") }
+                    '_' -> { flush(); append('.') }
+                    else -> literal.append(char)
+                }
+            }
+            flush()
+        }
+        val compiled = Pattern.compile(regex, Pattern.DOTALL)
+        return Predicate { compiled.matcher(it).matches() }
+    }
+}
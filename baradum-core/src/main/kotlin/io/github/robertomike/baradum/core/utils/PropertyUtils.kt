@@ -0,0 +1,90 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import java.lang.reflect.Field
+import java.lang.reflect.Method
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Reads property values from entities by name, supporting dotted paths (e.g. "address.city").
+ *
+ * Accessors are resolved once per class and property and cached, looking in order for
+ * a `getX()` getter, an `isX()` getter, an `x()` accessor (records) and finally the field itself.
+ */
+object PropertyUtils {
+    private val accessors = ConcurrentHashMap<Pair<Class<*>, String>, (Any) -> Any?>()
+
+    /**
+     * Read the value of a property, returns null if any element of the path is null
+     */
+    @JvmStatic
+    fun read(target: Any, path: String): Any? {
+        var current: Any? = target
+
+        for (name in path.split(".")) {
+            val value = current ?: return null
+            current = accessor(value.javaClass, name)(value)
+        }
+
+        return current
+    }
+
+    /**
+     * The declared type of a property, following the same lookup as [read]
+     *
+     * @throws BaradumException if an element of the path does not exist
+     */
+    @JvmStatic
+    fun type(type: Class<*>, path: String): Class<*> {
+        return path.split(".").fold(type) { current, name ->
+            findMethod(current, name)?.returnType
+                ?: findField(current, name)?.type
+                ?: throw BaradumException("The property '$name' does not exist in ${current.name}")
+        }
+    }
+
+    private fun accessor(type: Class<*>, name: String): (Any) -> Any? {
+        return accessors.computeIfAbsent(type to name) { createAccessor(type, name) }
+    }
+
+    private fun createAccessor(type: Class<*>, name: String): (Any) -> Any? {
+        val method = findMethod(type, name)
+        if (method != null) {
+            return { target -> method.invoke(target) }
+        }
+
+        val field = findField(type, name)
+            ?: throw BaradumException("The property '$name' does not exist in ${type.name}")
+
+        return { target -> field.get(target) }
+    }
+
+    private fun findMethod(type: Class<*>, name: String): Method? {
+        val capitalized = name.replaceFirstChar { it.uppercaseChar() }
+
+        return listOf("get$capitalized", "is$capitalized", name)
+            .firstNotNullOfOrNull { candidate ->
+                try {
+                    type.getMethod(candidate)
+                        .takeIf { it.returnType != Void.TYPE }
+                        ?.apply { trySetAccessible() }
+                } catch (e: NoSuchMethodException) {
+                    null
+                }
+            }
+    }
+
+    private fun findField(type: Class<*>, name: String): Field? {
+        var current: Class<*>? = type
+
+        while (current != null) {
+            try {
+                return current.getDeclaredField(name).apply { isAccessible = true }
+            } catch (e: NoSuchFieldException) {
+                current = current.superclass
+            }
+        }
+
+        return null
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import java.math.BigDecimal
+import java.math.BigInteger
+
+/**
+ * Compares the values of conditions evaluated in memory, after they are converted with [ValueConverter.coerce].
+ *
+ * Numbers of different types are compared by their value (`18 == 18L == 18.0`), the other values must be
+ * [Comparable] with each other.
+ *
+ * Usage example:
+ * ```kotlin
+ * ValueComparison.compare(18, 17.5)     // 1
+ * ValueComparison.key(18.0) == 18L      // true, same key in a hash set
+ * ```
+ */
+object ValueComparison {
+    /**
+     * @throws FilterException if the values can't be compared
+     */
+    @JvmStatic
+    @Suppress("UNCHECKED_CAST")
+    fun compare(actual: Any, expected: Any): Int {
+        if (actual is Number && expected is Number && actual.javaClass != expected.javaClass) {
+            return decimal(actual).compareTo(decimal(expected))
+        }
+        if (actual !is Comparable<*>) {
+            throw FilterException("The values of ${actual.javaClass.simpleName} can't be compared")
+        }
+        return try {
+            (actual as Comparable<Any>).compareTo(expected)
+        } catch (e: ClassCastException) {
+            throw FilterException("Cannot compare ${actual.javaClass.simpleName} with ${expected.javaClass.simpleName}")
+        }
+    }
+
+    /**
+     * Equality of the values, numbers are equal when their value is, whatever their type or scale
+     */
+    @JvmStatic
+    fun equal(actual: Any, expected: Any): Boolean {
+        if (actual is Number && expected is Number && (actual.javaClass != expected.javaClass || actual is BigDecimal)) {
+            return decimal(actual).compareTo(decimal(expected)) == 0
+        }
+        return actual == expected
+    }
+
+    /**
+     * Hash key of the value, equal numbers get equal keys whatever their type or scale
+     */
+    @JvmStatic
+    fun key(value: Any): Any {
+        if (value !is Number) return value
+        if (value is Int || value is Long || value is Short || value is Byte) return value.toLong()
+
+        val decimal = decimal(value)
+        return try {
+            decimal.longValueExact()
+        } catch (e: ArithmeticException) {
+            decimal.stripTrailingZeros()
+        }
+    }
+
+    @JvmStatic
+    fun decimal(value: Number): BigDecimal {
+        return when (value) {
+            is BigDecimal -> value
+            is BigInteger -> BigDecimal(value)
+            is Int, is Long, is Short, is Byte -> BigDecimal.valueOf(value.toLong())
+            else -> BigDecimal(value.toString())
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Converts raw request values into the types used in query conditions.
+ *
+ * Classification is done in a single pass over the characters, without regular
+ * expressions or intermediate strings. For the most common inputs (booleans,
+ * small integers and plain text) no object is allocated at all: booleans map to
+ * the shared [Boolean] constants, small integers hit the JDK box cache and text
+ * is returned as the same instance.
+ *
+ * Usage examples:
+ * ```kotlin
+ * ValueConverter.convert("true")          // true
+ * ValueConverter.convert("42")            // 42 (Int)
+ * ValueConverter.convert("12345678901")   // 12345678901 (Long)
+ * ValueConverter.convert("29.99")         // 29.99 (Double)
+ * ValueConverter.convert("USA")           // "USA"
+ *
+ * ValueConverter.convert("29.99", BigDecimal::class.java)  // BigDecimal("29.99")
+ * ValueConverter.convert(uuid, UUID::class.java)           // UUID
+ * ```
+ */
+object ValueConverter {
+    private const val NOT_A_NUMBER = 0
+    private const val INTEGER = 1
+    private const val DECIMAL = 2
+    private val parsers = ConcurrentHashMap<Class<*>, Method?>()
+
+    /**
+     * Converts the value to Boolean, Int, Long, BigInteger or Double when it clearly is one,
+     * otherwise the value itself is returned so the ORM can handle it (enums, strings, ...).
+     */
+    @JvmStatic
+    fun convert(value: String): Any {
+        if (value.equals("true", ignoreCase = true)) return true
+        if (value.equals("false", ignoreCase = true)) return false
+        return parseNumber(value) ?: value
+    }
+
+    /**
+     * Parses plain numbers (`-?digits` or `-?digits.digits`).
+     *
+     * Integers are returned as Int when they fit, Long when they don't and BigInteger
+     * beyond the Long range. Decimals are returned as Double.
+     *
+     * @return the number, or null if the value is not a plain number
+     */
+    @JvmStatic
+    fun parseNumber(value: String): Number? {
+        return when (classify(value)) {
+            INTEGER -> parseInteger(value)
+            DECIMAL -> value.toDouble()
+            else -> null
+        }
+    }
+
+    /**
+     * Parses numbers with the rules of the comparison filters: values with a dot are Double
+     * (`.5`, `5.` and `1.5E3` included), the others Int or Long when they fit, a leading `+` included.
+     * Plain numbers are parsed as in [parseNumber], without exceptions.
+     *
+     * @return the number, or null if the value is not a number or doesn't fit a Long
+     */
+    @JvmStatic
+    fun parseComparable(value: String): Number? {
+        when (classify(value)) {
+            INTEGER -> return parseInteger(value).takeIf { it !is BigInteger }
+            DECIMAL -> return value.toDouble()
+        }
+
+        if (value.contains('.')) {
+            return value.toDoubleOrNull()
+        }
+        val number = value.toLongOrNull() ?: return null
+        return if (number >= Int.MIN_VALUE && number <= Int.MAX_VALUE) number.toInt() else number
+    }
+
+    /**
+     * Converts the value to the given target type.
+     *
+     * Supported types: String, Boolean, Int, Long, Short, Byte, Double, Float,
+     * BigDecimal, BigInteger, UUID and enums (by constant name).
+     *
+     * @throws FilterException if the value cannot be converted or the type is not supported
+     */
+    @JvmStatic
+    fun convert(value: String, type: Class<*>): Any {
+        try {
+            return when (type) {
+                String::class.java, Any::class.java -> value
+                Boolean::class.javaObjectType, Boolean::class.javaPrimitiveType -> toBoolean(value)
+                Int::class.javaObjectType, Int::class.javaPrimitiveType -> value.toInt()
+                Long::class.javaObjectType, Long::class.javaPrimitiveType -> value.toLong()
+                Short::class.javaObjectType, Short::class.javaPrimitiveType -> value.toShort()
+                Byte::class.javaObjectType, Byte::class.javaPrimitiveType -> value.toByte()
+                Double::class.javaObjectType, Double::class.javaPrimitiveType -> value.toDouble()
+                Float::class.javaObjectType, Float::class.javaPrimitiveType -> value.toFloat()
+                BigDecimal::class.java -> BigDecimal(value)
+                BigInteger::class.java -> BigInteger(value)
+                UUID::class.java -> UUID.fromString(value)
+                else -> if (type.isEnum) toEnum(value, type) else throw FilterException(
+                    "Unsupported target type '${type.name}'"
+                )
+            }
+        } catch (e: IllegalArgumentException) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw FilterException("The value '$value' is not a valid ${type.simpleName}")
+        }
+    }
+
+    /**
+     * Converts the value of a condition to the type of the property it's compared with, for the backends
+     * that compare the values themselves (e.g. "18" to 18 for an Int property).
+     *
+     * Numbers that don't fit the type are kept (e.g. 2.5 for an Int property), temporal types are parsed with
+     * their static `parse(CharSequence)`, and values of other types are returned as they are.
+     *
+     * @throws FilterException if the value is not valid for a number, boolean, UUID or enum property
+     */
+    @JvmStatic
+    fun coerce(value: Any?, type: Class<*>): Any? {
+        val target = type.kotlin.javaObjectType
+        if (value == null || target == Any::class.java || target.isInstance(value)) return value
+
+        return when {
+            target == String::class.java -> if (value is Number || value is Boolean || value is Enum<*>) value.toString() else value
+            Number::class.java.isAssignableFrom(target) -> when (value) {
+                is Number -> convertOrNull(value.toString(), target) ?: value
+                is String -> convertOrNull(value, target) ?: parseNumber(value)
+                    ?: throw FilterException("The value '$value' is not a valid ${target.simpleName}")
+                else -> value
+            }
+            value !is String -> value
+            target == Boolean::class.javaObjectType || target == UUID::class.java || target.isEnum -> convert(value, target)
+            else -> parse(value, target) ?: value
+        }
+    }
+
+    private fun convertOrNull(value: String, type: Class<*>): Any? {
+        return try {
+            convert(value, type)
+        } catch (e: FilterException) {
+            // Decimals for integer types, or number types without conversion
+            null
+        }
+    }
+
+    /**
+     * Temporal types and others with a static parse(CharSequence), e.g. LocalDate.parse("2024-01-31")
+     */
+    private fun parse(value: String, type: Class<*>): Any? {
+        val parser = parsers.computeIfAbsent(type) {
+            try {
+                it.getMethod("parse", CharSequence::class.java)
+                    .takeIf { method -> Modifier.isStatic(method.modifiers) && it.isAssignableFrom(method.returnType) }
+            } catch (e: NoSuchMethodException) {
+                null
+            }
+        } ?: return null
+
+        return try {
+            parser.invoke(null, value)
+        } catch (e: ReflectiveOperationException) {
+            throw FilterException("The value '$value' is not a valid ${type.simpleName}")
+        }
+    }
+
+    private fun toBoolean(value: String): Boolean {
+        if (value.equals("true", ignoreCase = true)) return true
+        if (value.equals("false", ignoreCase = true)) return false
+        throw IllegalArgumentException(value)
+    }
+
+    private fun toEnum(value: String, type: Class<*>): Any {
+        return type.enumConstants.firstOrNull { (it as Enum<*>).name == value }
+            ?: throw IllegalArgumentException(value)
+    }
+
+    private fun classify(value: String): Int {
+        val length = value.length
+        var index = if (length > 0 && value[0] == '-') 1 else 0
+        val digitsStart = index
+
+        while (index < length && value[index] in '0'..'9') index++
+        if (index == digitsStart) return NOT_A_NUMBER
+        if (index == length) return INTEGER
+        if (value[index] != '.') return NOT_A_NUMBER
+
+        val fractionStart = ++index
+        while (index < length && value[index] in '0'..'9') index++
+        return if (index == length && index > fractionStart) DECIMAL else NOT_A_NUMBER
+    }
+
+    /**
+     * Accumulates negatively so Long.MIN_VALUE can be represented, same as Long.parseLong.
+     */
+    private fun parseInteger(value: String): Number {
+        val negative = value[0] == '-'
+        val limit = if (negative) Long.MIN_VALUE else -Long.MAX_VALUE
+        val multiplyLimit = limit / 10
+        var result = 0L
+
+        for (index in (if (negative) 1 else 0) until value.length) {
+            val digit = value[index] - '0'
+            if (result < multiplyLimit) return BigInteger(value)
+            result *= 10
+            if (result < limit + digit) return BigInteger(value)
+            result -= digit
+        }
+
+        val number = if (negative) result else -result
+        return if (number >= Int.MIN_VALUE && number <= Int.MAX_VALUE) number.toInt() else number
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.robertomike.baradum.core
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionEvent
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.requests.RequestContext
+import io.github.robertomike.baradum.core.requests.RequestContextTest.TestRequest
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.*
+import java.util.Optional
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tests for the async executions of Baradum, the mock keeps the default async methods of QueryBuilder
+ */
+class BaradumAsyncTest {
+
+    class TestEntity
+
+    private lateinit var queryBuilder: QueryBuilder<TestEntity>
+    private lateinit var pool: ExecutorService
+    private val threads = mutableListOf<String>()
+
+    @BeforeEach
+    fun setup() {
+        pool = Executors.newFixedThreadPool(2) { Thread(it, "async-test") }
+        queryBuilder = mock {
+            on { get() } doAnswer {
+                threads.add(Thread.currentThread().name)
+                listOf(TestEntity(), TestEntity())
+            }
+            on { page(any(), any()) } doAnswer {
+                BaradumInstrumentation.current()?.add(ExecutionPhase.FETCH, 5)
+                Page(listOf(TestEntity()), 12, it.getArgument(0), it.getArgument(1))
+            }
+            on { findFirst() } doReturn Optional.empty()
+            on { getAsync(any()) }.thenCallRealMethod()
+            on { pageAsync(any(), any(), any()) }.thenCallRealMethod()
+            on { findFirstAsync(any()) }.thenCallRealMethod()
+        }
+    }
+
+    @AfterEach
+    fun cleanup() {
+        Baradum.asyncExecutor = null
+        BaradumInstrumentation.clear()
+        pool.shutdownNow()
+    }
+
+    private fun <R> CompletableFuture<R>.await(): R = get(5, TimeUnit.SECONDS)
+
+    @Test
+    fun `getAsync runs the query on the executor`() {
+        val result = Baradum(queryBuilder).executor(pool).getAsync().await()
+
+        assertEquals(2, result.size)
+        assertEquals(listOf("async-test"), threads)
+    }
+
+    @Test
+    fun `global executor is used when the instance has none`() {
+        Baradum.asyncExecutor = pool
+
+        Baradum(queryBuilder).getAsync().await()
+
+        assertEquals(listOf("async-test"), threads)
+    }
+
+    @Test
+    fun `default executor runs off the calling thread`() {
+        Baradum(queryBuilder).getAsync().await()
+
+        assertNotEquals(Thread.currentThread().name, threads.single())
+    }
+
+    @Test
+    fun `filters are applied with the request of the calling thread`() {
+        val future = RequestContext.callWith(TestRequest(mapOf("country" to "USA"))) {
+            Baradum(queryBuilder).executor(pool)
+                .allowedFilters(ExactFilter("country"))
+                .getAsync()
+        }
+        future.await()
+
+        verify(queryBuilder).where("country", BaradumOperator.EQUAL, "USA", WhereOperator.AND)
+    }
+
+    @Test
+    fun `pageAsync resolves limit and offset from the params`() {
+        val page = Baradum(queryBuilder).executor(pool)
+            .withParams(mapOf("limit" to "5", "offset" to "10"))
+            .pageAsync(20)
+            .await()
+
+        assertEquals(5, page.limit)
+        assertEquals(10L, page.offset)
+        verify(queryBuilder).pageAsync(eq(5), eq(10L), any())
+    }
+
+    @Test
+    fun `findFirstAsync returns the optional`() {
+        assertFalse(Baradum(queryBuilder).executor(pool).findFirstAsync().await().isPresent)
+    }
+
+    @Test
+    fun `failures complete the future instead of being thrown`() {
+        whenever(queryBuilder.get()).thenThrow(FilterException("invalid value"))
+
+        val future = Baradum(queryBuilder).executor(pool).getAsync()
+
+        val exception = assertThrows<ExecutionException> { future.await() }
+        assertInstanceOf(FilterException::class.java, exception.cause)
+    }
+
+    @Test
+    fun `rejected executions complete the future`() {
+        val rejecting = Executor { throw IllegalStateException("rejected") }
+
+        val future = Baradum(queryBuilder).executor(rejecting).getAsync()
+
+        assertTrue(future.isCompletedExceptionally)
+    }
+
+    @Test
+    fun `async executions are reported when they complete`() {
+        val events = mutableListOf<ExecutionEvent>()
+        BaradumInstrumentation.register { synchronized(events) { events.add(it) } }
+
+        Baradum(queryBuilder).executor(pool)
+            .allowedFilters(ExactFilter("country"))
+            .withParams(mapOf("country" to "USA"))
+            .pageAsync(10)
+            .await()
+
+        val event = synchronized(events) { events.single() }
+        assertEquals("pageAsync", event.operation)
+        assertEquals(mapOf("country" to "USA"), event.params)
+        assertEquals(1, event.rows)
+        assertEquals(12L, event.total)
+        assertEquals(5, event.nanos(ExecutionPhase.FETCH))
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.robertomike.baradum.core
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.exceptions.SortableException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.SearchFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.requests.BasicRequest
+import io.github.robertomike.baradum.core.requests.FilterRequest
+import io.github.robertomike.baradum.core.sorting.OrderBy
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.Optional
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+/**
+ * Tests for precompiled specs shared between requests
+ */
+class BaradumSpecTest {
+
+    // Query builder recording the calls, one per request
+    class RecordingQueryBuilder : QueryBuilder<String> {
+        val wheres = mutableListOf<Pair<String, Any?>>()
+        val orders = mutableListOf<Pair<String, SortDirection>>()
+        val selects = mutableListOf<String>()
+        val resolvedFields = mutableListOf<String>()
+
+        override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<String> {
+            wheres.add(field to value)
+            return this
+        }
+
+        override fun orderBy(field: String, direction: SortDirection): QueryBuilder<String> {
+            orders.add(field to direction)
+            return this
+        }
+
+        override fun select(vararg fields: String): QueryBuilder<String> {
+            selects.clear()
+            selects.addAll(fields)
+            return this
+        }
+
+        override fun addSelect(vararg fields: String): QueryBuilder<String> = this
+        override fun limit(limit: Int): QueryBuilder<String> = this
+        override fun offset(offset: Long): QueryBuilder<String> = this
+        override fun get(): List<String> = emptyList()
+        override fun page(limit: Int, offset: Long): Page<String> = Page(emptyList(), 0, limit, offset)
+        override fun findFirst(): Optional<String> = Optional.empty()
+        override fun getWhereConditions(): Any? = wheres
+
+        override fun resolveFields(fields: Collection<String>) {
+            resolvedFields.addAll(fields)
+        }
+    }
+
+    class PostRequest(override val json: String) : BasicRequest<Unit>(Unit) {
+        override fun findParamByName(name: String): String? = null
+        override val method: String = "POST"
+    }
+
+    private val spec = BaradumSpec.builder<String, RecordingQueryBuilder>()
+        .allowedFilters(ExactFilter("name"), ExactFilter("country", "countryCode"))
+        .allowedSort("name", "age")
+        .build()
+
+    @AfterEach
+    fun cleanup() {
+        Baradum.request = null
+    }
+
+    @Test
+    fun `on applies the spec filters and sorts`() {
+        val builder = RecordingQueryBuilder()
+
+        spec.on(builder)
+            .withParams(mapOf("name" to "John", "country" to "ES", "sort" to "-age"))
+            .get()
+
+        assertEquals(listOf("name" to "John", "countryCode" to "ES"), builder.wheres)
+        assertEquals(listOf("age" to SortDirection.DESC), builder.orders)
+    }
+
+    @Test
+    fun `spec rejects not allowed sorts`() {
+        assertThrows<SortableException> {
+            spec.on(RecordingQueryBuilder()).withParams(mapOf("sort" to "email")).get()
+        }
+    }
+
+    @Test
+    fun `filters added to a request do not change the spec`() {
+        val first = RecordingQueryBuilder()
+        spec.on(first)
+            .allowedFilters(ExactFilter("email"))
+            .allowedSort("email")
+            .withParams(mapOf("email" to "a@b.c", "sort" to "email"))
+            .get()
+
+        assertEquals(listOf("email" to "a@b.c"), first.wheres)
+
+        val second = RecordingQueryBuilder()
+        assertThrows<SortableException> {
+            spec.on(second).withParams(mapOf("email" to "a@b.c", "sort" to "email")).get()
+        }
+        assertTrue(second.wheres.isEmpty(), "The filter added to the first request should not be in the spec")
+    }
+
+    @Test
+    fun `builder rejects duplicated filters and sorts`() {
+        val builder = BaradumSpec.builder<String, RecordingQueryBuilder>()
+            .allowedFilters(ExactFilter("name"))
+            .allowedSort("name")
+
+        assertThrows<BaradumException> { builder.allowedFilters(ExactFilter("name", "fullName")) }
+        assertThrows<BaradumException> { builder.allowedSort(OrderBy("name", "fullName")) }
+    }
+
+    @Test
+    fun `default params are overridden by request params`() {
+        val spec = BaradumSpec.builder<String, RecordingQueryBuilder>()
+            .allowedFilters(ExactFilter("country"))
+            .allowedSort("name", "age")
+            .defaultParam("sort", "name")
+            .defaultParam("country", "ES")
+            .build()
+
+        val defaults = RecordingQueryBuilder()
+        spec.on(defaults).withParams(emptyMap()).get()
+        assertEquals(listOf("country" to "ES"), defaults.wheres)
+        assertEquals(listOf("name" to SortDirection.ASC), defaults.orders)
+
+        val overridden = RecordingQueryBuilder()
+        spec.on(overridden).withParams(mapOf("sort" to "-age")).get()
+        assertEquals(listOf("country" to "ES"), overridden.wheres)
+        assertEquals(listOf("age" to SortDirection.DESC), overridden.orders)
+    }
+
+    @Test
+    fun `selects are applied to each bound builder`() {
+        val spec = BaradumSpec.builder<String, RecordingQueryBuilder>()
+            .selects("id", "name")
+            .build()
+
+        val builder = RecordingQueryBuilder()
+        spec.on(builder)
+
+        assertEquals(listOf("id", "name"), builder.selects)
+    }
+
+    @Test
+    fun `body filters are resolved by param`() {
+        val spec = BaradumSpec.builder<String, RecordingQueryBuilder>()
+            .allowedFilters(ExactFilter("name"), ExactFilter("country", "countryCode"))
+            .useOnlyBody()
+            .build()
+
+        Baradum.request = PostRequest("""{"filters":[{"field":"country","value":"ES"}]}""")
+        val builder = RecordingQueryBuilder()
+        spec.on(builder).get()
+
+        assertEquals(listOf("countryCode" to "ES"), builder.wheres)
+
+        Baradum.request = PostRequest("""{"filters":[{"field":"email","value":"a@b.c"}]}""")
+        assertThrows<FilterException> { spec.on(RecordingQueryBuilder()).get() }
+    }
+
+    @Test
+    fun `preResolve passes the spec fields to the query builder`() {
+        val spec = BaradumSpec.builder<String, RecordingQueryBuilder>()
+            .allowedFilters(ExactFilter("name"), ExactFilter("country", "countryCode"), SearchFilter.of("email"))
+            .allowedSort(OrderBy("age", "birthYear"))
+            .selects("name")
+            .keysetTiebreaker("uuid")
+            .build()
+
+        val builder = RecordingQueryBuilder()
+        spec.preResolve(builder)
+
+        assertEquals(listOf("name", "countryCode", "birthYear", "uuid"), builder.resolvedFields)
+        assertTrue(builder.wheres.isEmpty())
+    }
+
+    @Test
+    fun `spec can be shared between threads`() {
+        val executor = Executors.newFixedThreadPool(8)
+
+        try {
+            val tasks = (1..500).map { index ->
+                Callable {
+                    val builder = RecordingQueryBuilder()
+                    spec.on(builder)
+                        .withParams(mapOf("name" to "user$index", "sort" to "name"))
+                        .get()
+                    builder
+                }
+            }
+
+            executor.invokeAll(tasks).forEachIndexed { index, future ->
+                val builder = future.get()
+                assertEquals(listOf("name" to "user${index + 1}"), builder.wheres)
+                assertEquals(listOf("name" to SortDirection.ASC), builder.orders)
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package io.github.robertomike.baradum.core
 
 import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
 import io.github.robertomike.baradum.core.filters.ExactFilter
 import io.github.robertomike.baradum.core.filters.Filter
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.LazyPage
 import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
 import io.github.robertomike.baradum.core.requests.BasicRequest
 import io.github.robertomike.baradum.core.sorting.OrderBy
+import io.github.robertomike.baradum.core.sorting.SeekKey
 import io.github.robertomike.baradum.core.enums.SortDirection
 import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.Test
@@ -14,6 +18,9 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.assertThrows
 import org.mockito.kotlin.*
 import java.util.Optional
+import java.util.function.Consumer
+import java.util.stream.Stream
+import kotlin.streams.toList
 
 /**
  * Comprehensive tests for Baradum core class
@@ -242,6 +249,18 @@ class BaradumTest {
         verify(mockQueryBuilder).get()
     }
 
+    @Test
+    fun `execute applies the filters before running the execution`() {
+        val result = baradum.withParams(mapOf("name" to "test"))
+            .allowedFilters(ExactFilter("name"))
+            .execute { builder ->
+                verify(builder).where(eq("name"), any(), eq("test"), any())
+                "executed"
+            }
+
+        assertEquals("executed", result)
+    }
+
     // page Tests
     @Test
     fun `page with limit and offset calls query builder`() {
@@ -289,6 +308,131 @@ class BaradumTest {
         verify(mockQueryBuilder).page(10, 0)
     }
 
+    // lazyPage Tests
+    @Test
+    fun `lazyPage calls query builder lazyPage`() {
+        val expected = LazyPage(listOf(TestEntity("1")), 10, 0, false) { 1 }
+        whenever(mockQueryBuilder.lazyPage(10, 0)).thenReturn(expected)
+
+        val result = baradum.lazyPage(10)
+
+        assertSame(expected, result)
+        verify(mockQueryBuilder).lazyPage(10, 0)
+        verify(mockQueryBuilder, never()).page(any(), any())
+    }
+
+    @Test
+    fun `lazyPage extracts limit and offset from params if provided`() {
+        val params = mapOf("limit" to "20", "offset" to "5")
+        whenever(mockQueryBuilder.lazyPage(20, 5))
+            .thenReturn(LazyPage(emptyList(), 20, 5, false) { 0 })
+
+        baradum.withParams(params)
+               .lazyPage(10, 0)
+
+        verify(mockQueryBuilder).lazyPage(20, 5)
+    }
+
+    // pageAfter Tests
+    @Test
+    fun `pageAfter first page adds tiebreaker and returns next cursor`() {
+        whenever(mockQueryBuilder.get()).thenReturn(listOf(TestEntity("1"), TestEntity("2"), TestEntity("3")))
+
+        val result = baradum.pageAfter(null, 2)
+
+        assertEquals(listOf(TestEntity("1"), TestEntity("2")), result.content)
+        assertTrue(result.hasNext)
+        assertNotNull(result.nextCursor)
+        verify(mockQueryBuilder).orderBy("id", SortDirection.ASC)
+        verify(mockQueryBuilder).limit(3)
+        verify(mockQueryBuilder, never()).seek(any())
+    }
+
+    @Test
+    fun `pageAfter with cursor seeks after the previous page`() {
+        whenever(mockQueryBuilder.get()).thenReturn(listOf(TestEntity("1"), TestEntity("2"), TestEntity("3")))
+        val cursor = baradum.pageAfter(null, 2).nextCursor!!
+
+        val nextBuilder: QueryBuilder<TestEntity> = mock()
+        whenever(nextBuilder.get()).thenReturn(listOf(TestEntity("3")))
+
+        val result = Baradum(nextBuilder).pageAfter(cursor, 2)
+
+        assertEquals(listOf(TestEntity("3")), result.content)
+        assertFalse(result.hasNext)
+        assertNull(result.nextCursor)
+        verify(nextBuilder).seek(listOf(SeekKey("id", SortDirection.ASC, "2")))
+    }
+
+    @Test
+    fun `pageAfter rejects cursor created for other sorts`() {
+        whenever(mockQueryBuilder.get()).thenReturn(listOf(TestEntity("1"), TestEntity("2")))
+        val cursor = baradum.pageAfter(null, 1).nextCursor!!
+
+        val other = Baradum(mock<QueryBuilder<TestEntity>>())
+            .allowedSort("id")
+            .withParams(mapOf("sort" to "-id"))
+
+        assertThrows<FilterException> { other.pageAfter(cursor, 1) }
+    }
+
+    @Test
+    fun `pageAfter uses custom tiebreaker`() {
+        whenever(mockQueryBuilder.get()).thenReturn(emptyList())
+
+        val result = baradum.keysetTiebreaker("uuid").pageAfter(null, 10)
+
+        assertTrue(result.content.isEmpty())
+        assertFalse(result.hasNext)
+        verify(mockQueryBuilder).orderBy("uuid", SortDirection.ASC)
+    }
+
+    @Test
+    fun `pageAfter rejects non positive limit`() {
+        assertThrows<BaradumException> { baradum.pageAfter(null, 0) }
+    }
+
+    // stream Tests
+    @Test
+    fun `stream applies filters and delegates to query builder`() {
+        val options = StreamOptions(fetchSize = 50)
+        whenever(mockQueryBuilder.stream(options)).thenReturn(Stream.of(TestEntity("1"), TestEntity("2")))
+
+        val result = baradum
+            .allowedFilters(ExactFilter("name"))
+            .withParams(mapOf("name" to "test"))
+            .stream(options)
+            .use { it.toList() }
+
+        assertEquals(listOf(TestEntity("1"), TestEntity("2")), result)
+        verify(mockQueryBuilder).where(eq("name"), any(), eq("test"), any())
+        verify(mockQueryBuilder).stream(options)
+    }
+
+    @Test
+    fun `stream uses default options`() {
+        whenever(mockQueryBuilder.stream(any())).thenReturn(Stream.empty())
+
+        baradum.stream().close()
+
+        verify(mockQueryBuilder).stream(StreamOptions())
+    }
+
+    @Test
+    fun `forEachChunk delegates to query builder`() {
+        val consumer = Consumer<List<TestEntity>> {}
+
+        baradum.forEachChunk(10, consumer)
+
+        verify(mockQueryBuilder).forEachChunk(10, consumer)
+    }
+
+    @Test
+    fun `forEachChunk rejects non positive size`() {
+        assertThrows<BaradumException> { baradum.forEachChunk(0) {} }
+        verify(mockQueryBuilder, never()).forEachChunk(any(), any())
+    }
+
     // findFirst Tests
     @Test
     fun `findFirst calls query builder findFirst method`() {
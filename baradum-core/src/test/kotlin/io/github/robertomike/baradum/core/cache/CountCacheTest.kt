@@ -0,0 +1,156 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.*
+import java.time.Duration
+import java.util.function.LongSupplier
+
+/**
+ * Tests for CountCache and CountCachingQueryBuilder, the backend is a mock holding [rows] rows
+ */
+class CountCacheTest {
+
+    private var now = 0L
+    private var rows = 25
+    private lateinit var delegates: MutableList<QueryBuilder<Int>>
+
+    @BeforeEach
+    fun setup() {
+        now = 0L
+        rows = 25
+        delegates = mutableListOf()
+    }
+
+    private fun cache(approximate: Boolean = false) =
+        CountCache(Duration.ofSeconds(10), approximate, LruQueryCacheStore(100), LongSupplier { now })
+
+    private fun builder(cache: CountCache, region: String = "users"): CountCachingQueryBuilder<Int> {
+        var limit = Int.MAX_VALUE
+        var offset = 0L
+        val delegate: QueryBuilder<Int> = mock {
+            on { limit(any()) } doAnswer { limit = it.getArgument(0); it.mock as QueryBuilder<Int> }
+            on { offset(any()) } doAnswer { offset = it.getArgument(0); it.mock as QueryBuilder<Int> }
+            on { get() } doAnswer { (offset.toInt() until minOf(rows.toLong(), offset + limit).toInt()).toList() }
+            on { count() } doAnswer { rows.toLong() }
+        }
+        delegates.add(delegate)
+        return CountCachingQueryBuilder(delegate, cache, region)
+    }
+
+    private fun totalCounts(): Int = delegates.sumOf { mockingDetails(it).invocations.count { call -> call.method.name == "count" } }
+
+    @Test
+    fun `pages of the same filters count once`() {
+        val cache = cache()
+
+        val first = builder(cache).where("country", BaradumOperator.EQUAL, "USA").page(10, 0)
+        val second = builder(cache).where("country", BaradumOperator.EQUAL, "USA")
+            .orderBy("name", SortDirection.DESC)
+            .page(10, 10)
+
+        assertEquals(25, first.totalElements)
+        assertEquals(25, second.totalElements)
+        assertEquals((10 until 20).toList(), second.content)
+        assertEquals(1, totalCounts())
+        assertEquals(1, cache.stats().hits)
+    }
+
+    @Test
+    fun `different filters count on their own`() {
+        val cache = cache()
+
+        builder(cache).where("country", BaradumOperator.EQUAL, "USA").page(10, 0)
+        builder(cache).where("country", BaradumOperator.EQUAL, "UK").page(10, 0)
+
+        assertEquals(2, totalCounts())
+    }
+
+    @Test
+    fun `totals expire after the ttl`() {
+        val cache = cache()
+
+        builder(cache).page(10, 0)
+        now += Duration.ofSeconds(11).toNanos()
+        builder(cache).page(10, 10)
+
+        assertEquals(2, totalCounts())
+    }
+
+    @Test
+    fun `short page corrects the cached total without counting`() {
+        val cache = cache()
+        builder(cache).page(10, 0)
+
+        rows = 23
+        val last = builder(cache).page(10, 20)
+        val first = builder(cache).page(10, 0)
+
+        assertEquals(23, last.totalElements)
+        assertEquals(23, first.totalElements)
+        assertEquals(1, totalCounts())
+    }
+
+    @Test
+    fun `full page past the cached total counts again`() {
+        val cache = cache()
+        builder(cache).page(10, 0)
+
+        rows = 40
+        val page = builder(cache).page(10, 20)
+
+        assertEquals(40, page.totalElements)
+        assertEquals(2, totalCounts())
+    }
+
+    @Test
+    fun `invalidate drops the totals in exact mode`() {
+        val cache = cache()
+        builder(cache).page(10, 0)
+
+        cache.invalidate("users")
+        builder(cache).page(10, 0)
+
+        assertEquals(2, totalCounts())
+    }
+
+    @Test
+    fun `invalidate is ignored in approximate mode`() {
+        val cache = cache(approximate = true)
+        builder(cache).page(10, 0)
+
+        cache.invalidate("users")
+        builder(cache).page(10, 0)
+
+        assertEquals(1, totalCounts())
+
+        cache.invalidateAll()
+        builder(cache).page(10, 0)
+
+        assertEquals(2, totalCounts())
+    }
+
+    @Test
+    fun `lazy pages only count when the total is read`() {
+        val cache = cache()
+        builder(cache).page(10, 0)
+
+        val lazy = builder(cache).lazyPage(10, 10)
+
+        assertTrue(lazy.hasNext)
+        assertFalse(lazy.isTotalComputed())
+        assertEquals(25, lazy.totalElements)
+        assertEquals(1, totalCounts())
+    }
+
+    @Test
+    fun `invalid ttl throws`() {
+        assertThrows<BaradumException> { CountCache(Duration.ofSeconds(-1)) }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.robertomike.baradum.core.cache
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.*
+import java.time.Duration
+import java.util.function.LongSupplier
+
+/**
+ * Tests for QueryCache and CachingQueryBuilder, the backend is a mock counting the executions
+ */
+class QueryCacheTest {
+
+    class TestEntity
+
+    private var now = 0L
+    private lateinit var cache: QueryCache
+    private lateinit var delegates: MutableList<QueryBuilder<String>>
+
+    @BeforeEach
+    fun setup() {
+        now = 0L
+        cache = QueryCache(Duration.ofSeconds(10), LruQueryCacheStore(100), LongSupplier { now })
+        delegates = mutableListOf()
+    }
+
+    private fun delegate(conditions: Any? = null): QueryBuilder<String> {
+        val delegate: QueryBuilder<String> = mock {
+            on { get() } doReturn listOf("a", "b")
+            on { count() } doReturn 2L
+            on { page(any(), any()) } doReturn Page(mutableListOf("a"), 2, 1, 0)
+            on { getWhereConditions() } doReturn conditions
+        }
+        delegates.add(delegate)
+        return delegate
+    }
+
+    private fun builder(region: String = "users"): CachingQueryBuilder<String> {
+        return CachingQueryBuilder(delegate(), cache, region)
+    }
+
+    private fun totalGets(): Int = delegates.sumOf { mockingDetails(it).invocations.count { call -> call.method.name == "get" } }
+
+    @Test
+    fun `same query state is served from the cache`() {
+        val first = builder().where("country", BaradumOperator.EQUAL, "USA").get()
+        val second = builder().where("country", BaradumOperator.EQUAL, "USA").get()
+
+        assertEquals(listOf("a", "b"), second)
+        assertSame(first, second)
+        assertEquals(1, totalGets())
+        assertEquals(QueryCacheStats(hits = 1, misses = 1, size = 1), cache.stats())
+        assertEquals(0.5, cache.stats().hitRate)
+    }
+
+    @Test
+    fun `every call is forwarded to the delegate`() {
+        val queryBuilder = builder()
+        queryBuilder.where("age", BaradumOperator.GREATER, 18, WhereOperator.OR)
+            .orderBy("name", SortDirection.DESC)
+        queryBuilder.limit(5)
+        queryBuilder.offset(10)
+
+        val delegate = delegates.last()
+        verify(delegate).where("age", BaradumOperator.GREATER, 18, WhereOperator.OR)
+        verify(delegate).orderBy("name", SortDirection.DESC)
+        verify(delegate).limit(5)
+        verify(delegate).offset(10)
+    }
+
+    @Test
+    fun `different values sorts and pages are different keys`() {
+        builder().where("country", BaradumOperator.EQUAL, "USA").get()
+        builder().where("country", BaradumOperator.EQUAL, "UK").get()
+        builder().where("country", BaradumOperator.EQUAL, "UK").orderBy("name", SortDirection.ASC).get()
+        builder().page(10, 0)
+        builder().page(10, 10)
+
+        assertEquals(5, cache.stats().misses)
+        assertEquals(0, cache.stats().hits)
+    }
+
+    @Test
+    fun `conditions joined with AND match in any order`() {
+        builder().where("country", BaradumOperator.EQUAL, "USA")
+            .where("age", BaradumOperator.GREATER, 18)
+            .get()
+        builder().where("age", BaradumOperator.GREATER, 18)
+            .where("country", BaradumOperator.EQUAL, "USA")
+            .get()
+
+        assertEquals(1, totalGets())
+    }
+
+    @Test
+    fun `conditions with OR keep their order`() {
+        builder().where("country", BaradumOperator.EQUAL, "USA")
+            .where("age", BaradumOperator.GREATER, 18, WhereOperator.OR)
+            .where("active", BaradumOperator.EQUAL, true)
+            .get()
+        builder().where("active", BaradumOperator.EQUAL, true)
+            .where("age", BaradumOperator.GREATER, 18, WhereOperator.OR)
+            .where("country", BaradumOperator.EQUAL, "USA")
+            .get()
+
+        assertEquals(2, totalGets())
+    }
+
+    @Test
+    fun `IN values match in any order`() {
+        builder().where("country", BaradumOperator.IN, listOf("USA", "UK")).get()
+        builder().where("country", BaradumOperator.IN, listOf("UK", "USA")).get()
+
+        assertEquals(1, totalGets())
+    }
+
+    @Test
+    fun `the key is the canonical form of the conditions`() {
+        builder().where("age", BaradumOperator.GREATER_OR_EQUAL, 18)
+            .where("age", BaradumOperator.LESS_OR_EQUAL, 65)
+            .get()
+        builder().where("age", BaradumOperator.BETWEEN, listOf(18, 65)).get()
+
+        assertEquals(1, totalGets())
+    }
+
+    @Test
+    fun `count ignores the sorts`() {
+        builder().orderBy("name", SortDirection.ASC).count()
+        val total = builder().orderBy("age", SortDirection.DESC).count()
+
+        assertEquals(2L, total)
+        assertEquals(1, cache.stats().hits)
+    }
+
+    @Test
+    fun `results expire after the ttl`() {
+        builder().get()
+        now += Duration.ofSeconds(9).toNanos()
+        builder().get()
+        now += Duration.ofSeconds(2).toNanos()
+        builder().get()
+
+        assertEquals(2, totalGets())
+        assertEquals(1, cache.stats().hits)
+    }
+
+    @Test
+    fun `invalidating a region only drops its results`() {
+        builder("users").get()
+        builder("orders").get()
+
+        cache.invalidate("users")
+        builder("users").get()
+        builder("orders").get()
+
+        assertEquals(3, totalGets())
+    }
+
+    @Test
+    fun `invalidating an entity uses its class name as region`() {
+        val entityBuilder = { CachingQueryBuilder(delegate(), cache, TestEntity::class.java) }
+        entityBuilder().get()
+
+        cache.invalidate(TestEntity::class.java)
+        entityBuilder().get()
+
+        assertEquals(2, cache.stats().misses)
+    }
+
+    @Test
+    fun `invalidateAll drops every result`() {
+        builder("users").get()
+        builder("orders").get()
+
+        cache.invalidateAll()
+        builder("users").get()
+        builder("orders").get()
+
+        assertEquals(4, totalGets())
+    }
+
+    @Test
+    fun `lru store evicts the least recently used entry`() {
+        val store = LruQueryCacheStore(2)
+        cache = QueryCache(Duration.ofSeconds(10), store, LongSupplier { now })
+
+        builder().where("id", BaradumOperator.EQUAL, 1).get()
+        builder().where("id", BaradumOperator.EQUAL, 2).get()
+        builder().where("id", BaradumOperator.EQUAL, 1).get()
+        builder().where("id", BaradumOperator.EQUAL, 3).get()
+        builder().where("id", BaradumOperator.EQUAL, 1).get()
+        builder().where("id", BaradumOperator.EQUAL, 2).get()
+
+        // 2 was evicted by 3, 1 stayed since it was used
+        assertEquals(4, totalGets())
+        assertEquals(2, store.size())
+    }
+
+    @Test
+    fun `cached lists cannot be modified`() {
+        val result = builder().get()
+
+        assertThrows<UnsupportedOperationException> { (result as MutableList<String>).add("c") }
+
+        val page = builder().page(1, 0)
+        assertThrows<UnsupportedOperationException> { (page.content as MutableList<String>).add("c") }
+    }
+
+    @Test
+    fun `delegates with conditions need a scope`() {
+        val tenantCondition = listOf("tenant = 1")
+
+        assertThrows<BaradumException> { CachingQueryBuilder(delegate(tenantCondition), cache, "users") }
+    }
+
+    @Test
+    fun `delegates with different scopes don't share their results`() {
+        cache.wrap(delegate(listOf("tenant = 1")), TestEntity::class.java, 1)
+            .where("country", BaradumOperator.EQUAL, "USA").get()
+        cache.wrap(delegate(listOf("tenant = 2")), TestEntity::class.java, 2)
+            .where("country", BaradumOperator.EQUAL, "USA").get()
+        cache.wrap(delegate(listOf("tenant = 1")), TestEntity::class.java, 1)
+            .where("country", BaradumOperator.EQUAL, "USA").get()
+
+        assertEquals(2, totalGets())
+        assertEquals(1, cache.stats().hits)
+    }
+
+    @Test
+    fun `invalid configuration throws`() {
+        assertThrows<BaradumException> { QueryCache(Duration.ZERO) }
+        assertThrows<BaradumException> { LruQueryCacheStore(0) }
+    }
+}
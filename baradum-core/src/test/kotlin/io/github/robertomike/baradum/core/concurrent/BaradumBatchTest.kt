@@ -0,0 +1,140 @@
+package io.github.robertomike.baradum.core.concurrent
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Tests for BaradumBatch
+ */
+class BaradumBatchTest {
+
+    class Resource : AutoCloseable {
+        var closed = false
+
+        override fun close() {
+            closed = true
+        }
+    }
+
+    @Test
+    fun `results keep the order of the queries`() {
+        val batch = Baradum.batch()
+        val slow = batch.add(Callable { Thread.sleep(50); "slow" })
+        val fast = batch.add(Callable { 42 })
+
+        val results = batch.execute()
+
+        assertEquals("slow", results[slow])
+        assertEquals(42, results[fast])
+        assertEquals(listOf("slow", 42), results.asList())
+    }
+
+    @Test
+    fun `queries run concurrently`() {
+        val batch = Baradum.batch(3)
+        val started = CountDownLatch(3)
+        repeat(3) {
+            batch.add(Callable {
+                started.countDown()
+                // Only completes if the three queries are running at the same time
+                started.await(5, TimeUnit.SECONDS)
+            })
+        }
+
+        assertEquals(listOf(true, true, true), batch.execute().asList())
+    }
+
+    @Test
+    fun `concurrency is bounded`() {
+        val running = AtomicInteger()
+        val maximum = AtomicInteger()
+        val pool = Executors.newFixedThreadPool(6)
+        val batch = BaradumBatch(2, pool)
+        repeat(6) {
+            batch.add(Callable {
+                maximum.accumulateAndGet(running.incrementAndGet()) { a, b -> maxOf(a, b) }
+                Thread.sleep(20)
+                running.decrementAndGet()
+            })
+        }
+
+        batch.execute()
+        pool.shutdown()
+
+        assertTrue(maximum.get() <= 2, "Ran ${maximum.get()} queries at once")
+    }
+
+    @Test
+    fun `each query gets its own resource closed after it`() {
+        val resources = mutableListOf<Resource>()
+        val batch = Baradum.batch()
+        repeat(3) {
+            batch.add({ Resource().also { synchronized(resources) { resources.add(it) } } }) { it.closed }
+        }
+
+        val results = batch.execute()
+
+        assertEquals(listOf(false, false, false), results.asList())
+        assertEquals(3, resources.size)
+        assertTrue(resources.all { it.closed })
+    }
+
+    @Test
+    fun `failure is rethrown and cancels the other queries`() {
+        val interrupted = AtomicBoolean()
+        val sleeping = CountDownLatch(1)
+        val batch = Baradum.batch()
+        batch.add(Callable {
+            try {
+                sleeping.countDown()
+                Thread.sleep(10_000)
+            } catch (e: InterruptedException) {
+                interrupted.set(true)
+            }
+        })
+        batch.add(Callable {
+            sleeping.await()
+            throw FilterException("invalid value")
+        })
+
+        val exception = assertThrows<FilterException> { batch.execute() }
+
+        assertEquals("invalid value", exception.message)
+        Thread.sleep(50)
+        assertTrue(interrupted.get())
+    }
+
+    @Test
+    fun `timeout is shared by the queries`() {
+        val batch = Baradum.batch().timeout(Duration.ofMillis(100))
+        batch.add(Callable { Thread.sleep(60); 1 })
+        batch.add(Callable { Thread.sleep(10_000); 2 })
+
+        val start = System.nanoTime()
+        assertThrows<BaradumException> { batch.execute() }
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start) < Duration.ofSeconds(5))
+    }
+
+    @Test
+    fun `empty batch returns no results`() {
+        assertEquals(0, Baradum.batch().execute().size)
+    }
+
+    @Test
+    fun `invalid configuration throws`() {
+        assertThrows<BaradumException> { Baradum.batch(0) }
+        assertThrows<BaradumException> { Baradum.batch().timeout(Duration.ZERO) }
+    }
+}
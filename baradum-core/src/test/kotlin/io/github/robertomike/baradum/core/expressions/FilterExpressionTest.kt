@@ -0,0 +1,337 @@
+package io.github.robertomike.baradum.core.expressions
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Companion.allOf
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Companion.anyOf
+import io.github.robertomike.baradum.core.expressions.FilterExpression.Companion.condition
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.Filter
+import io.github.robertomike.baradum.core.filters.Filterable
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.core.filters.IntervalFilter
+import io.github.robertomike.baradum.core.filters.LessFilter
+import io.github.robertomike.baradum.core.filters.SearchFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.requests.FilterRequest
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.*
+
+/**
+ * Tests for the filter expressions, their canonical form and how they reach the query builder
+ */
+class FilterExpressionTest {
+
+    class TestEntity
+
+    /**
+     * Filter that needs a query builder of its own provider
+     */
+    interface ProviderQueryBuilder : QueryBuilder<TestEntity> {
+        fun custom(value: String)
+    }
+
+    class ProviderFilter(param: String) : Filter<Any, ProviderQueryBuilder>(param, param) {
+        override fun filterByParam(query: ProviderQueryBuilder, value: String) {
+            query.custom(value)
+        }
+    }
+
+    /**
+     * Filter that fails, counting how many times it's applied
+     */
+    class FailingFilter(private val recording: Boolean) : Filter<Any, QueryBuilder<*>>("fail", "fail") {
+        var calls = 0
+
+        override fun filterByParam(query: QueryBuilder<*>, value: String) {
+            calls++
+            throw ClassCastException("Failure of the filter")
+        }
+
+        override fun supportRecording(): Boolean = recording
+    }
+
+    /**
+     * Query builder with the default whereGroup
+     */
+    class DefaultGroupQueryBuilder(delegate: QueryBuilder<TestEntity>) : QueryBuilder<TestEntity> by delegate {
+        override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<TestEntity> {
+            return super.whereGroup(expression, whereOperator)
+        }
+    }
+
+    private fun equal(field: String, value: Any?) = condition(field, BaradumOperator.EQUAL, value)
+
+    @Test
+    fun `nested ANDs are flattened and duplicates dropped`() {
+        val expression = allOf(allOf(equal("a", 1), equal("b", 2)), allOf(equal("b", 2), equal("c", 3)))
+
+        assertEquals(allOf(equal("a", 1), equal("b", 2), equal("c", 3)), expression.canonical())
+    }
+
+    @Test
+    fun `order of the conditions does not change the canonical form`() {
+        val first = allOf(equal("country", "USA"), condition("age", BaradumOperator.GREATER, 18))
+        val second = allOf(condition("age", BaradumOperator.GREATER, 18), equal("country", "USA"))
+
+        assertNotEquals(first, second)
+        assertEquals(first.canonical(), second.canonical())
+        assertEquals(first.canonical().hashCode(), second.canonical().hashCode())
+    }
+
+    @Test
+    fun `EQUALs joined with OR are merged into an IN`() {
+        val expression = anyOf(equal("country", "USA"), equal("country", "UK"), equal("country", "USA"), equal("status", "ACTIVE"))
+
+        assertEquals(
+            anyOf(condition("country", BaradumOperator.IN, listOf("UK", "USA")), equal("status", "ACTIVE")),
+            expression.canonical()
+        )
+    }
+
+    @Test
+    fun `IN of a single value is an EQUAL`() {
+        assertEquals(equal("country", "UK"), condition("country", BaradumOperator.IN, listOf("UK", "UK")).canonical())
+    }
+
+    @Test
+    fun `EQUALs joined with AND are not merged`() {
+        val expression = allOf(equal("country", "UK"), equal("country", "USA"))
+
+        assertEquals(expression, expression.canonical())
+    }
+
+    @Test
+    fun `inclusive bounds are merged into a BETWEEN`() {
+        val expression = allOf(
+            condition("age", BaradumOperator.GREATER_OR_EQUAL, 18),
+            equal("country", "USA"),
+            condition("age", BaradumOperator.LESS_OR_EQUAL, 65)
+        )
+
+        assertEquals(
+            allOf(condition("age", BaradumOperator.BETWEEN, listOf(18, 65)), equal("country", "USA")),
+            expression.canonical()
+        )
+    }
+
+    @Test
+    fun `tightest bound is kept`() {
+        val expression = allOf(
+            condition("age", BaradumOperator.GREATER, 18),
+            condition("age", BaradumOperator.GREATER, 21),
+            condition("age", BaradumOperator.LESS, 65),
+            condition("age", BaradumOperator.LESS, 60)
+        )
+
+        assertEquals(
+            allOf(condition("age", BaradumOperator.GREATER, 21), condition("age", BaradumOperator.LESS, 60)),
+            expression.canonical()
+        )
+    }
+
+    @Test
+    fun `string bounds are not compared`() {
+        val expression = allOf(
+            condition("age", BaradumOperator.GREATER, "9"),
+            condition("age", BaradumOperator.GREATER, "10")
+        )
+
+        assertEquals(2, (expression.canonical() as FilterExpression.And).children.size)
+    }
+
+    @Test
+    fun `NOT is pushed down to the conditions`() {
+        val expression = !anyOf(equal("country", "USA"), condition("age", BaradumOperator.BETWEEN, listOf(18, 65)))
+
+        assertEquals(
+            allOf(
+                condition("country", BaradumOperator.DIFF, "USA"),
+                anyOf(condition("age", BaradumOperator.GREATER, 65), condition("age", BaradumOperator.LESS, 18))
+            ),
+            expression.canonical()
+        )
+    }
+
+    @Test
+    fun `double NOT is removed`() {
+        assertEquals(equal("a", 1), FilterExpression.not(!equal("a", 1)).canonical())
+    }
+
+    @Test
+    fun `empty groups are rejected`() {
+        assertThrows<BaradumException> { FilterExpression.And(emptyList()) }
+        assertThrows<BaradumException> { FilterExpression.Or(emptyList()) }
+    }
+
+    @Test
+    fun `keyset condition`() {
+        val expression = FilterExpression.after(listOf(
+            SeekKey("age", SortDirection.DESC, 30),
+            SeekKey("id", SortDirection.ASC, 7)
+        ))
+
+        val expected = anyOf(
+            allOf(condition("age", BaradumOperator.LESS, 30)),
+            allOf(equal("age", 30), condition("id", BaradumOperator.GREATER, 7))
+        )
+        assertEquals(expected, expression)
+        assertThrows<BaradumException> { FilterExpression.after(emptyList()) }
+    }
+
+    @Test
+    fun `filterable records the conditions as they are added`() {
+        val filterable = Filterable<QueryBuilder<*>>()
+        filterable.addFilters(ExactFilter("country"), SearchFilter.of("name", "email"))
+
+        val expression = filterable.expression(mapOf("country" to "USA", "search" to "john"))
+
+        assertEquals(
+            anyOf(
+                allOf(equal("country", "USA"), condition("name", BaradumOperator.LIKE, "%john%")),
+                condition("email", BaradumOperator.LIKE, "%john%")
+            ),
+            expression
+        )
+        assertNull(filterable.expression(emptyMap()))
+    }
+
+    @Test
+    fun `filterable records body filters`() {
+        val filterable = Filterable<QueryBuilder<*>>()
+        filterable.addFilters(ExactFilter("country"))
+
+        val expression = filterable.expression(listOf(
+            FilterRequest("country", "USA"),
+            FilterRequest("country", "UK", type = WhereOperator.OR)
+        ))
+
+        assertEquals(condition("country", BaradumOperator.IN, listOf("UK", "USA")), expression!!.canonical())
+    }
+
+    @Test
+    fun `filters of a provider can't be recorded`() {
+        val filterable = Filterable<ProviderQueryBuilder>()
+        filterable.addFilters(ProviderFilter("custom"))
+
+        assertThrows<FilterException> { filterable.expression(mapOf("custom" to "x")) }
+    }
+
+    @Test
+    fun `baradum adds the canonical form to the query builders that support it`() {
+        val builder = mock<QueryBuilder<TestEntity>> {
+            on { supportsCanonicalExpressions() } doReturn true
+        }
+
+        Baradum(builder)
+            .allowedFilters(GreaterFilter("age", orEqual = true), LessFilter("maxAge", "age", orEqual = true))
+            .withParams(mapOf("age" to "18", "maxAge" to "65"))
+            .get()
+
+        verify(builder).where("age", BaradumOperator.BETWEEN, listOf(18, 65), WhereOperator.AND)
+        verify(builder, never()).where(eq("age"), eq(BaradumOperator.GREATER_OR_EQUAL), any(), any())
+    }
+
+    @Test
+    fun `baradum adds the conditions as the filters added them to the other query builders`() {
+        val builder = mock<QueryBuilder<TestEntity>>()
+
+        Baradum(builder)
+            .allowedFilters(
+                GreaterFilter("age", orEqual = true),
+                LessFilter("maxAge", "age", orEqual = true),
+                ExactFilter("country")
+            )
+            .withParams(mapOf("age" to "18", "maxAge" to "65", "country" to "USA"))
+            .get()
+
+        inOrder(builder) {
+            verify(builder).where("age", BaradumOperator.GREATER_OR_EQUAL, 18, WhereOperator.AND)
+            verify(builder).where("age", BaradumOperator.LESS_OR_EQUAL, 65, WhereOperator.AND)
+            verify(builder).where("country", BaradumOperator.EQUAL, "USA", WhereOperator.AND)
+        }
+        verify(builder, never()).where(eq("age"), eq(BaradumOperator.BETWEEN), any(), any())
+        verify(builder, never()).whereGroup(any(), any())
+    }
+
+    @Test
+    fun `baradum keeps the folding of the filters`() {
+        val builder = mock<QueryBuilder<TestEntity>>()
+
+        Baradum(builder)
+            .allowedFilters(IntervalFilter("age"), SearchFilter.of("name", "email"))
+            .withParams(mapOf("age" to "18-65", "search" to "john"))
+            .get()
+
+        inOrder(builder) {
+            verify(builder).where("age", BaradumOperator.BETWEEN, listOf("18", "65"), WhereOperator.AND)
+            verify(builder).where("name", BaradumOperator.LIKE, "%john%", WhereOperator.AND)
+            verify(builder).where("email", BaradumOperator.LIKE, "%john%", WhereOperator.OR)
+        }
+    }
+
+    @Test
+    fun `filters of a provider are applied to the query builder directly`() {
+        val builder = mock<ProviderQueryBuilder>()
+
+        Baradum(builder)
+            .allowedFilters(ProviderFilter("custom"))
+            .withParams(mapOf("custom" to "x"))
+            .get()
+
+        verify(builder).custom("x")
+    }
+
+    @Test
+    fun `groups are added with whereGroup when they can't be folded`() {
+        val builder = mock<QueryBuilder<TestEntity>>()
+        val group = anyOf(equal("b", 2), equal("c", 3))
+
+        ExpressionWriter.write(builder, allOf(anyOf(equal("a", 1), equal("d", 4)), group))
+
+        inOrder(builder) {
+            verify(builder).where("a", BaradumOperator.EQUAL, 1, WhereOperator.AND)
+            verify(builder).where("d", BaradumOperator.EQUAL, 4, WhereOperator.OR)
+            verify(builder).whereGroup(group, WhereOperator.AND)
+        }
+    }
+
+    @Test
+    fun `filters are applied once and their exceptions are not swallowed`() {
+        listOf(true, false).forEach { recording ->
+            val filter = FailingFilter(recording)
+            val baradum = Baradum(mock<QueryBuilder<TestEntity>>())
+                .allowedFilters(filter)
+                .withParams(mapOf("fail" to "x"))
+
+            assertThrows<ClassCastException> { baradum.get() }
+            assertEquals(1, filter.calls)
+        }
+    }
+
+    @Test
+    fun `default whereGroup adds the conditions joined with AND`() {
+        val delegate = mock<QueryBuilder<TestEntity>>()
+        val builder = DefaultGroupQueryBuilder(delegate)
+
+        builder.whereGroup(allOf(equal("a", 1), allOf(equal("b", 2), equal("c", 3))), WhereOperator.AND)
+        builder.whereGroup(equal("d", 4), WhereOperator.OR)
+
+        inOrder(delegate) {
+            verify(delegate).where("a", BaradumOperator.EQUAL, 1, WhereOperator.AND)
+            verify(delegate).where("b", BaradumOperator.EQUAL, 2, WhereOperator.AND)
+            verify(delegate).where("c", BaradumOperator.EQUAL, 3, WhereOperator.AND)
+            verify(delegate).where("d", BaradumOperator.EQUAL, 4, WhereOperator.OR)
+        }
+        assertThrows<BaradumException> { builder.whereGroup(anyOf(equal("a", 1), equal("b", 2)), WhereOperator.AND) }
+        assertThrows<BaradumException> { builder.whereGroup(allOf(equal("a", 1), equal("b", 2)), WhereOperator.OR) }
+        assertThrows<BaradumException> { builder.whereGroup(!equal("a", 1), WhereOperator.AND) }
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.assertThrows
 import java.time.LocalDate
 import java.time.LocalDateTime
+import java.time.ZoneId
 import java.util.Date
 import java.util.Optional
 
@@ -618,4 +619,69 @@ class DateFilterTest {
         val result = query.whereCalls[0].value as java.sql.Timestamp
         assertTrue(result is java.sql.Timestamp)
     }
+
+    // ============================================
+    // Parsing Tests
+    // ============================================
+
+    @Test
+    fun `LocalDateTime accepts ISO values without seconds and with fraction`() {
+        val filter = DateFilter.forLocalDateTime("date")
+
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30), filter.transform("2024-01-15T10:30"))
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30, 45, 120_000_000), filter.transform("2024-01-15T10:30:45.12"))
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30, 45, 123_456_789), filter.transform("2024-01-15T10:30:45.123456789"))
+    }
+
+    @Test
+    fun `ISO values with impossible dates throw FilterException`() {
+        assertThrows<FilterException> { DateFilter("date").transform("2023-02-29") }
+        assertThrows<FilterException> { DateFilter("date").transform("2024-13-01") }
+        assertThrows<FilterException> { DateFilter.forLocalDateTime("date").transform("2024-01-15T24:00:00") }
+        assertThrows<FilterException> { DateFilter.forLocalDateTime("date").transform("2024-01-15T10:30:45.") }
+    }
+
+    @Test
+    fun `ISO values in other shapes fall back to the ISO formatter`() {
+        assertEquals(LocalDate.of(12024, 1, 15), DateFilter("date").transform("+12024-01-15"))
+    }
+
+    @Test
+    fun `UtilDate is the start of the day in the system time zone`() {
+        val filter = DateFilter.forUtilDate("date")
+
+        val expected = Date.from(LocalDate.of(2024, 1, 15).atStartOfDay(ZoneId.systemDefault()).toInstant())
+        assertEquals(expected, filter.transform("2024-01-15"))
+    }
+
+    @Test
+    fun `SqlTimestamp keeps the time of the pattern`() {
+        val filter = DateFilter.forSqlTimestamp("date", "yyyy-MM-dd HH:mm:ss")
+
+        assertEquals(
+            java.sql.Timestamp.valueOf(LocalDateTime.of(2024, 1, 15, 10, 30, 45)),
+            filter.transform("2024-01-15 10:30:45")
+        )
+    }
+
+    @Test
+    fun `invalid pattern throws FilterException when the filter is created`() {
+        val exception = assertThrows<FilterException> {
+            DateFilter.forLocalDate("date", "yyyy-MM-dd {")
+        }
+
+        assertTrue(exception.message!!.contains("Invalid date pattern"))
+    }
+
+    @Test
+    fun `the same filter parses concurrently`() {
+        val filter = DateFilter.forUtilDate("date", "dd/MM/yyyy")
+        val expected = Date.from(LocalDate.of(2024, 1, 15).atStartOfDay(ZoneId.systemDefault()).toInstant())
+
+        val results = (1..1_000).toList().parallelStream()
+            .map { filter.transform("15/01/2024") }
+            .toList()
+
+        assertTrue(results.all { it == expected })
+    }
 }
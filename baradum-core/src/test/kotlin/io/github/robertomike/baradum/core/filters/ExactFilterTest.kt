@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Assertions.*
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.BeforeEach
 import org.mockito.kotlin.*
+import java.util.UUID
 
 /**
  * Tests for ExactFilter string constructors and value conversion
@@ -149,4 +150,25 @@ class ExactFilterTest {
         val filter = ExactFilter("status")
         assertTrue(filter.supportBodyOperation())
     }
+
+    @Test
+    fun `ExactFilter asType converts to the configured type`() {
+        val uuid = UUID.randomUUID()
+        val filter = ExactFilter("externalId").asType(UUID::class.java)
+        filter.filterByParam(mockQueryBuilder, uuid.toString())
+
+        val captor = argumentCaptor<Any>()
+        verify(mockQueryBuilder).where(anyOrNull(), anyOrNull(), captor.capture(), anyOrNull())
+        assertEquals(uuid, captor.firstValue)
+    }
+
+    @Test
+    fun `ExactFilter asType keeps numeric looking strings as String`() {
+        val filter = ExactFilter("zipCode").asType(String::class.java)
+        filter.filterByParam(mockQueryBuilder, "01234")
+
+        val captor = argumentCaptor<Any>()
+        verify(mockQueryBuilder).where(anyOrNull(), anyOrNull(), captor.capture(), anyOrNull())
+        assertEquals("01234", captor.firstValue)
+    }
 }
@@ -3,6 +3,7 @@ package io.github.robertomike.baradum.core.filters
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.enums.SortDirection
 import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
 import io.github.robertomike.baradum.core.exceptions.FilterException
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
 import io.github.robertomike.baradum.core.models.Page
@@ -135,6 +136,55 @@ class FilterableTest {
         assertEquals(0, filterable.allowedFilters.size)
     }
 
+    @Test
+    fun `addFilters rejects a param registered twice`() {
+        val filterable = Filterable<TestQueryBuilder>()
+        filterable.addFilters(TestFilter("name"))
+
+        val exception = assertThrows<BaradumException> {
+            filterable.addFilters(TestFilter("name", "fullName"))
+        }
+        assertTrue(exception.message!!.contains("'name'"))
+        assertEquals(1, filterable.allowedFilters.size)
+    }
+
+    @Test
+    fun `addFilters adds nothing when a param is repeated`() {
+        val filterable = Filterable<TestQueryBuilder>()
+        filterable.addFilters(TestFilter("name"))
+
+        assertThrows<BaradumException> {
+            filterable.addFilters(TestFilter("email"), TestFilter("name"))
+        }
+        assertThrows<BaradumException> {
+            filterable.addFilters(TestFilter("age"), TestFilter("age", "years"))
+        }
+        assertEquals(listOf("name"), filterable.allowedFilters.map { it.param })
+    }
+
+    @Test
+    fun `allowedFilters keeps the insertion order`() {
+        val filterable = Filterable<TestQueryBuilder>()
+        filterable.addFilters(TestFilter("name"), TestFilter("email"), TestFilter("age"))
+
+        assertEquals(listOf("name", "email", "age"), filterable.allowedFilters.map { it.param })
+    }
+
+    @Test
+    fun `allowedFilters changes are resolved by param`() {
+        val filterable = Filterable<TestQueryBuilder>()
+        filterable.addFilters(TestFilter("name"))
+
+        filterable.allowedFilters.add(TestFilter("email", "mail"))
+        filterable.allowedFilters.removeAt(0)
+        assertThrows<BaradumException> { filterable.allowedFilters.add(TestFilter("email")) }
+
+        val query = TestQueryBuilder()
+        filterable.apply(query, listOf(FilterRequest("email", "a@b.c")))
+        assertEquals(listOf("mail"), query.whereCalls.map { it.field })
+        assertThrows<FilterException> { filterable.apply(query, listOf(FilterRequest("name", "John"))) }
+    }
+
     // ============================================
     // Apply with BasicRequest Tests
     // ============================================
@@ -541,6 +591,19 @@ class FilterableTest {
         assertEquals(2, query.whereCalls.size)
     }
 
+    @Test
+    fun `apply with FilterRequest resolves filters by param among many`() {
+        val filterable = Filterable<TestQueryBuilder>()
+        filterable.addFilters((1..100).map { TestFilter("field$it", "column$it") })
+
+        val query = TestQueryBuilder()
+        filterable.apply(query, (100 downTo 1 step 7).map {
+            FilterRequest("field$it", "value$it", BaradumOperator.EQUAL, WhereOperator.AND, emptyList())
+        })
+
+        assertEquals((100 downTo 1 step 7).map { "column$it" }, query.whereCalls.map { it.field })
+    }
+
     @Test
     fun `apply with FilterRequest handles nested subFilters`() {
         val filterable = Filterable<TestQueryBuilder>()
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.assertThrows
 import org.mockito.kotlin.*
+import java.math.BigDecimal
 
 /**
  * Tests for GreaterFilter and LessFilter string constructors and number parsing
@@ -260,4 +261,44 @@ class GreaterAndLessFilterTest {
         verify(mockQueryBuilder).where(anyOrNull(), anyOrNull(), captor.capture(), anyOrNull())
         assertEquals(0, captor.firstValue)
     }
+
+    @Test
+    fun `GreaterFilter asType converts to BigDecimal`() {
+        val filter = GreaterFilter("price").asType(BigDecimal::class.java)
+        filter.filterByParam(mockQueryBuilder, "19.990")
+
+        val captor = argumentCaptor<Any>()
+        verify(mockQueryBuilder).where(anyOrNull(), anyOrNull(), captor.capture(), anyOrNull())
+        assertEquals(BigDecimal("19.990"), captor.firstValue)
+    }
+
+    @Test
+    fun `LessFilter asType rejects invalid values`() {
+        val filter = LessFilter("price").asType(BigDecimal::class.java)
+
+        assertThrows<FilterException> {
+            filter.filterByParam(mockQueryBuilder, "cheap")
+        }
+    }
+
+    @Test
+    fun `comparison filters keep parsing numbers as they always did`() {
+        val expected = mapOf<String, Any>(
+            ".5" to 0.5,
+            "5." to 5.0,
+            "1.5E3" to 1500.0,
+            "+5" to 5,
+            "1e5" to "1e5",
+            "99999999999999999999" to "99999999999999999999"
+        )
+
+        expected.forEach { (value, parsed) ->
+            val builder = mock<QueryBuilder<Any>>()
+            GreaterFilter("price").filterByParam(builder, value)
+            LessFilter("price").filterByParam(builder, value)
+
+            verify(builder).where(eq("price"), eq(BaradumOperator.GREATER), eq(parsed), anyOrNull())
+            verify(builder).where(eq("price"), eq(BaradumOperator.LESS), eq(parsed), anyOrNull())
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package io.github.robertomike.baradum.core.instrumentation
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.*
+import java.util.Optional
+
+/**
+ * Tests for BaradumInstrumentation, the query builder mock reports its phases like the backends do
+ */
+class BaradumInstrumentationTest {
+
+    class TestEntity
+
+    private lateinit var queryBuilder: QueryBuilder<TestEntity>
+    private val events = mutableListOf<ExecutionEvent>()
+    private val listener = BaradumListener { events.add(it) }
+
+    @BeforeEach
+    fun setup() {
+        BaradumInstrumentation.clear()
+        events.clear()
+        queryBuilder = mock {
+            on { getEntityClass() } doReturn TestEntity::class.java
+            on { get() } doAnswer {
+                BaradumInstrumentation.current()?.add(ExecutionPhase.FETCH, 3)
+                listOf(TestEntity(), TestEntity())
+            }
+            on { page(any(), any()) } doAnswer {
+                BaradumInstrumentation.current()?.add(ExecutionPhase.COUNT, 7)
+                BaradumInstrumentation.current()?.add(ExecutionPhase.FETCH, 5)
+                Page(listOf(TestEntity()), 12, it.getArgument(0), it.getArgument(1))
+            }
+            on { findFirst() } doReturn Optional.empty()
+        }
+    }
+
+    @AfterEach
+    fun cleanup() {
+        BaradumInstrumentation.clear()
+    }
+
+    private fun baradum() = Baradum(queryBuilder)
+        .allowedFilters(ExactFilter("country"), ExactFilter("status"))
+
+    @Test
+    fun `disabled without listeners`() {
+        assertFalse(BaradumInstrumentation.enabled)
+        assertNull(BaradumInstrumentation.current())
+        assertEquals(3, BaradumInstrumentation.time(ExecutionPhase.FETCH) { 3 })
+
+        baradum().withParams(mapOf("country" to "USA")).get()
+
+        assertTrue(events.isEmpty())
+    }
+
+    @Test
+    fun `get reports entity params rows and phases`() {
+        BaradumInstrumentation.register(listener)
+
+        baradum().withParams(mapOf("country" to "USA", "other" to "x")).get()
+
+        val event = events.single()
+        assertEquals(TestEntity::class.java, event.entity)
+        assertEquals("get", event.operation)
+        assertEquals(mapOf("country" to "USA"), event.params)
+        assertEquals(2, event.rows)
+        assertNull(event.total)
+        assertTrue(event.succeeded)
+        assertEquals(3, event.nanos(ExecutionPhase.FETCH))
+        assertEquals(0, event.nanos(ExecutionPhase.COUNT))
+        assertTrue(event.durationNanos >= event.nanos(ExecutionPhase.FETCH))
+    }
+
+    @Test
+    fun `page reports the total and the count`() {
+        BaradumInstrumentation.register(listener)
+
+        baradum().withParams(mapOf("status" to "ACTIVE")).page(10)
+
+        val event = events.single()
+        assertEquals("page", event.operation)
+        assertEquals(1, event.rows)
+        assertEquals(12L, event.total)
+        assertEquals(7, event.nanos(ExecutionPhase.COUNT))
+        assertEquals(5, event.nanos(ExecutionPhase.FETCH))
+    }
+
+    @Test
+    fun `findFirst reports zero rows when empty`() {
+        BaradumInstrumentation.register(listener)
+
+        baradum().findFirst()
+
+        assertEquals("findFirst", events.single().operation)
+        assertEquals(0, events.single().rows)
+        assertTrue(events.single().params.isEmpty())
+    }
+
+    @Test
+    fun `failed executions are reported and rethrown`() {
+        BaradumInstrumentation.register(listener)
+        whenever(queryBuilder.get()).thenThrow(BaradumException("boom"))
+
+        assertThrows<BaradumException> { baradum().get() }
+
+        val event = events.single()
+        assertFalse(event.succeeded)
+        assertEquals("boom", event.error?.message)
+        assertNull(BaradumInstrumentation.current())
+    }
+
+    @Test
+    fun `failing listeners don't change the result`() {
+        BaradumInstrumentation.register { throw IllegalStateException("listener") }
+        BaradumInstrumentation.register(listener)
+
+        assertEquals(2, baradum().get().size)
+        assertEquals(1, events.size)
+
+        whenever(queryBuilder.get()).thenThrow(BaradumException("boom"))
+        val exception = assertThrows<BaradumException> { baradum().get() }
+
+        assertEquals("boom", exception.message)
+        assertEquals(2, events.size)
+    }
+
+    @Test
+    fun `unregistered listeners are not called`() {
+        BaradumInstrumentation.register(listener)
+        baradum().get()
+
+        BaradumInstrumentation.unregister(listener)
+        baradum().get()
+
+        assertEquals(1, events.size)
+        assertFalse(BaradumInstrumentation.enabled)
+    }
+
+    @Test
+    fun `timer is only available during an execution`() {
+        var timer: ExecutionTimer? = null
+        BaradumInstrumentation.register { }
+        whenever(queryBuilder.get()).doAnswer {
+            timer = BaradumInstrumentation.current()
+            emptyList()
+        }
+
+        baradum().get()
+
+        assertNotNull(timer)
+        assertNull(BaradumInstrumentation.current())
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.robertomike.baradum.core.memory
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.IntervalFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.LocalDate
+
+/**
+ * Tests for the in-memory QueryBuilder
+ */
+class InMemoryQueryBuilderTest {
+
+    enum class Status { ACTIVE, INACTIVE }
+
+    data class City(val name: String)
+
+    data class Country(
+        val id: Int,
+        val name: String,
+        val continent: String?,
+        val population: Long,
+        val area: Double?,
+        val founded: LocalDate?,
+        val status: Status,
+        val capital: City?
+    )
+
+    data class Item(val id: Int, val group: Int)
+
+    /**
+     * Not public and without getters, read through its field
+     */
+    private class Secret(private val code: String)
+
+    private val countries = listOf(
+        Country(1, "Argentina", "America", 45_000_000, 2_780_400.0, LocalDate.of(1816, 7, 9), Status.ACTIVE, City("Buenos Aires")),
+        Country(2, "Italy", "Europe", 59_000_000, 301_340.0, LocalDate.of(1861, 3, 17), Status.ACTIVE, City("Rome")),
+        Country(3, "Spain", "Europe", 47_000_000, 505_990.0, null, Status.ACTIVE, City("Madrid")),
+        Country(4, "Japan", "Asia", 125_000_000, 377_975.0, null, Status.INACTIVE, City("Tokyo")),
+        Country(5, "Atlantis", null, 0, null, null, Status.INACTIVE, null),
+        Country(6, "Chile", "America", 19_000_000, 756_102.0, LocalDate.of(1818, 2, 12), Status.ACTIVE, City("Santiago"))
+    )
+
+    private fun builder() = InMemoryQueryBuilder(countries, Country::class.java)
+
+    private fun QueryBuilder<Country>.ids() = get().map { it.id }
+
+    @AfterEach
+    fun cleanup() {
+        InMemoryStore.clear()
+    }
+
+    @Test
+    fun `values are converted to the type of the property`() {
+        assertEquals(listOf(2, 3, 4), builder().where("population", BaradumOperator.GREATER, "46000000").ids())
+        assertEquals(listOf(3), builder().where("id", BaradumOperator.EQUAL, "3").ids())
+        assertEquals(listOf(3, 4, 5, 6), builder().where("id", BaradumOperator.GREATER, 2.5).ids())
+        assertEquals(listOf(4, 5), builder().where("status", BaradumOperator.EQUAL, "INACTIVE").ids())
+        assertEquals(listOf(1, 6), builder().where("founded", BaradumOperator.LESS, "1850-01-01").ids())
+    }
+
+    @Test
+    fun `invalid values are rejected`() {
+        assertThrows<FilterException> { builder().where("population", BaradumOperator.GREATER, "many") }
+        assertThrows<FilterException> { builder().where("status", BaradumOperator.EQUAL, "UNKNOWN") }
+    }
+
+    @Test
+    fun `null properties only match IS_NULL`() {
+        assertEquals(listOf(1, 4, 6), builder().where("continent", BaradumOperator.DIFF, "Europe").ids())
+        assertEquals(listOf(1, 4, 6), builder().where("continent", BaradumOperator.NOT_IN, listOf("Europe")).ids())
+        assertEquals(listOf(5), builder().where("continent", BaradumOperator.IS_NULL, null).ids())
+        assertEquals(listOf(5), builder().where("continent", BaradumOperator.EQUAL, null).ids())
+        assertEquals(listOf(1, 2, 3, 4, 6), builder().where("capital.name", BaradumOperator.IS_NOT_NULL, null).ids())
+    }
+
+    @Test
+    fun `comparisons with a null value match nothing`() {
+        assertEquals(emptyList<Int>(), builder().where("population", BaradumOperator.GREATER, null).ids())
+        assertEquals(emptyList<Int>(), builder().where("population", BaradumOperator.LESS_OR_EQUAL, null).ids())
+        assertEquals(emptyList<Int>(), builder().where("continent", BaradumOperator.LESS, null).ids())
+    }
+
+    @Test
+    fun `like patterns`() {
+        assertEquals(listOf(4, 5), builder().where("name", BaradumOperator.LIKE, "%an%").ids())
+        assertEquals(listOf(2), builder().where("name", BaradumOperator.LIKE, "_taly").ids())
+        assertEquals(listOf(3), builder().where("name", BaradumOperator.LIKE, "S%n").ids())
+        assertEquals(listOf(2, 3, 4, 6), builder().where("name", BaradumOperator.NOT_LIKE, "A%").ids())
+    }
+
+    @Test
+    fun `in values of any numeric type`() {
+        assertEquals(listOf(1, 4, 6), builder().where("id", BaradumOperator.IN, listOf("1", 4L, 6)).ids())
+        assertEquals(listOf(2, 3), builder().where("population", BaradumOperator.IN, listOf(59_000_000, 47_000_000.0)).ids())
+    }
+
+    @Test
+    fun `nested properties`() {
+        assertEquals(listOf(2), builder().where("capital.name", BaradumOperator.EQUAL, "Rome").ids())
+    }
+
+    @Test
+    fun `properties without getters are read from the field`() {
+        val secrets = listOf(Secret("a"), Secret("b"))
+
+        val result = InMemoryQueryBuilder(secrets, Secret::class.java)
+            .where("code", BaradumOperator.EQUAL, "b")
+            .get()
+
+        assertEquals(listOf(secrets[1]), result)
+    }
+
+    @Test
+    fun `unknown property`() {
+        assertThrows<BaradumException> { builder().where("unknown", BaradumOperator.EQUAL, "x") }
+    }
+
+    @Test
+    fun `conditions are folded left`() {
+        val ids = builder()
+            .where("continent", BaradumOperator.EQUAL, "Europe")
+            .where("population", BaradumOperator.GREATER, 50_000_000)
+            .where("id", BaradumOperator.EQUAL, 1, WhereOperator.OR)
+            .ids()
+
+        assertEquals(listOf(1, 2), ids)
+    }
+
+    @Test
+    fun `groups are a single condition`() {
+        val group = !FilterExpression.anyOf(
+            FilterExpression.condition("continent", BaradumOperator.EQUAL, "Europe"),
+            FilterExpression.condition("id", BaradumOperator.EQUAL, 6)
+        )
+
+        val ids = builder()
+            .where("status", BaradumOperator.EQUAL, "ACTIVE")
+            .whereGroup(group)
+            .ids()
+
+        assertEquals(listOf(1), ids)
+    }
+
+    @Test
+    fun `intervals are filtered as BETWEEN`() {
+        val ids = InMemoryBaradum.make(countries, Country::class.java)
+            .allowedFilters(IntervalFilter("population"))
+            .withParams(mapOf("population" to "40000000-60000000"))
+            .get()
+            .map { it.id }
+
+        assertEquals(listOf(1, 2, 3), ids)
+    }
+
+    @Test
+    fun `nulls sort first ascending and last descending`() {
+        assertEquals(listOf(5, 2, 4, 3, 6, 1), builder().orderBy("area", SortDirection.ASC).ids())
+        assertEquals(listOf(1, 6, 3, 4, 2, 5), builder().orderBy("area", SortDirection.DESC).ids())
+    }
+
+    @Test
+    fun `sorts are applied in order`() {
+        val ids = builder()
+            .orderBy("status", SortDirection.DESC)
+            .orderBy("name", SortDirection.ASC)
+            .ids()
+
+        assertEquals(listOf(5, 4, 1, 6, 2, 3), ids)
+    }
+
+    @Test
+    fun `pages only sort the elements they need and keep the order of ties`() {
+        val items = (1..1000).map { Item(it, (it * 7919) % 13) }
+        val expected = items.sortedBy { it.group }
+
+        val page = InMemoryQueryBuilder(items, Item::class.java)
+            .where("id", BaradumOperator.GREATER, 0)
+            .orderBy("group", SortDirection.ASC)
+            .page(10, 40)
+
+        assertEquals(1000L, page.totalElements)
+        assertEquals(expected.subList(40, 50), page.content)
+    }
+
+    @Test
+    fun `limit and offset without sorts`() {
+        val query = builder().where("status", BaradumOperator.EQUAL, "ACTIVE").limit(2).offset(1)
+
+        assertEquals(listOf(2, 3), query.ids())
+        assertEquals(4L, builder().where("status", BaradumOperator.EQUAL, "ACTIVE").count())
+        assertEquals(4, builder().orderBy("population", SortDirection.DESC).findFirst().get().id)
+    }
+
+    @Test
+    fun `parallel and sequential results are equal`() {
+        val items = (1..20_000).map { Item(it, it % 97) }
+
+        fun query(threshold: Int) = InMemoryQueryBuilder(items, Item::class.java)
+            .parallelThreshold(threshold)
+            .apply {
+                where("group", BaradumOperator.IN, listOf(3, 5, 8))
+                orderBy("group", SortDirection.DESC)
+            }
+
+        val parallel = query(1_000)
+        val sequential = query(Int.MAX_VALUE)
+
+        assertEquals(sequential.get(), parallel.get())
+        assertEquals(sequential.page(25, 100), parallel.page(25, 100))
+        assertEquals(sequential.count(), parallel.count())
+    }
+
+    @Test
+    fun `keyset pages`() {
+        fun baradum() = InMemoryBaradum.make(countries, Country::class.java)
+            .allowedSort("population")
+            .withParams(mapOf("sort" to "-population"))
+
+        val first = baradum().pageAfter(null, 4)
+        val second = baradum().pageAfter(first.nextCursor, 4)
+
+        assertEquals(listOf(4, 2, 3, 1), first.content.map { it.id })
+        assertEquals(listOf(6, 5), second.content.map { it.id })
+        assertNull(second.nextCursor)
+    }
+
+    @Test
+    fun `collections of the store are found by Baradum make`() {
+        InMemoryStore.register(Country::class.java, countries)
+
+        val ids = Baradum.make<Country, QueryBuilder<Country>>(Country::class.java)
+            .allowedFilters(ExactFilter("continent"))
+            .withParams(mapOf("continent" to "America"))
+            .get()
+            .map { it.id }
+
+        assertEquals(listOf(1, 6), ids)
+
+        InMemoryStore.unregister(Country::class.java)
+        assertThrows<BaradumException> { Baradum.make<Country, QueryBuilder<Country>>(Country::class.java) }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.robertomike.baradum.core.models
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Tests for LazyPage model
+ */
+class LazyPageTest {
+
+    @Test
+    fun `fromRows with extra row has next and trims content`() {
+        val page = LazyPage.fromRows(listOf("a", "b", "c"), 2, 0) { 10 }
+
+        assertTrue(page.hasNext)
+        assertEquals(listOf("a", "b"), page.content)
+    }
+
+    @Test
+    fun `fromRows without extra row has no next`() {
+        val page = LazyPage.fromRows(listOf("a", "b"), 2, 4) { 6 }
+
+        assertFalse(page.hasNext)
+        assertEquals(listOf("a", "b"), page.content)
+    }
+
+    @Test
+    fun `total is not computed until it is read`() {
+        val calls = AtomicInteger()
+        val page = LazyPage.fromRows(listOf("a"), 10, 0) { calls.incrementAndGet().toLong() }
+
+        assertFalse(page.isTotalComputed())
+        assertEquals(0, calls.get())
+
+        page.content
+        page.hasNext
+        page.hasPrevious
+        page.currentPage
+        assertEquals(0, calls.get())
+    }
+
+    @Test
+    fun `serializing does not run the count`() {
+        val calls = AtomicInteger()
+        val page = LazyPage.fromRows(listOf("a", "b", "c"), 2, 0) { calls.incrementAndGet().toLong() }
+
+        val json = ObjectMapper().readTree(ObjectMapper().writeValueAsString(page))
+
+        assertEquals(0, calls.get())
+        assertFalse(page.isTotalComputed())
+        assertEquals(listOf("a", "b"), json["content"].map { it.asText() })
+        assertTrue(json["hasNext"].asBoolean())
+        assertFalse(json.has("totalElements"))
+        assertFalse(json.has("totalPages"))
+    }
+
+    @Test
+    fun `total is computed only once`() {
+        val calls = AtomicInteger()
+        val page = LazyPage.fromRows(listOf("a"), 10, 0) {
+            calls.incrementAndGet()
+            95
+        }
+
+        assertEquals(95, page.totalElements)
+        assertEquals(10, page.totalPages)
+        assertEquals(95, page.totalElements)
+        assertTrue(page.isTotalComputed())
+        assertEquals(1, calls.get())
+    }
+
+    @Test
+    fun `currentPage and hasPrevious are computed from offset`() {
+        val page = LazyPage.fromRows(emptyList<String>(), 10, 20) { 0 }
+
+        assertEquals(2, page.currentPage)
+        assertTrue(page.hasPrevious)
+    }
+
+    @Test
+    fun `totalPages with zero limit returns zero`() {
+        val page = LazyPage.fromRows(emptyList<String>(), 0, 0) { 100 }
+
+        assertEquals(0, page.totalPages)
+    }
+
+    @Test
+    fun `toPage converts to eager page`() {
+        val page = LazyPage.fromRows(listOf("a", "b", "c"), 2, 0) { 3 }
+
+        assertEquals(Page(listOf("a", "b"), 3, 2, 0), page.toPage())
+    }
+
+    @Test
+    fun `toString does not trigger the count`() {
+        val page = LazyPage.fromRows(listOf("a"), 10, 0) { throw IllegalStateException("Should not count") }
+
+        assertTrue(page.toString().contains("<not computed>"))
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.robertomike.baradum.core.requests
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.io.ByteArrayInputStream
+import java.io.InputStream
+
+class BodyParserTest {
+
+    private val json = """
+        {
+          "filters": [
+            {"field": "name", "value": "John", "operator": "LIKE"},
+            {"subFilters": [
+              {"field": "age", "value": "18", "operator": "GREATER", "type": "OR"}
+            ]}
+          ],
+          "sorts": [{"field": "name", "sort": "DESC"}]
+        }
+    """.trimIndent()
+
+    private fun filters(count: Int): String {
+        return (1..count).joinToString(",", "{\"filters\":[", "]}") { """{"field":"f$it","value":"v"}""" }
+    }
+
+    private fun nested(depth: Int): String {
+        val filter = "{\"subFilters\":[".repeat(depth - 1) + """{"field":"f","value":"v"}""" + "]}".repeat(depth - 1)
+        return """{"filters":[$filter]}"""
+    }
+
+    private fun assertParsed(body: BodyRequest) {
+        assertEquals(2, body.filters.size)
+        assertEquals(FilterRequest("name", "John", BaradumOperator.LIKE), body.filters[0])
+        assertEquals(
+            listOf(FilterRequest("age", "18", BaradumOperator.GREATER, WhereOperator.OR)),
+            body.filters[1].subFilters
+        )
+        assertEquals(listOf(OrderRequest("name", SortDirection.DESC)), body.sorts)
+    }
+
+    @Test
+    fun `parse from string`() {
+        assertParsed(BodyParser.parse(json))
+    }
+
+    @Test
+    fun `parse from stream`() {
+        assertParsed(BodyParser.parse(json.byteInputStream()))
+    }
+
+    @Test
+    fun `stream is not closed by the parser`() {
+        var closed = false
+        val input = object : ByteArrayInputStream(json.toByteArray()) {
+            override fun close() {
+                closed = true
+            }
+        }
+
+        BodyParser.parse(input)
+
+        assertFalse(closed)
+    }
+
+    @Test
+    fun `invalid json is rejected`() {
+        val exception = assertThrows<BaradumException> { BodyParser.parse("{\"filters\": [") }
+        assertEquals("Error reading body request", exception.message)
+    }
+
+    @Test
+    fun `body over the size limit is rejected before being fully read`() {
+        var read = 0L
+        // An endless body, only the limit stops it
+        val endless = object : InputStream() {
+            private val header = "{\"filters\":[".toByteArray()
+
+            override fun read(): Int {
+                val index = read++
+                return if (index < header.size) header[index.toInt()].toInt() else ' '.code
+            }
+        }
+
+        val exception = assertThrows<BaradumException> { BodyParser.parse(endless, BodyLimits(maxBytes = 10_000)) }
+        assertEquals("The body request exceeds the limit of 10000 bytes", exception.message)
+        assertTrue(read < 20_000, "The body should stop being read after the limit")
+
+        assertThrows<BaradumException> { BodyParser.parse(json, BodyLimits(maxBytes = 10)) }
+    }
+
+    @Test
+    fun `too many filters are rejected`() {
+        val limits = BodyLimits(maxFilters = 10)
+
+        assertEquals(10, BodyParser.parse(filters(10), limits).filters.size)
+
+        val exception = assertThrows<BaradumException> { BodyParser.parse(filters(11).byteInputStream(), limits) }
+        assertEquals("The body request exceeds the limit of 10 filters", exception.message)
+    }
+
+    @Test
+    fun `sub filters count towards the filter limit`() {
+        assertThrows<BaradumException> { BodyParser.parse(nested(4), BodyLimits(maxFilters = 3)) }
+    }
+
+    @Test
+    fun `too deep filters are rejected`() {
+        val limits = BodyLimits(maxDepth = 3)
+
+        assertEquals(1, BodyParser.parse(nested(3), limits).filters.size)
+
+        val exception = assertThrows<BaradumException> { BodyParser.parse(nested(4), limits) }
+        assertEquals("The body request exceeds the maximum depth of 3", exception.message)
+    }
+
+    @Test
+    fun `filters at the maximum depth may have empty sub filters`() {
+        val limits = BodyLimits(maxDepth = 1)
+
+        val body = BodyParser.parse("""{"filters":[{"field":"f","value":"v","subFilters":[]}]}""", limits)
+        assertEquals(listOf(FilterRequest("f", "v")), body.filters)
+
+        val exception = assertThrows<BaradumException> { BodyParser.parse(nested(2), limits) }
+        assertEquals("The body request exceeds the maximum depth of 1", exception.message)
+    }
+
+    @Test
+    fun `deeply nested payload does not overflow the stack`() {
+        val exception = assertThrows<BaradumException> { BodyParser.parse(nested(50_000).byteInputStream(), BodyLimits(maxBytes = Long.MAX_VALUE)) }
+        assertEquals("The body request exceeds the maximum depth of 5", exception.message)
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.robertomike.baradum.core.requests
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.memory.InMemoryBaradum
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.io.IOException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.ExecutionException
+
+class ReactiveRequestTest {
+
+    data class Person(val name: String, val age: Int)
+
+    /**
+     * Request whose body arrives when the future completes
+     */
+    class TestRequest(
+        override val method: String,
+        private val body: CompletableFuture<ByteArray> = CompletableFuture()
+    ) : ReactiveRequest<Unit>(Unit) {
+        var reads = 0
+        var maxBytes = 0L
+
+        override fun findParamByName(name: String): String? = null
+
+        override fun readBytes(maxBytes: Long): CompletionStage<ByteArray> {
+            reads++
+            this.maxBytes = maxBytes
+            return body
+        }
+
+        fun arrive(json: String) {
+            body.complete(json.toByteArray())
+        }
+    }
+
+    private val json = """{"filters": [{"field": "name", "value": "Ana", "operator": "EQUAL"}]}"""
+
+    @Test
+    fun `the body is parsed once it arrives`() {
+        val request = TestRequest("POST")
+
+        val body = request.getBodyAsync(BodyLimits(maxBytes = 512))
+        assertFalse(body.isDone)
+        assertEquals(512L, request.maxBytes)
+
+        request.arrive(json)
+
+        assertEquals("name", body.get().filters.single().field)
+        assertTrue(request.isBodyLoaded())
+        assertEquals(json, request.json)
+    }
+
+    @Test
+    fun `loaded requests are applied by Baradum without blocking`() {
+        val request = TestRequest("POST")
+        val people = listOf(Person("Ana", 30), Person("Bob", 40))
+
+        val result = request.loadBody().thenApply { loaded ->
+            RequestContext.callWith(loaded) {
+                InMemoryBaradum.make(people, Person::class.java)
+                    .allowedFilters(ExactFilter("name"))
+                    .useBody()
+                    .get()
+            }
+        }
+        request.arrive(json)
+
+        assertEquals(listOf(Person("Ana", 30)), result.get())
+    }
+
+    @Test
+    fun `the body can't be read before it's loaded`() {
+        val request = TestRequest("POST")
+
+        assertThrows<BaradumException> { request.getBody() }
+    }
+
+    @Test
+    fun `only the body of POST requests is read`() {
+        val request = TestRequest("GET")
+
+        assertSame(request, request.loadBody().get())
+        assertEquals(0, request.reads)
+    }
+
+    @Test
+    fun `the body is read once`() {
+        val request = TestRequest("POST")
+        request.arrive(json)
+
+        request.loadBody().get()
+        request.loadBody().get()
+
+        assertEquals(1, request.reads)
+    }
+
+    @Test
+    fun `read failures are BaradumExceptions`() {
+        val request = TestRequest("POST", CompletableFuture.failedFuture(IOException("connection reset")))
+
+        val error = assertThrows<ExecutionException> { request.loadBody().get() }
+
+        assertTrue(error.cause is BaradumException)
+        assertTrue(error.cause?.cause is IOException)
+    }
+}
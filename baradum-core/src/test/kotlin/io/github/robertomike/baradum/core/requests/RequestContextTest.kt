@@ -0,0 +1,102 @@
+package io.github.robertomike.baradum.core.requests
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+
+class RequestContextTest {
+
+    class TestRequest(private val params: Map<String, String>) : BasicRequest<Unit>(Unit) {
+        override fun findParamByName(name: String): String? = params[name]
+        override val method: String = "GET"
+        override val json: String = "{}"
+    }
+
+    @AfterEach
+    fun cleanup() {
+        Baradum.request = null
+    }
+
+    @Test
+    fun `request is only bound inside runWith`() {
+        val request = TestRequest(emptyMap())
+
+        assertNull(RequestContext.current())
+        RequestContext.runWith(request) {
+            assertSame(request, RequestContext.current())
+        }
+        assertNull(RequestContext.current())
+    }
+
+    @Test
+    fun `nested binding restores the previous request`() {
+        val outer = TestRequest(emptyMap())
+        val inner = TestRequest(emptyMap())
+
+        RequestContext.runWith(outer) {
+            RequestContext.runWith(inner) {
+                assertSame(inner, RequestContext.current())
+            }
+            assertSame(outer, RequestContext.current())
+        }
+    }
+
+    @Test
+    fun `binding is removed when the task fails`() {
+        assertThrows(IllegalStateException::class.java) {
+            RequestContext.runWith(TestRequest(emptyMap())) { throw IllegalStateException("failed") }
+        }
+        assertNull(RequestContext.current())
+    }
+
+    @Test
+    fun `callWith returns the supplier result`() {
+        val result = RequestContext.callWith(TestRequest(mapOf("name" to "John"))) {
+            RequestContext.current()!!.findByName("name")
+        }
+
+        assertEquals("John", result)
+    }
+
+    @Test
+    fun `request is not visible from other threads unless wrapped`() {
+        val request = TestRequest(emptyMap())
+        val executor = Executors.newSingleThreadExecutor()
+
+        try {
+            RequestContext.runWith(request) {
+                val plain = CompletableFuture.supplyAsync({ RequestContext.current() }, executor).get()
+                assertNull(plain)
+
+                var wrapped: BasicRequest<*>? = null
+                CompletableFuture.runAsync(RequestContext.wrap { wrapped = RequestContext.current() }, executor).get()
+                assertSame(request, wrapped)
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun `Baradum prefers the bound request over the global one`() {
+        Baradum.request = TestRequest(mapOf("name" to "global"))
+        val queryBuilder: QueryBuilder<Any> = mock()
+
+        RequestContext.runWith(TestRequest(mapOf("name" to "bound"))) {
+            Baradum(queryBuilder).allowedFilters(ExactFilter("name")).get()
+        }
+
+        verify(queryBuilder).where("name", BaradumOperator.EQUAL, "bound", WhereOperator.AND)
+        verify(queryBuilder, never()).where("name", BaradumOperator.EQUAL, "global", WhereOperator.AND)
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.robertomike.baradum.core.sorting
+
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.exceptions.SortableException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.util.Base64
+import java.util.UUID
+
+/**
+ * Test suite for the keyset pagination cursor
+ */
+class KeysetCursorTest {
+
+    enum class TestStatus { ACTIVE, INACTIVE }
+
+    class Event(val createdAt: LocalDateTime, val id: Long, val status: TestStatus)
+
+    class Row(
+        val field0: String, val field1: Int, val field2: Long, val field3: Double, val field4: BigDecimal,
+        val field5: Boolean, val field6: UUID, val field7: LocalDate, val field8: TestStatus
+    )
+
+    private fun forge(json: String) = Base64.getUrlEncoder().encodeToString(json.toByteArray())
+
+    private val sorts = listOf(
+        AppliedSort(OrderBy("createdAt"), SortDirection.DESC),
+        AppliedSort(OrderBy("id"), SortDirection.ASC)
+    )
+
+    @Test
+    fun `encode and decode keep values and types`() {
+        val createdAt = LocalDateTime.of(2024, 1, 15, 10, 30)
+        val cursor = KeysetCursor.encode(sorts, listOf(createdAt, 42L))
+
+        val values = KeysetCursor.decode(cursor, sorts)
+
+        assertEquals(listOf(createdAt, 42L), values)
+    }
+
+    @Test
+    fun `encode and decode support common sort types`() {
+        val values = listOf(
+            "text", 1, 2L, 3.5, BigDecimal("10.25"), true,
+            UUID.randomUUID(), LocalDate.of(2024, 2, 29), TestStatus.INACTIVE
+        )
+        val manySorts = values.indices.map { AppliedSort(OrderBy("field$it"), SortDirection.ASC) }
+
+        val decoded = KeysetCursor.decode(KeysetCursor.encode(manySorts, values), manySorts, Row::class.java)
+
+        assertEquals(values, decoded)
+    }
+
+    @Test
+    fun `cursor is url safe`() {
+        val cursor = KeysetCursor.encode(sorts, listOf(LocalDateTime.now(), 1L))
+
+        assertTrue(cursor.matches(Regex("^[A-Za-z0-9_-]+$")))
+    }
+
+    @Test
+    fun `decode rejects cursor created for other sorts`() {
+        val cursor = KeysetCursor.encode(sorts, listOf(LocalDateTime.now(), 1L))
+        val otherSorts = listOf(
+            AppliedSort(OrderBy("createdAt"), SortDirection.ASC),
+            AppliedSort(OrderBy("id"), SortDirection.ASC)
+        )
+
+        val exception = assertThrows<FilterException> {
+            KeysetCursor.decode(cursor, otherSorts)
+        }
+
+        assertEquals("The cursor does not match the requested sorts", exception.message)
+    }
+
+    @Test
+    fun `decode rejects malformed cursor`() {
+        assertThrows<FilterException> { KeysetCursor.decode("not a cursor", sorts) }
+        assertThrows<FilterException> { KeysetCursor.decode("", sorts) }
+    }
+
+    @Test
+    fun `decode rejects forged types`() {
+        val cursor = forge("""{"s":["-createdAt","id"],"v":[["e:java.lang.Runtime","x"],["l","1"]]}""")
+
+        assertThrows<FilterException> { KeysetCursor.decode(cursor, sorts, Event::class.java) }
+        assertThrows<FilterException> { KeysetCursor.decode(forge("""{"s":["-createdAt","id"],"v":[["x","1"],["l","1"]]}"""), sorts) }
+    }
+
+    @Test
+    fun `decode checks the values against the type of the sort property`() {
+        val cursor = forge("""{"s":["-createdAt","id"],"v":[["s","2024-01-15T10:30"],["l","1"]]}""")
+
+        assertEquals(listOf("2024-01-15T10:30", 1L), KeysetCursor.decode(cursor, sorts))
+        assertThrows<FilterException> { KeysetCursor.decode(cursor, sorts, Event::class.java) }
+    }
+
+    @Test
+    fun `enums are resolved from the sort property`() {
+        val statusSorts = listOf(AppliedSort(OrderBy("status"), SortDirection.ASC))
+        val cursor = KeysetCursor.encode(statusSorts, listOf(TestStatus.ACTIVE))
+
+        assertEquals(listOf(TestStatus.ACTIVE), KeysetCursor.decode(cursor, statusSorts, Event::class.java))
+        assertEquals(listOf("ACTIVE"), KeysetCursor.decode(cursor, statusSorts))
+
+        val unknown = forge("""{"s":["status"],"v":[["e","DELETED"]]}""")
+        assertThrows<FilterException> { KeysetCursor.decode(unknown, statusSorts, Event::class.java) }
+    }
+
+    @Test
+    fun `decode rejects invalid values`() {
+        val forged = """{"s":["-createdAt","id"],"v":[["ldt","yesterday"],["l","1"]]}"""
+        val cursor = Base64.getUrlEncoder().encodeToString(forged.toByteArray())
+
+        assertThrows<FilterException> { KeysetCursor.decode(cursor, sorts) }
+    }
+
+    @Test
+    fun `encode rejects null values`() {
+        val exception = assertThrows<SortableException> {
+            KeysetCursor.encode(sorts, listOf(null, 1L))
+        }
+
+        assertTrue(exception.message!!.contains("createdAt"))
+    }
+
+    @Test
+    fun `encode rejects unsupported types`() {
+        assertThrows<SortableException> {
+            KeysetCursor.encode(sorts, listOf(Any(), 1L))
+        }
+    }
+}
@@ -165,6 +165,33 @@ class SortableTest {
         assertEquals(2, query.orderByCalls.size)
     }
 
+    @Test
+    fun `addSorts rejects a name registered twice`() {
+        val sortable = Sortable<TestQueryBuilder>()
+        sortable.addSorts("name")
+
+        val exception = assertThrows<SortableException> {
+            sortable.addSorts(OrderBy("name", "full_name"))
+        }
+        assertTrue(exception.message!!.contains("'name'"))
+
+        val query = TestQueryBuilder()
+        sortable.apply(query, listOf(OrderRequest("name", SortDirection.ASC)))
+        assertEquals("name", query.orderByCalls[0].field)
+    }
+
+    @Test
+    fun `addSorts adds nothing when a name is repeated`() {
+        val sortable = Sortable<TestQueryBuilder>()
+
+        assertThrows<SortableException> {
+            sortable.addSorts("email", "age", "age")
+        }
+        assertThrows<SortableException> {
+            sortable.apply(TestQueryBuilder(), listOf(OrderRequest("email", SortDirection.ASC)))
+        }
+    }
+
     // ============================================
     // Apply with BasicRequest Tests
     // ============================================
@@ -399,6 +426,19 @@ class SortableTest {
         assertEquals(0, query.orderByCalls.size)
     }
 
+    @Test
+    fun `applySorts returns the sorts resolved against the allowed ones`() {
+        val sortable = Sortable<TestQueryBuilder>()
+        sortable.addSorts(OrderBy("name", "fullName"), OrderBy("email"))
+
+        val applied = sortable.applySorts(TestQueryBuilder(), mapOf("sort" to "-name,email"))
+
+        assertEquals(
+            listOf(AppliedSort(OrderBy("name", "fullName"), SortDirection.DESC), AppliedSort(OrderBy("email"), SortDirection.ASC)),
+            applied
+        )
+    }
+
     // ============================================
     // Edge Case Tests
     // ============================================
@@ -0,0 +1,71 @@
+package io.github.robertomike.baradum.core.sql
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.LocalDate
+
+/**
+ * Tests for the binding of result columns to entities
+ */
+class ColumnBindingTest {
+
+    enum class Status { ACTIVE, INACTIVE }
+
+    @JvmRecord
+    data class UserRecord(val id: Long, val name: String, val age: Int, val status: Status?)
+
+    class UserRow {
+        var id: Long = 0
+        var name: String? = null
+        var age: Int = -1
+        var createdAt: LocalDate? = null
+    }
+
+    class Immutable(val id: Long)
+
+    /**
+     * Rows as lists of values, converted like a driver would do
+     */
+    private val reader = ColumnReader<List<Any?>> { row, index, type ->
+        val value = row[index]
+        if (value is Number && type == Long::class.javaObjectType) value.toLong() else value
+    }
+
+    @Test
+    fun `records by column name ignoring case and underscores`() {
+        val binding = ColumnBinding.of(UserRecord::class.java, listOf("NAME", "ID", "STATUS", "unknown"))
+
+        assertEquals(UserRecord(7, "Ana", 0, Status.ACTIVE), binding.map(listOf("Ana", 7, "ACTIVE", "skipped"), reader))
+        assertEquals(UserRecord(8, "Bob", 0, null), binding.map(listOf("Bob", 8, null, null), reader))
+    }
+
+    @Test
+    fun `fields of classes with a no-args constructor`() {
+        val binding = ColumnBinding.of(UserRow::class.java, listOf("id", "created_at", "age"))
+
+        val row = binding.map(listOf(3L, LocalDate.of(2024, 1, 31), null), reader)
+
+        assertEquals(3L, row.id)
+        assertEquals(LocalDate.of(2024, 1, 31), row.createdAt)
+        assertNull(row.name)
+        // Null values are not set on primitive fields
+        assertEquals(-1, row.age)
+    }
+
+    @Test
+    fun `unknown enum constants`() {
+        val binding = ColumnBinding.of(UserRecord::class.java, listOf("id", "name", "age", "status"))
+
+        assertThrows<BaradumException> { binding.map(listOf(1L, "Ana", 30, "DELETED"), reader) }
+    }
+
+    @Test
+    fun `classes that can't be built from columns`() {
+        // Kotlin doesn't compile the names of the constructor parameters without javaParameters
+        if (Immutable::class.java.declaredConstructors.single().parameters.all { it.isNamePresent }) return
+
+        assertThrows<BaradumException> { ColumnBinding.of(Immutable::class.java, listOf("id")) }
+    }
+}
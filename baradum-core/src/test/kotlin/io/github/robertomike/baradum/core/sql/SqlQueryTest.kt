@@ -0,0 +1,183 @@
+package io.github.robertomike.baradum.core.sql
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.LocalDate
+
+/**
+ * Tests for the SQL rendered by SqlQuery
+ */
+class SqlQueryTest {
+
+    enum class Status { ACTIVE, INACTIVE }
+
+    data class User(
+        val id: Long,
+        val name: String,
+        val country: String?,
+        val age: Int,
+        val status: Status,
+        val createdAt: LocalDate
+    )
+
+    private val users = SqlTable("users", User::class.java)
+
+    private fun query() = SqlQuery(users)
+
+    private fun SqlQuery.statement(
+        dialect: SqlDialect = SqlDialect.LIMIT_OFFSET,
+        placeholder: SqlPlaceholder = SqlPlaceholder.QUESTION_MARK,
+        limit: Int? = null,
+        offset: Long? = null
+    ) = statement(dialect, placeholder, false, limit, offset)
+
+    @Test
+    fun `values are parameters of the type of the property`() {
+        val statement = query().apply {
+            where("age", BaradumOperator.GREATER_OR_EQUAL, "30", WhereOperator.AND)
+            where("status", BaradumOperator.EQUAL, "ACTIVE", WhereOperator.AND)
+            where("createdAt", BaradumOperator.BETWEEN, listOf("2020-01-01", "2021-01-01"), WhereOperator.AND)
+        }.statement()
+
+        assertEquals("SELECT * FROM users WHERE age >= ? AND status = ? AND created_at BETWEEN ? AND ?", statement.sql)
+        assertEquals(listOf(30, "ACTIVE", LocalDate.of(2020, 1, 1), LocalDate.of(2021, 1, 1)), statement.values)
+    }
+
+    @Test
+    fun `conditions on null`() {
+        val statement = query().apply {
+            where("country", BaradumOperator.EQUAL, null, WhereOperator.AND)
+            where("name", BaradumOperator.DIFF, null, WhereOperator.AND)
+            where("name", BaradumOperator.IN, emptyList<String>(), WhereOperator.OR)
+            where("country", BaradumOperator.NOT_IN, emptyList<String>(), WhereOperator.OR)
+        }.statement()
+
+        assertEquals(
+            "SELECT * FROM users WHERE (country IS NULL AND name IS NOT NULL) OR 1 = 0 OR country IS NOT NULL",
+            statement.sql
+        )
+        assertEquals(emptyList<Any>(), statement.values)
+    }
+
+    @Test
+    fun `conditions are folded left`() {
+        val statement = query().apply {
+            where("country", BaradumOperator.EQUAL, "ES", WhereOperator.AND)
+            where("country", BaradumOperator.EQUAL, "IT", WhereOperator.OR)
+            where("age", BaradumOperator.GREATER, 26, WhereOperator.AND)
+        }.statement()
+
+        assertEquals("SELECT * FROM users WHERE (country = ? OR country = ?) AND age > ?", statement.sql)
+        assertEquals(listOf("ES", "IT", 26), statement.values)
+    }
+
+    @Test
+    fun `NOT is pushed down to the conditions of groups`() {
+        val group = !FilterExpression.anyOf(
+            FilterExpression.condition("country", BaradumOperator.EQUAL, "US"),
+            FilterExpression.condition("age", BaradumOperator.LESS, 30)
+        )
+
+        val statement = query().apply {
+            where("status", BaradumOperator.EQUAL, Status.ACTIVE, WhereOperator.AND)
+            whereGroup(group, WhereOperator.AND)
+        }.statement()
+
+        assertEquals("SELECT * FROM users WHERE status = ? AND country <> ? AND age >= ?", statement.sql)
+        assertEquals(listOf("ACTIVE", "US", 30), statement.values)
+    }
+
+    @Test
+    fun `pagination of each dialect`() {
+        val query = query().apply {
+            where("age", BaradumOperator.GREATER, 18, WhereOperator.AND)
+            orderBy("age", SortDirection.DESC)
+        }
+
+        val limitOffset = query.statement(SqlDialect.LIMIT_OFFSET, limit = 10, offset = 20)
+        assertEquals("SELECT * FROM users WHERE age > ? ORDER BY age DESC LIMIT ? OFFSET ?", limitOffset.sql)
+        assertEquals(listOf(18, 10, 20L), limitOffset.values)
+
+        val mysql = query.statement(SqlDialect.MYSQL, limit = 10)
+        assertEquals("SELECT * FROM users WHERE age > ? ORDER BY age DESC LIMIT ?, ?", mysql.sql)
+        assertEquals(listOf(18, 0L, 10L), mysql.values)
+
+        val standard = query().statement(SqlDialect.STANDARD, offset = 20)
+        assertEquals("SELECT * FROM users OFFSET ? ROWS", standard.sql)
+        assertEquals(listOf(20L), standard.values)
+
+        val sqlServer = query().statement(SqlDialect.SQL_SERVER, limit = 10)
+        assertEquals("SELECT * FROM users ORDER BY (SELECT NULL) OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", sqlServer.sql)
+        assertEquals(listOf(0L, 10), sqlServer.values)
+        assertEquals(
+            "SELECT * FROM users WHERE age > ? ORDER BY age DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+            query.statement(SqlDialect.SQL_SERVER, limit = 10).sql
+        )
+
+        assertEquals(listOf(20L, Long.MAX_VALUE), SqlDialect.MYSQL.paginationValues(null, 20))
+    }
+
+    @Test
+    fun `dialect of the database product`() {
+        assertEquals(SqlDialect.LIMIT_OFFSET, SqlDialect.of("H2"))
+        assertEquals(SqlDialect.LIMIT_OFFSET, SqlDialect.of("PostgreSQL"))
+        assertEquals(SqlDialect.MYSQL, SqlDialect.of("MariaDB"))
+        assertEquals(SqlDialect.SQL_SERVER, SqlDialect.of("Microsoft SQL Server"))
+        assertEquals(SqlDialect.STANDARD, SqlDialect.of("Oracle"))
+        assertEquals(SqlDialect.STANDARD, SqlDialect.of("Apache Derby"))
+    }
+
+    @Test
+    fun `numbered placeholders`() {
+        val statement = query().apply {
+            where("country", BaradumOperator.IN, listOf("US", "IT"), WhereOperator.AND)
+        }.statement(placeholder = SqlPlaceholder.NUMBERED, limit = 5)
+
+        assertEquals("SELECT * FROM users WHERE country IN (\$1, \$2) LIMIT \$3", statement.sql)
+    }
+
+    @Test
+    fun `queries of the same shape share their SQL`() {
+        fun statement(countries: List<String>, limit: Int) = query().apply {
+            where("country", BaradumOperator.IN, countries, WhereOperator.AND)
+        }.statement(limit = limit)
+
+        val three = statement(listOf("US", "IT", "ES"), 10)
+        val four = statement(listOf("FR", "DE", "PT", "UK"), 20)
+        val five = statement(listOf("US", "IT", "ES", "FR", "DE"), 10)
+
+        assertSame(three.sql, four.sql)
+        assertEquals(listOf("US", "IT", "ES", "ES", 10), three.values)
+        assertEquals("SELECT * FROM users WHERE country IN (?, ?, ?, ?, ?, ?, ?, ?) LIMIT ?", five.sql)
+    }
+
+    @Test
+    fun `counts and selected columns`() {
+        val query = query().apply {
+            select(arrayOf("id", "name"))
+            where("age", BaradumOperator.LESS, 65, WhereOperator.AND)
+            orderBy("name", SortDirection.ASC)
+        }
+
+        assertEquals("SELECT id, name FROM users WHERE age < ? ORDER BY name ASC", query.statement().sql)
+        assertEquals(
+            "SELECT COUNT(*) FROM users WHERE age < ?",
+            query.statement(SqlDialect.LIMIT_OFFSET, SqlPlaceholder.QUESTION_MARK, true, null, null).sql
+        )
+    }
+
+    @Test
+    fun `names are checked before they are written in the SQL`() {
+        assertThrows<BaradumException> { SqlTable("users; DROP TABLE users", User::class.java) }
+        assertThrows<BaradumException> { query().where("name = name OR 1", BaradumOperator.EQUAL, 1, WhereOperator.AND) }
+        assertThrows<BaradumException> { query().orderBy("age DESC, name", SortDirection.ASC) }
+        assertThrows<BaradumException> { users.column("name", "name--") }
+        assertEquals("signed_up", SqlTable("users", User::class.java).column("signedUp", "signed_up").column("signedUp"))
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class LikePatternTest {
+
+    @Test
+    fun `wildcards at the ends`() {
+        assertTrue(LikePattern.compile("%an%").test("Japan"))
+        assertTrue(LikePattern.compile("Ja%").test("Japan"))
+        assertTrue(LikePattern.compile("%pan").test("Japan"))
+        assertFalse(LikePattern.compile("%pan").test("Spain"))
+        assertTrue(LikePattern.compile("Japan").test("Japan"))
+        assertFalse(LikePattern.compile("Japan").test("Japanese"))
+    }
+
+    @Test
+    fun `wildcards in the middle`() {
+        assertTrue(LikePattern.compile("S%n").test("Spain"))
+        assertTrue(LikePattern.compile("_taly").test("Italy"))
+        assertFalse(LikePattern.compile("_taly").test("Iitaly"))
+    }
+
+    @Test
+    fun `regex characters are literal`() {
+        assertTrue(LikePattern.compile("a.b_").test("a.bc"))
+        assertFalse(LikePattern.compile("a.b_").test("axbc"))
+    }
+
+    @Test
+    fun `null pattern`() {
+        assertThrows<FilterException> { LikePattern.compile(null) }
+    }
+}
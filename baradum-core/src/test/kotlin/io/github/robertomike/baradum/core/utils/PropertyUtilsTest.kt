@@ -0,0 +1,64 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+/**
+ * Test suite for PropertyUtils
+ */
+class PropertyUtilsTest {
+
+    data class Address(val city: String)
+
+    data class Person(val name: String, val isActive: Boolean, val address: Address?)
+
+    class FieldOnly {
+        @Suppress("unused")
+        private val secret = "hidden"
+    }
+
+    @Test
+    fun `read uses getters`() {
+        val person = Person("John", true, null)
+
+        assertEquals("John", PropertyUtils.read(person, "name"))
+        assertEquals(true, PropertyUtils.read(person, "isActive"))
+    }
+
+    @Test
+    fun `read follows dotted paths`() {
+        val person = Person("John", true, Address("Rome"))
+
+        assertEquals("Rome", PropertyUtils.read(person, "address.city"))
+    }
+
+    @Test
+    fun `read returns null when path element is null`() {
+        val person = Person("John", true, null)
+
+        assertNull(PropertyUtils.read(person, "address.city"))
+    }
+
+    @Test
+    fun `read falls back to fields`() {
+        assertEquals("hidden", PropertyUtils.read(FieldOnly(), "secret"))
+    }
+
+    @Test
+    fun `read throws for unknown properties`() {
+        assertThrows<BaradumException> {
+            PropertyUtils.read(Person("John", true, null), "unknown")
+        }
+    }
+
+    @Test
+    fun `type of getters, paths and fields`() {
+        assertEquals(String::class.java, PropertyUtils.type(Person::class.java, "name"))
+        assertEquals(Boolean::class.javaPrimitiveType, PropertyUtils.type(Person::class.java, "isActive"))
+        assertEquals(String::class.java, PropertyUtils.type(Person::class.java, "address.city"))
+        assertEquals(String::class.java, PropertyUtils.type(FieldOnly::class.java, "secret"))
+        assertThrows<BaradumException> { PropertyUtils.type(Person::class.java, "unknown") }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.math.BigDecimal
+import java.math.BigInteger
+
+class ValueComparisonTest {
+
+    @Test
+    fun `numbers of different types are compared by value`() {
+        assertEquals(0, ValueComparison.compare(18, 18L))
+        assertTrue(ValueComparison.compare(18, 17.5) > 0)
+        assertTrue(ValueComparison.compare(BigInteger.TEN, 10.5f) < 0)
+        assertTrue(ValueComparison.compare("b", "a") > 0)
+    }
+
+    @Test
+    fun `values that can't be compared`() {
+        assertThrows<FilterException> { ValueComparison.compare(Any(), Any()) }
+        assertThrows<FilterException> { ValueComparison.compare("a", 1) }
+    }
+
+    @Test
+    fun `equal numbers get equal keys`() {
+        assertTrue(ValueComparison.equal(BigDecimal("2.50"), 2.5))
+        assertFalse(ValueComparison.equal("2.5", 2.5))
+        assertEquals(ValueComparison.key(18), ValueComparison.key(18.0))
+        assertEquals(ValueComparison.key(BigDecimal("2.50")), ValueComparison.key(2.5f))
+        assertEquals("USA", ValueComparison.key("USA"))
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.robertomike.baradum.core.utils
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.lang.management.ManagementFactory
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.time.LocalDate
+import java.util.UUID
+
+/**
+ * Test suite for ValueConverter
+ */
+class ValueConverterTest {
+
+    enum class TestStatus {
+        ACTIVE,
+        INACTIVE
+    }
+
+    @Test
+    fun `convert detects booleans ignoring case`() {
+        assertEquals(true, ValueConverter.convert("true"))
+        assertEquals(true, ValueConverter.convert("TRUE"))
+        assertEquals(false, ValueConverter.convert("False"))
+    }
+
+    @Test
+    fun `convert detects integers by range`() {
+        assertEquals(42, ValueConverter.convert("42"))
+        assertEquals(-15, ValueConverter.convert("-15"))
+        assertEquals(Int.MAX_VALUE, ValueConverter.convert(Int.MAX_VALUE.toString()))
+        assertEquals(Int.MIN_VALUE, ValueConverter.convert(Int.MIN_VALUE.toString()))
+        assertEquals(Int.MAX_VALUE + 1L, ValueConverter.convert((Int.MAX_VALUE + 1L).toString()))
+        assertEquals(Long.MAX_VALUE, ValueConverter.convert(Long.MAX_VALUE.toString()))
+        assertEquals(Long.MIN_VALUE, ValueConverter.convert(Long.MIN_VALUE.toString()))
+    }
+
+    @Test
+    fun `convert falls back to BigInteger beyond Long range`() {
+        assertEquals(BigInteger("9223372036854775808"), ValueConverter.convert("9223372036854775808"))
+        assertEquals(BigInteger("-99999999999999999999"), ValueConverter.convert("-99999999999999999999"))
+    }
+
+    @Test
+    fun `convert detects decimals`() {
+        assertEquals(29.99, ValueConverter.convert("29.99"))
+        assertEquals(-10.5, ValueConverter.convert("-10.50"))
+    }
+
+    @Test
+    fun `convert keeps everything else as the same string`() {
+        listOf("", "-", "abc", "John123", "12abc", "1.", ".5", "1.2.3", "+5", "1e5", "2024-01-01").forEach {
+            assertSame(it, ValueConverter.convert(it))
+        }
+    }
+
+    @Test
+    fun `parseNumber returns null for non numeric values`() {
+        assertNull(ValueConverter.parseNumber("abc"))
+        assertNull(ValueConverter.parseNumber("true"))
+        assertEquals(19.99, ValueConverter.parseNumber("19.99"))
+    }
+
+    @Test
+    fun `parseComparable accepts the numbers of the comparison filters`() {
+        assertEquals(0.5, ValueConverter.parseComparable(".5"))
+        assertEquals(5.0, ValueConverter.parseComparable("5."))
+        assertEquals(1500.0, ValueConverter.parseComparable("1.5E3"))
+        assertEquals(5, ValueConverter.parseComparable("+5"))
+        assertEquals(12345678901L, ValueConverter.parseComparable("12345678901"))
+        assertNull(ValueConverter.parseComparable("1e5"))
+        assertNull(ValueConverter.parseComparable("99999999999999999999"))
+        assertNull(ValueConverter.parseComparable("abc"))
+    }
+
+    @Test
+    fun `convert with target type`() {
+        val uuid = UUID.randomUUID()
+
+        assertEquals(BigDecimal("29.990"), ValueConverter.convert("29.990", BigDecimal::class.java))
+        assertEquals(uuid, ValueConverter.convert(uuid.toString(), UUID::class.java))
+        assertEquals(5L, ValueConverter.convert("5", Long::class.java))
+        assertEquals(5L, ValueConverter.convert("5", java.lang.Long::class.java))
+        assertEquals(1.5f, ValueConverter.convert("1.5", Float::class.java))
+        assertEquals("42", ValueConverter.convert("42", String::class.java))
+        assertEquals(true, ValueConverter.convert("TRUE", Boolean::class.java))
+        assertEquals(TestStatus.ACTIVE, ValueConverter.convert("ACTIVE", TestStatus::class.java))
+    }
+
+    @Test
+    fun `convert with target type rejects invalid values`() {
+        val exception = assertThrows<FilterException> {
+            ValueConverter.convert("abc", UUID::class.java)
+        }
+        assertTrue(exception.message!!.contains("abc"))
+
+        assertThrows<FilterException> { ValueConverter.convert("1.5", Int::class.java) }
+        assertThrows<FilterException> { ValueConverter.convert("yes", Boolean::class.java) }
+        assertThrows<FilterException> { ValueConverter.convert("UNKNOWN", TestStatus::class.java) }
+    }
+
+    @Test
+    fun `convert with unsupported target type throws`() {
+        val exception = assertThrows<FilterException> {
+            ValueConverter.convert("x", Thread::class.java)
+        }
+        assertTrue(exception.message!!.contains("Unsupported"))
+    }
+
+    @Test
+    fun `convert does not allocate for common inputs`() {
+        val threads = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported && threads.isThreadAllocatedMemoryEnabled)
+
+        val inputs = arrayOf("true", "false", "42", "-7", "USA", "John123")
+        var sink = 0
+        repeat(10_000) { sink += ValueConverter.convert(inputs[it % inputs.size]).hashCode() }
+
+        val threadId = Thread.currentThread().id
+        val before = threads!!.getThreadAllocatedBytes(threadId)
+        for (i in 0 until 100_000) {
+            sink += ValueConverter.convert(inputs[i % inputs.size]).hashCode()
+        }
+        val allocated = threads.getThreadAllocatedBytes(threadId) - before
+
+        // Only the measurement itself may allocate, not 100k conversions
+        assertTrue(allocated < 10_000, "Allocated $allocated bytes (sink $sink)")
+    }
+
+    @Test
+    fun `coerce converts to the type of the property`() {
+        assertEquals(18L, ValueConverter.coerce("18", Long::class.java))
+        assertEquals(18L, ValueConverter.coerce(18, Long::class.javaPrimitiveType!!))
+        assertEquals("42", ValueConverter.coerce(42, String::class.java))
+        assertEquals(TestStatus.ACTIVE, ValueConverter.coerce("ACTIVE", TestStatus::class.java))
+        assertEquals(LocalDate.of(2024, 1, 31), ValueConverter.coerce("2024-01-31", LocalDate::class.java))
+    }
+
+    @Test
+    fun `coerce keeps what it can't convert`() {
+        assertEquals(2.5, ValueConverter.coerce(2.5, Int::class.java))
+        assertEquals(2.5, ValueConverter.coerce("2.5", Int::class.java))
+        assertEquals("x", ValueConverter.coerce("x", Thread::class.java))
+        assertNull(ValueConverter.coerce(null, Int::class.java))
+        assertThrows<FilterException> { ValueConverter.coerce("many", Int::class.java) }
+    }
+}
@@ -1,6 +1,11 @@
 package io.github.robertomike.baradum.hefesto
 
 import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.BaradumSpec
+import io.github.robertomike.baradum.core.cache.CachingQueryBuilder
+import io.github.robertomike.baradum.core.cache.CountCache
+import io.github.robertomike.baradum.core.cache.CountCachingQueryBuilder
+import io.github.robertomike.baradum.core.cache.QueryCache
 import io.github.robertomike.hefesto.models.BaseModel
 
 /**
@@ -15,4 +20,28 @@ object Baradum {
         val queryBuilder = HefestoQueryBuilder(modelClass)
         return Baradum(queryBuilder)
     }
+
+    /**
+     * Creates a new Baradum instance bound to a precompiled spec
+     */
+    @JvmStatic
+    fun <T : BaseModel> make(spec: BaradumSpec<T, HefestoQueryBuilder<T>>, modelClass: Class<T>): Baradum<T, HefestoQueryBuilder<T>> {
+        return spec.on(HefestoQueryBuilder(modelClass))
+    }
+
+    /**
+     * Creates a new Baradum instance whose results are cached, under the region of the model class
+     */
+    @JvmStatic
+    fun <T : BaseModel> make(modelClass: Class<T>, cache: QueryCache): Baradum<T, CachingQueryBuilder<T>> {
+        return Baradum(cache.wrap(HefestoQueryBuilder(modelClass), modelClass))
+    }
+
+    /**
+     * Creates a new Baradum instance whose page totals are cached, under the region of the model class
+     */
+    @JvmStatic
+    fun <T : BaseModel> make(modelClass: Class<T>, counts: CountCache): Baradum<T, CountCachingQueryBuilder<T>> {
+        return Baradum(counts.wrap(HefestoQueryBuilder(modelClass), modelClass))
+    }
 }
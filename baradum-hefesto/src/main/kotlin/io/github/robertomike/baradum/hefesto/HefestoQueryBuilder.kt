@@ -3,17 +3,28 @@ package io.github.robertomike.baradum.hefesto
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.enums.SortDirection
 import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.LazyPage
 import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.core.sorting.SeekKey
 import io.github.robertomike.baradum.hefesto.converters.OperatorConverter
 import io.github.robertomike.baradum.hefesto.converters.SortConverter
 import io.github.robertomike.baradum.hefesto.converters.WhereOperatorConverter
 import io.github.robertomike.hefesto.actions.Select
+import io.github.robertomike.hefesto.actions.wheres.BaseWhere
+import io.github.robertomike.hefesto.actions.wheres.CollectionWhere
 import io.github.robertomike.hefesto.actions.wheres.Where
 import io.github.robertomike.hefesto.builders.Hefesto
 import io.github.robertomike.hefesto.constructors.ConstructWhereImplementation
 import io.github.robertomike.hefesto.models.BaseModel
 import java.util.Optional
+import java.util.stream.Stream
+import kotlin.streams.asStream
 
 /**
  * Hefesto implementation of QueryBuilder
@@ -22,17 +33,89 @@ class HefestoQueryBuilder<T : BaseModel>(
     private val hefestoBuilder: Hefesto<T>
 ) : QueryBuilder<T> {
 
-    constructor(modelClass: Class<T>) : this(Hefesto.make(modelClass))
+    /**
+     * Model queried, only known when the builder is created from it
+     */
+    private var modelClass: Class<T>? = null
+
+    constructor(modelClass: Class<T>) : this(Hefesto.make(modelClass)) {
+        this.modelClass = modelClass
+    }
 
     override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
-        val whereClause = Where(
+        if (operator == BaradumOperator.BETWEEN) {
+            hefestoBuilder.where(toWhere(FilterExpression.Condition(field, operator, value), whereOperator))
+        } else {
+            hefestoBuilder.where(createWhere(field, operator, value, whereOperator))
+        }
+        return this
+    }
+
+    /**
+     * Add the expression as a collection of wheres, NOT is pushed down to the conditions first
+     */
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        hefestoBuilder.where(toWhere(expression.canonical(), whereOperator))
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = true
+
+    /**
+     * Each where of a collection is joined to the previous one with its own operator.
+     * Hefesto has no BETWEEN, it's added as both inclusive bounds.
+     */
+    private fun toWhere(expression: FilterExpression, whereOperator: WhereOperator): BaseWhere {
+        val hefestoOperator = WhereOperatorConverter.toHefesto(whereOperator)
+
+        return when (expression) {
+            is FilterExpression.Condition -> if (expression.operator == BaradumOperator.BETWEEN) {
+                val bounds = expression.value as? List<*>
+                if (bounds == null || bounds.size != 2) {
+                    throw BaradumException("BETWEEN on '${expression.field}' requires a pair of values")
+                }
+                CollectionWhere(listOf(
+                    createWhere(expression.field, BaradumOperator.GREATER_OR_EQUAL, bounds[0], WhereOperator.AND),
+                    createWhere(expression.field, BaradumOperator.LESS_OR_EQUAL, bounds[1], WhereOperator.AND)
+                ), hefestoOperator)
+            } else {
+                createWhere(expression.field, expression.operator, expression.value, whereOperator)
+            }
+            is FilterExpression.And -> CollectionWhere(expression.children.map { toWhere(it, WhereOperator.AND) }, hefestoOperator)
+            is FilterExpression.Or -> CollectionWhere(expression.children.map { toWhere(it, WhereOperator.OR) }, hefestoOperator)
+            is FilterExpression.Not -> throw BaradumException("NOT must be pushed down before it's added to Hefesto")
+        }
+    }
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        if (keys.isEmpty()) return this
+
+        // a > :a OR (a = :a AND b > :b) OR ..., each term fixes the previous keys
+        val terms = keys.indices.map { index ->
+            val equalities = keys.subList(0, index).map {
+                createWhere(it.field, BaradumOperator.EQUAL, it.value, WhereOperator.AND)
+            }
+            val key = keys[index]
+            val operator = if (key.direction == SortDirection.ASC) BaradumOperator.GREATER else BaradumOperator.LESS
+            val termOperator = if (index == 0) WhereOperator.AND else WhereOperator.OR
+
+            CollectionWhere(
+                equalities + createWhere(key.field, operator, key.value, WhereOperator.AND),
+                WhereOperatorConverter.toHefesto(termOperator)
+            )
+        }
+
+        hefestoBuilder.where(CollectionWhere(terms, WhereOperatorConverter.toHefesto(WhereOperator.AND)))
+        return this
+    }
+
+    private fun createWhere(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): Where {
+        return Where(
             field,
             OperatorConverter.toHefesto(operator),
             value,
             WhereOperatorConverter.toHefesto(whereOperator)
         )
-        hefestoBuilder.where(whereClause)
-        return this
     }
 
     override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
@@ -66,11 +149,57 @@ class HefestoQueryBuilder<T : BaseModel>(
     }
 
     override fun get(): List<T> {
-        return hefestoBuilder.get()
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { hefestoBuilder.get() }
+    }
+
+    /**
+     * Stream the results reading them in windows of `fetchSize` rows, so only one window is held at a time.
+     * Windows are read with limit/offset inside the limit and offset of the query,
+     * sort the query on a unique field to get a stable order.
+     * `clearEvery` is not supported, the session is managed by Hefesto.
+     */
+    override fun stream(options: StreamOptions): Stream<T> {
+        val fetchSize = options.fetchSize
+        val queryLimit: Int? = hefestoBuilder.limit
+        val queryOffset: Int = hefestoBuilder.offset ?: 0
+
+        return sequence {
+            var offset = queryOffset
+            var remaining = queryLimit
+            do {
+                val size = if (remaining == null) fetchSize else minOf(fetchSize, remaining)
+                if (size <= 0) break
+
+                val window = window(size, offset) { hefestoBuilder.get() }
+                yieldAll(window)
+                offset += window.size
+                remaining = remaining?.minus(window.size)
+            } while (window.size == size)
+        }.asStream()
+    }
+
+    /**
+     * Run the execution with the limit and offset of the builder set to the window,
+     * the ones of the query are restored after it
+     */
+    private inline fun <R> window(limit: Int, offset: Int, execution: () -> R): R {
+        val queryLimit: Int? = hefestoBuilder.limit
+        val queryOffset: Int? = hefestoBuilder.offset
+        try {
+            hefestoBuilder.limit = limit
+            hefestoBuilder.offset = offset
+            return execution()
+        } finally {
+            hefestoBuilder.limit = queryLimit
+            hefestoBuilder.offset = queryOffset
+        }
     }
 
     override fun page(limit: Int, offset: Long): Page<T> {
-        val hefestoPage = hefestoBuilder.page(limit, offset)
+        // Hefesto counts and fetches in the same call, both are reported as the fetch
+        val hefestoPage = BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            window(limit, offset.toInt()) { hefestoBuilder.page(limit, offset) }
+        }
         return Page(
             content = hefestoPage.data,
             totalElements = hefestoPage.total,
@@ -79,8 +208,30 @@ class HefestoQueryBuilder<T : BaseModel>(
         )
     }
 
+    override fun lazyPage(limit: Int, offset: Long): LazyPage<T> {
+        // One extra row tells whether there is a next page, the count is deferred
+        val rows = BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            window(limit + 1, offset.toInt()) { hefestoBuilder.get() }
+        }
+        return LazyPage.fromRows(rows, limit, offset) { count() }
+    }
+
+    /**
+     * Hefesto only exposes the total through page(), so counting costs a page query:
+     * the count plus the fetch of a single row. Prefer [page] when the rows are needed too.
+     */
+    override fun count(): Long {
+        return BaradumInstrumentation.time(ExecutionPhase.COUNT) {
+            window(1, 0) { hefestoBuilder.page(1, 0).total }
+        }
+    }
+
     override fun findFirst(): Optional<T> {
-        return hefestoBuilder.findFirst()
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { hefestoBuilder.findFirst() }
+    }
+
+    override fun getEntityClass(): Class<*>? {
+        return modelClass
     }
 
     override fun getWhereConditions(): ConstructWhereImplementation {
@@ -0,0 +1,58 @@
+package io.github.robertomike.baradum.hefesto.integration;
+
+import io.github.robertomike.baradum.core.Baradum;
+import io.github.robertomike.baradum.core.filters.ExactFilter;
+import io.github.robertomike.baradum.core.models.Page;
+import io.github.robertomike.baradum.hefesto.config.DatabaseExtension;
+import io.github.robertomike.baradum.hefesto.models.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the async executions with real database queries.
+ * Hefesto shares one session, each test waits for its future before querying again.
+ */
+@ExtendWith(DatabaseExtension.class)
+class AsyncDatabaseTest {
+
+    @Test
+    void testGetAsync() throws Exception {
+        List<User> users = Baradum.make(User.class)
+                .withParams(Map.of("country", "USA"))
+                .allowedFilters(new ExactFilter("country"))
+                .getAsync()
+                .get(10, TimeUnit.SECONDS);
+
+        assertFalse(users.isEmpty(), "Should find users from USA");
+        users.forEach(user -> assertEquals("USA", user.getCountry()));
+    }
+
+    @Test
+    void testPageAsync() throws Exception {
+        Page<User> page = Baradum.make(User.class)
+                .pageAsync(5, 10)
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(15, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+    }
+
+    @Test
+    void testFindFirstAsync() throws Exception {
+        Optional<User> user = Baradum.make(User.class)
+                .withParams(Map.of("country", "USA"))
+                .allowedFilters(new ExactFilter("country"))
+                .findFirstAsync()
+                .get(10, TimeUnit.SECONDS);
+
+        assertTrue(user.isPresent());
+        assertEquals("USA", user.get().getCountry());
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.robertomike.baradum.hefesto.integration;
+
+import io.github.robertomike.baradum.core.Baradum;
+import io.github.robertomike.baradum.core.concurrent.BaradumBatch;
+import io.github.robertomike.baradum.core.concurrent.BatchResults;
+import io.github.robertomike.baradum.core.exceptions.FilterException;
+import io.github.robertomike.baradum.core.filters.DateFilter;
+import io.github.robertomike.baradum.core.filters.ExactFilter;
+import io.github.robertomike.baradum.core.models.Page;
+import io.github.robertomike.baradum.hefesto.config.DatabaseExtension;
+import io.github.robertomike.baradum.hefesto.models.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for batches of queries with real database queries.
+ * Hefesto shares one session, so the batches run one query at a time.
+ */
+@ExtendWith(DatabaseExtension.class)
+class BatchDatabaseTest {
+
+    private List<User> usersFrom(String country) {
+        return Baradum.make(User.class)
+                .withParams(Map.of("country", country))
+                .allowedFilters(new ExactFilter("country"))
+                .get();
+    }
+
+    @Test
+    void testResultsKeepTheOrderOfTheQueries() {
+        BaradumBatch batch = Baradum.batch(1).timeout(Duration.ofSeconds(10));
+        BaradumBatch.Query<List<User>> usa = batch.add(() -> usersFrom("USA"));
+        BaradumBatch.Query<List<User>> uk = batch.add(() -> usersFrom("UK"));
+        BaradumBatch.Query<Page<User>> page = batch.add(() -> Baradum.make(User.class).page(5));
+
+        BatchResults results = batch.execute();
+
+        assertFalse(results.get(usa).isEmpty(), "Should find users from USA");
+        results.get(usa).forEach(user -> assertEquals("USA", user.getCountry()));
+        results.get(uk).forEach(user -> assertEquals("UK", user.getCountry()));
+        assertEquals(5, results.get(page).getContent().size());
+        assertEquals(15, results.get(page).getTotalElements());
+    }
+
+    @Test
+    void testFailedQueryIsRethrown() {
+        BaradumBatch batch = Baradum.batch(1);
+        batch.add(() -> usersFrom("USA"));
+        batch.add(() -> Baradum.make(User.class)
+                .withParams(Map.of("createdAt", "not a date"))
+                .allowedFilters(DateFilter.forUtilDate("createdAt", "yyyy-MM-dd"))
+                .get());
+
+        assertThrows(FilterException.class, batch::execute);
+    }
+}
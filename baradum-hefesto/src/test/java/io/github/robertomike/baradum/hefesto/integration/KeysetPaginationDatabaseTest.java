@@ -0,0 +1,104 @@
+package io.github.robertomike.baradum.hefesto.integration;
+
+import io.github.robertomike.baradum.core.exceptions.FilterException;
+import io.github.robertomike.baradum.core.filters.ExactFilter;
+import io.github.robertomike.baradum.hefesto.Baradum;
+import io.github.robertomike.baradum.hefesto.config.DatabaseExtension;
+import io.github.robertomike.baradum.hefesto.models.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for keyset (seek) pagination with real database queries.
+ * Tests verify that .pageAfter() walks all the results without offsets.
+ */
+@ExtendWith(DatabaseExtension.class)
+class KeysetPaginationDatabaseTest {
+
+    private List<User> collect(Map<String, String> params, int limit) {
+        List<User> users = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            var page = Baradum.make(User.class)
+                    .allowedFilters(new ExactFilter("country"))
+                    .allowedSort("age", "salary", "country")
+                    .withParams(params)
+                    .pageAfter(cursor, limit);
+
+            assertTrue(page.getContent().size() <= limit, "Should not exceed page size");
+            users.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        return users;
+    }
+
+    @Test
+    void testWalkAllPagesById() {
+        List<User> users = collect(new HashMap<>(), 4);
+
+        assertEquals(15, users.size(), "Should return every user exactly once");
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getId() < users.get(i).getId(), "Users should be sorted by id");
+        }
+    }
+
+    @Test
+    void testWalkAllPagesWithDescendingSort() {
+        Map<String, String> params = new HashMap<>();
+        params.put("sort", "-salary");
+
+        List<User> users = collect(params, 4);
+
+        assertEquals(15, users.size());
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getSalary() >= users.get(i).getSalary(),
+                    "Users should be sorted by salary descending");
+        }
+    }
+
+    @Test
+    void testWalkAllPagesWithTies() {
+        Map<String, String> params = new HashMap<>();
+        params.put("sort", "country");
+
+        List<User> users = collect(params, 2);
+
+        assertEquals(15, users.size());
+        assertEquals(15, users.stream().map(User::getId).distinct().count(), "Ties should not duplicate users");
+    }
+
+    @Test
+    void testWalkPagesWithFilters() {
+        Map<String, String> params = new HashMap<>();
+        params.put("country", "USA");
+        params.put("sort", "age");
+
+        List<User> users = collect(params, 2);
+
+        assertFalse(users.isEmpty());
+        users.forEach(user -> assertEquals("USA", user.getCountry()));
+    }
+
+    @Test
+    void testRejectsCursorOfOtherSort() {
+        var cursor = Baradum.make(User.class)
+                .allowedSort("age")
+                .withParams(Map.of("sort", "age"))
+                .pageAfter(null, 2)
+                .getNextCursor();
+
+        assertThrows(FilterException.class, () -> Baradum.make(User.class)
+                .allowedSort("salary")
+                .withParams(Map.of("sort", "salary"))
+                .pageAfter(cursor, 2));
+    }
+}
@@ -211,10 +211,60 @@ class PaginationDatabaseTest {
             assertEquals("USA", user.getCountry());
         });
     }
-}
 
+    @Test
+    void testLazyPageHasNext() {
+        var page = Baradum.make(User.class)
+                .allowedSort("age")
+                .withParams(Map.of("sort", "age"))
+                .lazyPage(5);
+
+        assertEquals(5, page.getContent().size());
+        assertTrue(page.getHasNext(), "15 users should leave a next page after the first 5");
+        assertFalse(page.isTotalComputed(), "The total should not be counted until it's read");
+    }
+
+    @Test
+    void testLazyPageLastPage() {
+        var page = Baradum.make(User.class)
+                .lazyPage(5, 10);
+
+        assertEquals(5, page.getContent().size());
+        assertFalse(page.getHasNext(), "The last 5 users should not leave a next page");
+    }
+
+    @Test
+    void testLazyPageTotalOnDemand() {
+        Map<String, String> params = new HashMap<>();
+        params.put("country", "USA");
+        params.put("limit", "2");
+
+        var page = Baradum.make(User.class)
+                .allowedFilters(new io.github.robertomike.baradum.core.filters.ExactFilter("country"))
+                .withParams(params)
+                .lazyPage(15);
 
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.getHasNext());
 
+        var eager = Baradum.make(User.class)
+                .allowedFilters(new io.github.robertomike.baradum.core.filters.ExactFilter("country"))
+                .withParams(params)
+                .page(15);
+
+        assertEquals(eager.getTotalElements(), page.getTotalElements());
+        assertTrue(page.isTotalComputed());
+    }
 
+    @Test
+    void testLazyPageKeepsTheBuilderWindow() {
+        var baradum = Baradum.make(User.class)
+                .allowedSort("id")
+                .withParams(Map.of("sort", "id"));
 
+        var page = baradum.lazyPage(5, 5);
+        assertEquals(15, page.getTotalElements());
 
+        assertEquals(15, baradum.getBuilder().get().size(), "The page and the count should not limit later executions");
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.robertomike.baradum.hefesto.integration;
+
+import io.github.robertomike.baradum.core.Baradum;
+import io.github.robertomike.baradum.core.cache.QueryCache;
+import io.github.robertomike.baradum.core.filters.ExactFilter;
+import io.github.robertomike.baradum.hefesto.config.DatabaseExtension;
+import io.github.robertomike.baradum.hefesto.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the query cache with real database queries.
+ * Tests verify that repeated requests are served from the cache until they are invalidated.
+ */
+@ExtendWith(DatabaseExtension.class)
+class QueryCacheDatabaseTest {
+
+    private QueryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new QueryCache(Duration.ofMinutes(1));
+    }
+
+    private List<User> usersFrom(String country) {
+        return Baradum.make(User.class, cache)
+                .withParams(Map.of("country", country))
+                .allowedFilters(new ExactFilter("country"))
+                .get();
+    }
+
+    @Test
+    void testRepeatedRequestIsServedFromCache() {
+        List<User> first = usersFrom("USA");
+        List<User> second = usersFrom("USA");
+
+        assertFalse(first.isEmpty(), "Should find users from USA");
+        assertSame(first, second, "Second request should return the cached result");
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void testDifferentParamsAreNotShared() {
+        List<User> usa = usersFrom("USA");
+        List<User> uk = usersFrom("UK");
+
+        assertNotSame(usa, uk);
+        uk.forEach(user -> assertEquals("UK", user.getCountry()));
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    @Test
+    void testInvalidateReloadsTheEntity() {
+        List<User> first = usersFrom("USA");
+
+        cache.invalidate(User.class);
+        List<User> second = usersFrom("USA");
+
+        assertNotSame(first, second);
+        assertEquals(first.size(), second.size());
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    void testCountAndPageAreCached() {
+        var firstPage = Baradum.make(User.class, cache).page(5);
+        var secondPage = Baradum.make(User.class, cache).page(5);
+
+        assertEquals(15, firstPage.getTotalElements());
+        assertSame(firstPage, secondPage);
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.robertomike.baradum.hefesto.integration;
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException;
+import io.github.robertomike.baradum.core.filters.ExactFilter;
+import io.github.robertomike.baradum.core.models.StreamOptions;
+import io.github.robertomike.baradum.hefesto.Baradum;
+import io.github.robertomike.baradum.hefesto.config.DatabaseExtension;
+import io.github.robertomike.baradum.hefesto.models.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for streamed and chunked executions with real database queries.
+ */
+@ExtendWith(DatabaseExtension.class)
+class StreamDatabaseTest {
+
+    @Test
+    void testStreamReadsAllWindows() {
+        List<User> users;
+        try (var stream = Baradum.make(User.class)
+                .allowedSort("id")
+                .withParams(Map.of("sort", "id"))
+                .stream(new StreamOptions(4))) {
+            users = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(15, users.size(), "Should stream every user");
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getId() < users.get(i).getId(), "Users should keep the sort order");
+        }
+    }
+
+    @Test
+    void testStreamAppliesFilters() {
+        List<User> users;
+        try (var stream = Baradum.make(User.class)
+                .allowedFilters(new ExactFilter("country"))
+                .allowedSort("id")
+                .withParams(Map.of("country", "USA", "sort", "id"))
+                .stream(new StreamOptions(2))) {
+            users = stream.collect(Collectors.toList());
+        }
+
+        assertFalse(users.isEmpty(), "Should find users from USA");
+        assertTrue(users.stream().allMatch(user -> "USA".equals(user.getCountry())));
+    }
+
+    @Test
+    void testStreamKeepsTheLimitAndOffset() {
+        List<Long> sorted = Baradum.make(User.class)
+                .allowedSort("id")
+                .withParams(Map.of("sort", "id"))
+                .get()
+                .stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+
+        var baradum = Baradum.make(User.class)
+                .allowedSort("id")
+                .withParams(Map.of("sort", "id"))
+                .builder(builder -> builder.limit(5).offset(3));
+
+        List<Long> ids;
+        try (var stream = baradum.stream(new StreamOptions(2))) {
+            ids = stream.map(User::getId).collect(Collectors.toList());
+        }
+
+        assertEquals(sorted.subList(3, 8), ids, "Should only stream the window of the query");
+        assertEquals(5, baradum.getBuilder().getHefestoBuilder().getLimit(), "Should restore the limit of the query");
+        assertEquals(3, baradum.getBuilder().getHefestoBuilder().getOffset(), "Should restore the offset of the query");
+    }
+
+    @Test
+    void testForEachChunk() {
+        List<Integer> sizes = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+
+        Baradum.make(User.class)
+                .allowedSort("id")
+                .withParams(Map.of("sort", "id"))
+                .forEachChunk(4, chunk -> {
+                    sizes.add(chunk.size());
+                    chunk.forEach(user -> ids.add(user.getId()));
+                });
+
+        assertEquals(List.of(4, 4, 4, 3), sizes, "Should split the users in chunks of 4");
+        assertEquals(15, ids.stream().distinct().count(), "Should visit every user exactly once");
+    }
+
+    @Test
+    void testForEachChunkWithInvalidSize() {
+        var baradum = Baradum.make(User.class);
+
+        assertThrows(BaradumException.class, () -> baradum.forEachChunk(0, chunk -> {}));
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.robertomike.baradum.jdbc
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.BaradumSpec
+import io.github.robertomike.baradum.core.sql.SqlDialect
+import javax.sql.DataSource
+
+/**
+ * Factory for creating Baradum instances on a JDBC DataSource, see [JdbcQueryBuilder]
+ *
+ * Usage example:
+ * ```kotlin
+ * val users = JdbcTable("users", User::class.java)
+ *
+ * JdbcBaradum.make(dataSource, users)
+ *     .allowedFilters(ExactFilter("country"), GreaterFilter("age", orEqual = true))
+ *     .page(20)
+ * ```
+ */
+object JdbcBaradum {
+    /**
+     * Creates a new Baradum instance on the table
+     */
+    @JvmStatic
+    fun <T> make(dataSource: DataSource, table: JdbcTable<T>): Baradum<T, JdbcQueryBuilder<T>> {
+        return Baradum(JdbcQueryBuilder(dataSource, table))
+    }
+
+    /**
+     * Creates a new Baradum instance on the table with the given dialect, instead of detecting it
+     */
+    @JvmStatic
+    fun <T> make(dataSource: DataSource, table: JdbcTable<T>, dialect: SqlDialect): Baradum<T, JdbcQueryBuilder<T>> {
+        return Baradum(JdbcQueryBuilder(dataSource, table, dialect))
+    }
+
+    /**
+     * Creates a new Baradum instance on the table, bound to a precompiled spec
+     */
+    @JvmStatic
+    fun <T> make(
+        spec: BaradumSpec<T, JdbcQueryBuilder<T>>,
+        dataSource: DataSource,
+        table: JdbcTable<T>
+    ): Baradum<T, JdbcQueryBuilder<T>> {
+        return spec.on(JdbcQueryBuilder(dataSource, table))
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.robertomike.baradum.jdbc
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import io.github.robertomike.baradum.core.sql.SqlDialect
+import io.github.robertomike.baradum.core.sql.SqlPlaceholder
+import io.github.robertomike.baradum.core.sql.SqlQuery
+import java.sql.ResultSet
+import java.sql.SQLException
+import java.util.Collections
+import java.util.Optional
+import java.util.WeakHashMap
+import javax.sql.DataSource
+
+/**
+ * QueryBuilder on a plain JDBC DataSource, for read-only endpoints that don't need the entities managed by an ORM.
+ *
+ * Each execution borrows a connection, runs a PreparedStatement and maps the rows with the [RowMapper]
+ * of the table. The SQL and the values are built by [SqlQuery]: values are converted to the type of the property
+ * and bound as parameters, and the SQL is rendered once per query shape, so the same filters with other values,
+ * or another page, reuse the same statement.
+ *
+ * Like the other backends, conditions are combined left as they are added, EQUAL and DIFF to null are
+ * IS NULL and IS NOT NULL. The ordering of nulls is the one of the database.
+ *
+ * Usage example:
+ * ```kotlin
+ * JdbcQueryBuilder(dataSource, JdbcTable("users", User::class.java))
+ *     .where("country", BaradumOperator.IN, listOf("USA", "UK"))
+ *     .where("age", BaradumOperator.GREATER_OR_EQUAL, 18)
+ *     .orderBy("age", SortDirection.DESC)
+ *     .page(20, 0)
+ * ```
+ *
+ * @param dialect the SQL dialect, detected from the connection when null
+ */
+class JdbcQueryBuilder<T> @JvmOverloads constructor(
+    private val dataSource: DataSource,
+    private val table: JdbcTable<T>,
+    private val dialect: SqlDialect? = null
+) : QueryBuilder<T> {
+    private val query = SqlQuery(table)
+    private var limit: Int? = null
+    private var offset: Long? = null
+    private var fetchSize: Int? = null
+
+    companion object {
+        private val dialects: MutableMap<DataSource, SqlDialect> = Collections.synchronizedMap(WeakHashMap())
+    }
+
+    /**
+     * Rows fetched from the database per round trip, see [java.sql.Statement.setFetchSize]
+     */
+    fun fetchSize(fetchSize: Int): JdbcQueryBuilder<T> {
+        this.fetchSize = fetchSize
+        return this
+    }
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
+        query.where(field, operator, value, whereOperator)
+        return this
+    }
+
+    /**
+     * Add the expression as a single condition, in parentheses, NOT is pushed down to the conditions first
+     */
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        query.whereGroup(expression, whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = true
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        query.seek(keys)
+        return this
+    }
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
+        query.orderBy(field, direction)
+        return this
+    }
+
+    /**
+     * Select only the columns of the fields, the other properties of the entities get their default value
+     */
+    override fun select(vararg fields: String): QueryBuilder<T> {
+        query.select(fields)
+        return this
+    }
+
+    override fun addSelect(vararg fields: String): QueryBuilder<T> {
+        query.addSelect(fields)
+        return this
+    }
+
+    override fun limit(limit: Int): QueryBuilder<T> {
+        this.limit = limit
+        return this
+    }
+
+    override fun offset(offset: Long): QueryBuilder<T> {
+        this.offset = offset
+        return this
+    }
+
+    override fun get(): List<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { fetch(limit, offset) }
+    }
+
+    /**
+     * The count is skipped when the page shows the total: it's not empty and not full,
+     * or it's the first page and it's empty although rows were requested
+     */
+    override fun page(limit: Int, offset: Long): Page<T> {
+        val content = BaradumInstrumentation.time(ExecutionPhase.FETCH) { fetch(limit, offset) }
+
+        val total = if (content.isNotEmpty() && content.size < limit || content.isEmpty() && offset == 0L && limit > 0) {
+            offset + content.size
+        } else {
+            count()
+        }
+        return Page(content, total, limit, offset)
+    }
+
+    override fun count(): Long {
+        return BaradumInstrumentation.time(ExecutionPhase.COUNT) {
+            execute(count = true, limit = null, offset = null) { row ->
+                row.next()
+                row.getLong(1)
+            }
+        }
+    }
+
+    override fun findFirst(): Optional<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) {
+            Optional.ofNullable(fetch(1, offset).firstOrNull())
+        }
+    }
+
+    /**
+     * Check the fields can be columns and resolve them ahead of time
+     */
+    override fun resolveFields(fields: Collection<String>) {
+        fields.forEach { table.column(it) }
+    }
+
+    override fun getEntityClass(): Class<*> = table.entityClass
+
+    override fun getWhereConditions(): Any? = query.expression
+
+    private fun fetch(limit: Int?, offset: Long?): List<T> {
+        return execute(count = false, limit, offset) { rows ->
+            val mapper = table.mapper.bind(rows)
+            val entities = ArrayList<T>(limit?.coerceAtMost(1024) ?: 16)
+            while (rows.next()) {
+                entities.add(mapper.map(rows))
+            }
+            entities
+        }
+    }
+
+    private fun <R> execute(count: Boolean, limit: Int?, offset: Long?, read: (ResultSet) -> R): R {
+        return try {
+            dataSource.connection.use { connection ->
+                val dialect = dialect ?: dialects.getOrPut(dataSource) { SqlDialect.of(connection.metaData.databaseProductName) }
+                val statement = query.statement(dialect, SqlPlaceholder.QUESTION_MARK, count, limit, offset)
+
+                connection.prepareStatement(statement.sql).use { prepared ->
+                    fetchSize?.let { prepared.fetchSize = it }
+                    statement.values.forEachIndexed { index, value -> prepared.setObject(index + 1, value) }
+                    prepared.executeQuery().use(read)
+                }
+            }
+        } catch (e: SQLException) {
+            throw BaradumException("The query on ${table.name} failed: ${e.message}", e)
+        }
+    }
+}
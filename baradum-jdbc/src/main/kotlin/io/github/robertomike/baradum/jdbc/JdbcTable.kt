@@ -0,0 +1,30 @@
+package io.github.robertomike.baradum.jdbc
+
+import io.github.robertomike.baradum.core.sql.SqlTable
+
+/**
+ * The table of an entity class: its name, the column of each field and how rows are mapped back to entities.
+ *
+ * Fields are mapped to snake_case columns (`createdAt` to `created_at`) unless they are mapped with [column].
+ * Table and column names are checked to be plain identifiers, since they are written in the SQL.
+ *
+ * Usage example:
+ * ```kotlin
+ * val users = JdbcTable("users", User::class.java)
+ *     .column("signedUp", "created_on")
+ * ```
+ *
+ * @param mapper maps a row to an entity, by default to a record, a constructor with named parameters
+ * or the fields of a class with a no-args constructor, see [RowMapper.of]
+ */
+class JdbcTable<T> @JvmOverloads constructor(
+    name: String,
+    entityClass: Class<T>,
+    val mapper: RowMapper<T> = RowMapper.of(entityClass)
+) : SqlTable<T>(name, entityClass) {
+
+    override fun column(field: String, column: String): JdbcTable<T> {
+        super.column(field, column)
+        return this
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.robertomike.baradum.jdbc
+
+import io.github.robertomike.baradum.core.sql.ColumnBinding
+import io.github.robertomike.baradum.core.sql.ColumnReader
+import java.sql.ResultSet
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * See [RowMapper.of]. The columns of a result set are matched to the properties once per list of column labels,
+ * each row is then read by column index.
+ */
+internal class ReflectionRowMapper<T>(private val type: Class<T>) : RowMapper<T> {
+    private val bound = ConcurrentHashMap<List<String>, RowMapper<T>>()
+
+    companion object {
+        private val READER = ColumnReader<ResultSet> { row, index, type ->
+            if (type == Any::class.java) row.getObject(index + 1) else row.getObject(index + 1, type)
+        }
+    }
+
+    override fun map(row: ResultSet): T = bind(row).map(row)
+
+    override fun bind(resultSet: ResultSet): RowMapper<T> {
+        val metaData = resultSet.metaData
+        val labels = (1..metaData.columnCount).map { metaData.getColumnLabel(it) }
+        return bound.computeIfAbsent(labels) {
+            val binding = ColumnBinding.of(type, it)
+            RowMapper { row -> binding.map(row, READER) }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.robertomike.baradum.jdbc
+
+import io.github.robertomike.baradum.core.sql.ColumnBinding
+import java.sql.ResultSet
+
+/**
+ * Maps the current row of a result set to an entity.
+ *
+ * Usage example:
+ * ```kotlin
+ * val mapper = RowMapper { row -> User(row.getLong("id"), row.getString("name")) }
+ * ```
+ */
+fun interface RowMapper<T> {
+    fun map(row: ResultSet): T
+
+    /**
+     * Called once per result set before its rows are mapped, returns the mapper to use for them.
+     * Mappers that look up the columns by name can resolve them here once.
+     */
+    fun bind(resultSet: ResultSet): RowMapper<T> = this
+
+    companion object {
+        /**
+         * Mapper by column name to a record, the fields of a class or a constructor with named parameters,
+         * see [ColumnBinding]
+         */
+        @JvmStatic
+        fun <T> of(type: Class<T>): RowMapper<T> = ReflectionRowMapper(type)
+    }
+}
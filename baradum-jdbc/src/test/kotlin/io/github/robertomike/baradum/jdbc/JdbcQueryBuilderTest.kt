@@ -0,0 +1,207 @@
+package io.github.robertomike.baradum.jdbc
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.InFilter
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import org.h2.jdbcx.JdbcDataSource
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import java.sql.SQLException
+import java.time.LocalDate
+
+/**
+ * Tests for the JDBC QueryBuilder against H2
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class JdbcQueryBuilderTest {
+
+    enum class Status { ACTIVE, INACTIVE, PENDING }
+
+    @JvmRecord
+    data class User(
+        val id: Long,
+        val name: String,
+        val country: String?,
+        val age: Int,
+        val status: Status,
+        val createdAt: LocalDate,
+        val salary: Double?
+    )
+
+    /**
+     * Mapped through its fields
+     */
+    class UserRow {
+        var id: Long = 0
+        var name: String? = null
+        var status: Status? = null
+        var createdAt: LocalDate? = null
+    }
+
+    private val dataSource = JdbcDataSource().apply {
+        setURL("jdbc:h2:mem:jdbc-builder;DB_CLOSE_DELAY=-1")
+        user = "sa"
+    }
+
+    private val users = JdbcTable("users", User::class.java)
+
+    @BeforeAll
+    fun createTable() {
+        dataSource.connection.use { connection ->
+            connection.createStatement().use {
+                it.execute(
+                    "CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(50) NOT NULL, country VARCHAR(2), " +
+                        "age INT NOT NULL, status VARCHAR(10) NOT NULL, created_at DATE NOT NULL, salary DOUBLE)"
+                )
+                it.execute(
+                    "INSERT INTO users VALUES " +
+                        "(1, 'Ana', 'ES', 25, 'ACTIVE', DATE '2020-01-10', 1000), " +
+                        "(2, 'Bob', 'US', 35, 'INACTIVE', DATE '2020-05-20', NULL), " +
+                        "(3, 'Carla', 'US', 45, 'ACTIVE', DATE '2021-03-15', 3000), " +
+                        "(4, 'Dan', NULL, 55, 'PENDING', DATE '2021-08-01', 4000), " +
+                        "(5, 'Eva', 'IT', 30, 'ACTIVE', DATE '2022-02-02', 2500)"
+                )
+            }
+        }
+    }
+
+    private fun builder() = JdbcQueryBuilder(dataSource, users)
+
+    private fun QueryBuilder<User>.ids() = orderBy("id").get().map { it.id }
+
+    private fun ids(field: String, operator: BaradumOperator, value: Any?) = builder().where(field, operator, value).ids()
+
+    @Test
+    fun `every operator`() {
+        assertEquals(listOf(2L, 3L), ids("country", BaradumOperator.EQUAL, "US"))
+        assertEquals(listOf(1L, 5L), ids("country", BaradumOperator.DIFF, "US"))
+        assertEquals(listOf(2L, 3L, 4L), ids("age", BaradumOperator.GREATER, "30"))
+        assertEquals(listOf(2L, 3L, 4L, 5L), ids("age", BaradumOperator.GREATER_OR_EQUAL, 30))
+        assertEquals(listOf(1L), ids("age", BaradumOperator.LESS, 30))
+        assertEquals(listOf(1L, 5L), ids("age", BaradumOperator.LESS_OR_EQUAL, 30))
+        assertEquals(listOf(1L, 3L, 5L), ids("name", BaradumOperator.LIKE, "%a"))
+        assertEquals(listOf(2L, 4L), ids("name", BaradumOperator.NOT_LIKE, "%a"))
+        assertEquals(listOf(2L, 3L, 5L), ids("country", BaradumOperator.IN, listOf("US", "IT", "XX")))
+        assertEquals(listOf(1L, 5L), ids("country", BaradumOperator.NOT_IN, listOf("US")))
+        assertEquals(listOf(4L), ids("country", BaradumOperator.IS_NULL, null))
+        assertEquals(listOf(4L), ids("country", BaradumOperator.EQUAL, null))
+        assertEquals(listOf(1L, 2L, 3L, 5L), ids("country", BaradumOperator.IS_NOT_NULL, null))
+        assertEquals(listOf(2L, 3L, 4L), ids("createdAt", BaradumOperator.BETWEEN, listOf("2020-05-01", "2021-12-31")))
+        assertEquals(listOf(1L, 3L, 5L), ids("status", BaradumOperator.EQUAL, "ACTIVE"))
+        assertEquals(listOf(3L, 4L, 5L), ids("salary", BaradumOperator.GREATER, 2000))
+        assertEquals(emptyList<Long>(), ids("country", BaradumOperator.IN, emptyList<String>()))
+    }
+
+    @Test
+    fun `rows are mapped to records`() {
+        val user = builder().where("id", BaradumOperator.EQUAL, 2).findFirst().get()
+
+        assertEquals(User(2, "Bob", "US", 35, Status.INACTIVE, LocalDate.of(2020, 5, 20), null), user)
+    }
+
+    @Test
+    fun `rows are mapped to fields`() {
+        val rows = JdbcQueryBuilder(dataSource, JdbcTable("users", UserRow::class.java))
+            .where("status", BaradumOperator.EQUAL, "PENDING")
+            .get()
+
+        assertEquals(1, rows.size)
+        assertEquals(4L, rows[0].id)
+        assertEquals("Dan", rows[0].name)
+        assertEquals(LocalDate.of(2021, 8, 1), rows[0].createdAt)
+    }
+
+    @Test
+    fun `selected columns only`() {
+        val rows = JdbcQueryBuilder(dataSource, JdbcTable("users", UserRow::class.java))
+            .select("id", "name")
+            .where("id", BaradumOperator.EQUAL, 1)
+            .get()
+
+        assertEquals("Ana", rows[0].name)
+        assertNull(rows[0].createdAt)
+    }
+
+    @Test
+    fun `conditions are folded left`() {
+        val ids = builder()
+            .where("country", BaradumOperator.EQUAL, "ES")
+            .where("country", BaradumOperator.EQUAL, "IT", WhereOperator.OR)
+            .where("age", BaradumOperator.GREATER, 26)
+            .ids()
+
+        assertEquals(listOf(5L), ids)
+    }
+
+    @Test
+    fun `groups are a single condition`() {
+        val group = !FilterExpression.anyOf(
+            FilterExpression.condition("country", BaradumOperator.EQUAL, "US"),
+            FilterExpression.condition("age", BaradumOperator.LESS, 30)
+        )
+
+        assertEquals(listOf(5L), builder().whereGroup(group).ids())
+    }
+
+    @Test
+    fun `pages count only when they can't tell the total`() {
+        val first = builder().orderBy("age", SortDirection.DESC).page(2, 0)
+        val last = builder().orderBy("age", SortDirection.DESC).page(2, 4)
+
+        assertEquals(listOf(4L, 3L), first.content.map { it.id })
+        assertEquals(5L, first.totalElements)
+        assertEquals(listOf(1L), last.content.map { it.id })
+        assertEquals(5L, last.totalElements)
+        assertEquals(2L, builder().where("country", BaradumOperator.EQUAL, "US").count())
+        assertEquals(5L, builder().page(0, 0).totalElements)
+    }
+
+    @Test
+    fun `padded IN lists`() {
+        // 3 and 6 values are padded with their last value to 4 and 8
+        assertEquals(listOf(1L, 2L, 3L), ids("country", BaradumOperator.IN, listOf("US", "ES", "XX")))
+        assertEquals(listOf(1L, 2L, 3L, 5L), ids("country", BaradumOperator.IN, listOf("US", "IT", "ES", "FR", "DE", "PT")))
+        assertEquals(emptyList<Long>(), ids("country", BaradumOperator.NOT_IN, listOf("US", "IT", "ES")))
+    }
+
+    @Test
+    fun `used through Baradum`() {
+        fun baradum() = JdbcBaradum.make(dataSource, users)
+            .allowedFilters(ExactFilter("status"), InFilter("country"))
+            .allowedSort("age")
+
+        val ids = baradum()
+            .withParams(mapOf("status" to "ACTIVE", "sort" to "-age"))
+            .get()
+            .map { it.id }
+        assertEquals(listOf(3L, 5L, 1L), ids)
+
+        val first = baradum().withParams(mapOf("sort" to "-age")).pageAfter(null, 2)
+        val second = baradum().withParams(mapOf("sort" to "-age")).pageAfter(first.nextCursor, 2)
+        assertEquals(listOf(4L, 3L), first.content.map { it.id })
+        assertEquals(listOf(2L, 5L), second.content.map { it.id })
+    }
+
+    @Test
+    fun `names are checked before they are written in the SQL`() {
+        assertThrows<BaradumException> { JdbcTable("users; DROP TABLE users", User::class.java) }
+        assertThrows<BaradumException> { builder().where("name = name OR 1", BaradumOperator.EQUAL, 1) }
+        assertThrows<BaradumException> { builder().orderBy("age DESC, name") }
+        assertThrows<BaradumException> { users.column("name", "name--") }
+    }
+
+    @Test
+    fun `database errors are wrapped`() {
+        val error = assertThrows<BaradumException> { JdbcQueryBuilder(dataSource, JdbcTable("missing", User::class.java)).get() }
+
+        assertTrue(error.cause is SQLException)
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.robertomike.baradum.micrometer
+
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.BaradumListener
+import io.github.robertomike.baradum.core.instrumentation.ExecutionEvent
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Tags
+import io.micrometer.core.instrument.Timer
+import java.util.concurrent.TimeUnit
+
+/**
+ * Records the Baradum executions in a Micrometer registry
+ *
+ * Meters, all tagged with `entity` and `operation`:
+ * - `baradum.execution`: timer of the whole execution, tagged with `outcome` (success or error)
+ * - `baradum.execution.phase`: timer of each phase, tagged with `phase`
+ * - `baradum.execution.rows`: summary of the rows returned
+ *
+ * With [tagFilters] the meters are also tagged with `filters`, the names of the filter params applied
+ * in alphabetical order. It tells which filters are slow, at the cost of one series per combination used.
+ *
+ * Usage example:
+ * ```kotlin
+ * MicrometerBaradumListener(meterRegistry).bind()
+ * ```
+ *
+ * @param registry the registry of the meters
+ * @param tagFilters tag the meters with the names of the filter params applied
+ */
+class MicrometerBaradumListener @JvmOverloads constructor(
+    private val registry: MeterRegistry,
+    private val tagFilters: Boolean = false
+) : BaradumListener {
+
+    companion object {
+        const val EXECUTION = "baradum.execution"
+        const val PHASE = "baradum.execution.phase"
+        const val ROWS = "baradum.execution.rows"
+    }
+
+    /**
+     * Register this listener in [BaradumInstrumentation]
+     */
+    fun bind(): MicrometerBaradumListener {
+        BaradumInstrumentation.register(this)
+        return this
+    }
+
+    /**
+     * Remove this listener from [BaradumInstrumentation]
+     */
+    fun unbind() {
+        BaradumInstrumentation.unregister(this)
+    }
+
+    override fun onExecution(event: ExecutionEvent) {
+        val tags = tags(event)
+
+        Timer.builder(EXECUTION)
+            .description("Duration of the Baradum executions")
+            .tags(tags.and("outcome", if (event.succeeded) "success" else "error"))
+            .register(registry)
+            .record(event.durationNanos, TimeUnit.NANOSECONDS)
+
+        ExecutionPhase.entries.forEach { phase ->
+            val nanos = event.nanos(phase)
+            if (nanos > 0) {
+                Timer.builder(PHASE)
+                    .description("Duration of the phases of the Baradum executions")
+                    .tags(tags.and("phase", phase.name.lowercase()))
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS)
+            }
+        }
+
+        if (event.succeeded) {
+            DistributionSummary.builder(ROWS)
+                .description("Rows returned by the Baradum executions")
+                .tags(tags)
+                .register(registry)
+                .record(event.rows.toDouble())
+        }
+    }
+
+    private fun tags(event: ExecutionEvent): Tags {
+        val tags = Tags.of("entity", event.entity?.simpleName ?: "unknown", "operation", event.operation)
+
+        if (!tagFilters) return tags
+
+        val filters = event.params.keys.sorted().joinToString(",").ifEmpty { "none" }
+        return tags.and("filters", filters)
+    }
+}
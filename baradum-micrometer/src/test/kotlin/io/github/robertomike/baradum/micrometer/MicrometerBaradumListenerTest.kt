@@ -0,0 +1,112 @@
+package io.github.robertomike.baradum.micrometer
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.*
+
+/**
+ * Tests for MicrometerBaradumListener with a simple registry
+ */
+class MicrometerBaradumListenerTest {
+
+    class Product
+
+    private lateinit var registry: SimpleMeterRegistry
+    private lateinit var queryBuilder: QueryBuilder<Product>
+
+    @BeforeEach
+    fun setup() {
+        BaradumInstrumentation.clear()
+        registry = SimpleMeterRegistry()
+        queryBuilder = mock {
+            on { getEntityClass() } doReturn Product::class.java
+            on { get() } doAnswer {
+                BaradumInstrumentation.current()?.add(ExecutionPhase.FETCH, 1_000)
+                listOf(Product(), Product(), Product())
+            }
+            on { page(any(), any()) } doAnswer {
+                BaradumInstrumentation.current()?.add(ExecutionPhase.COUNT, 2_000)
+                Page(listOf(Product()), 1, 10, 0)
+            }
+        }
+    }
+
+    @AfterEach
+    fun cleanup() {
+        BaradumInstrumentation.clear()
+    }
+
+    private fun baradum() = Baradum(queryBuilder).allowedFilters(ExactFilter("category"), ExactFilter("brand"))
+
+    @Test
+    fun `records executions phases and rows`() {
+        MicrometerBaradumListener(registry).bind()
+
+        baradum().withParams(mapOf("category" to "books")).get()
+        baradum().get()
+
+        val execution = registry.get(MicrometerBaradumListener.EXECUTION)
+            .tags("entity", "Product", "operation", "get", "outcome", "success")
+            .timer()
+        assertEquals(2, execution.count())
+
+        val fetch = registry.get(MicrometerBaradumListener.PHASE).tags("phase", "fetch").timer()
+        assertEquals(2, fetch.count())
+
+        val rows = registry.get(MicrometerBaradumListener.ROWS).tags("operation", "get").summary()
+        assertEquals(6.0, rows.totalAmount())
+    }
+
+    @Test
+    fun `phases without time are not recorded`() {
+        MicrometerBaradumListener(registry).bind()
+
+        baradum().page(10)
+
+        assertNotNull(registry.find(MicrometerBaradumListener.PHASE).tags("phase", "count").timer())
+        assertNull(registry.find(MicrometerBaradumListener.PHASE).tags("phase", "fetch").timer())
+    }
+
+    @Test
+    fun `errors are tagged with the outcome`() {
+        MicrometerBaradumListener(registry).bind()
+        whenever(queryBuilder.get()).thenThrow(BaradumException("boom"))
+
+        assertThrows<BaradumException> { baradum().get() }
+
+        assertEquals(1, registry.get(MicrometerBaradumListener.EXECUTION).tags("outcome", "error").timer().count())
+        assertNull(registry.find(MicrometerBaradumListener.ROWS).summary())
+    }
+
+    @Test
+    fun `filters tag lists the applied params`() {
+        MicrometerBaradumListener(registry, tagFilters = true).bind()
+
+        baradum().withParams(mapOf("category" to "books", "brand" to "acme")).get()
+        baradum().get()
+
+        assertNotNull(registry.find(MicrometerBaradumListener.EXECUTION).tags("filters", "brand,category").timer())
+        assertNotNull(registry.find(MicrometerBaradumListener.EXECUTION).tags("filters", "none").timer())
+    }
+
+    @Test
+    fun `unbind stops recording`() {
+        val listener = MicrometerBaradumListener(registry).bind()
+        listener.unbind()
+
+        baradum().get()
+
+        assertTrue(registry.meters.isEmpty())
+    }
+}
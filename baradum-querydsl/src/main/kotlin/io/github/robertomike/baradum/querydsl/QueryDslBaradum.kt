@@ -1,10 +1,16 @@
 package io.github.robertomike.baradum.querydsl
 
 import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.BaradumSpec
+import io.github.robertomike.baradum.core.cache.CachingQueryBuilder
+import io.github.robertomike.baradum.core.cache.CountCache
+import io.github.robertomike.baradum.core.cache.CountCachingQueryBuilder
+import io.github.robertomike.baradum.core.cache.QueryCache
 import io.github.robertomike.baradum.core.filters.Filter
 import com.querydsl.core.types.dsl.EntityPathBase
 import com.querydsl.jpa.impl.JPAQueryFactory
 import jakarta.persistence.EntityManager
+import java.util.function.Supplier
 
 /**
  * Factory for creating Baradum instances with QueryDSL backend
@@ -39,6 +45,43 @@ object QueryDslBaradum {
         return Baradum(queryBuilder)
     }
 
+    /**
+     * Creates a new Baradum instance whose results are cached, under the region of the entity type
+     */
+    @JvmStatic
+    fun <T> make(
+        entityPath: EntityPathBase<T>,
+        entityManager: EntityManager,
+        cache: QueryCache
+    ): Baradum<T, CachingQueryBuilder<T>> {
+        return Baradum(cache.wrap(QueryDslQueryBuilder(entityPath, entityManager), entityPath.type))
+    }
+
+    /**
+     * Creates a new Baradum instance whose page totals are cached, under the region of the entity type
+     */
+    @JvmStatic
+    fun <T> make(
+        entityPath: EntityPathBase<T>,
+        entityManager: EntityManager,
+        counts: CountCache
+    ): Baradum<T, CountCachingQueryBuilder<T>> {
+        return Baradum(counts.wrap(QueryDslQueryBuilder(entityPath, entityManager), entityPath.type))
+    }
+
+    /**
+     * Creates a new Baradum instance whose async executions run each query with its own EntityManager
+     * of the factory (e.g. `emf::createEntityManager`), see [QueryDslQueryBuilder.entityManagers]
+     */
+    @JvmStatic
+    fun <T> make(
+        entityPath: EntityPathBase<T>,
+        entityManager: EntityManager,
+        entityManagers: Supplier<EntityManager>
+    ): Baradum<T, QueryDslQueryBuilder<T>> {
+        return Baradum(QueryDslQueryBuilder(entityPath, entityManager).entityManagers(entityManagers))
+    }
+
     /**
      * Creates a new Baradum instance with filters using EntityManager
      */
@@ -66,4 +109,28 @@ object QueryDslBaradum {
         baradum.allowedFilters(filters.toList())
         return baradum
     }
+
+    /**
+     * Creates a new Baradum instance bound to a precompiled spec using EntityManager
+     */
+    @JvmStatic
+    fun <T> make(
+        spec: BaradumSpec<T, QueryDslQueryBuilder<T>>,
+        entityPath: EntityPathBase<T>,
+        entityManager: EntityManager
+    ): Baradum<T, QueryDslQueryBuilder<T>> {
+        return spec.on(QueryDslQueryBuilder(entityPath, entityManager))
+    }
+
+    /**
+     * Creates a new Baradum instance bound to a precompiled spec using JPAQueryFactory
+     */
+    @JvmStatic
+    fun <T> make(
+        spec: BaradumSpec<T, QueryDslQueryBuilder<T>>,
+        entityPath: EntityPathBase<T>,
+        queryFactory: JPAQueryFactory
+    ): Baradum<T, QueryDslQueryBuilder<T>> {
+        return spec.on(QueryDslQueryBuilder(entityPath, queryFactory))
+    }
 }
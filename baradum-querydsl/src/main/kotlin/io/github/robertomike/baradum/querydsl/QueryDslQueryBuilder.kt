@@ -1,15 +1,27 @@
 package io.github.robertomike.baradum.querydsl
 
+import io.github.robertomike.baradum.core.concurrent.BaradumExecutors
 import io.github.robertomike.baradum.core.enums.BaradumOperator
 import io.github.robertomike.baradum.core.enums.SortDirection
 import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
 import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.LazyPage
 import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.core.sorting.SeekKey
 import io.github.robertomike.baradum.querydsl.converters.SortConverter
+import com.querydsl.core.QueryModifiers
+import com.querydsl.core.Tuple
+import com.querydsl.core.types.ExpressionUtils
 import com.querydsl.core.types.OrderSpecifier
 import com.querydsl.core.types.Path
 import com.querydsl.core.types.Predicate
 import com.querydsl.core.types.Expression
+import com.querydsl.core.types.Projections
 import com.querydsl.core.types.dsl.*
 import com.querydsl.core.types.Ops
 import com.querydsl.core.types.dsl.Expressions
@@ -17,7 +29,16 @@ import com.querydsl.jpa.impl.JPAQuery
 import com.querydsl.jpa.impl.JPAQueryFactory
 import jakarta.persistence.EntityManager
 import java.util.*
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.FutureTask
+import java.util.function.Consumer
+import java.util.function.Supplier
+import java.util.stream.Stream
+import java.util.stream.StreamSupport
 
 /**
  * QueryDSL implementation of QueryBuilder for Baradum
@@ -26,6 +47,14 @@ import java.util.concurrent.ConcurrentHashMap
  * It supports all standard filtering operations including where clauses, sorting, pagination,
  * and field selection.
  * 
+ * [get] and [page] always return managed entities. The fields passed to [select] and [addSelect]
+ * are used by the projections, [getAs]/[pageAs] for DTOs and [getMaps]/[pageMaps] for maps,
+ * which only read the selected columns.
+ * 
+ * An EntityManager can't be used by two threads, the async executions only run with their own
+ * EntityManagers when a factory is set with [entityManagers]. Without it they run with the one of the builder.
+ * The same factory lets [page] count concurrently with the content, see [parallelPaging].
+ * 
  * @param T The entity type being queried
  * @param entityPath The QueryDSL EntityPath (Q-class) for the entity
  * @param queryFactory The JPAQueryFactory used to create queries
@@ -37,9 +66,40 @@ class QueryDslQueryBuilder<T>(
 
     private val query: JPAQuery<T> = queryFactory.selectFrom(entityPath)
     private val predicates = mutableListOf<Predicate>()
-    private var currentWhereOperator = WhereOperator.AND
+    
+    /**
+     * Boolean tree of all the conditions, folded left as they are added: `((a AND b) OR c) AND d`.
+     * It's attached to a copy of the query at execution time, so the base query never stacks conditions.
+     */
+    private var condition: Predicate? = null
+    
+    /**
+     * Fields selected for the projections, in order
+     */
+    private val selects = LinkedHashSet<String>()
+    
+    /**
+     * EntityManager behind the query factory, only known when the builder is created from it.
+     * Used by streamed executions to detach the entities already processed.
+     */
+    private var entityManager: EntityManager? = null
+    
+    /**
+     * Factory of the EntityManagers of the async executions, one per query, closed after it
+     */
+    private var entityManagers: Supplier<EntityManager>? = null
+    
+    /**
+     * Executor of the count of [page] when parallel paging is enabled
+     */
+    private var pagingExecutor: Executor? = null
     
     companion object {
+        /**
+         * JPA query hint for the JDBC fetch size, honored by Hibernate
+         */
+        private const val HINT_FETCH_SIZE = "org.hibernate.fetchSize"
+        
         /**
          * Global cache for field paths to avoid repeated reflection lookups across all query instances.
          * 
@@ -57,16 +117,72 @@ class QueryDslQueryBuilder<T>(
      * Secondary constructor that creates JPAQueryFactory from EntityManager
      */
     constructor(entityPath: EntityPathBase<T>, entityManager: EntityManager) 
-        : this(entityPath, JPAQueryFactory(entityManager))
+        : this(entityPath, JPAQueryFactory(entityManager)) {
+        this.entityManager = entityManager
+    }
 
     override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
-        currentWhereOperator = whereOperator
-        
         val path = getPath(field)
         val predicate = createPredicate(path, operator, value)
         
-        predicates.add(predicate)
-        applyPredicates()
+        addPredicate(predicate, whereOperator)
+        
+        return this
+    }
+
+    /**
+     * Add the expression as a single predicate, combined with the conditions added so far
+     */
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        addPredicate(toPredicate(expression), whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = true
+
+    /**
+     * Set the factory of the EntityManagers used by the async executions (e.g. `emf::createEntityManager`),
+     * each query gets its own one, closed when it ends. The entities returned by them are detached.
+     */
+    fun entityManagers(factory: Supplier<EntityManager>): QueryDslQueryBuilder<T> {
+        entityManagers = factory
+        return this
+    }
+
+    /**
+     * Run the count of [page] concurrently with the content, on an EntityManager of the factory set with
+     * [entityManagers]. The content is still fetched with the EntityManager of the builder, so its entities
+     * are managed. Without a factory there is a single EntityManager and [page] stays sequential.
+     *
+     * The count sees only committed data, it can't read the writes of the transaction of the builder. So when the
+     * EntityManager of the builder is joined to a transaction, [page] stays sequential too. A builder made from a
+     * JPAQueryFactory has no EntityManager to check: enable it there only for reads outside of a transaction.
+     *
+     * @param executor where the count runs, [BaradumExecutors.shared] by default
+     */
+    @JvmOverloads
+    fun parallelPaging(executor: Executor = BaradumExecutors.shared): QueryDslQueryBuilder<T> {
+        pagingExecutor = executor
+        return this
+    }
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        if (keys.isEmpty()) return this
+        
+        // a > :a OR (a = :a AND b > :b) OR ..., each term fixes the previous keys
+        val seekPredicate = keys.indices
+            .map { index ->
+                val equalities = keys.subList(0, index).map {
+                    createPredicate(getPath(it.field), BaradumOperator.EQUAL, it.value)
+                }
+                val key = keys[index]
+                val operator = if (key.direction == SortDirection.ASC) BaradumOperator.GREATER else BaradumOperator.LESS
+                
+                ExpressionUtils.allOf(equalities + createPredicate(getPath(key.field), operator, key.value))!!
+            }
+            .reduce { acc, term -> ExpressionUtils.or(acc, term) }
+        
+        addPredicate(seekPredicate, WhereOperator.AND)
         
         return this
     }
@@ -89,15 +205,20 @@ class QueryDslQueryBuilder<T>(
         return this
     }
 
+    /**
+     * Replace the fields used by the projections. Entity queries keep selecting the full entity.
+     */
     override fun select(vararg fields: String): QueryBuilder<T> {
-        // QueryDSL select with specific fields would change the query type
-        // For entity queries, we keep selecting the full entity
-        // Custom projection would require a different approach
+        selects.clear()
+        selects.addAll(fields)
         return this
     }
 
+    /**
+     * Add fields used by the projections
+     */
     override fun addSelect(vararg fields: String): QueryBuilder<T> {
-        // Similar to select, entity queries return the full entity
+        selects.addAll(fields)
         return this
     }
 
@@ -112,15 +233,95 @@ class QueryDslQueryBuilder<T>(
     }
 
     override fun get(): List<T> {
-        return query.fetch()
+        return fetch(buildQuery())
+    }
+
+    /**
+     * Stream the results with a JPA result stream, rows are read with the given JDBC fetch size.
+     * When the builder was created from an EntityManager, it's cleared every `clearEvery` rows,
+     * before the next row is read, so every row is still managed while it's consumed.
+     */
+    override fun stream(options: StreamOptions): Stream<T> {
+        val jpaQuery = buildQuery().createQuery()
+        jpaQuery.setHint(HINT_FETCH_SIZE, options.fetchSize)
+        
+        @Suppress("UNCHECKED_CAST")
+        val stream = jpaQuery.resultStream as Stream<T>
+        val manager = entityManager
+        
+        if (options.clearEvery <= 0 || manager == null) {
+            return stream
+        }
+        
+        val rows = clearing(stream.iterator(), manager, options.clearEvery)
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+            .onClose { stream.close() }
+    }
+
+    /**
+     * Clear the EntityManager every `clearEvery` rows, once the last of them was consumed:
+     * a row is only returned after the consumer of the previous one finished
+     */
+    private fun clearing(rows: Iterator<T>, manager: EntityManager, clearEvery: Int): Iterator<T> {
+        return object : Iterator<T> {
+            private var read = 0L
+            private var clearPending = false
+
+            override fun hasNext(): Boolean {
+                clearIfPending()
+                return rows.hasNext()
+            }
+
+            override fun next(): T {
+                clearIfPending()
+                val row = rows.next()
+                clearPending = ++read % clearEvery == 0L
+                return row
+            }
+
+            private fun clearIfPending() {
+                if (clearPending) {
+                    clearPending = false
+                    manager.clear()
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream the results in chunks, the persistence context is cleared after each chunk is consumed
+     * so memory stays flat. Pending changes of the EntityManager must be flushed before calling it.
+     */
+    override fun forEachChunk(size: Int, consumer: Consumer<List<T>>) {
+        stream(StreamOptions(fetchSize = size)).use { stream ->
+            var chunk = ArrayList<T>(size)
+            stream.forEach {
+                chunk.add(it)
+                if (chunk.size == size) {
+                    consumer.accept(chunk)
+                    chunk = ArrayList(size)
+                    entityManager?.clear()
+                }
+            }
+            if (chunk.isNotEmpty()) {
+                consumer.accept(chunk)
+                entityManager?.clear()
+            }
+        }
     }
 
     override fun page(limit: Int, offset: Long): Page<T> {
-        // Count total first before applying limit/offset
-        val total = query.fetch().size.toLong()
+        val factory = entityManagers
+        val executor = pagingExecutor
+        if (factory != null && executor != null && entityManager?.isJoinedToTransaction != true) {
+            return parallelPage(limit, offset, factory, executor)
+        }
+        
+        // Count with a dedicated query so the matching entities are never hydrated
+        val total = count()
         
         // Then apply pagination and fetch content
-        val content = query.limit(limit.toLong()).offset(offset).fetch()
+        val content = fetch(buildQuery().limit(limit.toLong()).offset(offset))
         
         return Page(
             content = content,
@@ -130,23 +331,259 @@ class QueryDslQueryBuilder<T>(
         )
     }
 
+    /**
+     * Get the selected fields as instances of the given type.
+     * 
+     * The instances are built with a constructor taking the types of the selected fields in order when there
+     * is one (records, Kotlin data classes), otherwise with the no-args constructor and the setters.
+     */
+    fun <R> getAs(type: Class<R>): List<R> {
+        return fetch(buildQuery().select(projection(type)))
+    }
+
+    /**
+     * Page of the selected fields as instances of the given type, see [getAs]
+     */
+    fun <R> pageAs(type: Class<R>, limit: Int, offset: Long): Page<R> {
+        val total = count()
+        val content = fetch(buildQuery().select(projection(type)).limit(limit.toLong()).offset(offset))
+        return Page(content, total, limit, offset)
+    }
+
+    /**
+     * Get the selected fields as maps of field name to value, in the selected order
+     */
+    fun getMaps(): List<Map<String, Any?>> {
+        val paths = selectedPaths()
+        return fetch(buildQuery().select(*paths)).map { toMap(it, paths) }
+    }
+
+    /**
+     * Page of the selected fields as maps, see [getMaps]
+     */
+    fun pageMaps(limit: Int, offset: Long): Page<Map<String, Any?>> {
+        val paths = selectedPaths()
+        val total = count()
+        val content = fetch(buildQuery().select(*paths).limit(limit.toLong()).offset(offset))
+            .map { toMap(it, paths) }
+        return Page(content, total, limit, offset)
+    }
+
+    override fun lazyPage(limit: Int, offset: Long): LazyPage<T> {
+        // One extra row tells whether there is a next page, the count is deferred
+        val rows = fetch(buildQuery().limit(limit + 1L).offset(offset))
+        return LazyPage.fromRows(rows, limit, offset) { count() }
+    }
+
+    /**
+     * Count the rows matching the current predicates with a `select count(*)` query.
+     * No entity is loaded, whatever the size of the result set.
+     */
+    override fun count(): Long {
+        val countQuery = createCountQuery()
+        return BaradumInstrumentation.time(ExecutionPhase.COUNT) { countQuery.fetchOne() ?: 0L }
+    }
+
     override fun findFirst(): Optional<T> {
-        val result = query.fetchFirst()
+        val firstQuery = buildQuery()
+        val result = BaradumInstrumentation.time(ExecutionPhase.FETCH) { firstQuery.fetchFirst() }
         @Suppress("UNCHECKED_CAST")
         return Optional.ofNullable(result) as Optional<T>
     }
 
+    /**
+     * Fetch the results with an EntityManager of the factory when there is one, see [entityManagers]
+     */
+    override fun getAsync(executor: Executor): CompletableFuture<List<T>> {
+        val factory = entityManagers ?: return super.getAsync(executor)
+        val listQuery = buildQuery()
+        
+        return CompletableFuture.supplyAsync({ withEntityManager(factory) { fetch(listQuery.clone(it)) } }, executor)
+    }
+
+    /**
+     * With a factory of EntityManagers the content and the count run concurrently, each one with its own
+     * EntityManager, so the page takes as long as the slowest of them instead of both. See [entityManagers].
+     */
+    override fun pageAsync(limit: Int, offset: Long, executor: Executor): CompletableFuture<Page<T>> {
+        val factory = entityManagers ?: return super.pageAsync(limit, offset, executor)
+        val contentQuery = buildQuery().limit(limit.toLong()).offset(offset)
+        
+        val total = countAsync(factory, executor)
+        val content = CompletableFuture.supplyAsync({ withEntityManager(factory) { fetch(contentQuery.clone(it)) } }, executor)
+        
+        return content.thenCombine(total) { rows, count -> Page(rows, count, limit, offset) }
+    }
+
+    /**
+     * Find the first result with an EntityManager of the factory when there is one, see [entityManagers]
+     */
+    override fun findFirstAsync(executor: Executor): CompletableFuture<Optional<T>> {
+        val factory = entityManagers ?: return super.findFirstAsync(executor)
+        val firstQuery = buildQuery()
+        
+        return CompletableFuture.supplyAsync({
+            withEntityManager(factory) { manager ->
+                val result = BaradumInstrumentation.time(ExecutionPhase.FETCH) { firstQuery.clone(manager).fetchFirst() }
+                @Suppress("UNCHECKED_CAST")
+                Optional.ofNullable(result) as Optional<T>
+            }
+        }, executor)
+    }
+
+    /**
+     * Resolve the paths of the fields into the global path cache
+     */
+    override fun resolveFields(fields: Collection<String>) {
+        fields.forEach { getPath(it) }
+    }
+
+    override fun getEntityClass(): Class<*> {
+        return entityPath.type
+    }
+
     override fun getWhereConditions(): Any {
         return predicates
     }
 
     /**
-     * Get the underlying QueryDSL query for advanced operations
+     * Get the underlying QueryDSL query for advanced operations.
+     * Conditions added with [where] are not part of it, they are combined with it on execution.
      */
     fun getQuery(): JPAQuery<T> {
         return query
     }
 
+    /**
+     * Copy the base query and attach the conditions tree to it, once.
+     */
+    private fun buildQuery(): JPAQuery<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.BUILD_QUERY) {
+            val prepared = query.clone()
+            condition?.let { prepared.where(it) }
+            prepared
+        }
+    }
+
+    private fun <R> fetch(jpaQuery: JPAQuery<R>): List<R> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { jpaQuery.fetch() }
+    }
+
+    /**
+     * Page whose count runs on the executor with its own EntityManager while the content is fetched on this thread.
+     * A failure of either query is rethrown as it was thrown. If the content fails, the count is cancelled:
+     * it doesn't run if it hasn't started, otherwise its thread is interrupted. JPA can't cancel a running query,
+     * so it then runs until the database ends it, and its EntityManager is closed then.
+     */
+    private fun parallelPage(limit: Int, offset: Long, factory: Supplier<EntityManager>, executor: Executor): Page<T> {
+        val total = FutureTask(counter(factory))
+        executor.execute(total)
+        
+        val content = try {
+            fetch(buildQuery().limit(limit.toLong()).offset(offset))
+        } catch (e: Throwable) {
+            total.cancel(true)
+            throw e
+        }
+        
+        val count = try {
+            total.get()
+        } catch (e: ExecutionException) {
+            throw when (val cause = e.cause ?: e) {
+                is RuntimeException, is Error -> cause
+                else -> BaradumException("The count of the page failed", cause)
+            }
+        } catch (e: InterruptedException) {
+            total.cancel(true)
+            Thread.currentThread().interrupt()
+            throw BaradumException("Interrupted while waiting for the count of the page", e)
+        }
+        
+        return Page(content, count, limit, offset)
+    }
+
+    /**
+     * Count on the executor with an EntityManager of the factory, see [counter]
+     */
+    private fun countAsync(factory: Supplier<EntityManager>, executor: Executor): CompletableFuture<Long> {
+        val counter = counter(factory)
+        return CompletableFuture.supplyAsync({ counter.call() }, executor)
+    }
+
+    /**
+     * Count with an EntityManager of the factory, meant to run on another thread. The time is added to the
+     * execution of the calling thread, the timer isn't visible from the executor.
+     */
+    private fun counter(factory: Supplier<EntityManager>): Callable<Long> {
+        val countQuery = createCountQuery()
+        val timer = BaradumInstrumentation.current()
+        
+        return Callable {
+            withEntityManager(factory) { manager ->
+                val start = System.nanoTime()
+                try {
+                    countQuery.clone(manager).fetchOne() ?: 0L
+                } finally {
+                    timer?.add(ExecutionPhase.COUNT, System.nanoTime() - start)
+                }
+            }
+        }
+    }
+
+    private inline fun <R> withEntityManager(factory: Supplier<EntityManager>, block: (EntityManager) -> R): R {
+        val manager = factory.get()
+        try {
+            return block(manager)
+        } finally {
+            manager.close()
+        }
+    }
+
+    /**
+     * Use a constructor only when one takes the types of the selected fields in order, a constructor with
+     * the same number of parameters but other types would fail on the first row
+     */
+    private fun <R> projection(type: Class<R>): Expression<R> {
+        val paths = selectedPaths()
+        val fieldTypes = paths.map { it.type.kotlin.javaObjectType }
+
+        val matches = type.declaredConstructors.any { constructor ->
+            constructor.parameterCount == paths.size &&
+                constructor.parameterTypes.withIndex().all { (index, parameter) ->
+                    parameter.kotlin.javaObjectType.isAssignableFrom(fieldTypes[index])
+                }
+        }
+        return if (matches) {
+            Projections.constructor(type, *paths)
+        } else {
+            Projections.bean(type, *paths)
+        }
+    }
+
+    private fun selectedPaths(): Array<Expression<*>> {
+        if (selects.isEmpty()) {
+            throw BaradumException("Select at least one field to use a projection")
+        }
+        return selects.map { getPath(it) as Expression<*> }.toTypedArray()
+    }
+
+    private fun toMap(tuple: Tuple, paths: Array<Expression<*>>): Map<String, Any?> {
+        val map = LinkedHashMap<String, Any?>(paths.size * 2)
+        selects.forEachIndexed { index, field -> map[field] = tuple.get(index, Any::class.java) }
+        return map
+    }
+
+    /**
+     * Clone the current query into a count query. Joins and predicates are kept,
+     * ordering, limit and offset are dropped since they are meaningless for a count.
+     */
+    private fun createCountQuery(): JPAQuery<Long> {
+        val countQuery = buildQuery().select(Wildcard.count)
+        countQuery.metadata.clearOrderBy()
+        countQuery.metadata.setModifiers(QueryModifiers.EMPTY)
+        return countQuery
+    }
+
     /**
      * Get a path expression for a field name with global caching.
      * 
@@ -176,6 +613,15 @@ class QueryDslQueryBuilder<T>(
         }
     }
 
+    private fun toPredicate(expression: FilterExpression): Predicate {
+        return when (expression) {
+            is FilterExpression.Condition -> createPredicate(getPath(expression.field), expression.operator, expression.value)
+            is FilterExpression.And -> ExpressionUtils.allOf(expression.children.map { toPredicate(it) })!!
+            is FilterExpression.Or -> ExpressionUtils.anyOf(expression.children.map { toPredicate(it) })!!
+            is FilterExpression.Not -> toPredicate(expression.child).not()
+        }
+    }
+
     /**
      * Create a predicate based on the operator and value
      */
@@ -379,20 +825,17 @@ class QueryDslQueryBuilder<T>(
     }
 
     /**
-     * Apply all predicates to the query based on the where operator
+     * Combine the predicate with the conditions added so far using its own where operator.
+     * The operator of the first predicate is ignored, there is nothing to combine it with.
      */
-    private fun applyPredicates() {
-        if (predicates.isEmpty()) return
+    private fun addPredicate(predicate: Predicate, whereOperator: WhereOperator) {
+        predicates.add(predicate)
         
-        val combinedPredicate = when (currentWhereOperator) {
-            WhereOperator.AND -> {
-                predicates.reduce { acc, predicate -> (acc as BooleanExpression).and(predicate) }
-            }
-            WhereOperator.OR -> {
-                predicates.reduce { acc, predicate -> (acc as BooleanExpression).or(predicate) }
-            }
+        val current = condition
+        condition = when {
+            current == null -> predicate
+            whereOperator == WhereOperator.AND -> ExpressionUtils.and(current, predicate)
+            else -> ExpressionUtils.or(current, predicate)
         }
-        
-        query.where(combinedPredicate)
     }
 }
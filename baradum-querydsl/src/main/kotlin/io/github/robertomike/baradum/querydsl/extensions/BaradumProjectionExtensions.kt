@@ -0,0 +1,53 @@
+package io.github.robertomike.baradum.querydsl.extensions
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.querydsl.QueryDslQueryBuilder
+
+/**
+ * Projection extensions for Baradum instances backed by QueryDSL.
+ * 
+ * The filters and sorts are applied as usual, then only the selected fields are read:
+ * 
+ * ```kotlin
+ * data class UserSummary(val name: String, val age: Int)
+ * 
+ * val users: List<UserSummary> = QUser.user
+ *     .baradum(entityManager)
+ *     .allowedFilters(ExactFilter(User::country))
+ *     .selects("name", "age")
+ *     .getAs<User, UserSummary>()
+ * ```
+ */
+
+/**
+ * Get the selected fields as instances of the given type, see [QueryDslQueryBuilder.getAs]
+ */
+fun <T, R> Baradum<T, QueryDslQueryBuilder<T>>.getAs(type: Class<R>): List<R> {
+    return execute { it.getAs(type) }
+}
+
+inline fun <T, reified R> Baradum<T, QueryDslQueryBuilder<T>>.getAs(): List<R> {
+    return getAs(R::class.java)
+}
+
+/**
+ * Page of the selected fields as instances of the given type, see [QueryDslQueryBuilder.pageAs]
+ */
+fun <T, R> Baradum<T, QueryDslQueryBuilder<T>>.pageAs(type: Class<R>, limit: Int, offset: Long = 0): Page<R> {
+    return execute { it.pageAs(type, limit, offset) }
+}
+
+/**
+ * Get the selected fields as maps of field name to value, see [QueryDslQueryBuilder.getMaps]
+ */
+fun <T> Baradum<T, QueryDslQueryBuilder<T>>.getMaps(): List<Map<String, Any?>> {
+    return execute { it.getMaps() }
+}
+
+/**
+ * Page of the selected fields as maps, see [QueryDslQueryBuilder.pageMaps]
+ */
+fun <T> Baradum<T, QueryDslQueryBuilder<T>>.pageMaps(limit: Int, offset: Long = 0): Page<Map<String, Any?>> {
+    return execute { it.pageMaps(limit, offset) }
+}
@@ -3,6 +3,8 @@ package io.github.robertomike.baradum.querydsl
 import jakarta.persistence.EntityManager
 import jakarta.persistence.EntityManagerFactory
 import jakarta.persistence.Persistence
+import org.hibernate.SessionFactory
+import org.hibernate.stat.Statistics
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -28,7 +30,8 @@ abstract class BaseJpaTest {
                 "hibernate.dialect" to "org.hibernate.dialect.H2Dialect",
                 "hibernate.hbm2ddl.auto" to "create-drop",
                 "hibernate.show_sql" to "false",
-                "hibernate.format_sql" to "true"
+                "hibernate.format_sql" to "true",
+                "hibernate.generate_statistics" to "true"
             )
             
             emf = Persistence.createEntityManagerFactory("test-pu", properties)
@@ -50,6 +53,18 @@ abstract class BaseJpaTest {
     protected val entityManager: EntityManager
         get() = em
     
+    /**
+     * Factory of the shared EntityManager, used by tests that need one per thread
+     */
+    protected val entityManagerFactory: EntityManagerFactory
+        get() = emf
+    
+    /**
+     * Hibernate statistics, used to assert how many queries and entity loads were issued
+     */
+    protected val statistics: Statistics
+        get() = emf.unwrap(SessionFactory::class.java).statistics
+    
     @BeforeEach
     fun setUp() {
         // Start a new transaction for each test
@@ -0,0 +1,125 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.filters.DateFilter
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import jakarta.persistence.EntityManager
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
+
+/**
+ * Integration tests for the async executions of QueryDSL, with an EntityManager per query
+ */
+class QueryDslAsyncTest : BaseJpaTest() {
+
+    private val managers = mutableListOf<EntityManager>()
+    private val factory = Supplier {
+        entityManagerFactory.createEntityManager().also { synchronized(managers) { managers.add(it) } }
+    }
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        (1..12).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it % 3 == 0) "UK" else "USA"
+                )
+            )
+        }
+        // The async queries read with their own EntityManager, the data must be committed
+        commit()
+        entityManager.clear()
+        managers.clear()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        entityManager.transaction.begin()
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+    }
+
+    private fun <R> CompletableFuture<R>.await(): R = get(10, TimeUnit.SECONDS)
+
+    @Test
+    fun `getAsync runs with its own EntityManager`() {
+        val users = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .withParams(mapOf("country" to "UK"))
+            .allowedFilters(ExactFilter("country"))
+            .getAsync()
+            .await()
+
+        assertEquals(4, users.size)
+        assertTrue(users.all { it.country == "UK" })
+        assertEquals(1, managers.size)
+        assertFalse(managers.single().isOpen)
+        assertFalse(entityManager.contains(users.first()))
+    }
+
+    @Test
+    fun `pageAsync runs the content and the count with separate EntityManagers`() {
+        statistics.clear()
+
+        val page = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .withParams(mapOf("age" to "25"))
+            .allowedFilters(GreaterFilter("age"))
+            .pageAsync(3, 2)
+            .await()
+
+        assertEquals(7, page.totalElements)
+        assertEquals(3, page.content.size)
+        assertTrue(page.content.all { it.age > 25 })
+        assertEquals(2, managers.size)
+        assertTrue(managers.none { it.isOpen })
+        assertEquals(2, statistics.prepareStatementCount)
+    }
+
+    @Test
+    fun `findFirstAsync returns the first match`() {
+        val user = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .withParams(mapOf("country" to "UK"))
+            .allowedFilters(ExactFilter("country"))
+            .findFirstAsync()
+            .await()
+
+        assertTrue(user.isPresent)
+        assertEquals("UK", user.get().country)
+    }
+
+    @Test
+    fun `without a factory the EntityManager of the builder is used`() {
+        val page = QueryDslBaradum.make(QUser.user, entityManager)
+            .pageAsync(5)
+            .await()
+
+        assertEquals(12, page.totalElements)
+        assertEquals(5, page.content.size)
+        assertTrue(managers.isEmpty())
+    }
+
+    @Test
+    fun `invalid filter value fails the future`() {
+        val future = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .withParams(mapOf("birthDate" to "not a date"))
+            .allowedFilters(DateFilter("birthDate"))
+            .pageAsync(5)
+
+        val exception = assertThrows<ExecutionException> { future.await() }
+        assertInstanceOf(FilterException::class.java, exception.cause)
+        assertTrue(managers.isEmpty())
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.filters.DateFilter
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import jakarta.persistence.EntityManager
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.Duration
+
+/**
+ * Integration tests for batches of QueryDSL queries, each one with its own EntityManager
+ */
+class QueryDslBatchTest : BaseJpaTest() {
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        (1..12).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it % 3 == 0) "UK" else "USA"
+                )
+            )
+        }
+        // The queries of the batch read with their own EntityManager, the data must be committed
+        commit()
+        entityManager.clear()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        entityManager.transaction.begin()
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+    }
+
+    private fun usersFrom(manager: EntityManager, country: String) = QueryDslBaradum.make(QUser.user, manager)
+        .withParams(mapOf("country" to country))
+        .allowedFilters(ExactFilter("country"))
+
+    @Test
+    fun `queries run with their own EntityManager and keep their order`() {
+        val managers = mutableSetOf<EntityManager>()
+        val batch = Baradum.batch().timeout(Duration.ofSeconds(10))
+
+        val usa = batch.add(entityManagerFactory::createEntityManager) { manager ->
+            synchronized(managers) { managers.add(manager) }
+            usersFrom(manager, "USA").get()
+        }
+        val uk = batch.add(entityManagerFactory::createEntityManager) { manager ->
+            synchronized(managers) { managers.add(manager) }
+            usersFrom(manager, "UK").page(2)
+        }
+        val older = batch.add(entityManagerFactory::createEntityManager) { manager ->
+            synchronized(managers) { managers.add(manager) }
+            QueryDslBaradum.make(QUser.user, manager)
+                .withParams(mapOf("age" to "30"))
+                .allowedFilters(GreaterFilter("age"))
+                .get()
+        }
+
+        val results = batch.execute()
+
+        assertEquals(8, results[usa].size)
+        assertEquals(4, results[uk].totalElements)
+        assertEquals(2, results[uk].content.size)
+        assertTrue(results[older].all { it.age!! > 30 })
+        assertEquals(3, managers.size)
+        assertTrue(managers.none { it.isOpen })
+    }
+
+    @Test
+    fun `failed query is rethrown`() {
+        val batch = Baradum.batch()
+        batch.add(entityManagerFactory::createEntityManager) { usersFrom(it, "USA").get() }
+        batch.add(entityManagerFactory::createEntityManager) { manager ->
+            QueryDslBaradum.make(QUser.user, manager)
+                .withParams(mapOf("birthDate" to "not a date"))
+                .allowedFilters(DateFilter("birthDate"))
+                .get()
+        }
+
+        assertThrows<FilterException> { batch.execute() }
+    }
+}
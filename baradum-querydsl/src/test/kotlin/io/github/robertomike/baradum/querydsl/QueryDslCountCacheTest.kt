@@ -0,0 +1,90 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.cache.CountCache
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.time.Duration
+
+/**
+ * Integration tests for the count cache with QueryDSL
+ * Hibernate statistics are used to verify that only the first page runs the count query
+ */
+class QueryDslCountCacheTest : BaseJpaTest() {
+
+    private lateinit var counts: CountCache
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        (1..25).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it <= 20) "USA" else "UK"
+                )
+            )
+        }
+        commit()
+        entityManager.transaction.begin()
+        entityManager.clear()
+        statistics.clear()
+
+        counts = CountCache(Duration.ofMinutes(1))
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    private fun pageOfUsa(offset: String) = QueryDslBaradum.make(QUser.user, entityManager, counts)
+        .withParams(mapOf("country" to "USA", "offset" to offset, "sort" to "age"))
+        .allowedFilters(ExactFilter("country"))
+        .allowedSort("age")
+        .page(5)
+
+    @Test
+    fun `next pages reuse the total of the first one`() {
+        val first = pageOfUsa("0")
+        assertEquals(2, statistics.queryExecutionCount)
+
+        val second = pageOfUsa("5")
+        val third = pageOfUsa("10")
+
+        assertEquals(20, first.totalElements)
+        assertEquals(20, second.totalElements)
+        assertEquals(listOf(31, 32, 33, 34, 35), third.content.map { it.age })
+        assertEquals(4, statistics.queryExecutionCount)
+    }
+
+    @Test
+    fun `last page corrects a stale total`() {
+        pageOfUsa("0")
+        entityManager.createQuery("DELETE FROM User WHERE age > 38").executeUpdate()
+
+        val last = pageOfUsa("15")
+
+        assertEquals(3, last.content.size)
+        assertEquals(18, last.totalElements)
+        assertEquals(18, pageOfUsa("0").totalElements)
+    }
+
+    @Test
+    fun `invalidate counts again`() {
+        pageOfUsa("0")
+        counts.invalidate(User::class.java)
+        pageOfUsa("5")
+
+        assertEquals(2, counts.stats().misses)
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+/**
+ * Tests for the dedicated count query used by QueryDslQueryBuilder.page()
+ * Hibernate statistics are used to verify that counting never hydrates entities
+ */
+class QueryDslCountQueryTest : BaseJpaTest() {
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        (1..20).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    isActive = it % 2 == 0
+                )
+            )
+        }
+        commit()
+        entityManager.transaction.begin()
+
+        // Start every test with an empty persistence context and fresh counters
+        entityManager.clear()
+        statistics.clear()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    @Test
+    fun `count does not load any entity`() {
+        val total = QueryDslQueryBuilder(QUser.user, entityManager).count()
+
+        assertEquals(20, total)
+        assertEquals(1, statistics.queryExecutionCount)
+        assertEquals(0, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `count applies the same predicates as the content query`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.where("isActive", BaradumOperator.EQUAL, true)
+            .where("age", BaradumOperator.GREATER, 30)
+
+        val total = queryBuilder.count()
+
+        // Even users with age 31..40 -> 32, 34, 36, 38, 40
+        assertEquals(5, total)
+        assertEquals(0, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `count ignores ordering limit and offset`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.orderBy("age", SortDirection.DESC)
+            .limit(3)
+            .offset(10)
+
+        assertEquals(20, queryBuilder.count())
+    }
+
+    @Test
+    fun `page only hydrates the requested slice`() {
+        val page = QueryDslQueryBuilder(QUser.user, entityManager)
+            .orderBy("age", SortDirection.ASC)
+            .page(5, 5)
+
+        assertEquals(20, page.totalElements)
+        assertEquals(5, page.content.size)
+        assertEquals(26, page.content[0].age)
+
+        // One count query plus one content query, only the page content is loaded
+        assertEquals(2, statistics.queryExecutionCount)
+        assertEquals(5, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `page with filters counts only matching rows`() {
+        val page = QueryDslQueryBuilder(QUser.user, entityManager)
+            .where("isActive", BaradumOperator.EQUAL, false)
+            .orderBy("age", SortDirection.ASC)
+            .page(3, 0)
+
+        assertEquals(10, page.totalElements)
+        assertEquals(3, page.content.size)
+        assertEquals(4, page.totalPages)
+        assertEquals(3, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `lazyPage defers the count until the total is read`() {
+        val page = QueryDslQueryBuilder(QUser.user, entityManager)
+            .orderBy("age", SortDirection.ASC)
+            .lazyPage(5, 0)
+
+        assertEquals(5, page.content.size)
+        assertTrue(page.hasNext)
+        assertFalse(page.isTotalComputed())
+        assertEquals(1, statistics.queryExecutionCount)
+
+        assertEquals(20, page.totalElements)
+        assertEquals(4, page.totalPages)
+        assertEquals(2, statistics.queryExecutionCount)
+        assertEquals(5, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `lazyPage on the last page has no next`() {
+        val page = QueryDslQueryBuilder(QUser.user, entityManager)
+            .orderBy("age", SortDirection.ASC)
+            .lazyPage(5, 15)
+
+        assertEquals(5, page.content.size)
+        assertFalse(page.hasNext)
+        assertEquals(40, page.content[4].age)
+    }
+}
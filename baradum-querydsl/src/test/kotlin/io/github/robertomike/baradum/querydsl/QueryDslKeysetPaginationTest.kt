@@ -0,0 +1,116 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+/**
+ * Integration tests for keyset (seek) pagination with Baradum.pageAfter()
+ */
+class QueryDslKeysetPaginationTest : BaseJpaTest() {
+
+    private lateinit var users: List<User>
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        // Ages repeat so the id tiebreaker is needed for a stable order
+        (1..10).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it % 3,
+                    isActive = it % 2 == 0,
+                    country = if (it <= 5) "USA" else "UK"
+                )
+            )
+        }
+        commit()
+        entityManager.transaction.begin()
+
+        users = entityManager.createQuery("SELECT u FROM User u", User::class.java).resultList
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    private fun collectPages(params: Map<String, String>, limit: Int): List<List<User>> {
+        val pages = mutableListOf<List<User>>()
+        var cursor: String? = null
+
+        do {
+            val page = QueryDslBaradum.make(QUser.user, entityManager)
+                .allowedFilters(ExactFilter("country"))
+                .allowedSort("age", "name")
+                .withParams(params)
+                .pageAfter(cursor, limit)
+
+            pages.add(page.content)
+            cursor = page.nextCursor
+        } while (cursor != null)
+
+        return pages
+    }
+
+    @Test
+    fun `pageAfter walks all pages in sort order without duplicates`() {
+        val pages = collectPages(mapOf("sort" to "age"), 4)
+
+        val expected = users.sortedWith(compareBy<User> { it.age }.thenBy { it.id })
+
+        assertEquals(listOf(4, 4, 2), pages.map { it.size })
+        assertEquals(expected.map { it.id }, pages.flatten().map { it.id })
+    }
+
+    @Test
+    fun `pageAfter supports descending sorts`() {
+        val pages = collectPages(mapOf("sort" to "-age"), 3)
+
+        val expected = users.sortedWith(compareByDescending<User> { it.age }.thenBy { it.id })
+
+        assertEquals(expected.map { it.id }, pages.flatten().map { it.id })
+    }
+
+    @Test
+    fun `pageAfter keeps filters applied on every page`() {
+        val pages = collectPages(mapOf("sort" to "-age,name", "country" to "USA"), 2)
+
+        assertEquals(5, pages.flatten().size)
+        assertTrue(pages.flatten().all { it.country == "USA" })
+    }
+
+    @Test
+    fun `pageAfter without sort orders by id`() {
+        val pages = collectPages(emptyMap(), 3)
+
+        assertEquals(users.map { it.id }.sortedBy { it }, pages.flatten().map { it.id })
+    }
+
+    @Test
+    fun `pageAfter rejects cursor of a different sort`() {
+        val cursor = QueryDslBaradum.make(QUser.user, entityManager)
+            .allowedSort("age")
+            .withParams(mapOf("sort" to "age"))
+            .pageAfter(null, 2)
+            .nextCursor
+
+        assertThrows<FilterException> {
+            QueryDslBaradum.make(QUser.user, entityManager)
+                .allowedSort("age", "name")
+                .withParams(mapOf("sort" to "name"))
+                .pageAfter(cursor, 2)
+        }
+    }
+}
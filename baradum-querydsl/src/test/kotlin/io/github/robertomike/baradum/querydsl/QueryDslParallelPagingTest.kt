@@ -0,0 +1,118 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import jakarta.persistence.EntityManager
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.util.function.Supplier
+
+/**
+ * Integration tests for page() with the count running concurrently on its own EntityManager
+ */
+class QueryDslParallelPagingTest : BaseJpaTest() {
+
+    private val managers = mutableListOf<EntityManager>()
+    private val factory = Supplier {
+        entityManagerFactory.createEntityManager().also { synchronized(managers) { managers.add(it) } }
+    }
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        (1..12).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it % 3 == 0) "UK" else "USA"
+                )
+            )
+        }
+        // The count reads with its own EntityManager, the data must be committed
+        commit()
+        entityManager.clear()
+        managers.clear()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        entityManager.transaction.begin()
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+    }
+
+    @Test
+    fun `count runs on its own EntityManager and the content stays managed`() {
+        val page = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .builder { it.parallelPaging() }
+            .withParams(mapOf("country" to "USA"))
+            .allowedFilters(ExactFilter("country"))
+            .page(3, 3)
+
+        assertEquals(8, page.totalElements)
+        assertEquals(3, page.content.size)
+        assertTrue(page.content.all { it.country == "USA" })
+        assertTrue(page.content.all { entityManager.contains(it) })
+        assertEquals(1, managers.size)
+        assertFalse(managers.single().isOpen)
+    }
+
+    @Test
+    fun `without a factory page stays sequential`() {
+        val page = QueryDslBaradum.make(QUser.user, entityManager)
+            .builder { it.parallelPaging() }
+            .page(5)
+
+        assertEquals(12, page.totalElements)
+        assertEquals(5, page.content.size)
+        assertTrue(managers.isEmpty())
+    }
+
+    @Test
+    fun `inside a transaction page stays sequential`() {
+        entityManager.transaction.begin()
+        entityManager.persist(User(name = "User 13", email = "user13@example.com", age = 33, country = "USA"))
+        entityManager.flush()
+
+        val page = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .builder { it.parallelPaging() }
+            .page(5)
+        rollback()
+
+        assertEquals(13, page.totalElements)
+        assertTrue(managers.isEmpty())
+    }
+
+    @Test
+    fun `failure of the count is rethrown`() {
+        val baradum = QueryDslBaradum.make(QUser.user, entityManager, Supplier<EntityManager> {
+            throw IllegalStateException("No connection available")
+        }).builder { it.parallelPaging() }
+
+        val exception = assertThrows<IllegalStateException> { baradum.page(5) }
+
+        assertEquals("No connection available", exception.message)
+    }
+
+    @Test
+    fun `parallel and sequential pages are equal`() {
+        val parallel = QueryDslBaradum.make(QUser.user, entityManager, factory)
+            .builder { it.parallelPaging() }
+            .withParams(mapOf("sort" to "-age"))
+            .allowedSort("age")
+            .page(4, 4)
+        val sequential = QueryDslBaradum.make(QUser.user, entityManager)
+            .withParams(mapOf("sort" to "-age"))
+            .allowedSort("age")
+            .page(4, 4)
+
+        assertEquals(sequential.totalElements, parallel.totalElements)
+        assertEquals(sequential.content.map { it.id }, parallel.content.map { it.id })
+    }
+}
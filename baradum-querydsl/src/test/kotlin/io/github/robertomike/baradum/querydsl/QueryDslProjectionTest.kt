@@ -0,0 +1,187 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import io.github.robertomike.baradum.querydsl.extensions.baradum
+import io.github.robertomike.baradum.querydsl.extensions.getAs
+import io.github.robertomike.baradum.querydsl.extensions.pageMaps
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+/**
+ * Integration tests for the projections of QueryDslQueryBuilder
+ * Hibernate statistics are used to verify that projections never hydrate entities
+ */
+class QueryDslProjectionTest : BaseJpaTest() {
+
+    data class UserSummary(val name: String, val age: Int)
+
+    class UserBean {
+        var name: String? = null
+        var country: String? = null
+    }
+
+    /**
+     * Its constructor has as many parameters as the selected fields, not their types
+     */
+    class UserLabel() {
+        var name: String? = null
+        var age: Int? = null
+
+        constructor(label: String, active: Boolean) : this() {
+            name = if (active) label else null
+        }
+    }
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        (1..10).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it % 2 == 0) "USA" else "UK"
+                )
+            )
+        }
+        commit()
+        entityManager.transaction.begin()
+        entityManager.clear()
+        statistics.clear()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    @Test
+    fun `getAs builds data classes with the constructor`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name", "age")
+        queryBuilder.where("country", BaradumOperator.EQUAL, "USA")
+        queryBuilder.orderBy("age", SortDirection.ASC)
+
+        val users = queryBuilder.getAs(UserSummary::class.java)
+
+        assertEquals(listOf(22, 24, 26, 28, 30), users.map { it.age })
+        assertEquals(UserSummary("User 2", 22), users.first())
+        assertEquals(0, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `getAs builds beans with the setters`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name", "country")
+        queryBuilder.orderBy("age", SortDirection.ASC)
+
+        val users = queryBuilder.getAs(UserBean::class.java)
+
+        assertEquals(10, users.size)
+        assertEquals("User 1", users.first().name)
+        assertEquals("UK", users.first().country)
+        assertEquals(0, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `getAs uses the setters when no constructor takes the types of the fields`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name", "age")
+        queryBuilder.where("age", BaradumOperator.EQUAL, 21)
+
+        val user = queryBuilder.getAs(UserLabel::class.java).single()
+
+        assertEquals("User 1", user.name)
+        assertEquals(21, user.age)
+    }
+
+    @Test
+    fun `addSelect extends the selected fields`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name")
+        queryBuilder.addSelect("age")
+        queryBuilder.where("age", BaradumOperator.EQUAL, 21)
+
+        assertEquals(listOf(UserSummary("User 1", 21)), queryBuilder.getAs(UserSummary::class.java))
+    }
+
+    @Test
+    fun `getMaps returns the selected fields in order`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name", "age")
+        queryBuilder.where("age", BaradumOperator.LESS_OR_EQUAL, 22)
+        queryBuilder.orderBy("age", SortDirection.ASC)
+
+        val users = queryBuilder.getMaps()
+
+        assertEquals(2, users.size)
+        assertEquals(listOf("name", "age"), users.first().keys.toList())
+        assertEquals(mapOf("name" to "User 1", "age" to 21), users.first())
+        assertEquals(0, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `pageAs counts all the rows and reads only the slice`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name", "age")
+        queryBuilder.orderBy("age", SortDirection.DESC)
+
+        val page = queryBuilder.pageAs(UserSummary::class.java, 3, 3)
+
+        assertEquals(10, page.totalElements)
+        assertEquals(listOf(27, 26, 25), page.content.map { it.age })
+        assertEquals(0, statistics.entityLoadCount)
+    }
+
+    @Test
+    fun `get keeps returning entities when fields are selected`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+        queryBuilder.select("name")
+
+        val users = queryBuilder.get()
+
+        assertEquals(10, users.size)
+        assertNotNull(users.first().email)
+    }
+
+    @Test
+    fun `projection without selected fields throws`() {
+        val queryBuilder = QueryDslQueryBuilder(QUser.user, entityManager)
+
+        assertThrows<BaradumException> { queryBuilder.getMaps() }
+    }
+
+    @Test
+    fun `baradum projections apply the filters`() {
+        val users = QUser.user.baradum(entityManager)
+            .withParams(mapOf("country" to "UK", "sort" to "-age"))
+            .allowedFilters(ExactFilter("country"))
+            .allowedSort("age")
+            .selects("name", "age")
+            .getAs<User, UserSummary>()
+
+        assertEquals(listOf(29, 27, 25, 23, 21), users.map { it.age })
+
+        val page = QUser.user.baradum(entityManager)
+            .withParams(mapOf("country" to "USA"))
+            .allowedFilters(ExactFilter("country"))
+            .selects("email")
+            .pageMaps(2)
+
+        assertEquals(5, page.totalElements)
+        assertEquals(2, page.content.size)
+        assertTrue(page.content.all { it.keys == setOf("email") })
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.cache.QueryCache
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.time.Duration
+
+/**
+ * Integration tests for the query cache with QueryDSL
+ * Hibernate statistics are used to verify that cache hits never reach the database
+ */
+class QueryDslQueryCacheTest : BaseJpaTest() {
+
+    private lateinit var cache: QueryCache
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        (1..6).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it % 2 == 0) "USA" else "UK"
+                )
+            )
+        }
+        commit()
+        entityManager.transaction.begin()
+        entityManager.clear()
+        statistics.clear()
+
+        cache = QueryCache(Duration.ofMinutes(1))
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    private fun usersFrom(country: String): List<User> {
+        return QueryDslBaradum.make(QUser.user, entityManager, cache)
+            .withParams(mapOf("country" to country))
+            .allowedFilters(ExactFilter("country"))
+            .get()
+    }
+
+    @Test
+    fun `cache hits do not execute queries`() {
+        val first = usersFrom("USA")
+        val executed = statistics.queryExecutionCount
+
+        val second = usersFrom("USA")
+
+        assertEquals(3, first.size)
+        assertSame(first, second)
+        assertEquals(executed, statistics.queryExecutionCount)
+        assertEquals(1, cache.stats().hits)
+    }
+
+    @Test
+    fun `different filters execute their own query`() {
+        usersFrom("USA")
+        val uk = usersFrom("UK")
+
+        assertTrue(uk.all { it.country == "UK" })
+        assertEquals(2, statistics.queryExecutionCount)
+    }
+
+    @Test
+    fun `invalidating the entity reloads the results`() {
+        usersFrom("USA")
+        entityManager.persist(User(name = "User 7", email = "user7@example.com", age = 27, country = "USA"))
+        entityManager.flush()
+
+        assertEquals(3, usersFrom("USA").size)
+
+        cache.invalidate(User::class.java)
+
+        assertEquals(4, usersFrom("USA").size)
+    }
+
+    @Test
+    fun `page and count are cached`() {
+        val first = QueryDslBaradum.make(QUser.user, entityManager, cache).page(2)
+        val executed = statistics.queryExecutionCount
+        val second = QueryDslBaradum.make(QUser.user, entityManager, cache).page(2)
+
+        assertEquals(6, second.totalElements)
+        assertSame(first, second)
+        assertEquals(executed, statistics.queryExecutionCount)
+    }
+}
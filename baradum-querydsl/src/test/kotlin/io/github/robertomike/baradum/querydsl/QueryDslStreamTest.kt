@@ -0,0 +1,128 @@
+package io.github.robertomike.baradum.querydsl
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.models.StreamOptions
+import io.github.robertomike.baradum.querydsl.entities.Article
+import io.github.robertomike.baradum.querydsl.entities.QArticle
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import kotlin.streams.toList
+
+/**
+ * Integration tests for streamed executions of QueryDslQueryBuilder
+ */
+class QueryDslStreamTest : BaseJpaTest() {
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        (1..10).forEach {
+            entityManager.persist(
+                User(
+                    name = "User $it",
+                    email = "user$it@example.com",
+                    age = 20 + it,
+                    country = if (it % 2 == 0) "USA" else "UK"
+                )
+            )
+        }
+        commit()
+        entityManager.transaction.begin()
+        entityManager.clear()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    @Test
+    fun `stream returns all results in order`() {
+        val ages = QueryDslQueryBuilder(QUser.user, entityManager)
+            .orderBy("age", SortDirection.DESC)
+            .stream(StreamOptions(fetchSize = 3))
+            .use { stream -> stream.map { it.age }.toList() }
+
+        assertEquals((30 downTo 21).toList(), ages)
+    }
+
+    @Test
+    fun `stream applies predicates`() {
+        val users = QueryDslQueryBuilder(QUser.user, entityManager)
+            .where("country", BaradumOperator.EQUAL, "USA")
+            .stream()
+            .use { it.toList() }
+
+        assertEquals(5, users.size)
+        assertTrue(users.all { it.country == "USA" })
+    }
+
+    @Test
+    fun `stream clears the persistence context periodically`() {
+        val users = QueryDslQueryBuilder(QUser.user, entityManager)
+            .orderBy("age", SortDirection.ASC)
+            .stream(StreamOptions(fetchSize = 2, clearEvery = 4))
+            .use { it.toList() }
+
+        assertEquals(10, users.size)
+        // The first 8 rows were detached by the two periodic clears
+        assertFalse(entityManager.contains(users[0]))
+        assertFalse(entityManager.contains(users[7]))
+        assertTrue(entityManager.contains(users[9]))
+    }
+
+    @Test
+    fun `stream rows are managed while they are consumed`() {
+        (1..6).forEach { entityManager.persist(Article(title = "Article $it", tags = mutableListOf("a$it", "b$it"))) }
+        entityManager.flush()
+        entityManager.clear()
+
+        // Every third row is the last one before a clear, its lazy tags are read by the consumer
+        val tags = QueryDslQueryBuilder(QArticle.article, entityManager)
+            .orderBy("id", SortDirection.ASC)
+            .stream(StreamOptions(fetchSize = 2, clearEvery = 3))
+            .use { stream -> stream.map { it.tags.toList() }.toList() }
+
+        assertEquals((1..6).map { listOf("a$it", "b$it") }, tags)
+    }
+
+    @Test
+    fun `forEachChunk splits results and detaches processed chunks`() {
+        val chunks = mutableListOf<List<User>>()
+        val managedWhileConsumed = mutableListOf<Boolean>()
+
+        QueryDslQueryBuilder(QUser.user, entityManager)
+            .orderBy("age", SortDirection.ASC)
+            .forEachChunk(4) { chunk ->
+                managedWhileConsumed.add(chunk.all { entityManager.contains(it) })
+                chunks.add(chunk)
+            }
+
+        assertEquals(listOf(4, 4, 2), chunks.map { it.size })
+        assertEquals((21..30).toList(), chunks.flatten().map { it.age })
+        assertTrue(managedWhileConsumed.all { it }, "Entities should be managed while the consumer runs")
+        assertTrue(chunks.flatten().none { entityManager.contains(it) }, "Processed chunks should be detached")
+    }
+
+    @Test
+    fun `Baradum forEachChunk applies filters`() {
+        val chunks = mutableListOf<List<User>>()
+
+        QueryDslBaradum.make(QUser.user, entityManager)
+            .allowedFilters(ExactFilter("country"))
+            .withParams(mapOf("country" to "UK"))
+            .forEachChunk(2) { chunks.add(it) }
+
+        assertEquals(listOf(2, 2, 1), chunks.map { it.size })
+        assertTrue(chunks.flatten().all { it.country == "UK" })
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.robertomike.baradum.querydsl.entities
+
+import jakarta.persistence.*
+
+/**
+ * Entity with a lazy collection, used to check that streamed rows are still managed when they are consumed
+ */
+@Entity
+@Table(name = "articles")
+class Article(
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    val id: Long? = null,
+
+    @Column(name = "title", nullable = false)
+    val title: String = "",
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "article_tags", joinColumns = [JoinColumn(name = "article_id")])
+    @Column(name = "tag")
+    val tags: MutableList<String> = mutableListOf()
+)
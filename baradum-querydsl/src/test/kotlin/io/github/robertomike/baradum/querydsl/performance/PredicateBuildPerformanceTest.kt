@@ -0,0 +1,102 @@
+package io.github.robertomike.baradum.querydsl.performance
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.querydsl.BaseJpaTest
+import io.github.robertomike.baradum.querydsl.QueryDslQueryBuilder
+import io.github.robertomike.baradum.querydsl.entities.QUser
+import io.github.robertomike.baradum.querydsl.entities.User
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import kotlin.system.measureNanoTime
+
+/**
+ * Microbenchmark for the predicate tree built by QueryDslQueryBuilder.where().
+ *
+ * Build time and generated JPQL size must grow linearly with the number of filters,
+ * the tree is built once and attached to the query only when executing it.
+ */
+class PredicateBuildPerformanceTest : BaseJpaTest() {
+
+    @BeforeEach
+    fun setupTestData() {
+        entityManager.createQuery("DELETE FROM User").executeUpdate()
+        commit()
+        entityManager.transaction.begin()
+
+        entityManager.persist(User(name = "Test User", email = "test@example.com", age = 30))
+        commit()
+        entityManager.transaction.begin()
+    }
+
+    @AfterEach
+    fun cleanup() {
+        rollback()
+    }
+
+    private fun createBuilder(filters: Int): QueryDslQueryBuilder<User> {
+        val builder = QueryDslQueryBuilder(QUser.user, entityManager)
+        repeat(filters) {
+            val operator = if (it % 2 == 0) WhereOperator.AND else WhereOperator.OR
+            builder.where("age", BaradumOperator.GREATER_OR_EQUAL, it, operator)
+        }
+        return builder
+    }
+
+    private fun executedJpqlLength(filters: Int): Int {
+        statistics.clear()
+        createBuilder(filters).get()
+        return statistics.queries.single().length
+    }
+
+    @Test
+    fun `generated JPQL grows linearly with the number of filters`() {
+        println("\n=== Predicate Tree: JPQL Size ===")
+
+        val sizes = listOf(10, 20, 40, 80).associateWith { executedJpqlLength(it) }
+        sizes.forEach { (filters, length) -> println("$filters filters: $length chars") }
+
+        // Every filter adds the same fragment, doubling them must (roughly) double the query
+        val perFilter = (sizes.getValue(80) - sizes.getValue(40)) / 40.0
+        val perFilterSmall = (sizes.getValue(20) - sizes.getValue(10)) / 10.0
+        println("Chars per filter: ${String.format("%.1f", perFilterSmall)} -> ${String.format("%.1f", perFilter)}")
+
+        assertTrue(perFilter < perFilterSmall * 1.5, "Each filter should add a constant fragment to the JPQL")
+        assertTrue(sizes.getValue(80) < sizes.getValue(10) * 10, "JPQL size should stay linear in the filters")
+    }
+
+    @Test
+    fun `build time grows linearly with the number of filters`() {
+        println("\n=== Predicate Tree: Build Time ===")
+
+        // Warm up the path cache and the JIT
+        repeat(50) { createBuilder(100).getWhereConditions() }
+
+        val times = listOf(100, 200, 400, 800).associateWith { filters ->
+            (1..20).minOf { measureNanoTime { createBuilder(filters) } }
+        }
+        times.forEach { (filters, nanos) -> println("$filters filters: ${nanos / 1_000} μs") }
+
+        // A quadratic build would be 64 times slower here, leave room for timer noise
+        assertTrue(
+            times.getValue(800) < times.getValue(100) * 32,
+            "Building 8x the filters should not be quadratically slower"
+        )
+    }
+
+    @Test
+    fun `conditions are not stacked on the base query`() {
+        val builder = createBuilder(20)
+
+        assertNull(builder.getQuery().metadata.where, "Conditions should be attached only at execution")
+        assertEquals(20, (builder.getWhereConditions() as List<*>).size)
+
+        // Executing twice must not duplicate the conditions
+        statistics.clear()
+        builder.get()
+        builder.get()
+        assertEquals(1, statistics.queries.size, "Both executions should run the same JPQL")
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.robertomike.baradum.r2dbc
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.BaradumSpec
+import io.github.robertomike.baradum.core.sql.SqlDialect
+import io.r2dbc.spi.ConnectionFactory
+
+/**
+ * Factory for creating Baradum instances on an R2DBC ConnectionFactory, see [R2dbcQueryBuilder]
+ *
+ * Usage example:
+ * ```kotlin
+ * val users = R2dbcTable("users", User::class.java)
+ *
+ * R2dbcBaradum.make(connectionFactory, users)
+ *     .allowedFilters(ExactFilter("country"), GreaterFilter("age", orEqual = true))
+ *     .pageMono(20)
+ * ```
+ */
+object R2dbcBaradum {
+    /**
+     * Creates a new Baradum instance on the table
+     */
+    @JvmStatic
+    fun <T> make(connectionFactory: ConnectionFactory, table: R2dbcTable<T>): Baradum<T, R2dbcQueryBuilder<T>> {
+        return Baradum(R2dbcQueryBuilder(connectionFactory, table))
+    }
+
+    /**
+     * Creates a new Baradum instance on the table with the given dialect, instead of detecting it
+     */
+    @JvmStatic
+    fun <T> make(
+        connectionFactory: ConnectionFactory,
+        table: R2dbcTable<T>,
+        dialect: SqlDialect
+    ): Baradum<T, R2dbcQueryBuilder<T>> {
+        return Baradum(R2dbcQueryBuilder(connectionFactory, table, dialect))
+    }
+
+    /**
+     * Creates a new Baradum instance on the table, bound to a precompiled spec
+     */
+    @JvmStatic
+    fun <T> make(
+        spec: BaradumSpec<T, R2dbcQueryBuilder<T>>,
+        connectionFactory: ConnectionFactory,
+        table: R2dbcTable<T>
+    ): Baradum<T, R2dbcQueryBuilder<T>> {
+        return spec.on(R2dbcQueryBuilder(connectionFactory, table))
+    }
+}
@@ -0,0 +1,220 @@
+package io.github.robertomike.baradum.r2dbc
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.expressions.FilterExpression
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionPhase
+import io.github.robertomike.baradum.core.interfaces.QueryBuilder
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.core.sorting.SeekKey
+import io.github.robertomike.baradum.core.sql.SqlDialect
+import io.github.robertomike.baradum.core.sql.SqlPlaceholder
+import io.github.robertomike.baradum.core.sql.SqlQuery
+import io.github.robertomike.baradum.core.sql.SqlStatement
+import io.r2dbc.spi.ConnectionFactory
+import io.r2dbc.spi.R2dbcException
+import io.r2dbc.spi.Row
+import io.r2dbc.spi.RowMetadata
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import java.util.Optional
+
+/**
+ * Reactive QueryBuilder on an R2DBC ConnectionFactory, for non-blocking services.
+ *
+ * The filters and sorts of Baradum are added as usual, the query then runs with [flux], [pageMono], [countMono]
+ * or [firstMono] (see also the extensions of Baradum in [io.github.robertomike.baradum.r2dbc.extensions]).
+ * Each execution takes a connection from the factory when subscribed, and closes it when it completes, so
+ * [pageMono] runs the content and the count concurrently on two connections.
+ *
+ * The SQL and the values are built by [SqlQuery], like the JDBC backend: values are converted to the type of the
+ * property and bound as parameters, and the SQL is rendered once per query shape. The query is taken when the
+ * Flux or Mono is created, later changes to the builder don't affect it. Errors are signals of the publishers.
+ *
+ * The blocking methods of [QueryBuilder] (get, page...) wait for the reactive ones, for the callers that are not
+ * on a non-blocking thread, where Reactor rejects them.
+ *
+ * Usage example:
+ * ```kotlin
+ * R2dbcQueryBuilder(connectionFactory, R2dbcTable("users", User::class.java))
+ *     .apply {
+ *         where("country", BaradumOperator.IN, listOf("USA", "UK"))
+ *         orderBy("age", SortDirection.DESC)
+ *     }
+ *     .pageMono(20, 0)
+ * ```
+ *
+ * @param dialect the SQL dialect, detected from the metadata of the factory when null
+ * @param placeholder how the parameters are written, detected from the metadata of the factory when null:
+ * `$1` for PostgreSQL and H2, `?` for the others
+ */
+class R2dbcQueryBuilder<T> @JvmOverloads constructor(
+    private val connectionFactory: ConnectionFactory,
+    private val table: R2dbcTable<T>,
+    private val dialect: SqlDialect? = null,
+    private val placeholder: SqlPlaceholder? = null
+) : QueryBuilder<T> {
+    private val query = SqlQuery(table)
+    private var limit: Int? = null
+    private var offset: Long? = null
+    private var fetchSize: Int? = null
+
+    /**
+     * Rows fetched from the database per round trip, see [io.r2dbc.spi.Statement.fetchSize]
+     */
+    fun fetchSize(fetchSize: Int): R2dbcQueryBuilder<T> {
+        this.fetchSize = fetchSize
+        return this
+    }
+
+    override fun where(field: String, operator: BaradumOperator, value: Any?, whereOperator: WhereOperator): QueryBuilder<T> {
+        query.where(field, operator, value, whereOperator)
+        return this
+    }
+
+    /**
+     * Add the expression as a single condition, in parentheses, NOT is pushed down to the conditions first
+     */
+    override fun whereGroup(expression: FilterExpression, whereOperator: WhereOperator): QueryBuilder<T> {
+        query.whereGroup(expression, whereOperator)
+        return this
+    }
+
+    override fun supportsCanonicalExpressions(): Boolean = true
+
+    override fun seek(keys: List<SeekKey>): QueryBuilder<T> {
+        query.seek(keys)
+        return this
+    }
+
+    override fun orderBy(field: String, direction: SortDirection): QueryBuilder<T> {
+        query.orderBy(field, direction)
+        return this
+    }
+
+    /**
+     * Select only the columns of the fields, the other properties of the entities get their default value
+     */
+    override fun select(vararg fields: String): QueryBuilder<T> {
+        query.select(fields)
+        return this
+    }
+
+    override fun addSelect(vararg fields: String): QueryBuilder<T> {
+        query.addSelect(fields)
+        return this
+    }
+
+    override fun limit(limit: Int): QueryBuilder<T> {
+        this.limit = limit
+        return this
+    }
+
+    override fun offset(offset: Long): QueryBuilder<T> {
+        this.offset = offset
+        return this
+    }
+
+    /**
+     * The results of the query
+     */
+    fun flux(): Flux<T> {
+        return rows(limit, offset)
+    }
+
+    /**
+     * A page of results, the content and the count run concurrently
+     */
+    fun pageMono(limit: Int, offset: Long): Mono<Page<T>> {
+        return Mono.zip(rows(limit, offset).collectList(), countMono()) { content, total ->
+            Page(content, total, limit, offset)
+        }
+    }
+
+    /**
+     * The number of results of the query, without the limit and the offset
+     */
+    fun countMono(): Mono<Long> {
+        return execute(count = true, limit = null, offset = null) { row, _ ->
+            row.get(0, Long::class.javaObjectType) ?: 0L
+        }.single()
+    }
+
+    /**
+     * The first result of the query, empty when there are none
+     */
+    fun firstMono(): Mono<T> {
+        return rows(1, offset).next()
+    }
+
+    override fun get(): List<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { flux().collectList().block() ?: emptyList() }
+    }
+
+    override fun page(limit: Int, offset: Long): Page<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { pageMono(limit, offset).block()!! }
+    }
+
+    override fun count(): Long {
+        return BaradumInstrumentation.time(ExecutionPhase.COUNT) { countMono().block() ?: 0L }
+    }
+
+    override fun findFirst(): Optional<T> {
+        return BaradumInstrumentation.time(ExecutionPhase.FETCH) { Optional.ofNullable(firstMono().block()) }
+    }
+
+    /**
+     * Check the fields can be columns and resolve them ahead of time
+     */
+    override fun resolveFields(fields: Collection<String>) {
+        fields.forEach { table.column(it) }
+    }
+
+    override fun getEntityClass(): Class<*> = table.entityClass
+
+    override fun getWhereConditions(): Any? = query.expression
+
+    private fun rows(limit: Int?, offset: Long?): Flux<T> {
+        val mapper = table.mapper
+        return execute(count = false, limit, offset) { row, metadata -> mapper.map(row, metadata) }
+    }
+
+    /**
+     * Run the statement of the query when subscribed, on a connection of its own
+     */
+    private fun <R> execute(count: Boolean, limit: Int?, offset: Long?, map: (Row, RowMetadata) -> R): Flux<R> {
+        val statement = try {
+            statement(count, limit, offset)
+        } catch (e: RuntimeException) {
+            return Flux.error(e)
+        }
+
+        return Flux.usingWhen(
+            connectionFactory.create(),
+            { connection ->
+                val prepared = connection.createStatement(statement.sql)
+                statement.values.forEachIndexed { index, value -> prepared.bind(index, value) }
+                fetchSize?.let { prepared.fetchSize(it) }
+                Flux.from(prepared.execute()).flatMap { result -> result.map { row, metadata -> map(row, metadata) } }
+            },
+            { connection -> connection.close() }
+        ).onErrorMap(R2dbcException::class.java) { e ->
+            BaradumException("The query on ${table.name} failed: ${e.message}", e)
+        }
+    }
+
+    private fun statement(count: Boolean, limit: Int?, offset: Long?): SqlStatement {
+        val product = connectionFactory.metadata.name
+        val dialect = dialect ?: SqlDialect.of(product)
+        val placeholder = placeholder ?: placeholderOf(product)
+        return query.statement(dialect, placeholder, count, limit, offset)
+    }
+
+    private fun placeholderOf(product: String): SqlPlaceholder {
+        val name = product.lowercase()
+        return if ("postgres" in name || "h2" in name) SqlPlaceholder.NUMBERED else SqlPlaceholder.QUESTION_MARK
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.robertomike.baradum.r2dbc
+
+import io.github.robertomike.baradum.core.sql.ColumnBinding
+import io.r2dbc.spi.Row
+import io.r2dbc.spi.RowMetadata
+
+/**
+ * Maps a row of a result to an entity.
+ *
+ * Usage example:
+ * ```kotlin
+ * val mapper = R2dbcRowMapper { row, _ -> User(row.get("id", Long::class.javaObjectType)!!, row.get("name", String::class.java)!!) }
+ * ```
+ */
+fun interface R2dbcRowMapper<T> {
+    fun map(row: Row, metadata: RowMetadata): T
+
+    companion object {
+        /**
+         * Mapper by column name to a record, the fields of a class or a constructor with named parameters,
+         * see [ColumnBinding]
+         */
+        @JvmStatic
+        fun <T> of(type: Class<T>): R2dbcRowMapper<T> = ReflectionRowMapper(type)
+    }
+}
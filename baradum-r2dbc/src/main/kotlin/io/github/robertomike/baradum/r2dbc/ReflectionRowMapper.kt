@@ -0,0 +1,38 @@
+package io.github.robertomike.baradum.r2dbc
+
+import io.github.robertomike.baradum.core.sql.ColumnBinding
+import io.github.robertomike.baradum.core.sql.ColumnReader
+import io.r2dbc.spi.Row
+import io.r2dbc.spi.RowMetadata
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * See [R2dbcRowMapper.of]. The columns are matched to the properties once per list of column names,
+ * each row is then read by column index.
+ */
+internal class ReflectionRowMapper<T>(private val type: Class<T>) : R2dbcRowMapper<T> {
+    private val bindings = ConcurrentHashMap<List<String>, ColumnBinding<T>>()
+
+    /**
+     * The last metadata and its binding, drivers usually share the metadata between the rows of a result
+     */
+    @Volatile
+    private var last: Pair<RowMetadata, ColumnBinding<T>>? = null
+
+    companion object {
+        private val READER = ColumnReader<Row> { row, index, type ->
+            if (type == Any::class.java) row.get(index) else row.get(index, type)
+        }
+    }
+
+    override fun map(row: Row, metadata: RowMetadata): T = binding(metadata).map(row, READER)
+
+    private fun binding(metadata: RowMetadata): ColumnBinding<T> {
+        last?.let { (cached, binding) -> if (cached === metadata) return binding }
+
+        val names = metadata.columnMetadatas.map { it.name }
+        val binding = bindings.computeIfAbsent(names) { ColumnBinding.of(type, it) }
+        last = metadata to binding
+        return binding
+    }
+}
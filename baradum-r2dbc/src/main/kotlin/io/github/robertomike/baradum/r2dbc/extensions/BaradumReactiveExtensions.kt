@@ -0,0 +1,94 @@
+package io.github.robertomike.baradum.r2dbc.extensions
+
+import io.github.robertomike.baradum.core.Baradum
+import io.github.robertomike.baradum.core.instrumentation.PendingExecution
+import io.github.robertomike.baradum.core.models.Page
+import io.github.robertomike.baradum.r2dbc.R2dbcQueryBuilder
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Reactive executions for Baradum instances backed by R2DBC.
+ *
+ * The filters and sorts are applied when the method is called, on the calling thread where the request is bound,
+ * and the query runs when the result is subscribed. Invalid params are error signals, like the failures of the query.
+ * The `limit` and `offset` params are resolved like [Baradum.page] does.
+ *
+ * The executions are reported to the listeners of the instrumentation when they complete or fail, a cancelled
+ * subscription is not reported. Only resolving the params and applying the filters are timed as phases,
+ * the COUNT and FETCH of a reactive query are not:
+ *
+ * ```kotlin
+ * fun users(): Flux<User> = R2dbcBaradum.make(connectionFactory, users)
+ *     .allowedFilters(ExactFilter("country"))
+ *     .allowedSort("age")
+ *     .getFlux()
+ * ```
+ */
+
+/**
+ * Get the results, see [R2dbcQueryBuilder.flux]
+ */
+fun <T> Baradum<T, R2dbcQueryBuilder<T>>.getFlux(): Flux<T> {
+    return try {
+        executeDeferred("getFlux") { builder, pending -> builder.flux().reported(pending) }
+    } catch (e: RuntimeException) {
+        Flux.error(e)
+    }
+}
+
+/**
+ * Page of results, with the content and the count run concurrently, see [R2dbcQueryBuilder.pageMono]
+ */
+fun <T> Baradum<T, R2dbcQueryBuilder<T>>.pageMono(limit: Int, offset: Long = 0): Mono<Page<T>> {
+    return try {
+        executeDeferred("pageMono") { builder, pending ->
+            builder.pageMono(resolveLimit(limit), resolveOffset(offset))
+                .reported(pending, { it.content.size }, { it.totalElements })
+        }
+    } catch (e: RuntimeException) {
+        Mono.error(e)
+    }
+}
+
+/**
+ * The first result, empty when there are none, see [R2dbcQueryBuilder.firstMono]
+ */
+fun <T> Baradum<T, R2dbcQueryBuilder<T>>.findFirstMono(): Mono<T> {
+    return try {
+        executeDeferred("findFirstMono") { builder, pending -> builder.firstMono().reported(pending, { 1 }, { null }) }
+    } catch (e: RuntimeException) {
+        Mono.error(e)
+    }
+}
+
+/**
+ * The number of results, see [R2dbcQueryBuilder.countMono]
+ */
+fun <T> Baradum<T, R2dbcQueryBuilder<T>>.countMono(): Mono<Long> {
+    return try {
+        executeDeferred("countMono") { builder, pending -> builder.countMono().reported(pending, { 0 }, { it }) }
+    } catch (e: RuntimeException) {
+        Mono.error(e)
+    }
+}
+
+private fun <T> Flux<T>.reported(pending: PendingExecution?): Flux<T> {
+    if (pending == null) return this
+
+    val rows = AtomicInteger()
+    return doOnNext { rows.incrementAndGet() }
+        .doOnComplete { pending.complete(rows.get(), null) }
+        .doOnError { pending.fail(it) }
+}
+
+/**
+ * An empty result is reported without rows
+ */
+private fun <T> Mono<T>.reported(pending: PendingExecution?, rows: (T) -> Int, total: (T) -> Long?): Mono<T> {
+    if (pending == null) return this
+
+    return doOnSuccess { result -> if (result == null) pending.complete(0, null) else pending.complete(rows(result), total(result)) }
+        .doOnError { pending.fail(it) }
+}
@@ -0,0 +1,248 @@
+package io.github.robertomike.baradum.r2dbc
+
+import io.github.robertomike.baradum.core.enums.BaradumOperator
+import io.github.robertomike.baradum.core.enums.SortDirection
+import io.github.robertomike.baradum.core.enums.WhereOperator
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.exceptions.FilterException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.core.filters.InFilter
+import io.github.robertomike.baradum.core.instrumentation.BaradumInstrumentation
+import io.github.robertomike.baradum.core.instrumentation.ExecutionEvent
+import io.github.robertomike.baradum.r2dbc.extensions.countMono
+import io.github.robertomike.baradum.r2dbc.extensions.findFirstMono
+import io.github.robertomike.baradum.r2dbc.extensions.getFlux
+import io.github.robertomike.baradum.r2dbc.extensions.pageMono
+import io.r2dbc.h2.H2ConnectionConfiguration
+import io.r2dbc.h2.H2ConnectionFactory
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import reactor.test.StepVerifier
+import java.sql.DriverManager
+import java.time.LocalDate
+
+/**
+ * Tests for the R2DBC QueryBuilder against H2
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class R2dbcQueryBuilderTest {
+
+    enum class Status { ACTIVE, INACTIVE, PENDING }
+
+    @JvmRecord
+    data class User(
+        val id: Long,
+        val name: String,
+        val country: String?,
+        val age: Int,
+        val status: Status,
+        val createdAt: LocalDate
+    )
+
+    /**
+     * Mapped through its fields
+     */
+    class UserRow {
+        var id: Long = 0
+        var name: String? = null
+        var createdAt: LocalDate? = null
+    }
+
+    private val connectionFactory = H2ConnectionFactory(
+        H2ConnectionConfiguration.builder()
+            .url("mem:r2dbc-builder;DB_CLOSE_DELAY=-1")
+            .username("sa")
+            .build()
+    )
+
+    private val users = R2dbcTable("users", User::class.java)
+
+    @BeforeAll
+    fun createTable() {
+        DriverManager.getConnection("jdbc:h2:mem:r2dbc-builder;DB_CLOSE_DELAY=-1", "sa", "").use { connection ->
+            connection.createStatement().use {
+                it.execute(
+                    "CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(50) NOT NULL, country VARCHAR(2), " +
+                        "age INT NOT NULL, status VARCHAR(10) NOT NULL, created_at DATE NOT NULL)"
+                )
+                it.execute(
+                    "INSERT INTO users VALUES " +
+                        "(1, 'Ana', 'ES', 25, 'ACTIVE', DATE '2020-01-10'), " +
+                        "(2, 'Bob', 'US', 35, 'INACTIVE', DATE '2020-05-20'), " +
+                        "(3, 'Carla', 'US', 45, 'ACTIVE', DATE '2021-03-15'), " +
+                        "(4, 'Dan', NULL, 55, 'PENDING', DATE '2021-08-01'), " +
+                        "(5, 'Eva', 'IT', 30, 'ACTIVE', DATE '2022-02-02')"
+                )
+            }
+        }
+    }
+
+    @AfterEach
+    fun cleanup() {
+        BaradumInstrumentation.clear()
+    }
+
+    private fun builder() = R2dbcQueryBuilder(connectionFactory, users)
+
+    private fun ids(field: String, operator: BaradumOperator, value: Any?): List<Long> {
+        return builder()
+            .apply {
+                where(field, operator, value)
+                orderBy("id")
+            }
+            .flux()
+            .map { it.id }
+            .collectList()
+            .block()!!
+    }
+
+    private fun baradum() = R2dbcBaradum.make(connectionFactory, users)
+        .allowedFilters(ExactFilter("status"), InFilter("country"), GreaterFilter("age", orEqual = true))
+        .allowedSort("age", "name")
+
+    @Test
+    fun `results are streamed`() {
+        val results = builder()
+            .apply {
+                where("country", BaradumOperator.EQUAL, "US")
+                orderBy("age", SortDirection.DESC)
+            }
+            .flux()
+
+        StepVerifier.create(results)
+            .expectNext(User(3, "Carla", "US", 45, Status.ACTIVE, LocalDate.of(2021, 3, 15)))
+            .expectNext(User(2, "Bob", "US", 35, Status.INACTIVE, LocalDate.of(2020, 5, 20)))
+            .verifyComplete()
+    }
+
+    @Test
+    fun `operators and values converted to the type of the property`() {
+        assertEquals(listOf(2L, 3L, 4L), ids("age", BaradumOperator.GREATER, "30"))
+        assertEquals(listOf(1L, 3L, 5L), ids("status", BaradumOperator.EQUAL, "ACTIVE"))
+        assertEquals(listOf(1L, 3L, 5L), ids("name", BaradumOperator.LIKE, "%a"))
+        assertEquals(listOf(2L, 3L, 5L), ids("country", BaradumOperator.IN, listOf("US", "IT", "XX")))
+        assertEquals(listOf(1L, 5L), ids("country", BaradumOperator.NOT_IN, listOf("US")))
+        assertEquals(listOf(4L), ids("country", BaradumOperator.EQUAL, null))
+        assertEquals(listOf(2L, 3L, 4L), ids("createdAt", BaradumOperator.BETWEEN, listOf("2020-05-01", "2021-12-31")))
+    }
+
+    @Test
+    fun `conditions are folded left`() {
+        val ids = builder()
+            .apply {
+                where("country", BaradumOperator.EQUAL, "ES")
+                where("country", BaradumOperator.EQUAL, "IT", WhereOperator.OR)
+                where("age", BaradumOperator.GREATER, 26)
+            }
+            .flux()
+            .map { it.id }
+            .collectList()
+            .block()
+
+        assertEquals(listOf(5L), ids)
+    }
+
+    @Test
+    fun `pages count concurrently`() {
+        val page = builder()
+            .apply { orderBy("age", SortDirection.DESC) }
+            .pageMono(2, 1)
+            .block()!!
+
+        assertEquals(listOf(3L, 2L), page.content.map { it.id })
+        assertEquals(5L, page.totalElements)
+        assertEquals(2L, builder().apply { where("country", BaradumOperator.EQUAL, "US") }.countMono().block())
+    }
+
+    @Test
+    fun `rows are mapped to fields and selected columns only`() {
+        val row = R2dbcQueryBuilder(connectionFactory, R2dbcTable("users", UserRow::class.java))
+            .apply {
+                select("id", "name")
+                where("id", BaradumOperator.EQUAL, 4)
+            }
+            .firstMono()
+            .block()!!
+
+        assertEquals(4L, row.id)
+        assertEquals("Dan", row.name)
+        assertNull(row.createdAt)
+    }
+
+    @Test
+    fun `used through Baradum`() {
+        StepVerifier.create(baradum().withParams(mapOf("status" to "ACTIVE", "sort" to "-age")).getFlux().map { it.id })
+            .expectNext(3L, 5L, 1L)
+            .verifyComplete()
+
+        val page = baradum().withParams(mapOf("age" to "30", "sort" to "age")).pageMono(3).block()!!
+        assertEquals(listOf(5L, 2L, 3L), page.content.map { it.id })
+        assertEquals(4L, page.totalElements)
+
+        assertEquals("Dan", baradum().withParams(mapOf("status" to "PENDING")).findFirstMono().block()!!.name)
+        assertEquals(2L, baradum().withParams(mapOf("country" to "US")).countMono().block())
+    }
+
+    @Test
+    fun `the page params are resolved like page does`() {
+        val page = baradum().withParams(mapOf("sort" to "age", "limit" to "2", "offset" to "1")).pageMono(10).block()!!
+
+        assertEquals(listOf(5L, 2L), page.content.map { it.id })
+        assertEquals(5L, page.totalElements)
+    }
+
+    @Test
+    fun `reactive executions are reported when they complete`() {
+        val events = mutableListOf<ExecutionEvent>()
+        BaradumInstrumentation.register { synchronized(events) { events.add(it) } }
+
+        val flux = baradum().withParams(mapOf("country" to "US")).getFlux()
+        assertTrue(events.isEmpty())
+        assertEquals(2, flux.collectList().block()!!.size)
+
+        baradum().withParams(mapOf("status" to "ACTIVE")).pageMono(2).block()
+
+        val (fluxEvent, pageEvent) = synchronized(events) { events.toList() }
+        assertEquals("getFlux", fluxEvent.operation)
+        assertEquals(mapOf("country" to "US"), fluxEvent.params)
+        assertEquals(2, fluxEvent.rows)
+        assertEquals("pageMono", pageEvent.operation)
+        assertEquals(2, pageEvent.rows)
+        assertEquals(3L, pageEvent.total)
+    }
+
+    @Test
+    fun `the blocking methods wait for the reactive ones`() {
+        val users = baradum().withParams(mapOf("country" to "US,IT", "sort" to "name")).get()
+
+        assertEquals(listOf("Bob", "Carla", "Eva"), users.map { it.name })
+        assertEquals(5L, builder().count())
+    }
+
+    @Test
+    fun `errors are signals`() {
+        StepVerifier.create(builder().apply { where("age", BaradumOperator.GREATER, "many") }.flux())
+            .expectError(FilterException::class.java)
+            .verify()
+
+        StepVerifier.create(R2dbcQueryBuilder(connectionFactory, R2dbcTable("missing", User::class.java)).flux())
+            .expectError(BaradumException::class.java)
+            .verify()
+    }
+
+    @Test
+    fun `the query is taken when the publisher is created`() {
+        val builder = builder()
+        builder.where("country", BaradumOperator.EQUAL, "US")
+        val results = builder.flux()
+
+        builder.where("age", BaradumOperator.GREATER, 40)
+
+        assertEquals(2, results.collectList().block()!!.size)
+        assertEquals(1, builder.flux().collectList().block()!!.size)
+    }
+}
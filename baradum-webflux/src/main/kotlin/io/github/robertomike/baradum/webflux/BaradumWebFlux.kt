@@ -0,0 +1,55 @@
+package io.github.robertomike.baradum.webflux
+
+import io.github.robertomike.baradum.core.requests.BodyLimits
+import io.github.robertomike.baradum.core.requests.BodyParser
+import io.github.robertomike.baradum.core.requests.RequestContext
+import org.springframework.http.server.reactive.ServerHttpRequest
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import java.util.function.Supplier
+
+/**
+ * Runs Baradum executions of WebFlux handlers with the request bound, like BaradumRequestFilter for servlets.
+ *
+ * The body of POST requests is loaded first without blocking, then the execution is called with the request
+ * bound to [RequestContext], on the thread that completed the read. The request is only bound while the execution
+ * is called: Baradum must apply the filters then, as the reactive executions of baradum-r2dbc do.
+ *
+ * Usage example:
+ * ```kotlin
+ * @PostMapping("/users/search")
+ * fun search(request: ServerHttpRequest): Mono<Page<User>> = BaradumWebFlux.mono(request) {
+ *     R2dbcBaradum.make(connectionFactory, users)
+ *         .allowedFilters(ExactFilter("country"), GreaterFilter("age", orEqual = true))
+ *         .useBody()
+ *         .pageMono(20)
+ * }
+ * ```
+ */
+object BaradumWebFlux {
+    /**
+     * Load the body of the request and call the execution with the request bound
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun <R> mono(
+        request: ServerHttpRequest,
+        limits: BodyLimits = BodyParser.defaultLimits,
+        execution: Supplier<Mono<R>>
+    ): Mono<R> {
+        return WebFluxRequest(request).load(limits).flatMap { loaded -> RequestContext.callWith(loaded, execution) }
+    }
+
+    /**
+     * Load the body of the request and call the execution with the request bound
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun <R> flux(
+        request: ServerHttpRequest,
+        limits: BodyLimits = BodyParser.defaultLimits,
+        execution: Supplier<Flux<R>>
+    ): Flux<R> {
+        return WebFluxRequest(request).load(limits).flatMapMany { loaded -> RequestContext.callWith(loaded, execution) }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.robertomike.baradum.webflux
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.requests.BodyLimits
+import io.github.robertomike.baradum.core.requests.BodyParser
+import io.github.robertomike.baradum.core.requests.ReactiveRequest
+import org.springframework.core.io.buffer.DataBufferLimitException
+import org.springframework.core.io.buffer.DataBufferUtils
+import org.springframework.http.server.reactive.ServerHttpRequest
+import reactor.core.publisher.Mono
+import java.util.concurrent.CompletionStage
+
+/**
+ * Spring WebFlux request, the counterpart of ApacheTomcatRequest for reactive servers (Netty, Undertow...).
+ *
+ * The params are the query params, and the body is joined from the buffers of the request as they arrive,
+ * without blocking the event loop, see [ReactiveRequest]. [BaradumWebFlux] loads it and binds the request.
+ */
+class WebFluxRequest(request: ServerHttpRequest) : ReactiveRequest<ServerHttpRequest>(request) {
+
+    override fun findParamByName(name: String): String? {
+        return request.queryParams.getFirst(name)
+    }
+
+    override val method: String
+        get() = request.method.name()
+
+    override fun readBytes(maxBytes: Long): CompletionStage<ByteArray> {
+        return DataBufferUtils.join(request.body, maxBytes.coerceAtMost(Int.MAX_VALUE.toLong()).toInt())
+            .map { buffer ->
+                try {
+                    ByteArray(buffer.readableByteCount()).also { buffer.read(it) }
+                } finally {
+                    DataBufferUtils.release(buffer)
+                }
+            }
+            .defaultIfEmpty(ByteArray(0))
+            .onErrorMap(DataBufferLimitException::class.java) { e ->
+                BaradumException("The body exceeds the limit of $maxBytes bytes", e)
+            }
+            .toFuture()
+    }
+
+    /**
+     * Buffer the body, see [loadBody]
+     */
+    @JvmOverloads
+    fun load(limits: BodyLimits = BodyParser.defaultLimits): Mono<WebFluxRequest> {
+        return Mono.fromFuture { loadBody(limits) }.thenReturn(this)
+    }
+}
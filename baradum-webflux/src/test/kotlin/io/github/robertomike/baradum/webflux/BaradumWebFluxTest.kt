@@ -0,0 +1,102 @@
+package io.github.robertomike.baradum.webflux
+
+import io.github.robertomike.baradum.core.exceptions.BaradumException
+import io.github.robertomike.baradum.core.filters.ExactFilter
+import io.github.robertomike.baradum.core.filters.GreaterFilter
+import io.github.robertomike.baradum.core.memory.InMemoryBaradum
+import io.github.robertomike.baradum.core.requests.BodyLimits
+import io.github.robertomike.baradum.core.requests.RequestContext
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import org.springframework.core.io.buffer.DefaultDataBufferFactory
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.test.StepVerifier
+
+/**
+ * Tests for the WebFlux request and the executions bound to it
+ */
+class BaradumWebFluxTest {
+
+    data class Person(val name: String, val age: Int)
+
+    private val people = listOf(Person("Ana", 30), Person("Bob", 40), Person("Carla", 50))
+
+    private fun baradum() = InMemoryBaradum.make(people, Person::class.java)
+        .allowedFilters(ExactFilter("name"), GreaterFilter("age"))
+        .allowedSort("age")
+
+    @Test
+    fun `query params of GET requests`() {
+        val request = MockServerHttpRequest.get("/people?age=35&sort=-age").build()
+
+        val names = BaradumWebFlux.flux(request) { Flux.fromIterable(baradum().get()) }.map { it.name }
+
+        StepVerifier.create(names)
+            .expectNext("Carla", "Bob")
+            .verifyComplete()
+    }
+
+    @Test
+    fun `the body of POST requests is read without blocking`() {
+        val request = MockServerHttpRequest.post("/people/search")
+            .body("""{"filters": [{"field": "name", "value": "Bob", "operator": "EQUAL"}]}""")
+
+        val result = BaradumWebFlux.mono(request) { Mono.just(baradum().useBody().get()) }
+
+        StepVerifier.create(result)
+            .expectNext(listOf(Person("Bob", 40)))
+            .verifyComplete()
+    }
+
+    @Test
+    fun `the body arrives in several buffers`() {
+        val factory = DefaultDataBufferFactory()
+        val chunks = listOf("""{"filters": [{"field": "age", """, """"value": "45", "operator": "GREATER"}]}""")
+        val request = MockServerHttpRequest.post("/people/search")
+            .body(Flux.fromIterable(chunks).map { factory.wrap(it.toByteArray()) })
+
+        val body = WebFluxRequest(request).getBodyAsync().join()
+
+        assertEquals("age", body.filters.single().field)
+        assertEquals("45", body.filters.single().value)
+    }
+
+    @Test
+    fun `bodies over the limit are rejected`() {
+        val request = MockServerHttpRequest.post("/people/search")
+            .body("""{"filters": [{"field": "name", "value": "Bob"}]}""")
+
+        val result = BaradumWebFlux.mono(request, BodyLimits(maxBytes = 16)) { Mono.just(baradum().useBody().get()) }
+
+        StepVerifier.create(result)
+            .expectError(BaradumException::class.java)
+            .verify()
+    }
+
+    @Test
+    fun `invalid bodies are error signals`() {
+        val request = MockServerHttpRequest.post("/people/search").body("{not json")
+
+        val result = BaradumWebFlux.mono(request) { Mono.just(baradum().useBody().get()) }
+
+        StepVerifier.create(result)
+            .expectError(BaradumException::class.java)
+            .verify()
+    }
+
+    @Test
+    fun `the request is only bound while the execution is called`() {
+        val request = MockServerHttpRequest.get("/people?name=Ana").build()
+        var bound: Any? = null
+
+        BaradumWebFlux.mono(request) {
+            bound = RequestContext.current()?.request
+            Mono.just(1)
+        }.block()
+
+        assertSame(request, bound)
+        assertNull(RequestContext.current())
+    }
+}
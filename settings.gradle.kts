@@ -2,5 +2,11 @@ rootProject.name = "Baradum"
 include("baradum-core")
 include("baradum-hefesto")
 include("baradum-querydsl")
+include("baradum-micrometer")
+include("baradum-columnar")
+include("baradum-jdbc")
+include("baradum-r2dbc")
+include("baradum-webflux")
 include("apache-tomcat")
+include("baradum-benchmarks")
 